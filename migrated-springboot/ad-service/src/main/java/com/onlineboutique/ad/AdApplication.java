@@ -0,0 +1,20 @@
+package com.onlineboutique.ad;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Ad Service Application.
+ * Migrated from: src/adservice/src/main/java/hipstershop/AdService.java
+ */
+@SpringBootApplication
+@EnableJpaRepositories
+@EnableScheduling
+public class AdApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(AdApplication.class, args);
+    }
+}
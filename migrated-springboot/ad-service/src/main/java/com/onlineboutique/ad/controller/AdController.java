@@ -0,0 +1,43 @@
+package com.onlineboutique.ad.controller;
+
+import com.onlineboutique.ad.service.AdService;
+import com.onlineboutique.common.model.Ad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for ad operations.
+ * Migrated from: src/adservice/src/main/java/hipstershop/AdService.java AdServiceImpl
+ */
+@RestController
+@RequestMapping("/api/v1/ads")
+public class AdController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdController.class);
+
+    @Autowired
+    private AdService adService;
+
+    /**
+     * Ads for the comma-separated context keys, random ads if none match
+     * Migrated from: GetAds gRPC method
+     */
+    @GetMapping
+    public ResponseEntity<List<Ad>> getAds(
+            @RequestParam(name = "context_keys", required = false, defaultValue = "") List<String> contextKeys) {
+        logger.debug("GET /api/v1/ads - context_keys={}", contextKeys);
+        List<String> keys = contextKeys.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .toList();
+        return ResponseEntity.ok(adService.getAds(keys));
+    }
+}
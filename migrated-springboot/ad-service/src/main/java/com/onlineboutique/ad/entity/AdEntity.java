@@ -0,0 +1,105 @@
+package com.onlineboutique.ad.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ad entity for JPA persistence.
+ * Migrated from: src/adservice/src/main/java/hipstershop/AdService.java createAdsMap
+ */
+@Entity
+@Table(name = "ads")
+public class AdEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "context_key", nullable = false, length = 255)
+    private String contextKey;
+    
+    @Column(name = "redirect_url", nullable = false, length = 500)
+    private String redirectUrl;
+    
+    @Column(name = "text", nullable = false, length = 500)
+    private String text;
+    
+    @Column(name = "active")
+    private Boolean active;
+    
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * Set by the database on insert and, through a trigger, on every update
+     */
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    public AdEntity() {}
+
+    public AdEntity(String contextKey, String redirectUrl, String text, Boolean active) {
+        this.contextKey = contextKey;
+        this.redirectUrl = redirectUrl;
+        this.text = text;
+        this.active = active;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContextKey() {
+        return contextKey;
+    }
+
+    public void setContextKey(String contextKey) {
+        this.contextKey = contextKey;
+    }
+
+    public String getRedirectUrl() {
+        return redirectUrl;
+    }
+
+    public void setRedirectUrl(String redirectUrl) {
+        this.redirectUrl = redirectUrl;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public boolean isActive() {
+        return Boolean.TRUE.equals(active);
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
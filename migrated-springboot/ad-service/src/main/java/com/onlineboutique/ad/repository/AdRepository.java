@@ -0,0 +1,38 @@
+package com.onlineboutique.ad.repository;
+
+import com.onlineboutique.ad.entity.AdEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ad repository for database operations.
+ * Only the snapshot refresh reads it; requests are served from memory.
+ */
+@Repository
+public interface AdRepository extends JpaRepository<AdEntity, Long> {
+    
+    /**
+     * All active ads, for a full snapshot load
+     */
+    List<AdEntity> findByActiveTrueOrderById();
+    
+    /**
+     * Ads inserted or updated at or after {@code since}, including ones deactivated since
+     */
+    @Query("SELECT a FROM AdEntity a WHERE a.updatedAt >= :since ORDER BY a.id")
+    List<AdEntity> findUpdatedSince(@Param("since") LocalDateTime since);
+    
+    long countByActiveTrue();
+    
+    /**
+     * Latest update time over all ads
+     */
+    @Query("SELECT MAX(a.updatedAt) FROM AdEntity a")
+    Optional<LocalDateTime> findLatestUpdate();
+}
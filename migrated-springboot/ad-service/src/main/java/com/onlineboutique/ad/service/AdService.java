@@ -0,0 +1,49 @@
+package com.onlineboutique.ad.service;
+
+import com.onlineboutique.common.model.Ad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ad selection for a page's context keys, answered from the current ad snapshot.
+ * Migrated from: src/adservice/src/main/java/hipstershop/AdService.java getAds
+ */
+@Service
+public class AdService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdService.class);
+
+    /**
+     * Random ads served when no context key has ads
+     */
+    @Value("${ad.max-random-ads:2}")
+    private int maxRandomAds;
+
+    @Autowired
+    private AdSnapshotService adSnapshotService;
+
+    /**
+     * Ads of all the context keys, or random ads if none of them has any
+     * Migrated from: GetAds gRPC method
+     */
+    public List<Ad> getAds(List<String> contextKeys) {
+        logger.debug("Getting ads for context keys {}", contextKeys);
+        AdSnapshot snapshot = adSnapshotService.current();
+        List<Ad> ads = List.of();
+        if (contextKeys.size() == 1) {
+            ads = snapshot.getAds(contextKeys.get(0));
+        } else if (contextKeys.size() > 1) {
+            ads = new ArrayList<>();
+            for (String contextKey : contextKeys) {
+                ads.addAll(snapshot.getAds(contextKey));
+            }
+        }
+        return ads.isEmpty() ? snapshot.getRandomAds(maxRandomAds) : ads;
+    }
+}
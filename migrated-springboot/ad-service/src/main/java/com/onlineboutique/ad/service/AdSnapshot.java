@@ -0,0 +1,103 @@
+package com.onlineboutique.ad.service;
+
+import com.onlineboutique.common.model.Ad;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable view of the active ads at one point in time: the ads of each context key,
+ * and all ads for random picks. Built off the request path and swapped in whole, so a
+ * lookup reads no database and takes no locks.
+ */
+public final class AdSnapshot {
+
+    static final AdSnapshot EMPTY = new AdSnapshot(0, Map.of(), List.of());
+
+    private final long version;
+    private final Map<String, List<Ad>> byContextKey;
+    private final List<Ad> all;
+
+    private AdSnapshot(long version, Map<String, List<Ad>> byContextKey, List<Ad> all) {
+        this.version = version;
+        this.byContextKey = byContextKey;
+        this.all = all;
+    }
+
+    /**
+     * Snapshot of {@code ads}, which are grouped by context key in iteration order
+     */
+    static AdSnapshot of(long version, Collection<AdRow> ads) {
+        Map<String, List<Ad>> grouped = new LinkedHashMap<>();
+        List<Ad> all = new ArrayList<>(ads.size());
+        for (AdRow row : ads) {
+            grouped.computeIfAbsent(row.contextKey(), key -> new ArrayList<>()).add(row.ad());
+            all.add(row.ad());
+        }
+        Map<String, List<Ad>> byContextKey = new LinkedHashMap<>();
+        grouped.forEach((key, keyAds) -> byContextKey.put(key, List.copyOf(keyAds)));
+        return new AdSnapshot(version, Map.copyOf(byContextKey), List.copyOf(all));
+    }
+
+    /**
+     * Increases whenever the set of ads changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Ads for one context key, empty if there are none
+     */
+    public List<Ad> getAds(String contextKey) {
+        return byContextKey.getOrDefault(contextKey, List.of());
+    }
+
+    /**
+     * Up to {@code count} distinct ads picked at random
+     */
+    public List<Ad> getRandomAds(int count) {
+        int n = Math.min(count, all.size());
+        if (n <= 0) {
+            return List.of();
+        }
+        if (n == all.size()) {
+            return all;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] picked = new int[n];
+        List<Ad> ads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int index;
+            do {
+                index = random.nextInt(all.size());
+            } while (contains(picked, i, index));
+            picked[i] = index;
+            ads.add(all.get(index));
+        }
+        return ads;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One active ad as loaded from the database
+     */
+    record AdRow(long id, String contextKey, Ad ad) {
+    }
+}
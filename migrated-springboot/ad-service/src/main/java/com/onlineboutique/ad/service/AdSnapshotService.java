@@ -0,0 +1,140 @@
+package com.onlineboutique.ad.service;
+
+import com.onlineboutique.ad.entity.AdEntity;
+import com.onlineboutique.ad.repository.AdRepository;
+import com.onlineboutique.ad.service.AdSnapshot.AdRow;
+import com.onlineboutique.common.model.Ad;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps an in-memory {@link AdSnapshot} of the active ads in the {@code ads} table.
+ * Every poll reads only the rows whose {@code updated_at} (maintained by a trigger) is at
+ * or after the last one seen, and swaps in a new snapshot if any ad changed. Deleted rows
+ * leave no trace to poll for, so a full reload also runs when the active row count stops
+ * matching the snapshot, and periodically as a backstop.
+ */
+@Component
+public class AdSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdSnapshotService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private AdRepository adRepository;
+
+    /**
+     * How far before the watermark each poll reads again, for rows whose transaction
+     * stamped {@code updated_at} before the last poll but committed after it
+     */
+    @Value("${ad.snapshot.overlap:10s}")
+    private Duration overlap;
+
+    @Value("${ad.snapshot.full-reload-interval:5m}")
+    private Duration fullReloadInterval;
+
+    private volatile AdSnapshot snapshot = AdSnapshot.EMPTY;
+
+    // State of the refresh, which runs on one thread at a time: the active ads by id, and
+    // the latest updated_at read from the table (null until the first load)
+    private final Map<Long, AdRow> rows = new TreeMap<>();
+    private LocalDateTime watermark;
+    private long lastFullReload;
+
+    /**
+     * Current snapshot; empty until the first load succeeds
+     */
+    public AdSnapshot current() {
+        return snapshot;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep starting up; the scheduled refresh retries
+            logger.warn("Initial ad snapshot load failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ad.snapshot.refresh-interval-ms:2000}")
+    public synchronized void refresh() {
+        if (watermark == null || System.nanoTime() - lastFullReload >= fullReloadInterval.toNanos()) {
+            reload();
+            return;
+        }
+        boolean changed = false;
+        LocalDateTime latest = watermark;
+        for (AdEntity entity : adRepository.findUpdatedSince(watermark.minus(overlap))) {
+            changed |= apply(entity);
+            if (entity.getUpdatedAt() != null && entity.getUpdatedAt().isAfter(latest)) {
+                latest = entity.getUpdatedAt();
+            }
+        }
+        if (adRepository.countByActiveTrue() != rows.size()) {
+            logger.debug("Active ad count differs from the snapshot, reloading");
+            reload();
+            return;
+        }
+        watermark = latest;
+        if (changed) {
+            publish();
+        }
+    }
+
+    /**
+     * Replace all rows with the active ads in the table
+     */
+    private void reload() {
+        // Read the watermark first, so updates racing with the load are read again next poll
+        LocalDateTime latest = adRepository.findLatestUpdate().orElse(EPOCH);
+        Map<Long, AdRow> loaded = new TreeMap<>();
+        for (AdEntity entity : adRepository.findByActiveTrueOrderById()) {
+            loaded.put(entity.getId(), toRow(entity));
+        }
+        boolean changed = watermark == null || !loaded.equals(rows);
+        rows.clear();
+        rows.putAll(loaded);
+        watermark = latest;
+        lastFullReload = System.nanoTime();
+        if (changed) {
+            publish();
+        }
+    }
+
+    /**
+     * Merge one inserted or updated row
+     *
+     * @return true if the active ads changed
+     */
+    private boolean apply(AdEntity entity) {
+        if (!entity.isActive()) {
+            return rows.remove(entity.getId()) != null;
+        }
+        AdRow row = toRow(entity);
+        return !Objects.equals(rows.put(entity.getId(), row), row);
+    }
+
+    private void publish() {
+        AdSnapshot next = AdSnapshot.of(snapshot.getVersion() + 1, rows.values());
+        snapshot = next;
+        logger.info("Ad snapshot v{}: {} active ads, updated up to {}", next.getVersion(), next.size(), watermark);
+    }
+
+    private static AdRow toRow(AdEntity entity) {
+        return new AdRow(entity.getId(), entity.getContextKey(), new Ad(entity.getRedirectUrl(), entity.getText()));
+    }
+}
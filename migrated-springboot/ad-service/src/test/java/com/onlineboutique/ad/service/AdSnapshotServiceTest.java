@@ -0,0 +1,137 @@
+package com.onlineboutique.ad.service;
+
+import com.onlineboutique.ad.entity.AdEntity;
+import com.onlineboutique.ad.repository.AdRepository;
+import com.onlineboutique.common.model.Ad;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AdSnapshotService.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdSnapshotServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private AdRepository adRepository;
+
+    @InjectMocks
+    private AdSnapshotService adSnapshotService;
+
+    private AdEntity electronics;
+    private AdEntity kitchen;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(adSnapshotService, "overlap", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(adSnapshotService, "fullReloadInterval", Duration.ofMinutes(5));
+
+        electronics = ad(1L, "electronics", "/product/1", "Electronics Sale", T0);
+        kitchen = ad(2L, "kitchen", "/product/2", "Kitchen Essentials", T0);
+
+        when(adRepository.findLatestUpdate()).thenReturn(Optional.of(T0));
+        when(adRepository.findByActiveTrueOrderById()).thenReturn(List.of(electronics, kitchen));
+        adSnapshotService.refresh();
+    }
+
+    @Test
+    void testInitialLoad() {
+        AdSnapshot snapshot = adSnapshotService.current();
+
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(2, snapshot.size());
+        assertEquals(List.of(new Ad("/product/1", "Electronics Sale")), snapshot.getAds("electronics"));
+        assertTrue(snapshot.getAds("clothing").isEmpty());
+    }
+
+    @Test
+    void testRefreshWithoutChangesKeepsSnapshot() {
+        AdSnapshot before = adSnapshotService.current();
+        when(adRepository.findUpdatedSince(T0.minusSeconds(10))).thenReturn(List.of(electronics, kitchen));
+        when(adRepository.countByActiveTrue()).thenReturn(2L);
+
+        adSnapshotService.refresh();
+
+        assertSame(before, adSnapshotService.current());
+        verify(adRepository, times(1)).findByActiveTrueOrderById();
+    }
+
+    @Test
+    void testRefreshAppliesUpdatedRows() {
+        AdEntity updated = ad(1L, "electronics", "/product/1", "Electronics Clearance", T0.plusSeconds(5));
+        AdEntity added = ad(3L, "electronics", "/product/3", "New Headphones", T0.plusSeconds(6));
+        when(adRepository.findUpdatedSince(T0.minusSeconds(10))).thenReturn(List.of(updated, added));
+        when(adRepository.countByActiveTrue()).thenReturn(3L);
+
+        adSnapshotService.refresh();
+
+        AdSnapshot snapshot = adSnapshotService.current();
+        assertEquals(2, snapshot.getVersion());
+        assertEquals(List.of(new Ad("/product/1", "Electronics Clearance"), new Ad("/product/3", "New Headphones")),
+                snapshot.getAds("electronics"));
+        verify(adRepository, times(1)).findByActiveTrueOrderById();
+
+        // The next poll reads from the latest updated_at seen
+        when(adRepository.findUpdatedSince(T0.plusSeconds(6).minusSeconds(10))).thenReturn(List.of(added));
+        adSnapshotService.refresh();
+        assertSame(snapshot, adSnapshotService.current());
+    }
+
+    @Test
+    void testRefreshRemovesDeactivatedRows() {
+        AdEntity deactivated = ad(2L, "kitchen", "/product/2", "Kitchen Essentials", T0.plusSeconds(5));
+        deactivated.setActive(false);
+        when(adRepository.findUpdatedSince(any())).thenReturn(List.of(deactivated));
+        when(adRepository.countByActiveTrue()).thenReturn(1L);
+
+        adSnapshotService.refresh();
+
+        assertEquals(1, adSnapshotService.current().size());
+        assertTrue(adSnapshotService.current().getAds("kitchen").isEmpty());
+    }
+
+    @Test
+    void testRefreshReloadsWhenRowsWereDeleted() {
+        when(adRepository.findUpdatedSince(any())).thenReturn(List.of());
+        when(adRepository.countByActiveTrue()).thenReturn(1L);
+        when(adRepository.findByActiveTrueOrderById()).thenReturn(List.of(electronics));
+
+        adSnapshotService.refresh();
+
+        assertEquals(1, adSnapshotService.current().size());
+        assertTrue(adSnapshotService.current().getAds("kitchen").isEmpty());
+        verify(adRepository, times(2)).findByActiveTrueOrderById();
+    }
+
+    @Test
+    void testRandomAdsAreDistinct() {
+        List<Ad> ads = adSnapshotService.current().getRandomAds(2);
+
+        assertEquals(2, ads.size());
+        assertNotEquals(ads.get(0), ads.get(1));
+        assertEquals(2, adSnapshotService.current().getRandomAds(5).size());
+    }
+
+    private static AdEntity ad(Long id, String contextKey, String redirectUrl, String text, LocalDateTime updatedAt) {
+        AdEntity entity = new AdEntity(contextKey, redirectUrl, text, true);
+        entity.setId(id);
+        entity.setUpdatedAt(updatedAt);
+        return entity;
+    }
+}
@@ -0,0 +1,66 @@
+package com.onlineboutique.cart.grpc;
+
+import com.onlineboutique.cart.service.CartService;
+import com.onlineboutique.common.grpc.GrpcResponses;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.v1.AddItemRequest;
+import com.onlineboutique.common.grpc.v1.CartItem;
+import com.onlineboutique.common.grpc.v1.CartServiceGrpc;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.EmptyCartRequest;
+import com.onlineboutique.common.grpc.v1.GetCartRequest;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cart gRPC endpoint, the internal counterpart of CartController.
+ * Migrated from: src/cartservice/src/services/CartService.cs gRPC endpoints
+ */
+@Component
+public class CartGrpcService extends CartServiceGrpc.CartServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartGrpcService.class);
+
+    private static final Empty EMPTY = Empty.getDefaultInstance();
+
+    @Autowired
+    private CartService cartService;
+
+    /**
+     * Migrated from: AddItem gRPC method
+     */
+    @Override
+    public void addItem(AddItemRequest request, StreamObserver<Empty> responseObserver) {
+        logger.info("Adding item {} with quantity {} to cart for user {} over gRPC",
+                request.getItem().getProductId(), request.getItem().getQuantity(), request.getUserId());
+        GrpcResponses.unary(responseObserver, () -> {
+            cartService.addItem(request.getUserId(), ProtoMapper.fromProto(request.getItem()));
+            return EMPTY;
+        });
+    }
+
+    /**
+     * Migrated from: GetCart gRPC method
+     */
+    @Override
+    public void getCart(GetCartRequest request, StreamObserver<CartItem> responseObserver) {
+        logger.info("Getting cart for user {} over gRPC", request.getUserId());
+        GrpcResponses.stream(responseObserver,
+                () -> cartService.getCart(request.getUserId()).stream().map(ProtoMapper::toProto).toList());
+    }
+
+    /**
+     * Migrated from: EmptyCart gRPC method
+     */
+    @Override
+    public void emptyCart(EmptyCartRequest request, StreamObserver<Empty> responseObserver) {
+        logger.info("Emptying cart for user {} over gRPC", request.getUserId());
+        GrpcResponses.unary(responseObserver, () -> {
+            cartService.emptyCart(request.getUserId());
+            return EMPTY;
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.onlineboutique.cart.grpc;
+
+import com.onlineboutique.cart.service.CartService;
+import com.onlineboutique.common.grpc.GrpcServer;
+import com.onlineboutique.common.grpc.v1.AddItemRequest;
+import com.onlineboutique.common.grpc.v1.CartItem;
+import com.onlineboutique.common.grpc.v1.CartServiceGrpc;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.EmptyCartRequest;
+import com.onlineboutique.common.grpc.v1.GetCartRequest;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Contract tests for the cart gRPC endpoint: messages and status codes on the wire, with
+ * the service layer mocked.
+ */
+class CartGrpcServiceContractTest {
+
+    private final CartService cartService = mock(CartService.class);
+
+    private GrpcServer grpcServer;
+
+    private ManagedChannel channel;
+
+    private CartServiceGrpc.CartServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() {
+        CartGrpcService service = new CartGrpcService();
+        ReflectionTestUtils.setField(service, "cartService", cartService);
+        grpcServer = new GrpcServer(0, DataSize.ofMegabytes(4), Duration.ofMinutes(1), Duration.ZERO,
+                List.of(service), new SimpleMeterRegistry());
+        grpcServer.start();
+
+        channel = Grpc.newChannelBuilder("localhost:" + grpcServer.getPort(), InsecureChannelCredentials.create()).build();
+        stub = CartServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        grpcServer.stop();
+    }
+
+    @Test
+    void testGetCartStreamsEveryItem() {
+        // Given
+        when(cartService.getCart("user-1")).thenReturn(List.of(
+                new com.onlineboutique.common.model.CartItem("OLJCESPC7Z", 2),
+                new com.onlineboutique.common.model.CartItem("66VCHSJNUP", 1)));
+
+        // When
+        List<CartItem> items = new ArrayList<>();
+        stub.getCart(GetCartRequest.newBuilder().setUserId("user-1").build()).forEachRemaining(items::add);
+
+        // Then
+        assertEquals(List.of(
+                CartItem.newBuilder().setProductId("OLJCESPC7Z").setQuantity(2).build(),
+                CartItem.newBuilder().setProductId("66VCHSJNUP").setQuantity(1).build()), items);
+    }
+
+    @Test
+    void testGetEmptyCartCompletesWithoutItems() {
+        // Given
+        when(cartService.getCart("user-1")).thenReturn(List.of());
+
+        // When / Then
+        assertFalse(stub.getCart(GetCartRequest.newBuilder().setUserId("user-1").build()).hasNext());
+    }
+
+    @Test
+    void testAddItemContract() {
+        // When
+        Empty response = stub.addItem(AddItemRequest.newBuilder()
+                .setUserId("user-1")
+                .setItem(CartItem.newBuilder().setProductId("OLJCESPC7Z").setQuantity(3))
+                .build());
+
+        // Then
+        assertEquals(Empty.getDefaultInstance(), response);
+        verify(cartService).addItem(eq("user-1"),
+                argThat(item -> "OLJCESPC7Z".equals(item.getProductId()) && item.getQuantity() == 3));
+    }
+
+    @Test
+    void testInvalidItemIsInvalidArgument() {
+        // Given
+        doThrow(new IllegalArgumentException("Quantity must be positive"))
+                .when(cartService).addItem(anyString(), any());
+
+        // When
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () -> stub.addItem(
+                AddItemRequest.newBuilder()
+                        .setUserId("user-1")
+                        .setItem(CartItem.newBuilder().setProductId("OLJCESPC7Z").setQuantity(-1))
+                        .build()));
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+    }
+
+    @Test
+    void testEmptyCartContract() {
+        // When
+        Empty response = stub.emptyCart(EmptyCartRequest.newBuilder().setUserId("user-1").build());
+
+        // Then
+        assertEquals(Empty.getDefaultInstance(), response);
+        verify(cartService).emptyCart("user-1");
+    }
+
+    @Test
+    void testServiceFailureIsInternal() {
+        // Given
+        when(cartService.getCart("user-1")).thenThrow(new IllegalStateException("database down"));
+
+        // When
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> stub.getCart(GetCartRequest.newBuilder().setUserId("user-1").build()).hasNext());
+
+        // Then
+        assertEquals(Status.Code.INTERNAL, error.getStatus().getCode());
+    }
+}
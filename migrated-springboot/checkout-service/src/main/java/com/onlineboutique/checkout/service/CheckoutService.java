@@ -1,15 +1,22 @@
 package com.onlineboutique.checkout.service;
 
+import com.onlineboutique.common.client.DownstreamClient;
+import com.onlineboutique.common.client.DownstreamClients;
+import com.onlineboutique.common.grpc.GrpcCalls;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.v1.CartServiceGrpc;
+import com.onlineboutique.common.grpc.v1.CurrencyServiceGrpc;
+import com.onlineboutique.common.grpc.v1.EmptyCartRequest;
+import com.onlineboutique.common.grpc.v1.GetCartRequest;
+import com.onlineboutique.common.grpc.v1.GetProductRequest;
+import com.onlineboutique.common.grpc.v1.ProductCatalogServiceGrpc;
 import com.onlineboutique.common.model.*;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,6 +24,8 @@ import java.util.UUID;
 
 /**
  * Checkout service for order orchestration.
+ * Cart, catalog and currency calls use the internal gRPC API instead of REST when their
+ * client's transport is {@code grpc}.
  * Migrated from: src/checkoutservice/main.go checkout logic
  */
 @Service
@@ -25,26 +34,25 @@ public class CheckoutService {
     
     private static final Logger logger = LoggerFactory.getLogger(CheckoutService.class);
     
-    @Value("${services.cart.url:http://localhost:3552}")
-    private String cartServiceUrl;
-    
-    @Value("${services.product-catalog.url:http://localhost:3550}")
-    private String productCatalogServiceUrl;
-    
-    @Value("${services.currency.url:http://localhost:3551}")
-    private String currencyServiceUrl;
-    
-    @Value("${services.payment.url:http://localhost:3554}")
-    private String paymentServiceUrl;
-    
-    @Value("${services.shipping.url:http://localhost:3555}")
-    private String shippingServiceUrl;
+    @Autowired
+    private DownstreamClients downstreamClients;
     
-    @Value("${services.email.url:http://localhost:3556}")
-    private String emailServiceUrl;
+    private DownstreamClient cartService;
+    private DownstreamClient productCatalogService;
+    private DownstreamClient currencyService;
+    private DownstreamClient paymentService;
+    private DownstreamClient shippingService;
+    private DownstreamClient emailService;
     
-    @Autowired
-    private WebClient.Builder webClientBuilder;
+    @PostConstruct
+    public void init() {
+        cartService = downstreamClients.get("cart");
+        productCatalogService = downstreamClients.get("product-catalog");
+        currencyService = downstreamClients.get("currency");
+        paymentService = downstreamClients.get("payment");
+        shippingService = downstreamClients.get("shipping");
+        emailService = downstreamClients.get("email");
+    }
     
     /**
      * Place order - orchestrate the complete checkout process
@@ -103,15 +111,65 @@ public class CheckoutService {
      */
     private List<CartItem> getCartItems(String userId) {
         logger.debug("Fetching cart items for user: {}", userId);
-        return webClientBuilder.build()
-                .get()
-                .uri(cartServiceUrl + "/api/v1/cart/{userId}", userId)
-                .retrieve()
-                .bodyToFlux(CartItem.class)
+        if (cartService.isGrpc()) {
+            GetCartRequest request = GetCartRequest.newBuilder().setUserId(userId).build();
+            return cartService.executeGrpcMany("get-cart", channel -> GrpcCalls.serverStreaming(
+                            CartServiceGrpc.newStub(channel)::getCart, request))
+                    .map(ProtoMapper::fromProto)
+                    .collectList()
+                    .block();
+        }
+        return cartService.executeMany("get-cart", client -> client
+                        .get()
+                        .uri("/api/v1/cart/{userId}", userId)
+                        .retrieve()
+                        .bodyToFlux(CartItem.class))
                 .collectList()
                 .block();
     }
     
+    /**
+     * Get product details from product catalog service
+     */
+    private Product getProduct(String productId) {
+        if (productCatalogService.isGrpc()) {
+            GetProductRequest request = GetProductRequest.newBuilder().setId(productId).build();
+            return productCatalogService.executeGrpc("get-product", channel -> GrpcCalls.unary(
+                            ProductCatalogServiceGrpc.newStub(channel)::getProduct, request))
+                    .map(ProtoMapper::fromProto)
+                    .block();
+        }
+        return productCatalogService.execute("get-product", client -> client
+                        .get()
+                        .uri("/api/v1/products/{id}", productId)
+                        .retrieve()
+                        .bodyToMono(Product.class))
+                .block();
+    }
+    
+    /**
+     * Convert money to the user's currency with currency service
+     */
+    private Money convert(Money from, String toCurrency) {
+        if (currencyService.isGrpc()) {
+            com.onlineboutique.common.grpc.v1.ConvertRequest request = com.onlineboutique.common.grpc.v1.ConvertRequest.newBuilder()
+                    .setFrom(ProtoMapper.toProto(from))
+                    .setToCode(toCurrency)
+                    .build();
+            return currencyService.executeGrpc("convert", channel -> GrpcCalls.unary(
+                            CurrencyServiceGrpc.newStub(channel)::convert, request))
+                    .map(ProtoMapper::fromProto)
+                    .block();
+        }
+        return currencyService.execute("convert", client -> client
+                        .post()
+                        .uri("/api/v1/currency/convert")
+                        .bodyValue(new ConvertRequest(from, toCurrency))
+                        .retrieve()
+                        .bodyToMono(Money.class))
+                .block();
+    }
+    
     /**
      * Calculate order items with product details and converted prices
      */
@@ -121,25 +179,14 @@ public class CheckoutService {
         return cartItems.stream()
                 .map(cartItem -> {
                     // Get product details
-                    Product product = webClientBuilder.build()
-                            .get()
-                            .uri(productCatalogServiceUrl + "/api/v1/products/{id}", cartItem.getProductId())
-                            .retrieve()
-                            .bodyToMono(Product.class)
-                            .block();
+                    Product product = getProduct(cartItem.getProductId());
                     
                     if (product == null) {
                         throw new IllegalArgumentException("Product not found: " + cartItem.getProductId());
                     }
                     
                     // Convert price to user currency
-                    Money convertedPrice = webClientBuilder.build()
-                            .post()
-                            .uri(currencyServiceUrl + "/api/v1/currency/convert")
-                            .bodyValue(new ConvertRequest(product.getPriceUsd(), userCurrency))
-                            .retrieve()
-                            .bodyToMono(Money.class)
-                            .block();
+                    Money convertedPrice = convert(product.getPriceUsd(), userCurrency);
                     
                     // Calculate total cost for this item
                     Money itemCost = convertedPrice.multiply(BigDecimal.valueOf(cartItem.getQuantity()));
@@ -177,12 +224,13 @@ public class CheckoutService {
         chargeRequest.setAmount(amount);
         chargeRequest.setCreditCard(creditCard);
         
-        ChargeResponse response = webClientBuilder.build()
-                .post()
-                .uri(paymentServiceUrl + "/api/v1/payment/charge")
-                .bodyValue(chargeRequest)
-                .retrieve()
-                .bodyToMono(ChargeResponse.class)
+        // Never retried: a charge whose response was lost may still have gone through
+        ChargeResponse response = paymentService.executeOnce("charge", client -> client
+                        .post()
+                        .uri("/api/v1/payment/charge")
+                        .bodyValue(chargeRequest)
+                        .retrieve()
+                        .bodyToMono(ChargeResponse.class))
                 .block();
         
         return response.getTransactionId();
@@ -198,12 +246,12 @@ public class CheckoutService {
         quoteRequest.setAddress(address);
         quoteRequest.setItems(cartItems);
         
-        ShippingQuoteResponse response = webClientBuilder.build()
-                .post()
-                .uri(shippingServiceUrl + "/api/v1/shipping/quote")
-                .bodyValue(quoteRequest)
-                .retrieve()
-                .bodyToMono(ShippingQuoteResponse.class)
+        ShippingQuoteResponse response = shippingService.execute("quote", client -> client
+                        .post()
+                        .uri("/api/v1/shipping/quote")
+                        .bodyValue(quoteRequest)
+                        .retrieve()
+                        .bodyToMono(ShippingQuoteResponse.class))
                 .block();
         
         return response.getCostUsd();
@@ -224,12 +272,12 @@ public class CheckoutService {
         confirmationRequest.setShippingAddress(address);
         confirmationRequest.setItems(items);
         
-        webClientBuilder.build()
-                .post()
-                .uri(emailServiceUrl + "/api/v1/email/send-confirmation")
-                .bodyValue(confirmationRequest)
-                .retrieve()
-                .bodyToMono(Void.class)
+        emailService.executeOnce("send-confirmation", client -> client
+                        .post()
+                        .uri("/api/v1/email/send-confirmation")
+                        .bodyValue(confirmationRequest)
+                        .retrieve()
+                        .bodyToMono(Void.class))
                 .block();
     }
     
@@ -239,11 +287,18 @@ public class CheckoutService {
     private void emptyCart(String userId) {
         logger.debug("Emptying cart for user: {}", userId);
         
-        webClientBuilder.build()
-                .delete()
-                .uri(cartServiceUrl + "/api/v1/cart/{userId}", userId)
-                .retrieve()
-                .bodyToMono(Void.class)
+        if (cartService.isGrpc()) {
+            EmptyCartRequest request = EmptyCartRequest.newBuilder().setUserId(userId).build();
+            cartService.executeGrpc("empty-cart", channel -> GrpcCalls.unary(
+                            CartServiceGrpc.newStub(channel)::emptyCart, request))
+                    .block();
+            return;
+        }
+        cartService.execute("empty-cart", client -> client
+                        .delete()
+                        .uri("/api/v1/cart/{userId}", userId)
+                        .retrieve()
+                        .bodyToMono(Void.class))
                 .block();
     }
     
@@ -0,0 +1,197 @@
+package com.onlineboutique.checkout.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.client.DownstreamClients;
+import com.onlineboutique.common.model.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CheckoutService against stubbed backends, covering how its downstream
+ * calls are retried
+ */
+class CheckoutServiceTest {
+
+    private static final String GET_PRODUCT = "GET /api/v1/products/OLJCESPC7Z";
+    private static final String CHARGE = "POST /api/v1/payment/charge";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("services.cart.url", "http://cart")
+            .withProperty("services.product-catalog.url", "http://product-catalog")
+            .withProperty("services.currency.url", "http://currency")
+            .withProperty("services.payment.url", "http://payment")
+            .withProperty("services.shipping.url", "http://shipping")
+            .withProperty("services.email.url", "http://email")
+            .withProperty("downstream.defaults.retry.max-attempts", "3")
+            .withProperty("downstream.defaults.retry.initial-backoff", "1ms")
+            .withProperty("downstream.defaults.retry.max-backoff", "5ms");
+
+    /**
+     * Requests received, by method and path
+     */
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Requests still to be answered with 503, by method and path
+     */
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    private DownstreamClients downstreamClients;
+
+    @AfterEach
+    void tearDown() {
+        if (downstreamClients != null) {
+            downstreamClients.destroy();
+        }
+    }
+
+    /**
+     * Service whose clients are configured from {@link #environment} as it is now
+     */
+    private CheckoutService checkoutService() {
+        downstreamClients = new DownstreamClients(environment,
+                WebClient.builder().exchangeFunction(this::exchange), meterRegistry);
+        CheckoutService checkoutService = new CheckoutService();
+        ReflectionTestUtils.setField(checkoutService, "downstreamClients", downstreamClients);
+        checkoutService.init();
+        return checkoutService;
+    }
+
+    private void failNext(String request, int times) {
+        failures.put(request, new AtomicInteger(times));
+    }
+
+    private int requests(String request) {
+        AtomicInteger count = requests.get(request);
+        return count == null ? 0 : count.get();
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        String key = request.method() + " " + request.url().getPath();
+        requests.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        AtomicInteger failing = failures.get(key);
+        if (failing != null && failing.getAndDecrement() > 0) {
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        Object body = switch (key) {
+            case "GET /api/v1/cart/user-1" -> List.of(new CartItem("OLJCESPC7Z", 2));
+            case GET_PRODUCT -> new Product("OLJCESPC7Z", "Sunglasses", "Add a modern touch to your outfits.",
+                    "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), new String[] {"accessories"});
+            case "POST /api/v1/currency/convert" -> new Money("USD", 19L, 990000000);
+            case CHARGE -> transaction("tx-1");
+            case "POST /api/v1/shipping/quote" -> quote(new Money("USD", 8L, 990000000));
+            default -> null;
+        };
+        try {
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body == null ? "" : objectMapper.writeValueAsString(body))
+                    .build());
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static CheckoutService.ChargeResponse transaction(String id) {
+        CheckoutService.ChargeResponse response = new CheckoutService.ChargeResponse();
+        response.setTransactionId(id);
+        return response;
+    }
+
+    private static CheckoutService.ShippingQuoteResponse quote(Money cost) {
+        CheckoutService.ShippingQuoteResponse response = new CheckoutService.ShippingQuoteResponse();
+        response.setCostUsd(cost);
+        return response;
+    }
+
+    private static PlaceOrderRequest order() {
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setUserId("user-1");
+        request.setUserCurrency("USD");
+        request.setEmail("someone@example.com");
+        request.setAddress(new Address("1600 Amphitheatre Parkway", "Mountain View", "CA", "US", 94043));
+        request.setCreditCard(new CreditCardInfo("4432-8015-6152-0454", 672, 2030, 1));
+        return request;
+    }
+
+    @Test
+    void testPlaceOrder() {
+        // When
+        OrderResult result = checkoutService().placeOrder(order());
+
+        // Then
+        assertNotNull(result.getOrderId());
+        assertEquals(1, result.getItems().size());
+        assertEquals(1, requests(CHARGE));
+        assertEquals(1, requests("POST /api/v1/email/send-confirmation"));
+        assertEquals(1, requests("DELETE /api/v1/cart/user-1"));
+    }
+
+    @Test
+    void testTransientCatalogFailureIsRetried() {
+        // Given
+        failNext(GET_PRODUCT, 1);
+
+        // When
+        OrderResult result = checkoutService().placeOrder(order());
+
+        // Then
+        assertNotNull(result.getOrderId());
+        assertEquals(2, requests(GET_PRODUCT));
+        assertEquals(1, meterRegistry.counter("downstream.client.retries",
+                "client", "product-catalog", "result", "attempted").count());
+    }
+
+    @Test
+    void testChargeIsNeverRetried() {
+        // Given - a charge whose response was lost may still have gone through
+        failNext(CHARGE, 1);
+
+        // When
+        assertThrows(RuntimeException.class, () -> checkoutService().placeOrder(order()));
+
+        // Then - and the order stops there
+        assertEquals(1, requests(CHARGE));
+        assertEquals(0, requests("POST /api/v1/email/send-confirmation"));
+        assertEquals(0, requests("DELETE /api/v1/cart/user-1"));
+    }
+
+    @Test
+    void testExhaustedRetryBudgetFailsOrder() {
+        // Given - no budget for retries at all
+        environment.withProperty("downstream.clients.product-catalog.retry.budget-ratio", "0")
+                .withProperty("downstream.clients.product-catalog.retry.min-retries-per-second", "0");
+        failNext(GET_PRODUCT, 1);
+
+        // When
+        assertThrows(RuntimeException.class, () -> checkoutService().placeOrder(order()));
+
+        // Then
+        assertEquals(1, requests(GET_PRODUCT));
+        assertEquals(1, meterRegistry.counter("downstream.client.retries",
+                "client", "product-catalog", "result", "rejected").count());
+        assertEquals(0, requests(CHARGE));
+    }
+}
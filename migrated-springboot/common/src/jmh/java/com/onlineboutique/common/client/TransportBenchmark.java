@@ -0,0 +1,221 @@
+package com.onlineboutique.common.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.grpc.GrpcCalls;
+import com.onlineboutique.common.grpc.GrpcResponses;
+import com.onlineboutique.common.grpc.GrpcServer;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.GetProductRequest;
+import com.onlineboutique.common.grpc.v1.ProductCatalogServiceGrpc;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.common.wire.WireFormat;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the same catalog calls made through {@link DownstreamClient} over REST with
+ * JSON, REST with Smile and gRPC, against loopback servers that answer from pre-encoded
+ * responses the way the catalog service does. Includes client pooling, timeouts and
+ * metrics, so the numbers compare the transports as services use them.
+ * {@code concurrent} runs 16 callers at once, where gRPC multiplexes one connection and
+ * REST spreads calls over its pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransportBenchmark {
+
+    private static final String PRODUCT_ID = "OLJCESPC7Z";
+
+    private static final ParameterizedTypeReference<List<ProductSummary>> SUMMARY_LIST = new ParameterizedTypeReference<>() {};
+
+    @Param({"rest-json", "rest-smile", "grpc"})
+    public String transport;
+
+    @Param({"product", "summaries"})
+    public String call;
+
+    private DisposableServer httpServer;
+    private GrpcServer grpcServer;
+    private DownstreamClients clients;
+    private DownstreamClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Product product = product();
+        List<ProductSummary> summaries = summaries();
+
+        Map<WireFormat, byte[]> productBodies = new HashMap<>();
+        Map<WireFormat, byte[]> summaryBodies = new HashMap<>();
+        for (WireFormat format : WireFormat.values()) {
+            productBodies.put(format, format.mapper(objectMapper).writeValueAsBytes(product));
+            summaryBodies.put(format, format.mapper(objectMapper).writeValueAsBytes(summaries));
+        }
+        httpServer = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/v1/products/summaries", (request, response) -> {
+                            WireFormat format = WireFormat.negotiate(request.requestHeaders().get(HttpHeaders.ACCEPT));
+                            return response.header(HttpHeaders.CONTENT_TYPE, format.getMediaType().toString())
+                                    .sendByteArray(Mono.just(summaryBodies.get(format)));
+                        })
+                        .get("/api/v1/products/{id}", (request, response) -> {
+                            WireFormat format = WireFormat.negotiate(request.requestHeaders().get(HttpHeaders.ACCEPT));
+                            return response.header(HttpHeaders.CONTENT_TYPE, format.getMediaType().toString())
+                                    .sendByteArray(Mono.just(productBodies.get(format)));
+                        }))
+                .bindNow();
+
+        grpcServer = new GrpcServer(0, DataSize.ofMegabytes(4), Duration.ofSeconds(10), Duration.ofSeconds(1),
+                List.of(new CatalogStub(product, summaries)), new SimpleMeterRegistry());
+        grpcServer.start();
+
+        String url = "http://127.0.0.1:" + httpServer.port();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("downstream.defaults.url", url);
+        properties.put("downstream.defaults.timeout", "5s");
+        properties.put("downstream.clients.rest-smile.wire-format", "smile");
+        properties.put("downstream.clients.grpc.transport", "grpc");
+        properties.put("downstream.clients.grpc.grpc-target", "dns:///127.0.0.1:" + grpcServer.getPort());
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+
+        ObjectMapper smileMapper = WireFormat.SMILE.mapper(objectMapper);
+        WebClient.Builder webClientBuilder = WebClient.builder().codecs(codecs -> {
+            codecs.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, WireFormat.SMILE.getMediaType()));
+            codecs.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, WireFormat.SMILE.getMediaType()));
+        });
+        clients = new DownstreamClients(environment, webClientBuilder, new SimpleMeterRegistry());
+        client = clients.get(transport);
+        // Open connections before measuring
+        call();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clients.destroy();
+        grpcServer.stop();
+        httpServer.disposeNow();
+    }
+
+    @Benchmark
+    public Object single() {
+        return call();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object concurrent() {
+        return call();
+    }
+
+    private Object call() {
+        if (client.isGrpc()) {
+            return switch (call) {
+                case "product" -> client.executeGrpc("get-product", channel -> GrpcCalls.unary(
+                                ProductCatalogServiceGrpc.newStub(channel)::getProduct,
+                                GetProductRequest.newBuilder().setId(PRODUCT_ID).build()))
+                        .map(ProtoMapper::fromProto)
+                        .block();
+                case "summaries" -> client.executeGrpcMany("list-product-summaries", channel -> GrpcCalls.serverStreaming(
+                                ProductCatalogServiceGrpc.newStub(channel)::listProductSummaries, Empty.getDefaultInstance()))
+                        .map(ProtoMapper::fromProto)
+                        .collectList()
+                        .block();
+                default -> throw new IllegalArgumentException("Unknown call " + call);
+            };
+        }
+        return switch (call) {
+            case "product" -> client.execute("get-product", webClient -> webClient
+                            .get()
+                            .uri("/api/v1/products/{id}", PRODUCT_ID)
+                            .retrieve()
+                            .bodyToMono(Product.class))
+                    .block();
+            case "summaries" -> client.execute("list-product-summaries", webClient -> webClient
+                            .get()
+                            .uri("/api/v1/products/summaries")
+                            .retrieve()
+                            .bodyToMono(SUMMARY_LIST))
+                    .block();
+            default -> throw new IllegalArgumentException("Unknown call " + call);
+        };
+    }
+
+    /**
+     * Catalog gRPC endpoint answering from converted messages, like the catalog's proto cache
+     */
+    private static class CatalogStub extends ProductCatalogServiceGrpc.ProductCatalogServiceImplBase {
+
+        private final com.onlineboutique.common.grpc.v1.Product product;
+        private final List<com.onlineboutique.common.grpc.v1.ProductSummary> summaries;
+
+        CatalogStub(Product product, List<ProductSummary> summaries) {
+            this.product = ProtoMapper.toProto(product);
+            this.summaries = summaries.stream().map(ProtoMapper::toProto).toList();
+        }
+
+        @Override
+        public void getProduct(GetProductRequest request, StreamObserver<com.onlineboutique.common.grpc.v1.Product> responseObserver) {
+            GrpcResponses.unary(responseObserver, () -> product);
+        }
+
+        @Override
+        public void listProductSummaries(Empty request, StreamObserver<com.onlineboutique.common.grpc.v1.ProductSummary> responseObserver) {
+            GrpcResponses.stream(responseObserver, () -> summaries);
+        }
+    }
+
+    static Product product() {
+        return new Product(PRODUCT_ID, "Sunglasses",
+                "Add a modern touch to your outfits with these sleek aviator sunglasses.",
+                "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), new String[] {"accessories"});
+    }
+
+    /**
+     * The 100-product list the frontend fetches for its home page
+     */
+    static List<ProductSummary> summaries() {
+        List<ProductSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            summaries.add(new ProductSummary(String.format("P%09d", i), "Product " + i,
+                    "/static/img/products/product-" + i + ".jpg",
+                    new Money("USD", 10L + i, 990000000), List.of("kitchen", "accessories")));
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,94 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.onlineboutique.common.model.Address;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.OrderItem;
+import com.onlineboutique.common.model.OrderResult;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.wire.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of writing and reading the common models with plain databind and with
+ * {@link ModelsModule}, in JSON and Smile. Run with the {@code gc} profiler (the default
+ * for this module) for bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModelSerializationBenchmark {
+
+    @Param({"money", "cartItem", "orderItem", "address", "product", "orderResult"})
+    public String model;
+
+    @Param({"databind", "module"})
+    public String serializers;
+
+    @Param({"json", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        if ("module".equals(serializers)) {
+            objectMapper.registerModule(new ModelsModule());
+        }
+        ObjectMapper mapper = WireFormat.valueOf(format.toUpperCase()).mapper(objectMapper);
+        value = value(model);
+        writer = mapper.writerFor(value.getClass());
+        reader = mapper.readerFor(value.getClass());
+        encoded = writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object read() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    static Object value(String model) {
+        Money price = new Money("USD", 19L, 990000000);
+        CartItem cartItem = new CartItem("OLJCESPC7Z", 3);
+        OrderItem orderItem = new OrderItem(cartItem, new Money("EUR", 52L, 760000000));
+        Address address = new Address("1600 Amphitheatre Parkway", "Mountain View", "CA", "United States", 94043);
+        return switch (model) {
+            case "money" -> price;
+            case "cartItem" -> cartItem;
+            case "orderItem" -> orderItem;
+            case "address" -> address;
+            case "product" -> new Product("OLJCESPC7Z", "Sunglasses",
+                    "Add a modern touch to your outfits with these sleek aviator sunglasses.",
+                    "/static/img/products/sunglasses.jpg", price, new String[] {"accessories"});
+            // A five-item order, as returned by checkout
+            case "orderResult" -> new OrderResult("7f1c2a9e-4b7d-4c3e-9a51-0d2f6b8e3c11", "ZX-4821-77031",
+                    new Money("EUR", 8L, 990000000), address, List.of(orderItem, orderItem, orderItem, orderItem, orderItem));
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.onlineboutique.common.wire;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.OrderItem;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the internal message types in each {@link WireFormat}.
+ * {@code summaries} is the 100-product list the frontend fetches for its home page, the
+ * largest body on the hot path. Payload sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"money", "cartItem", "orderItem", "product", "summaries"})
+    public String message;
+
+    @Param({"JSON", "SMILE"})
+    public WireFormat format;
+
+    private Object value;
+    private byte[] encoded;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = format.mapper(new ObjectMapper());
+        value = sample(message);
+        JavaType type = value instanceof List
+                ? objectMapper.getTypeFactory().constructCollectionType(List.class, ProductSummary.class)
+                : objectMapper.constructType(value.getClass());
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        encoded = writer.writeValueAsBytes(value);
+        int json = new ObjectMapper().writeValueAsBytes(value).length;
+        System.out.printf("%n%s as %s: %d bytes (%.0f%% of JSON)%n",
+                message, format, encoded.length, 100.0 * encoded.length / json);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    static Object sample(String message) {
+        Money price = new Money("USD", 19L, 990000000);
+        return switch (message) {
+            case "money" -> price;
+            case "cartItem" -> new CartItem("OLJCESPC7Z", 3);
+            case "orderItem" -> new OrderItem(new CartItem("OLJCESPC7Z", 3), new Money("EUR", 52L, 760000000));
+            case "product" -> new Product("OLJCESPC7Z", "Sunglasses",
+                    "Add a modern touch to your outfits with these sleek aviator sunglasses.",
+                    "/static/img/products/sunglasses.jpg", price, new String[] {"accessories"});
+            case "summaries" -> {
+                List<ProductSummary> summaries = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    summaries.add(new ProductSummary(String.format("P%09d", i), "Product " + i,
+                            "/static/img/products/product-" + i + ".jpg",
+                            new Money("USD", 10L + i, 990000000), List.of("kitchen", "accessories")));
+                }
+                yield summaries;
+            }
+            default -> throw new IllegalArgumentException("Unknown message " + message);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.onlineboutique.common.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body serialized once and kept as bytes, with an optional gzip variant
+ * and a content-derived ETag that is stable across pods.
+ */
+public final class EncodedResponse {
+
+    private final long version;
+    private final MediaType contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+
+    EncodedResponse(long version, MediaType contentType, byte[] body, byte[] gzipBody, String etag) {
+        this.version = version;
+        this.contentType = contentType;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Pre-gzipped body, or {@code null} if the body was too small to be worth compressing
+     */
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Build the HTTP response, answering 304 for a matching {@code If-None-Match} and
+     * serving the gzip variant when the client accepts it.
+     * Responses vary by {@code Accept}, which selects the {@code WireFormat}.
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding, String ifNoneMatch) {
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (gzipBody == null) {
+            return builder.body(body);
+        }
+        builder.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipBody);
+        }
+        return builder.body(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.onlineboutique.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.wire.WireFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialized response bodies keyed by data version and request key.
+ * A hit returns bytes that were encoded once, so hot responses cost no Jackson work.
+ * Each {@link WireFormat} is encoded and cached separately, on first request in that format.
+ * All entries are dropped when the version advances; it only moves forward, so a
+ * request that observed an older version cannot flush entries of the current one.
+ */
+public class EncodedResponseCache {
+
+    /**
+     * Bodies below this size are not worth a gzip variant
+     */
+    static final int GZIP_MIN_BYTES = 512;
+
+    private final String name;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final int maxEntries;
+    private final boolean gzip;
+    private final Map<String, EncodedResponse> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile long cachedVersion = Long.MIN_VALUE;
+
+    public EncodedResponseCache(String name, ObjectMapper objectMapper, int maxEntries, boolean gzip,
+                                MeterRegistry meterRegistry) {
+        this.name = name;
+        for (WireFormat format : WireFormat.values()) {
+            mappers.put(format, format.mapper(objectMapper));
+        }
+        this.maxEntries = maxEntries;
+        this.gzip = gzip;
+        this.hits = Counter.builder("response.cache.requests")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("response.cache.requests")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the JSON body for {@code key} at {@code version}, serializing the value
+     * from {@code body} on a miss.
+     *
+     * @return the encoded response, or {@code null} if {@code body} produced no value
+     */
+    public EncodedResponse get(String key, long version, Supplier<?> body) {
+        return get(key, version, WireFormat.JSON, body);
+    }
+
+    /**
+     * Return the body for {@code key} at {@code version} in {@code format}, serializing the
+     * value from {@code body} on a miss.
+     *
+     * @return the encoded response, or {@code null} if {@code body} produced no value
+     */
+    public EncodedResponse get(String key, long version, WireFormat format, Supplier<?> body) {
+        String entryKey = format == WireFormat.JSON ? key : format + ":" + key;
+        if (version > cachedVersion) {
+            synchronized (this) {
+                if (version > cachedVersion) {
+                    entries.clear();
+                    cachedVersion = version;
+                }
+            }
+        }
+        EncodedResponse cached = entries.get(entryKey);
+        if (cached != null && cached.getVersion() == version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Object value = body.get();
+        if (value == null) {
+            return null;
+        }
+        EncodedResponse encoded = encode(version, format, value);
+        // A request that read an older version is answered but not cached
+        if (version == cachedVersion && (cached != null || entries.size() < maxEntries)) {
+            entries.put(entryKey, encoded);
+        }
+        return encoded;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private EncodedResponse encode(long version, WireFormat format, Object value) {
+        byte[] bytes;
+        try {
+            bytes = mappers.get(format).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + name + " response", e);
+        }
+        byte[] gzipped = gzip && bytes.length >= GZIP_MIN_BYTES ? gzip(bytes) : null;
+        String etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+        return new EncodedResponse(version, format.getMediaType(), bytes, gzipped, etag);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
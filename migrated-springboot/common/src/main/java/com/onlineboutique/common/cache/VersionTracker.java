@@ -0,0 +1,44 @@
+package com.onlineboutique.common.cache;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version number for a data set that is served from caches.
+ * The version advances when a local write is observed ({@link #bump()}) or when a
+ * periodically polled fingerprint of the underlying data changes ({@link #observe(Object)}).
+ */
+public class VersionTracker {
+
+    private final AtomicLong version = new AtomicLong(1);
+
+    private volatile Object fingerprint;
+
+    /**
+     * Current version; caches keyed by it are invalidated whenever it changes
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Advance the version after a change made by this process
+     */
+    public long bump() {
+        return version.incrementAndGet();
+    }
+
+    /**
+     * Record the latest fingerprint of the data and advance the version if it changed
+     *
+     * @return true if the version advanced
+     */
+    public synchronized boolean observe(Object newFingerprint) {
+        if (Objects.equals(fingerprint, newFingerprint)) {
+            return false;
+        }
+        fingerprint = newFingerprint;
+        bump();
+        return true;
+    }
+}
@@ -0,0 +1,212 @@
+package com.onlineboutique.common.client;
+
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * HTTP and gRPC client for one downstream service, created by {@link DownstreamClients}.
+ * Calls go through a pooled connection with a per-attempt timeout; idempotent calls are
+ * retried on transient failures with jittered exponential backoff, within the client's
+ * {@link RetryBudget}. Every failure surfaces as a {@link DownstreamException}.
+ * Calls that have a gRPC equivalent provide both requests and pick one with {@link #isGrpc()};
+ * gRPC statuses are translated to the same exception kinds and status codes as HTTP errors.
+ * <p>
+ * Metrics: {@code downstream.client.requests{client,operation,transport,outcome}} is a latency
+ * histogram of whole calls including retries; {@code downstream.client.retries{client,result}}
+ * counts retries {@code attempted} and {@code rejected} by the budget.
+ */
+public class DownstreamClient {
+
+    private final String name;
+    private final WebClient webClient;
+    private final Channel channel;
+    private final DownstreamSettings settings;
+    private final RetryBudget retryBudget;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private final Counter rejectedRetries;
+
+    DownstreamClient(String name, WebClient webClient, Channel channel, DownstreamSettings settings,
+                     MeterRegistry meterRegistry) {
+        this.name = name;
+        this.webClient = webClient;
+        this.channel = channel;
+        this.settings = settings;
+        this.retryBudget = new RetryBudget(settings.getRetry().getBudgetRatio(), settings.getRetry().getMinRetriesPerSecond());
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("downstream.client.retries")
+                .tag("client", name)
+                .tag("result", "attempted")
+                .register(meterRegistry);
+        this.rejectedRetries = Counter.builder("downstream.client.retries")
+                .tag("client", name)
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Idempotent call, retried on transient failures
+     *
+     * @param operation low-cardinality name used for metrics and errors, e.g. {@code get-product}
+     * @param request builds the request against the client's base URL
+     */
+    public <T> Mono<T> execute(String operation, Function<WebClient, Mono<T>> request) {
+        return call(operation, "rest", () -> request.apply(webClient), true);
+    }
+
+    /**
+     * Idempotent call returning a list; the whole response is retried, never a partial one
+     */
+    public <T> Flux<T> executeMany(String operation, Function<WebClient, Flux<T>> request) {
+        return call(operation, "rest", () -> request.apply(webClient).collectList(), true)
+                .flatMapIterable(items -> items);
+    }
+
+    /**
+     * Call with side effects that must not be repeated, such as a payment; never retried
+     */
+    public <T> Mono<T> executeOnce(String operation, Function<WebClient, Mono<T>> request) {
+        return call(operation, "rest", () -> request.apply(webClient), false);
+    }
+
+    /**
+     * Whether this client is configured for the gRPC transport
+     */
+    public boolean isGrpc() {
+        return channel != null;
+    }
+
+    /**
+     * Idempotent gRPC call, retried on transient failures
+     *
+     * @param request makes the call on the client's channel, e.g. with {@code GrpcCalls.unary}
+     */
+    public <T> Mono<T> executeGrpc(String operation, Function<Channel, Mono<T>> request) {
+        return call(operation, "grpc", () -> request.apply(grpcChannel()), true);
+    }
+
+    /**
+     * Idempotent server-streaming gRPC call; like {@link #executeMany}, the whole stream is
+     * retried, never a partial one
+     */
+    public <T> Flux<T> executeGrpcMany(String operation, Function<Channel, Flux<T>> request) {
+        return call(operation, "grpc", () -> request.apply(grpcChannel()).collectList(), true)
+                .flatMapIterable(items -> items);
+    }
+
+    /**
+     * gRPC call with side effects that must not be repeated; never retried
+     */
+    public <T> Mono<T> executeGrpcOnce(String operation, Function<Channel, Mono<T>> request) {
+        return call(operation, "grpc", () -> request.apply(grpcChannel()), false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Channel grpcChannel() {
+        if (channel == null) {
+            throw new IllegalStateException("Downstream client " + name + " is not configured for gRPC");
+        }
+        return channel;
+    }
+
+    private <T> Mono<T> call(String operation, String transport, Supplier<Mono<T>> request, boolean idempotent) {
+        return Mono.defer(() -> {
+            retryBudget.deposit();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Mono<T> attempt = Mono.defer(request)
+                    .timeout(settings.getTimeout())
+                    .onErrorMap(error -> translate(operation, error));
+
+            DownstreamSettings.Retry retry = settings.getRetry();
+            if (idempotent && retry.getMaxAttempts() > 1) {
+                attempt = attempt.retryWhen(Retry.backoff(retry.getMaxAttempts() - 1, retry.getInitialBackoff())
+                        .maxBackoff(retry.getMaxBackoff())
+                        .jitter(retry.getJitter())
+                        .filter(error -> ((DownstreamException) error).isTransient() && withdrawRetry())
+                        .doBeforeRetry(signal -> retries.increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+            }
+            return attempt
+                    .doOnSuccess(value -> record(sample, operation, transport, "SUCCESS"))
+                    .doOnError(error -> record(sample, operation, transport, ((DownstreamException) error).getKind().name()))
+                    .doOnCancel(() -> record(sample, operation, transport, "CANCELLED"));
+        });
+    }
+
+    private boolean withdrawRetry() {
+        if (retryBudget.tryWithdraw()) {
+            return true;
+        }
+        rejectedRetries.increment();
+        return false;
+    }
+
+    private DownstreamException translate(String operation, Throwable error) {
+        if (error instanceof DownstreamException downstream) {
+            return downstream;
+        }
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            DownstreamException.Kind kind = status >= 500 ? DownstreamException.Kind.SERVER_ERROR : DownstreamException.Kind.CLIENT_ERROR;
+            return new DownstreamException(name, operation, kind, status, error);
+        }
+        if (error instanceof TimeoutException || error.getCause() instanceof ReadTimeoutException) {
+            return new DownstreamException(name, operation, DownstreamException.Kind.TIMEOUT, 0, error);
+        }
+        if (error instanceof WebClientRequestException) {
+            return new DownstreamException(name, operation, DownstreamException.Kind.UNAVAILABLE, 0, error);
+        }
+        if (error instanceof StatusRuntimeException grpcError) {
+            return translate(operation, grpcError.getStatus().getCode(), error);
+        }
+        return new DownstreamException(name, operation, DownstreamException.Kind.ERROR, 0, error);
+    }
+
+    /**
+     * Map a gRPC status to the exception an HTTP call would have produced for the same failure
+     */
+    private DownstreamException translate(String operation, Status.Code code, Throwable error) {
+        return switch (code) {
+            case DEADLINE_EXCEEDED -> new DownstreamException(name, operation, DownstreamException.Kind.TIMEOUT, 0, error);
+            case UNAVAILABLE -> new DownstreamException(name, operation, DownstreamException.Kind.UNAVAILABLE, 0, error);
+            case NOT_FOUND -> new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 404, error);
+            case INVALID_ARGUMENT, FAILED_PRECONDITION, OUT_OF_RANGE ->
+                    new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 400, error);
+            case ALREADY_EXISTS, ABORTED -> new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 409, error);
+            case UNAUTHENTICATED -> new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 401, error);
+            case PERMISSION_DENIED -> new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 403, error);
+            case RESOURCE_EXHAUSTED -> new DownstreamException(name, operation, DownstreamException.Kind.CLIENT_ERROR, 429, error);
+            case UNIMPLEMENTED -> new DownstreamException(name, operation, DownstreamException.Kind.SERVER_ERROR, 501, error);
+            case INTERNAL, UNKNOWN, DATA_LOSS -> new DownstreamException(name, operation, DownstreamException.Kind.SERVER_ERROR, 500, error);
+            default -> new DownstreamException(name, operation, DownstreamException.Kind.ERROR, 0, error);
+        };
+    }
+
+    private void record(Timer.Sample sample, String operation, String transport, String outcome) {
+        sample.stop(Timer.builder("downstream.client.requests")
+                .tag("client", name)
+                .tag("operation", operation)
+                .tag("transport", transport)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,32 @@
+package com.onlineboutique.common.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Provides {@link DownstreamClients} to any service with WebFlux and Reactor Netty on its classpath
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
+@ConditionalOnClass({WebClient.class, HttpClient.class})
+public class DownstreamClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DownstreamClients downstreamClients(Environment environment,
+                                               ObjectProvider<WebClient.Builder> webClientBuilder,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DownstreamClients(environment,
+                webClientBuilder.getIfAvailable(WebClient::builder),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,164 @@
+package com.onlineboutique.common.client;
+
+import com.onlineboutique.common.wire.WireFormat;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of named {@link DownstreamClient}s, one per backend service.
+ * A client is created on first use from {@code downstream.defaults} overlaid with
+ * {@code downstream.clients.<name>}; its base URL defaults to the service's existing
+ * {@code services.<name>.url} property. Each client has its own connection pool, so one
+ * slow backend cannot take connections from the others.
+ * <p>
+ * A client whose transport is {@code grpc} also gets a gRPC channel to
+ * {@code services.<name>.grpc-target}: a single HTTP/2 connection that multiplexes all
+ * concurrent calls, with keep-alive pings to detect a dead peer between calls.
+ */
+public class DownstreamClients implements DisposableBean {
+
+    private static final Set<HttpMethod> BODY_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+
+    private final Environment environment;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DownstreamClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionProvider> pools = new ConcurrentHashMap<>();
+    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+
+    public DownstreamClients(Environment environment, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Client for the service called {@code name}, e.g. {@code product-catalog}
+     */
+    public DownstreamClient get(String name) {
+        return clients.computeIfAbsent(name, this::create);
+    }
+
+    private DownstreamClient create(String name) {
+        DownstreamSettings settings = settings(name);
+        ConnectionProvider pool = ConnectionProvider.builder("downstream-" + name)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        pools.put(name, pool);
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .responseTimeout(settings.getTimeout());
+        WebClient.Builder builder = webClientBuilder.clone()
+                .baseUrl(settings.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) settings.getMaxInMemorySize().toBytes()));
+        if (settings.getWireFormat() == WireFormat.SMILE) {
+            builder.filter(preferSmile());
+        }
+        Channel channel = settings.getTransport() == DownstreamSettings.Transport.GRPC ? channel(name, settings) : null;
+        return new DownstreamClient(name, builder.build(), channel, settings, meterRegistry);
+    }
+
+    private Channel channel(String name, DownstreamSettings settings) {
+        ManagedChannel channel = Grpc.newChannelBuilder(settings.getGrpcTarget(), InsecureChannelCredentials.create())
+                .maxInboundMessageSize((int) settings.getMaxInMemorySize().toBytes())
+                .keepAliveTime(settings.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        channels.put(name, channel);
+        return ClientInterceptors.intercept(channel, deadline(settings));
+    }
+
+    /**
+     * Give every call the client's timeout as its deadline, so the server stops working on
+     * an attempt the client has given up on
+     */
+    private static ClientInterceptor deadline(DownstreamSettings settings) {
+        long timeoutMillis = settings.getTimeout().toMillis();
+        return new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                if (callOptions.getDeadline() == null) {
+                    callOptions = callOptions.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS);
+                }
+                return next.newCall(method, callOptions);
+            }
+        };
+    }
+
+    /**
+     * Ask for Smile responses and send request bodies as Smile, unless the request already
+     * chose its own {@code Accept} or {@code Content-Type}
+     */
+    private static ExchangeFilterFunction preferSmile() {
+        return (request, next) -> next.exchange(ClientRequest.from(request)
+                .headers(headers -> {
+                    if (headers.getAccept().isEmpty()) {
+                        headers.set(HttpHeaders.ACCEPT, WireFormat.SMILE_PREFERRED);
+                    }
+                    if (headers.getContentType() == null && BODY_METHODS.contains(request.method())) {
+                        headers.setContentType(WireFormat.SMILE.getMediaType());
+                    }
+                })
+                .build());
+    }
+
+    DownstreamSettings settings(String name) {
+        Binder binder = Binder.get(environment);
+        DownstreamSettings defaults = binder.bind("downstream.defaults", DownstreamSettings.class)
+                .orElseGet(DownstreamSettings::new);
+        DownstreamSettings settings = binder.bind("downstream.clients." + name, Bindable.ofInstance(defaults.copy()))
+                .orElseGet(defaults::copy);
+        if (settings.getUrl() == null) {
+            settings.setUrl(environment.getProperty("services." + name + ".url"));
+        }
+        if (settings.getUrl() == null) {
+            throw new IllegalStateException("No URL for downstream client " + name
+                    + "; set services." + name + ".url or downstream.clients." + name + ".url");
+        }
+        if (settings.getTransport() == DownstreamSettings.Transport.GRPC) {
+            if (settings.getGrpcTarget() == null) {
+                settings.setGrpcTarget(environment.getProperty("services." + name + ".grpc-target"));
+            }
+            if (settings.getGrpcTarget() == null) {
+                throw new IllegalStateException("No gRPC target for downstream client " + name
+                        + "; set services." + name + ".grpc-target or downstream.clients." + name + ".grpc-target");
+            }
+        }
+        return settings;
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(ConnectionProvider::dispose);
+        channels.values().forEach(ManagedChannel::shutdown);
+    }
+}
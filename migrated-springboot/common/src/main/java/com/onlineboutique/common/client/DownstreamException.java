@@ -0,0 +1,92 @@
+package com.onlineboutique.common.client;
+
+/**
+ * Failure of a call to a downstream service.
+ * Every client error is reported as this exception, whatever the transport raised, so
+ * callers handle timeouts, unavailable backends and error statuses the same way for all
+ * services.
+ */
+public class DownstreamException extends RuntimeException {
+
+    public enum Kind {
+        /**
+         * An attempt took longer than the client's timeout
+         */
+        TIMEOUT,
+        /**
+         * The service could not be reached, or no pooled connection became free in time
+         */
+        UNAVAILABLE,
+        /**
+         * The service answered 4xx
+         */
+        CLIENT_ERROR,
+        /**
+         * The service answered 5xx
+         */
+        SERVER_ERROR,
+        /**
+         * Anything else, such as an undecodable response body
+         */
+        ERROR
+    }
+
+    private final String client;
+    private final String operation;
+    private final Kind kind;
+    private final int statusCode;
+
+    public DownstreamException(String client, String operation, Kind kind, int statusCode, Throwable cause) {
+        super(client + " " + operation + " failed: " + kind + (statusCode > 0 ? " " + statusCode : "")
+                + (cause != null && cause.getMessage() != null ? " (" + cause.getMessage() + ")" : ""), cause);
+        this.client = client;
+        this.operation = operation;
+        this.kind = kind;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Whether {@code error} is a downstream 404, for {@code onErrorResume(DownstreamException::isNotFound, ...)}
+     */
+    public static boolean isNotFound(Throwable error) {
+        return error instanceof DownstreamException downstream && downstream.statusCode == 404;
+    }
+
+    /**
+     * Whether {@code error} is a downstream call that ran out of time
+     */
+    public static boolean isTimeout(Throwable error) {
+        return error instanceof DownstreamException downstream && downstream.kind == Kind.TIMEOUT;
+    }
+
+    /**
+     * Whether retrying the call could succeed
+     */
+    public boolean isTransient() {
+        return switch (kind) {
+            case TIMEOUT, UNAVAILABLE -> true;
+            case SERVER_ERROR -> statusCode == 502 || statusCode == 503 || statusCode == 504;
+            case CLIENT_ERROR -> statusCode == 429;
+            case ERROR -> false;
+        };
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * HTTP status of the response, or the equivalent of a gRPC status; 0 when there was none
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
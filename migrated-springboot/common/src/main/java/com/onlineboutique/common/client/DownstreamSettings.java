@@ -0,0 +1,264 @@
+package com.onlineboutique.common.client;
+
+import com.onlineboutique.common.wire.WireFormat;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of one downstream client.
+ * Bound from {@code downstream.defaults} and then overlaid with
+ * {@code downstream.clients.<name>}, so a client only lists what it changes.
+ */
+public class DownstreamSettings {
+
+    public enum Transport {
+        REST,
+        /**
+         * The internal gRPC API, for services that serve it; one multiplexed HTTP/2
+         * connection per client instead of a connection pool
+         */
+        GRPC
+    }
+
+    /**
+     * Base URL; defaults to {@code services.<name>.url}
+     */
+    private String url;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Limit for one attempt, from sending the request to the end of the response body
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    private int maxConnections = 100;
+
+    /**
+     * How long a call may wait for a pooled connection when all are in use
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Idle pooled connections are closed after this; keep it below the server's keep-alive timeout
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(1);
+
+    /**
+     * Body encoding to ask for and send; Smile only for services that support it, with JSON
+     * still accepted in responses
+     */
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    /**
+     * Transport for the calls that have a gRPC equivalent; other calls always use REST
+     */
+    private Transport transport = Transport.REST;
+
+    /**
+     * gRPC target such as {@code dns:///product-catalog-service:13550}; defaults to
+     * {@code services.<name>.grpc-target}
+     */
+    private String grpcTarget;
+
+    private Retry retry = new Retry();
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public DataSize getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    public void setMaxInMemorySize(DataSize maxInMemorySize) {
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    public void setWireFormat(WireFormat wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    public String getGrpcTarget() {
+        return grpcTarget;
+    }
+
+    public void setGrpcTarget(String grpcTarget) {
+        this.grpcTarget = grpcTarget;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    /**
+     * Copy that binding a client's own settings can overlay without touching the defaults
+     */
+    DownstreamSettings copy() {
+        DownstreamSettings copy = new DownstreamSettings();
+        copy.url = url;
+        copy.connectTimeout = connectTimeout;
+        copy.timeout = timeout;
+        copy.maxConnections = maxConnections;
+        copy.pendingAcquireTimeout = pendingAcquireTimeout;
+        copy.maxIdleTime = maxIdleTime;
+        copy.maxInMemorySize = maxInMemorySize;
+        copy.wireFormat = wireFormat;
+        copy.transport = transport;
+        copy.grpcTarget = grpcTarget;
+        copy.retry = retry.copy();
+        return copy;
+    }
+
+    /**
+     * Retries of idempotent calls that failed with a transient error
+     */
+    public static class Retry {
+
+        /**
+         * Attempts including the first; 1 disables retries
+         */
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Fraction of each backoff that is randomized, between 0 and 1
+         */
+        private double jitter = 0.5;
+
+        /**
+         * Retries allowed per call made, e.g. 0.1 lets retries add at most 10% load
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Retries always allowed per second, so a quiet client can still retry
+         */
+        private int minRetriesPerSecond = 10;
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+
+        Retry copy() {
+            Retry copy = new Retry();
+            copy.maxAttempts = maxAttempts;
+            copy.initialBackoff = initialBackoff;
+            copy.maxBackoff = maxBackoff;
+            copy.jitter = jitter;
+            copy.budgetRatio = budgetRatio;
+            copy.minRetriesPerSecond = minRetriesPerSecond;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.onlineboutique.common.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a fraction of calls so retries cannot multiply load on a struggling
+ * backend.
+ * Every call deposits {@code ratio} of a retry and every retry withdraws a whole one. On
+ * top of that, {@code minPerSecond} retries are always allowed each second. Deposits are
+ * capped at one second's worth of {@code minPerSecond} plus ten, so a long healthy period
+ * cannot fund a retry storm later.
+ */
+public class RetryBudget {
+
+    /**
+     * Fixed-point scale for fractional deposits
+     */
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final int minPerSecond;
+    private final AtomicLong balance = new AtomicLong();
+    private final AtomicLong reserveWindow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong reserveUsed = new AtomicLong();
+
+    public RetryBudget(double ratio, int minPerSecond) {
+        if (ratio < 0 || minPerSecond < 0) {
+            throw new IllegalArgumentException("Retry budget ratio and minimum must not be negative");
+        }
+        this.deposit = Math.round(ratio * UNIT);
+        this.maxBalance = (minPerSecond + 10L) * UNIT;
+        this.minPerSecond = minPerSecond;
+    }
+
+    /**
+     * Record a call, adding {@code ratio} of a retry to the budget
+     */
+    public void deposit() {
+        if (deposit > 0) {
+            balance.accumulateAndGet(deposit, (current, added) -> Math.min(maxBalance, current + added));
+        }
+    }
+
+    /**
+     * Take one retry from the budget
+     *
+     * @return whether the retry may go ahead
+     */
+    public boolean tryWithdraw() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long window = reserveWindow.get();
+        if (window != second && reserveWindow.compareAndSet(window, second)) {
+            reserveUsed.set(0);
+        }
+        if (reserveUsed.incrementAndGet() <= minPerSecond) {
+            return true;
+        }
+        while (true) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+}
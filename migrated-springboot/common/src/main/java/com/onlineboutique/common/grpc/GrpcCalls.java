@@ -0,0 +1,103 @@
+package com.onlineboutique.common.grpc;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Reactor adapters for calls made through async gRPC stubs, e.g.
+ * {@code GrpcCalls.unary(ProductCatalogServiceGrpc.newStub(channel)::getProduct, request)}.
+ * The call starts on subscribe and is cancelled when the subscriber cancels, so a Reactor
+ * timeout also ends the RPC on the server.
+ */
+public final class GrpcCalls {
+
+    private GrpcCalls() {}
+
+    /**
+     * Call returning one message
+     */
+    public static <Q, R> Mono<R> unary(BiConsumer<Q, StreamObserver<R>> method, Q request) {
+        return Mono.create(sink -> method.accept(request, new UnaryObserver<>(sink)));
+    }
+
+    /**
+     * Call returning a stream of messages. Messages are requested from the server only as
+     * the subscriber requests them, so gRPC flow control applies end to end.
+     */
+    public static <Q, R> Flux<R> serverStreaming(BiConsumer<Q, StreamObserver<R>> method, Q request) {
+        return Flux.create(sink -> {
+            StreamingObserver<Q, R> observer = new StreamingObserver<>(sink);
+            method.accept(request, observer);
+            // The call has started now, so it accepts requests
+            sink.onRequest(n -> observer.call.request(n >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n));
+        });
+    }
+
+    private static final class UnaryObserver<Q, R> implements ClientResponseObserver<Q, R> {
+
+        private final MonoSink<R> sink;
+
+        UnaryObserver(MonoSink<R> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Q> call) {
+            sink.onCancel(() -> call.cancel("Cancelled by caller", null));
+        }
+
+        @Override
+        public void onNext(R value) {
+            sink.success(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            sink.error(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            sink.success();
+        }
+    }
+
+    private static final class StreamingObserver<Q, R> implements ClientResponseObserver<Q, R> {
+
+        private final FluxSink<R> sink;
+        private ClientCallStreamObserver<Q> call;
+
+        StreamingObserver(FluxSink<R> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Q> call) {
+            this.call = call;
+            call.disableAutoRequestWithInitial(0);
+            sink.onCancel(() -> call.cancel("Cancelled by caller", null));
+        }
+
+        @Override
+        public void onNext(R value) {
+            sink.next(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            sink.error(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            sink.complete();
+        }
+    }
+}
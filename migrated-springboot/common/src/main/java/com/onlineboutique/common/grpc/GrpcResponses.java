@@ -0,0 +1,83 @@
+package com.onlineboutique.common.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Server-side helpers that answer gRPC calls the way the REST controllers answer requests:
+ * a missing value is {@code NOT_FOUND}, an {@link IllegalArgumentException} is
+ * {@code INVALID_ARGUMENT} and anything else is {@code INTERNAL}.
+ */
+public final class GrpcResponses {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcResponses.class);
+
+    private GrpcResponses() {}
+
+    /**
+     * Answer with the single message from {@code response}, or {@code NOT_FOUND} if it is {@code null}
+     */
+    public static <T> void unary(StreamObserver<T> observer, Supplier<T> response) {
+        T value;
+        try {
+            value = response.get();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        if (value == null) {
+            observer.onError(Status.NOT_FOUND.asRuntimeException());
+            return;
+        }
+        observer.onNext(value);
+        observer.onCompleted();
+    }
+
+    /**
+     * Answer with a stream of {@code messages}, written only while the transport is ready for
+     * more, so a slow client holds back the server instead of filling its buffers
+     */
+    public static <T> void stream(StreamObserver<T> observer, Supplier<? extends Iterable<T>> messages) {
+        Iterator<T> iterator;
+        try {
+            iterator = messages.get().iterator();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        ServerCallStreamObserver<T> call = (ServerCallStreamObserver<T>) observer;
+        boolean[] finished = {false};
+        call.setOnCancelHandler(() -> finished[0] = true);
+        // Runs once the call is ready and again whenever the transport drains, never concurrently
+        call.setOnReadyHandler(() -> {
+            while (!finished[0] && call.isReady() && iterator.hasNext()) {
+                call.onNext(iterator.next());
+            }
+            if (!finished[0] && !iterator.hasNext()) {
+                finished[0] = true;
+                call.onCompleted();
+            }
+        });
+    }
+
+    /**
+     * Status to answer with for a failure in the service layer
+     */
+    public static StatusRuntimeException toStatus(Throwable error) {
+        if (error instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (error instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(error.getMessage()).asRuntimeException();
+        }
+        logger.error("gRPC call failed", error);
+        return Status.INTERNAL.withDescription("Internal error").asRuntimeException();
+    }
+}
@@ -0,0 +1,123 @@
+package com.onlineboutique.common.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC server for the internal API, running next to the service's HTTP server.
+ * Serves every {@link BindableService} bean of the application; started and stopped with
+ * the application context.
+ * <p>
+ * Metrics: {@code grpc.server.requests{method,status}} is a latency histogram of completed calls.
+ */
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final int port;
+    private final DataSize maxInboundMessageSize;
+    private final Duration permitKeepAliveTime;
+    private final Duration shutdownGracePeriod;
+    private final List<BindableService> services;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Server server;
+
+    public GrpcServer(int port, DataSize maxInboundMessageSize, Duration permitKeepAliveTime,
+                      Duration shutdownGracePeriod, List<BindableService> services, MeterRegistry meterRegistry) {
+        this.port = port;
+        this.maxInboundMessageSize = maxInboundMessageSize;
+        this.permitKeepAliveTime = permitKeepAliveTime;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+        this.services = services;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .maxInboundMessageSize((int) maxInboundMessageSize.toBytes())
+                // Clients ping at their max-idle-time; more frequent pings are answered with GOAWAY
+                .permitKeepAliveTime(permitKeepAliveTime.toMillis(), TimeUnit.MILLISECONDS)
+                .intercept(new MetricsInterceptor());
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {} with {} services", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the server listens on, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        Server running = server;
+        return running != null ? running.getPort() : port;
+    }
+
+    private class MetricsInterceptor implements ServerInterceptor {
+
+        @Override
+        public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                           ServerCallHandler<Q, R> next) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    sample.stop(Timer.builder("grpc.server.requests")
+                            .tag("method", call.getMethodDescriptor().getFullMethodName())
+                            .tag("status", status.getCode().name())
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+                    super.close(status, trailers);
+                }
+            }, headers);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.onlineboutique.common.grpc;
+
+import io.grpc.BindableService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Starts a {@link GrpcServer} in any service that sets {@code grpc.server.port};
+ * 0 picks a free port
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnProperty("grpc.server.port")
+public class GrpcServerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GrpcServer grpcServer(Environment environment, ObjectProvider<BindableService> services,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GrpcServer(environment.getRequiredProperty("grpc.server.port", Integer.class),
+                environment.getProperty("grpc.server.max-inbound-message-size", DataSize.class, DataSize.ofMegabytes(4)),
+                environment.getProperty("grpc.server.permit-keep-alive-time", Duration.class, Duration.ofSeconds(10)),
+                environment.getProperty("grpc.server.shutdown-grace-period", Duration.class, Duration.ofSeconds(5)),
+                services.orderedStream().toList(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
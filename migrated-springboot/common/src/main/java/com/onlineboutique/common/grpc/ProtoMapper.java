@@ -0,0 +1,103 @@
+package com.onlineboutique.common.grpc;
+
+import com.onlineboutique.common.grpc.v1.CurrencyRates;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversions between the shared models and the messages of the internal gRPC API.
+ * Proto3 has no null strings, so missing text becomes empty on the way out and
+ * empty text stays empty on the way back.
+ */
+public final class ProtoMapper {
+
+    private ProtoMapper() {}
+
+    public static com.onlineboutique.common.grpc.v1.Money toProto(Money money) {
+        return com.onlineboutique.common.grpc.v1.Money.newBuilder()
+                .setCurrencyCode(text(money.getCurrencyCode()))
+                .setUnits(money.getUnits() != null ? money.getUnits() : 0)
+                .setNanos(money.getNanos() != null ? money.getNanos() : 0)
+                .build();
+    }
+
+    public static Money fromProto(com.onlineboutique.common.grpc.v1.Money money) {
+        return new Money(money.getCurrencyCode(), money.getUnits(), money.getNanos());
+    }
+
+    public static com.onlineboutique.common.grpc.v1.Product toProto(Product product) {
+        com.onlineboutique.common.grpc.v1.Product.Builder builder = com.onlineboutique.common.grpc.v1.Product.newBuilder()
+                .setId(text(product.getId()))
+                .setName(text(product.getName()))
+                .setDescription(text(product.getDescription()))
+                .setPicture(text(product.getPicture()));
+        if (product.getPriceUsd() != null) {
+            builder.setPriceUsd(toProto(product.getPriceUsd()));
+        }
+        if (product.getCategories() != null) {
+            builder.addAllCategories(List.of(product.getCategories()));
+        }
+        return builder.build();
+    }
+
+    public static Product fromProto(com.onlineboutique.common.grpc.v1.Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPicture(),
+                product.hasPriceUsd() ? fromProto(product.getPriceUsd()) : null,
+                product.getCategoriesList().toArray(String[]::new));
+    }
+
+    public static com.onlineboutique.common.grpc.v1.ProductSummary toProto(ProductSummary summary) {
+        com.onlineboutique.common.grpc.v1.ProductSummary.Builder builder = com.onlineboutique.common.grpc.v1.ProductSummary.newBuilder()
+                .setId(text(summary.getId()))
+                .setName(text(summary.getName()))
+                .setPicture(text(summary.getPicture()));
+        if (summary.getPriceUsd() != null) {
+            builder.setPriceUsd(toProto(summary.getPriceUsd()));
+        }
+        if (summary.getCategories() != null) {
+            builder.addAllCategories(summary.getCategories());
+        }
+        return builder.build();
+    }
+
+    public static ProductSummary fromProto(com.onlineboutique.common.grpc.v1.ProductSummary summary) {
+        return new ProductSummary(summary.getId(), summary.getName(), summary.getPicture(),
+                summary.hasPriceUsd() ? fromProto(summary.getPriceUsd()) : null,
+                new ArrayList<>(summary.getCategoriesList()));
+    }
+
+    public static com.onlineboutique.common.grpc.v1.CartItem toProto(CartItem item) {
+        return com.onlineboutique.common.grpc.v1.CartItem.newBuilder()
+                .setProductId(text(item.getProductId()))
+                .setQuantity(item.getQuantity() != null ? item.getQuantity() : 0)
+                .build();
+    }
+
+    public static CartItem fromProto(com.onlineboutique.common.grpc.v1.CartItem item) {
+        return new CartItem(item.getProductId(), item.getQuantity());
+    }
+
+    public static CurrencyRates toProto(com.onlineboutique.common.model.CurrencyRates rates) {
+        CurrencyRates.Builder builder = CurrencyRates.newBuilder().setVersion(rates.getVersion());
+        rates.getRatesToEur().forEach((code, rate) -> builder.putRatesToEur(code, rate.toPlainString()));
+        return builder.build();
+    }
+
+    public static com.onlineboutique.common.model.CurrencyRates fromProto(CurrencyRates rates) {
+        Map<String, BigDecimal> ratesToEur = new HashMap<>();
+        rates.getRatesToEurMap().forEach((code, rate) -> ratesToEur.put(code, new BigDecimal(rate)));
+        return new com.onlineboutique.common.model.CurrencyRates(rates.getVersion(), ratesToEur);
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+}
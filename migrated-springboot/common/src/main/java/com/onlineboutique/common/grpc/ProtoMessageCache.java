@@ -0,0 +1,75 @@
+package com.onlineboutique.common.grpc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of converted gRPC responses keyed by data version and request key; the
+ * gRPC counterpart of {@code EncodedResponseCache}. Protobuf messages are immutable and
+ * memoize their serialized size, so a hit costs no model conversion.
+ * All entries are dropped when the version advances.
+ */
+public class ProtoMessageCache {
+
+    private final String name;
+    private final int maxEntries;
+    private final Map<String, Object> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile long cachedVersion = Long.MIN_VALUE;
+
+    public ProtoMessageCache(String name, int maxEntries, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("response.cache.requests")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("response.cache.requests")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the response for {@code key} at {@code version}, building it with
+     * {@code response} on a miss
+     *
+     * @return the response, or {@code null} if {@code response} produced none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, long version, Supplier<T> response) {
+        if (version != cachedVersion) {
+            synchronized (this) {
+                if (version != cachedVersion) {
+                    entries.clear();
+                    cachedVersion = version;
+                }
+            }
+        }
+        Object cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        T value = response.get();
+        if (value != null && entries.size() < maxEntries && version == cachedVersion) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
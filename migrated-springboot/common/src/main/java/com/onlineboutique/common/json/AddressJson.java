@@ -0,0 +1,58 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.Address;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link Address}: {@code street_address}, {@code city}, {@code state},
+ * {@code country}, {@code zip_code}
+ */
+final class AddressJson {
+
+    private static final SerializedString STREET_ADDRESS = new SerializedString("street_address");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString STATE = new SerializedString("state");
+    private static final SerializedString COUNTRY = new SerializedString("country");
+    private static final SerializedString ZIP_CODE = new SerializedString("zip_code");
+
+    private AddressJson() {}
+
+    static void write(Address address, JsonGenerator gen) throws IOException {
+        if (address == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(address);
+        JsonFields.writeString(gen, CITY, address.getCity());
+        JsonFields.writeString(gen, STATE, address.getState());
+        JsonFields.writeString(gen, COUNTRY, address.getCountry());
+        JsonFields.writeString(gen, STREET_ADDRESS, address.getStreetAddress());
+        JsonFields.writeNumber(gen, ZIP_CODE, address.getZipCode());
+        gen.writeEndObject();
+    }
+
+    static Address read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Address address = new Address();
+        for (String name = JsonFields.firstField(p, ctxt, Address.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "street_address" -> address.setStreetAddress(JsonFields.readString(p, ctxt));
+                case "city" -> address.setCity(JsonFields.readString(p, ctxt));
+                case "state" -> address.setState(JsonFields.readString(p, ctxt));
+                case "country" -> address.setCountry(JsonFields.readString(p, ctxt));
+                case "zip_code" -> address.setZipCode(JsonFields.readInteger(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, null, Address.class, name);
+            }
+        }
+        return address;
+    }
+}
@@ -0,0 +1,48 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.CartItem;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link CartItem}: {@code product_id}, {@code quantity}
+ */
+final class CartItemJson {
+
+    private static final SerializedString PRODUCT_ID = new SerializedString("product_id");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+
+    private CartItemJson() {}
+
+    static void write(CartItem item, JsonGenerator gen) throws IOException {
+        if (item == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(item);
+        JsonFields.writeNumber(gen, QUANTITY, item.getQuantity());
+        JsonFields.writeString(gen, PRODUCT_ID, item.getProductId());
+        gen.writeEndObject();
+    }
+
+    static CartItem read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        CartItem item = new CartItem();
+        for (String name = JsonFields.firstField(p, ctxt, CartItem.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "product_id" -> item.setProductId(JsonFields.readString(p, ctxt));
+                case "quantity" -> item.setQuantity(JsonFields.readInteger(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, null, CartItem.class, name);
+            }
+        }
+        return item;
+    }
+}
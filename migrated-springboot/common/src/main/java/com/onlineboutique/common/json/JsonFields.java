@@ -0,0 +1,167 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field readers and writers shared by the hand-written model serializers.
+ * Readers take the common token directly and hand anything else to databind, so coercions
+ * such as {@code "units": "12"} and error messages stay exactly as they were.
+ */
+final class JsonFields {
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(JsonParser p, DeserializationContext ctxt) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Writer<T> {
+        void write(T value, JsonGenerator gen) throws IOException;
+    }
+
+    private JsonFields() {}
+
+    /**
+     * Name of the first field of an object whose start the parser is on, or {@code null}
+     * for an empty object
+     */
+    static String firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return p.nextFieldName();
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            return p.currentName();
+        }
+        if (token == JsonToken.END_OBJECT) {
+            return null;
+        }
+        ctxt.handleUnexpectedToken(type, p);
+        return null;
+    }
+
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, String.class);
+    }
+
+    static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Long.class);
+    }
+
+    static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Integer.class);
+    }
+
+    static String[] readStringArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_ARRAY) {
+            List<String> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                values.add(readString(p, ctxt));
+            }
+            return values.toArray(new String[0]);
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, String[].class);
+    }
+
+    static <T> List<T> readList(JsonParser p, DeserializationContext ctxt, Class<T> type, Reader<T> element) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_ARRAY) {
+            List<T> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                values.add(element.read(p, ctxt));
+            }
+            return values;
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, ctxt.getTypeFactory().constructCollectionType(List.class, type));
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.intValue());
+        }
+    }
+
+    static void writeStringArray(JsonGenerator gen, SerializableString name, String[] values) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+        } else {
+            gen.writeArray(values, 0, values.length);
+        }
+    }
+
+    static <T> void writeObject(JsonGenerator gen, SerializableString name, T value, Writer<T> writer) throws IOException {
+        gen.writeFieldName(name);
+        writer.write(value, gen);
+    }
+
+    static <T> void writeList(JsonGenerator gen, SerializableString name, List<T> values, Writer<T> element) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(values, values.size());
+        for (T value : values) {
+            element.write(value, gen);
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,23 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link ModelsModule} with the application's ObjectMapper, and through it with
+ * every mapper derived from it, such as the Smile one. Set
+ * {@code jackson.models-module.enabled=false} to fall back to plain databind.
+ */
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration")
+@ConditionalOnClass(ObjectMapper.class)
+@ConditionalOnProperty(name = "jackson.models-module.enabled", matchIfMissing = true)
+public class ModelsJacksonAutoConfiguration {
+
+    @Bean
+    public ModelsModule modelsModule() {
+        return new ModelsModule();
+    }
+}
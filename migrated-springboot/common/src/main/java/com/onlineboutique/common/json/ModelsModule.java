@@ -0,0 +1,55 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.onlineboutique.common.model.Address;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.OrderItem;
+import com.onlineboutique.common.model.OrderResult;
+import com.onlineboutique.common.model.Product;
+
+import java.io.IOException;
+
+/**
+ * Jackson module with hand-written serializers for the models on every service hop:
+ * {@link Money}, {@link Product}, {@link CartItem}, {@link OrderItem}, {@link Address}
+ * and {@link OrderResult}. They write and read exactly the fields databind derives from
+ * the models' annotations, in the same order, with pre-encoded field names and no
+ * reflection or boxing beyond the models' own getters. Works for JSON and Smile alike.
+ * <p>
+ * A model field added without updating its {@code *Json} class is not serialized;
+ * {@code ModelsModuleTest} compares every model against plain databind to catch that.
+ */
+public class ModelsModule extends SimpleModule {
+
+    public ModelsModule() {
+        super("online-boutique-models");
+        add(Money.class, MoneyJson::write, MoneyJson::read);
+        add(Product.class, ProductJson::write, ProductJson::read);
+        add(CartItem.class, CartItemJson::write, CartItemJson::read);
+        add(OrderItem.class, OrderItemJson::write, OrderItemJson::read);
+        add(Address.class, AddressJson::write, AddressJson::read);
+        add(OrderResult.class, OrderResultJson::write, OrderResultJson::read);
+    }
+
+    private <T> void add(Class<T> type, JsonFields.Writer<T> writer, JsonFields.Reader<T> reader) {
+        addSerializer(type, new StdSerializer<>(type) {
+            @Override
+            public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                writer.write(value, gen);
+            }
+        });
+        addDeserializer(type, new StdDeserializer<>(type) {
+            @Override
+            public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+                return reader.read(p, ctxt);
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.Money;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link Money}: {@code currency_code}, {@code units}, {@code nanos}
+ */
+final class MoneyJson {
+
+    private static final SerializedString CURRENCY_CODE = new SerializedString("currency_code");
+    private static final SerializedString UNITS = new SerializedString("units");
+    private static final SerializedString NANOS = new SerializedString("nanos");
+
+    private MoneyJson() {}
+
+    static void write(Money money, JsonGenerator gen) throws IOException {
+        if (money == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(money);
+        JsonFields.writeNumber(gen, UNITS, money.getUnits());
+        JsonFields.writeNumber(gen, NANOS, money.getNanos());
+        JsonFields.writeString(gen, CURRENCY_CODE, money.getCurrencyCode());
+        gen.writeEndObject();
+    }
+
+    static Money read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Money money = new Money();
+        for (String name = JsonFields.firstField(p, ctxt, Money.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "currency_code" -> money.setCurrencyCode(JsonFields.readString(p, ctxt));
+                case "units" -> money.setUnits(JsonFields.readLong(p, ctxt));
+                case "nanos" -> money.setNanos(JsonFields.readInteger(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, null, Money.class, name);
+            }
+        }
+        return money;
+    }
+}
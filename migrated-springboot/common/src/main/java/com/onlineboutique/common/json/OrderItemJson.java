@@ -0,0 +1,48 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.OrderItem;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link OrderItem}: {@code item}, {@code cost}
+ */
+final class OrderItemJson {
+
+    private static final SerializedString ITEM = new SerializedString("item");
+    private static final SerializedString COST = new SerializedString("cost");
+
+    private OrderItemJson() {}
+
+    static void write(OrderItem orderItem, JsonGenerator gen) throws IOException {
+        if (orderItem == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(orderItem);
+        JsonFields.writeObject(gen, ITEM, orderItem.getItem(), CartItemJson::write);
+        JsonFields.writeObject(gen, COST, orderItem.getCost(), MoneyJson::write);
+        gen.writeEndObject();
+    }
+
+    static OrderItem read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        OrderItem orderItem = new OrderItem();
+        for (String name = JsonFields.firstField(p, ctxt, OrderItem.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "item" -> orderItem.setItem(CartItemJson.read(p, ctxt));
+                case "cost" -> orderItem.setCost(MoneyJson.read(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, null, OrderItem.class, name);
+            }
+        }
+        return orderItem;
+    }
+}
@@ -0,0 +1,59 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.OrderItem;
+import com.onlineboutique.common.model.OrderResult;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link OrderResult}: {@code order_id}, {@code shipping_tracking_id},
+ * {@code shipping_cost}, {@code shipping_address}, {@code items}
+ */
+final class OrderResultJson {
+
+    private static final SerializedString ORDER_ID = new SerializedString("order_id");
+    private static final SerializedString SHIPPING_TRACKING_ID = new SerializedString("shipping_tracking_id");
+    private static final SerializedString SHIPPING_COST = new SerializedString("shipping_cost");
+    private static final SerializedString SHIPPING_ADDRESS = new SerializedString("shipping_address");
+    private static final SerializedString ITEMS = new SerializedString("items");
+
+    private OrderResultJson() {}
+
+    static void write(OrderResult result, JsonGenerator gen) throws IOException {
+        if (result == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(result);
+        JsonFields.writeList(gen, ITEMS, result.getItems(), OrderItemJson::write);
+        JsonFields.writeString(gen, ORDER_ID, result.getOrderId());
+        JsonFields.writeString(gen, SHIPPING_TRACKING_ID, result.getShippingTrackingId());
+        JsonFields.writeObject(gen, SHIPPING_COST, result.getShippingCost(), MoneyJson::write);
+        JsonFields.writeObject(gen, SHIPPING_ADDRESS, result.getShippingAddress(), AddressJson::write);
+        gen.writeEndObject();
+    }
+
+    static OrderResult read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        OrderResult result = new OrderResult();
+        for (String name = JsonFields.firstField(p, ctxt, OrderResult.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "order_id" -> result.setOrderId(JsonFields.readString(p, ctxt));
+                case "shipping_tracking_id" -> result.setShippingTrackingId(JsonFields.readString(p, ctxt));
+                case "shipping_cost" -> result.setShippingCost(MoneyJson.read(p, ctxt));
+                case "shipping_address" -> result.setShippingAddress(AddressJson.read(p, ctxt));
+                case "items" -> result.setItems(JsonFields.readList(p, ctxt, OrderItem.class, OrderItemJson::read));
+                default -> ctxt.handleUnknownProperty(p, null, OrderResult.class, name);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.onlineboutique.common.model.Product;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link Product}: {@code id}, {@code name}, {@code description},
+ * {@code picture}, {@code price_usd}, {@code categories}
+ */
+final class ProductJson {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PICTURE = new SerializedString("picture");
+    private static final SerializedString PRICE_USD = new SerializedString("price_usd");
+    private static final SerializedString CATEGORIES = new SerializedString("categories");
+
+    private ProductJson() {}
+
+    static void write(Product product, JsonGenerator gen) throws IOException {
+        if (product == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(product);
+        JsonFields.writeString(gen, ID, product.getId());
+        JsonFields.writeString(gen, NAME, product.getName());
+        JsonFields.writeString(gen, DESCRIPTION, product.getDescription());
+        JsonFields.writeString(gen, PICTURE, product.getPicture());
+        JsonFields.writeStringArray(gen, CATEGORIES, product.getCategories());
+        JsonFields.writeObject(gen, PRICE_USD, product.getPriceUsd(), MoneyJson::write);
+        gen.writeEndObject();
+    }
+
+    static Product read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Product product = new Product();
+        for (String name = JsonFields.firstField(p, ctxt, Product.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "id" -> product.setId(JsonFields.readString(p, ctxt));
+                case "name" -> product.setName(JsonFields.readString(p, ctxt));
+                case "description" -> product.setDescription(JsonFields.readString(p, ctxt));
+                case "picture" -> product.setPicture(JsonFields.readString(p, ctxt));
+                case "price_usd" -> product.setPriceUsd(MoneyJson.read(p, ctxt));
+                case "categories" -> product.setCategories(JsonFields.readStringArray(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, null, Product.class, name);
+            }
+        }
+        return product;
+    }
+}
@@ -0,0 +1,61 @@
+package com.onlineboutique.common.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Objects;
+
+/**
+ * Text advertisement linking to a page of the shop.
+ * Migrated from: protos/demo.proto Ad message
+ */
+public class Ad {
+
+    @NotBlank(message = "Redirect URL is required")
+    @JsonProperty("redirect_url")
+    private String redirectUrl;
+
+    @NotBlank(message = "Ad text is required")
+    private String text;
+
+    public Ad() {}
+
+    public Ad(String redirectUrl, String text) {
+        this.redirectUrl = redirectUrl;
+        this.text = text;
+    }
+
+    public String getRedirectUrl() {
+        return redirectUrl;
+    }
+
+    public void setRedirectUrl(String redirectUrl) {
+        this.redirectUrl = redirectUrl;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Ad ad = (Ad) o;
+        return Objects.equals(redirectUrl, ad.redirectUrl) && Objects.equals(text, ad.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(redirectUrl, text);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Ad{redirectUrl='%s', text='%s'}", redirectUrl, text);
+    }
+}
@@ -0,0 +1,83 @@
+package com.onlineboutique.common.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Versioned snapshot of the currency rate table, expressed as units of each currency per EUR.
+ * Conversions against a snapshot use the same arithmetic as the currency service, so a
+ * client holding the snapshot gets bit-identical results without a network call.
+ */
+public class CurrencyRates {
+
+    private long version;
+
+    @NotNull(message = "Rates are required")
+    @JsonProperty("rates_to_eur")
+    private Map<String, BigDecimal> ratesToEur;
+
+    public CurrencyRates() {}
+
+    public CurrencyRates(long version, Map<String, BigDecimal> ratesToEur) {
+        this.version = version;
+        this.ratesToEur = ratesToEur;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Map<String, BigDecimal> getRatesToEur() {
+        return ratesToEur;
+    }
+
+    public void setRatesToEur(Map<String, BigDecimal> ratesToEur) {
+        this.ratesToEur = ratesToEur;
+    }
+
+    public boolean supports(String currencyCode) {
+        return ratesToEur.containsKey(currencyCode);
+    }
+
+    /**
+     * Convert money using this snapshot
+     */
+    public Money convert(Money from, String toCurrencyCode) {
+        if (from.getCurrencyCode().equals(toCurrencyCode)) {
+            return from;
+        }
+        BigDecimal fromRate = ratesToEur.get(from.getCurrencyCode());
+        if (fromRate == null) {
+            throw new IllegalArgumentException("Unsupported source currency: " + from.getCurrencyCode());
+        }
+        BigDecimal toRate = ratesToEur.get(toCurrencyCode);
+        if (toRate == null) {
+            throw new IllegalArgumentException("Unsupported target currency: " + toCurrencyCode);
+        }
+        return convert(from, fromRate, toRate, toCurrencyCode);
+    }
+
+    /**
+     * Conversion arithmetic shared by the currency service and snapshot holders:
+     * source to EUR rounded half-up to nine places, then EUR to target, truncated to nanos
+     */
+    public static Money convert(Money from, BigDecimal fromRateToEur, BigDecimal toRateToEur, String toCurrencyCode) {
+        BigDecimal eurAmount = from.toBigDecimal().divide(fromRateToEur, 9, RoundingMode.HALF_UP);
+        BigDecimal targetAmount = eurAmount.multiply(toRateToEur);
+        return Money.fromBigDecimal(targetAmount, toCurrencyCode);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CurrencyRates{version=%d, currencies=%d}",
+                version, ratesToEur == null ? 0 : ratesToEur.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.onlineboutique.common.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a faceted catalog query: one page of matching products, the total match
+ * count, and per-facet counts for refining the selection.
+ * Category counts are computed against the price filter only, and price bucket counts
+ * against the category filter only, so each shows what selecting that value would yield.
+ */
+public class ProductFacets {
+
+    private List<ProductSummary> products;
+
+    private int total;
+
+    @JsonProperty("category_counts")
+    private Map<String, Integer> categoryCounts;
+
+    @JsonProperty("price_bucket_counts")
+    private Map<String, Integer> priceBucketCounts;
+
+    public ProductFacets() {}
+
+    public ProductFacets(List<ProductSummary> products, int total,
+                         Map<String, Integer> categoryCounts, Map<String, Integer> priceBucketCounts) {
+        this.products = products;
+        this.total = total;
+        this.categoryCounts = categoryCounts;
+        this.priceBucketCounts = priceBucketCounts;
+    }
+
+    public List<ProductSummary> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductSummary> products) {
+        this.products = products;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public void setCategoryCounts(Map<String, Integer> categoryCounts) {
+        this.categoryCounts = categoryCounts;
+    }
+
+    public Map<String, Integer> getPriceBucketCounts() {
+        return priceBucketCounts;
+    }
+
+    public void setPriceBucketCounts(Map<String, Integer> priceBucketCounts) {
+        this.priceBucketCounts = priceBucketCounts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductFacets{total=%d, page=%d}", total, products == null ? 0 : products.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.onlineboutique.common.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated slice of the product catalog.
+ * Pass {@code nextAfter} back as the {@code after} parameter to fetch the next slice;
+ * it is {@code null} on the last page.
+ */
+public class ProductPage {
+
+    @NotNull(message = "Products are required")
+    private List<Product> products;
+
+    @JsonProperty("next_after")
+    private String nextAfter;
+
+    public ProductPage() {}
+
+    public ProductPage(List<Product> products, String nextAfter) {
+        this.products = products;
+        this.nextAfter = nextAfter;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+
+    public String getNextAfter() {
+        return nextAfter;
+    }
+
+    public void setNextAfter(String nextAfter) {
+        this.nextAfter = nextAfter;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductPage{size=%d, nextAfter='%s'}",
+                products == null ? 0 : products.size(), nextAfter);
+    }
+}
@@ -0,0 +1,105 @@
+package com.onlineboutique.common.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lightweight product view for list and grid pages.
+ * Carries only what a product card renders: no description and no audit timestamps.
+ */
+public class ProductSummary {
+
+    @NotBlank(message = "Product ID is required")
+    private String id;
+
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    private String picture;
+
+    @NotNull(message = "Price is required")
+    @JsonProperty("price_usd")
+    private Money priceUsd;
+
+    private List<String> categories;
+
+    public ProductSummary() {}
+
+    public ProductSummary(String id, String name, String picture, Money priceUsd, List<String> categories) {
+        this.id = id;
+        this.name = name;
+        this.picture = picture;
+        this.priceUsd = priceUsd;
+        this.categories = categories;
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions, which select the price as raw columns
+     */
+    public ProductSummary(String id, String name, String picture,
+                          Long priceUsdUnits, Integer priceUsdNanos, List<String> categories) {
+        this(id, name, picture, new Money("USD", priceUsdUnits, priceUsdNanos), categories);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPicture() {
+        return picture;
+    }
+
+    public void setPicture(String picture) {
+        this.picture = picture;
+    }
+
+    public Money getPriceUsd() {
+        return priceUsd;
+    }
+
+    public void setPriceUsd(Money priceUsd) {
+        this.priceUsd = priceUsd;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductSummary that = (ProductSummary) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductSummary{id='%s', name='%s', priceUsd=%s}", id, name, priceUsd);
+    }
+}
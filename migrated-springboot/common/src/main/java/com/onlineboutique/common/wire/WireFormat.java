@@ -0,0 +1,67 @@
+package com.onlineboutique.common.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Encodings services exchange message bodies in.
+ * JSON stays the default for every caller; internal callers opt into Smile, Jackson's binary
+ * JSON, by listing it in {@code Accept}. Both encode the same Jackson model, so every
+ * {@code @JsonProperty} name and type is shared between them.
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(MediaType.parseMediaType(WireFormat.SMILE_VALUE));
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * {@code Accept} value for callers that prefer Smile but also take JSON, such as from a
+     * service that has not been upgraded yet
+     */
+    public static final String SMILE_PREFERRED = SMILE_VALUE + ", application/json;q=0.9";
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Mapper for this format with the same configuration and modules as {@code jsonMapper}
+     */
+    public ObjectMapper mapper(ObjectMapper jsonMapper) {
+        return this == JSON ? jsonMapper : jsonMapper.copyWith(new SmileFactory());
+    }
+
+    /**
+     * Format to answer a request with: Smile only when {@code Accept} names it explicitly at
+     * no lower quality than JSON, so browsers and wildcard callers keep getting JSON
+     */
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || !accept.contains(SMILE_VALUE)) {
+            return JSON;
+        }
+        double smile = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(SMILE.mediaType)) {
+                    smile = Math.max(smile, type.getQualityValue());
+                } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        return smile > 0 && smile >= json ? SMILE : JSON;
+    }
+}
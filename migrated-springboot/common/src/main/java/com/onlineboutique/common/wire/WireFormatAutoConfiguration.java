@@ -0,0 +1,59 @@
+package com.onlineboutique.common.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+
+/**
+ * Makes the Smile codecs Spring registers by default use the application's Jackson
+ * configuration, so a Smile body carries exactly the fields its JSON form would.
+ * Servlet services answer {@code Accept: application/x-jackson-smile} through the MVC
+ * converter; WebClient (and WebFlux servers) through the codec customizer.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration")
+@ConditionalOnClass({SmileFactory.class, ObjectMapper.class})
+public class WireFormatAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(MappingJackson2SmileHttpMessageConverter.class)
+    @ConditionalOnBean(ObjectMapper.class)
+    static class ServletSmileConfiguration {
+
+        /**
+         * Replaces, in place, the default Smile converter, which sits after the JSON one
+         */
+        @Bean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+            return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapper(objectMapper));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({CodecCustomizer.class, CodecConfigurer.class, Jackson2SmileEncoder.class})
+    @ConditionalOnBean(ObjectMapper.class)
+    static class CodecSmileConfiguration {
+
+        @Bean
+        public CodecCustomizer smileCodecCustomizer(ObjectMapper objectMapper) {
+            ObjectMapper smileMapper = WireFormat.SMILE.mapper(objectMapper);
+            // Without explicit mime types these codecs would claim the JSON ones
+            MimeType smile = WireFormat.SMILE.getMediaType();
+            return configurer -> {
+                configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, smile));
+                configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, smile));
+            };
+        }
+    }
+}
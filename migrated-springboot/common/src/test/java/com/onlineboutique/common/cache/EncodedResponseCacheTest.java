@@ -0,0 +1,108 @@
+package com.onlineboutique.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.wire.WireFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedResponseCacheTest {
+
+    private final EncodedResponseCache cache = new EncodedResponseCache("test", new ObjectMapper(), 2, true,
+            new SimpleMeterRegistry());
+
+    private final AtomicInteger encodes = new AtomicInteger();
+
+    private Supplier<Object> body(Object value) {
+        return () -> {
+            encodes.incrementAndGet();
+            return value;
+        };
+    }
+
+    @Test
+    void testHitReturnsBytesEncodedOnce() {
+        EncodedResponse first = cache.get("k", 1, body(List.of("a", "b")));
+        EncodedResponse second = cache.get("k", 1, body(List.of("a", "b")));
+
+        assertSame(first, second);
+        assertEquals(1, encodes.get());
+        assertEquals("[\"a\",\"b\"]", new String(first.getBody()));
+    }
+
+    @Test
+    void testFormatsAreCachedSeparately() {
+        EncodedResponse json = cache.get("k", 1, WireFormat.JSON, body("value"));
+        EncodedResponse smile = cache.get("k", 1, WireFormat.SMILE, body("value"));
+
+        assertEquals(WireFormat.JSON.getMediaType(), json.getContentType());
+        assertEquals(WireFormat.SMILE.getMediaType(), smile.getContentType());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testNewerVersionDropsEntries() {
+        cache.get("a", 1, body("a"));
+        cache.get("b", 1, body("b"));
+
+        EncodedResponse updated = cache.get("a", 2, body("a2"));
+
+        assertEquals(2, updated.getVersion());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testOlderVersionDoesNotMoveVersionBackwards() {
+        EncodedResponse current = cache.get("k", 2, body("current"));
+
+        // A request that read the version before it advanced
+        EncodedResponse stale = cache.get("k", 1, body("stale"));
+
+        assertEquals("\"stale\"", new String(stale.getBody()));
+        assertSame(current, cache.get("k", 2, body("current")));
+        assertEquals(2, encodes.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testStopsAdmittingAtMaxEntries() {
+        cache.get("a", 1, body("a"));
+        cache.get("b", 1, body("b"));
+        EncodedResponse c = cache.get("c", 1, body("c"));
+
+        assertNotNull(c);
+        assertEquals(2, cache.size());
+        cache.get("c", 1, body("c"));
+        assertEquals(4, encodes.get());
+    }
+
+    @Test
+    void testNullBodyIsNotCached() {
+        assertNull(cache.get("missing", 1, body(null)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testGzipVariantOnlyForLargeBodies() {
+        EncodedResponse small = cache.get("small", 1, body("x"));
+        EncodedResponse large = cache.get("large", 1, body("x".repeat(EncodedResponseCache.GZIP_MIN_BYTES)));
+
+        assertNull(small.getGzipBody());
+        assertNotNull(large.getGzipBody());
+        assertTrue(large.getGzipBody().length < large.getBody().length);
+    }
+
+    @Test
+    void testEtagDependsOnContentOnly() {
+        EncodedResponse first = cache.get("a", 1, body("same"));
+        EncodedResponse second = cache.get("b", 2, body("same"));
+
+        assertEquals(first.getEtag(), second.getEtag());
+        assertNotEquals(first.getEtag(), cache.get("c", 2, body("other")).getEtag());
+    }
+}
@@ -0,0 +1,57 @@
+package com.onlineboutique.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedResponseTest {
+
+    private final EncodedResponse response = new EncodedResponse(1, MediaType.APPLICATION_JSON,
+            new byte[] {1}, new byte[] {2}, "\"etag\"");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "deflate, gzip", "br;q=1.0, gzip;q=0.5", "gzip ; q=0.001", "gzip;q=1"})
+    void testAcceptsGzip(String acceptEncoding) {
+        assertTrue(EncodedResponse.acceptsGzip(acceptEncoding));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"deflate", "br, identity", "gzip;q=0", "gzip; q=0.000", "x-gzip", "gzipped"})
+    void testDoesNotAcceptGzip(String acceptEncoding) {
+        assertFalse(EncodedResponse.acceptsGzip(acceptEncoding));
+    }
+
+    @Test
+    void testServesGzipVariantWhenAccepted() {
+        ResponseEntity<byte[]> entity = response.toResponseEntity("gzip", null);
+
+        assertArrayEquals(new byte[] {2}, entity.getBody());
+        assertEquals("gzip", entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(entity.getHeaders().getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void testServesIdentityWhenGzipNotAccepted() {
+        ResponseEntity<byte[]> entity = response.toResponseEntity("gzip;q=0", null);
+
+        assertArrayEquals(new byte[] {1}, entity.getBody());
+        assertNull(entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testMatchingEtagIsNotModified() {
+        ResponseEntity<byte[]> entity = response.toResponseEntity("gzip", "W/\"other\", \"etag\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+        assertNull(entity.getBody());
+        assertEquals("\"etag\"", entity.getHeaders().getETag());
+    }
+}
@@ -0,0 +1,195 @@
+package com.onlineboutique.common.client;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamClientTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private DownstreamSettings settings() {
+        DownstreamSettings settings = new DownstreamSettings();
+        settings.setTimeout(Duration.ofMillis(200));
+        settings.getRetry().setMaxAttempts(3);
+        settings.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        settings.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        return settings;
+    }
+
+    /**
+     * Client whose requests are answered with {@code statuses} in turn, the last one repeating
+     */
+    private DownstreamClient client(DownstreamSettings settings, HttpStatus... statuses) {
+        Deque<HttpStatus> responses = new ArrayDeque<>(Arrays.asList(statuses));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.incrementAndGet();
+                    HttpStatus status = responses.size() > 1 ? responses.poll() : responses.peek();
+                    return Mono.just(ClientResponse.create(status).body("body").build());
+                })
+                .build();
+        return new DownstreamClient("test", webClient, new NoChannel(), settings, meterRegistry);
+    }
+
+    private static Mono<String> get(WebClient webClient) {
+        return webClient.get().uri("/resource").retrieve().bodyToMono(String.class);
+    }
+
+    @Test
+    void testTransientFailureIsRetried() {
+        DownstreamClient client = client(settings(), HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+
+        assertEquals("body", client.execute("get", DownstreamClientTest::get).block());
+        assertEquals(2, requests.get());
+        assertEquals(1, meterRegistry.counter("downstream.client.retries", "client", "test", "result", "attempted").count());
+    }
+
+    @Test
+    void testRetriesStopAtMaxAttempts() {
+        DownstreamClient client = client(settings(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.execute("get", DownstreamClientTest::get).block());
+
+        assertEquals(DownstreamException.Kind.SERVER_ERROR, error.getKind());
+        assertEquals(503, error.getStatusCode());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void testExecuteOnceIsNeverRetried() {
+        DownstreamClient client = client(settings(), HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.executeOnce("charge", webClient -> webClient.post().uri("/charge")
+                        .retrieve().bodyToMono(String.class)).block());
+
+        assertEquals(503, error.getStatusCode());
+        assertEquals(1, requests.get());
+        assertEquals(0, meterRegistry.counter("downstream.client.retries", "client", "test", "result", "attempted").count());
+    }
+
+    @Test
+    void testGrpcOnceIsNeverRetried() {
+        DownstreamClient client = client(settings(), HttpStatus.OK);
+        AtomicInteger calls = new AtomicInteger();
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.executeGrpcOnce("place-order", channel -> Mono.fromCallable(() -> {
+                    calls.incrementAndGet();
+                    throw Status.UNAVAILABLE.asRuntimeException();
+                })).block());
+
+        assertEquals(DownstreamException.Kind.UNAVAILABLE, error.getKind());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExhaustedRetryBudgetRejectsRetry() {
+        DownstreamSettings settings = settings();
+        settings.getRetry().setBudgetRatio(0);
+        settings.getRetry().setMinRetriesPerSecond(0);
+        DownstreamClient client = client(settings, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+
+        assertThrows(DownstreamException.class, () -> client.execute("get", DownstreamClientTest::get).block());
+
+        assertEquals(1, requests.get());
+        assertEquals(1, meterRegistry.counter("downstream.client.retries", "client", "test", "result", "rejected").count());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "400, CLIENT_ERROR, 1",
+            "404, CLIENT_ERROR, 1",
+            "429, CLIENT_ERROR, 3",
+            "500, SERVER_ERROR, 1",
+            "502, SERVER_ERROR, 3",
+            "503, SERVER_ERROR, 3",
+            "504, SERVER_ERROR, 3"
+    })
+    void testHttpStatusMapping(int status, DownstreamException.Kind kind, int attempts) {
+        DownstreamClient client = client(settings(), HttpStatus.valueOf(status));
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.execute("get", DownstreamClientTest::get).block());
+
+        assertEquals(kind, error.getKind());
+        assertEquals(status, error.getStatusCode());
+        assertEquals("test", error.getClient());
+        assertEquals("get", error.getOperation());
+        assertEquals(attempts, requests.get());
+    }
+
+    @Test
+    void testAttemptPastTimeoutIsTimeout() {
+        DownstreamSettings settings = settings();
+        settings.getRetry().setMaxAttempts(1);
+        DownstreamClient client = client(settings, HttpStatus.OK);
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.execute("get", webClient -> Mono.<String>never()).block(Duration.ofSeconds(5)));
+
+        assertEquals(DownstreamException.Kind.TIMEOUT, error.getKind());
+        assertTrue(DownstreamException.isTimeout(error));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "NOT_FOUND, CLIENT_ERROR, 404",
+            "INVALID_ARGUMENT, CLIENT_ERROR, 400",
+            "RESOURCE_EXHAUSTED, CLIENT_ERROR, 429",
+            "INTERNAL, SERVER_ERROR, 500",
+            "UNIMPLEMENTED, SERVER_ERROR, 501",
+            "DEADLINE_EXCEEDED, TIMEOUT, 0",
+            "UNAVAILABLE, UNAVAILABLE, 0"
+    })
+    void testGrpcStatusMapping(Status.Code code, DownstreamException.Kind kind, int status) {
+        DownstreamSettings settings = settings();
+        settings.getRetry().setMaxAttempts(1);
+        DownstreamClient client = client(settings, HttpStatus.OK);
+
+        DownstreamException error = assertThrows(DownstreamException.class,
+                () -> client.executeGrpc("get", channel -> Mono.error(Status.fromCode(code).asRuntimeException())).block());
+
+        assertEquals(kind, error.getKind());
+        assertEquals(status, error.getStatusCode());
+    }
+
+    /**
+     * Channel for clients on the gRPC transport whose calls never reach it
+     */
+    private static class NoChannel extends Channel {
+
+        @Override
+        public <Q, R> ClientCall<Q, R> newCall(MethodDescriptor<Q, R> method, CallOptions callOptions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String authority() {
+            return "test";
+        }
+    }
+}
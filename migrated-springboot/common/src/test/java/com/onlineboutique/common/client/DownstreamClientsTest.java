@@ -0,0 +1,90 @@
+package com.onlineboutique.common.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamClientsTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("services.cart.url", "http://cart:3552")
+            .withProperty("services.cart.grpc-target", "dns:///cart:13552")
+            .withProperty("services.currency.url", "http://currency:3551")
+            .withProperty("downstream.defaults.timeout", "1s")
+            .withProperty("downstream.defaults.max-connections", "200")
+            .withProperty("downstream.defaults.retry.max-attempts", "4")
+            .withProperty("downstream.defaults.retry.initial-backoff", "25ms");
+
+    private final DownstreamClients clients = new DownstreamClients(environment, WebClient.builder(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void testClientSettingsOverlayDefaults() {
+        environment.withProperty("downstream.clients.cart.timeout", "3s")
+                .withProperty("downstream.clients.cart.retry.max-attempts", "1");
+
+        DownstreamSettings settings = clients.settings("cart");
+
+        // Set for the client
+        assertEquals(Duration.ofSeconds(3), settings.getTimeout());
+        assertEquals(1, settings.getRetry().getMaxAttempts());
+        // Inherited from the defaults, including fields of the nested retry settings
+        assertEquals(200, settings.getMaxConnections());
+        assertEquals(Duration.ofMillis(25), settings.getRetry().getInitialBackoff());
+        // Neither set: the class defaults
+        assertEquals(0.1, settings.getRetry().getBudgetRatio());
+        assertEquals("http://cart:3552", settings.getUrl());
+    }
+
+    @Test
+    void testOverlayDoesNotLeakIntoOtherClients() {
+        environment.withProperty("downstream.clients.cart.timeout", "3s")
+                .withProperty("downstream.clients.cart.retry.max-attempts", "1");
+
+        clients.settings("cart");
+        DownstreamSettings currency = clients.settings("currency");
+
+        assertEquals(Duration.ofSeconds(1), currency.getTimeout());
+        assertEquals(4, currency.getRetry().getMaxAttempts());
+    }
+
+    @Test
+    void testClientWithoutOwnSettingsGetsDefaults() {
+        DownstreamSettings settings = clients.settings("currency");
+
+        assertEquals(Duration.ofSeconds(1), settings.getTimeout());
+        assertEquals(4, settings.getRetry().getMaxAttempts());
+        assertEquals(DownstreamSettings.Transport.REST, settings.getTransport());
+        assertNull(settings.getGrpcTarget());
+    }
+
+    @Test
+    void testClientUrlOverridesServiceUrl() {
+        environment.withProperty("downstream.clients.cart.url", "http://cart-canary:3552");
+
+        assertEquals("http://cart-canary:3552", clients.settings("cart").getUrl());
+    }
+
+    @Test
+    void testGrpcTargetDefaultsToServiceTarget() {
+        environment.withProperty("downstream.clients.cart.transport", "grpc");
+
+        DownstreamSettings settings = clients.settings("cart");
+
+        assertEquals(DownstreamSettings.Transport.GRPC, settings.getTransport());
+        assertEquals("dns:///cart:13552", settings.getGrpcTarget());
+    }
+
+    @Test
+    void testMissingUrlOrGrpcTargetFails() {
+        environment.withProperty("downstream.clients.currency.transport", "grpc");
+
+        assertThrows(IllegalStateException.class, () -> clients.settings("checkout"));
+        assertThrows(IllegalStateException.class, () -> clients.settings("currency"));
+    }
+}
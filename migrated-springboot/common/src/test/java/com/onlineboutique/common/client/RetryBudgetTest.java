@@ -0,0 +1,71 @@
+package com.onlineboutique.common.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void testDepositsFundRetriesAtRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 0);
+
+        for (int i = 0; i < 20; i++) {
+            budget.deposit();
+        }
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void testExhaustedBudgetRejectsRetries() {
+        RetryBudget budget = new RetryBudget(0.1, 0);
+
+        for (int i = 0; i < 9; i++) {
+            budget.deposit();
+        }
+
+        // 0.9 of a retry is not enough for one
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void testMinimumPerSecondNeedsNoDeposits() {
+        RetryBudget budget = new RetryBudget(0, 3);
+
+        int allowed = 0;
+        while (allowed < 10 && budget.tryWithdraw()) {
+            allowed++;
+        }
+
+        // A fourth could only pass if the second rolled over during the loop
+        assertTrue(allowed >= 3 && allowed < 10, "allowed " + allowed);
+    }
+
+    @Test
+    void testBalanceIsCapped() {
+        RetryBudget budget = new RetryBudget(1, 0);
+
+        // A long healthy period funds at most minPerSecond + 10 retries
+        for (int i = 0; i < 1_000; i++) {
+            budget.deposit();
+        }
+
+        int allowed = 0;
+        while (budget.tryWithdraw()) {
+            allowed++;
+        }
+        assertEquals(10, allowed);
+    }
+
+    @Test
+    void testNegativeSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, -1));
+    }
+}
@@ -0,0 +1,141 @@
+package com.onlineboutique.common.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.onlineboutique.common.model.Address;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.OrderItem;
+import com.onlineboutique.common.model.OrderResult;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.wire.WireFormat;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compatibility of the hand-written model serializers with plain databind: both must
+ * produce the same bytes, and each must read what the other writes.
+ */
+class ModelsModuleTest {
+
+    /**
+     * Configured like Spring Boot's ObjectMapper, which ignores unknown properties
+     */
+    private final ObjectMapper databind = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ObjectMapper handWritten = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new ModelsModule());
+
+    static Stream<Object> models() {
+        Money price = new Money("USD", 19L, 990000000);
+        CartItem cartItem = new CartItem("OLJCESPC7Z", 3);
+        OrderItem orderItem = new OrderItem(cartItem, new Money("EUR", 52L, 760000000));
+        Address address = new Address("1600 Amphitheatre Parkway", "Mountain View", "CA", "United States", 94043);
+        return Stream.of(
+                price,
+                new Money(null, null, null),
+                new Product("OLJCESPC7Z", "Sunglasses", "Add a modern touch to your outfits with \"these\" sleek aviator sunglasses.",
+                        "/static/img/products/sunglasses.jpg", price, new String[] {"accessories", "summer"}),
+                new Product("EMPTY", null, null, null, null, null),
+                new Product("NOCATEGORIES", "Mug", "", "/mug.jpg", price, new String[0]),
+                cartItem,
+                new CartItem(null, null),
+                orderItem,
+                new OrderItem(null, null),
+                address,
+                new Address(null, null, null, null, null),
+                new OrderResult("order-1", "tracking-1", new Money("EUR", 8L, 990000000), address,
+                        List.of(orderItem, new OrderItem(new CartItem("66VCHSJNUP", 1), price))),
+                new OrderResult("order-2", null, null, null, null),
+                new OrderResult("order-3", "tracking-3", price, address, List.of()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("models")
+    void testWritesSameJsonAsDatabind(Object model) throws Exception {
+        assertEquals(databind.writeValueAsString(model), handWritten.writeValueAsString(model));
+    }
+
+    @ParameterizedTest
+    @MethodSource("models")
+    void testReadsJsonWrittenByDatabind(Object model) throws Exception {
+        String json = databind.writeValueAsString(model);
+        Object read = handWritten.readValue(json, model.getClass());
+        assertEquals(json, databind.writeValueAsString(read));
+    }
+
+    @ParameterizedTest
+    @MethodSource("models")
+    void testDatabindReadsJsonWrittenByModule(Object model) throws Exception {
+        String json = handWritten.writeValueAsString(model);
+        Object read = databind.readValue(json, model.getClass());
+        assertEquals(json, handWritten.writeValueAsString(read));
+    }
+
+    @ParameterizedTest
+    @MethodSource("models")
+    void testSmileRoundTripMatchesDatabind(Object model) throws Exception {
+        ObjectMapper databindSmile = WireFormat.SMILE.mapper(databind);
+        ObjectMapper handWrittenSmile = WireFormat.SMILE.mapper(handWritten);
+        byte[] smile = handWrittenSmile.writeValueAsBytes(model);
+        assertArrayEquals(databindSmile.writeValueAsBytes(model), smile);
+        assertEquals(databind.writeValueAsString(model),
+                databind.writeValueAsString(handWrittenSmile.readValue(smile, model.getClass())));
+    }
+
+    @Test
+    void testIgnoresUnknownPropertiesAndFieldOrder() throws Exception {
+        String json = "{\"categories\":[\"kitchen\"],\"extra\":{\"nested\":[1,2,{\"a\":null}]},"
+                + "\"price_usd\":{\"nanos\":500000000,\"units\":12,\"currency_code\":\"USD\",\"rate\":1.5},"
+                + "\"id\":\"L9ECAV7KIM\",\"unknown\":\"value\"}";
+
+        Product product = handWritten.readValue(json, Product.class);
+
+        assertEquals("L9ECAV7KIM", product.getId());
+        assertNull(product.getName());
+        assertEquals(new Money("USD", 12L, 500000000), product.getPriceUsd());
+        assertArrayEquals(new String[] {"kitchen"}, product.getCategories());
+    }
+
+    @Test
+    void testRejectsUnknownPropertiesWhenConfigured() {
+        ObjectMapper strict = new ObjectMapper().registerModule(new ModelsModule());
+
+        assertThrows(UnrecognizedPropertyException.class,
+                () -> strict.readValue("{\"product_id\":\"A\",\"quantity\":1,\"size\":\"XL\"}", CartItem.class));
+    }
+
+    @Test
+    void testCoercesScalarsLikeDatabind() throws Exception {
+        String json = "{\"currency_code\":\"JPY\",\"units\":\"1200\",\"nanos\":\"0\"}";
+
+        assertEquals(databind.readValue(json, Money.class), handWritten.readValue(json, Money.class));
+    }
+
+    @Test
+    void testReadsModelsInsideCollections() throws Exception {
+        String json = "[{\"product_id\":\"A\",\"quantity\":1},null,{\"product_id\":\"B\",\"quantity\":2}]";
+
+        CartItem[] items = handWritten.readValue(json, CartItem[].class);
+
+        assertEquals(Arrays.asList(new CartItem("A", 1), null, new CartItem("B", 2)), Arrays.asList(items));
+        assertEquals(2, items[2].getQuantity());
+    }
+
+    @Test
+    void testRejectsNonObjectInput() {
+        assertThrows(MismatchedInputException.class, () -> handWritten.readValue("\"USD 1.00\"", Money.class));
+        assertThrows(MismatchedInputException.class, () -> handWritten.readValue("[1, 2]", Address.class));
+    }
+}
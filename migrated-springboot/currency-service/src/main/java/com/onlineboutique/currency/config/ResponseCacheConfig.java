@@ -0,0 +1,29 @@
+package com.onlineboutique.currency.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.cache.EncodedResponseCache;
+import com.onlineboutique.common.grpc.ProtoMessageCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches of pre-serialized REST and converted gRPC currency responses, invalidated by the rates version
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Value("${currency.response-cache.max-entries:100}")
+    private int maxEntries;
+
+    @Bean
+    public EncodedResponseCache currencyResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new EncodedResponseCache("currency", objectMapper, maxEntries, true, meterRegistry);
+    }
+
+    @Bean
+    public ProtoMessageCache currencyMessageCache(MeterRegistry meterRegistry) {
+        return new ProtoMessageCache("currency-grpc", maxEntries, meterRegistry);
+    }
+}
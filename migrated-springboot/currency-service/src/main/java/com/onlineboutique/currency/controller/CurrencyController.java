@@ -1,16 +1,20 @@
 package com.onlineboutique.currency.controller;
 
+import com.onlineboutique.common.cache.EncodedResponse;
+import com.onlineboutique.common.cache.EncodedResponseCache;
+import com.onlineboutique.common.wire.WireFormat;
+import com.onlineboutique.currency.service.CurrencyRatesVersion;
 import com.onlineboutique.currency.service.CurrencyService;
 import com.onlineboutique.common.model.Money;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 /**
  * Currency REST controller.
@@ -26,15 +30,40 @@ public class CurrencyController {
     @Autowired
     private CurrencyService currencyService;
     
+    @Autowired
+    private EncodedResponseCache currencyResponseCache;
+    
+    @Autowired
+    private CurrencyRatesVersion currencyRatesVersion;
+    
     /**
      * Get supported currencies
      * Migrated from: GetSupportedCurrencies gRPC method
      */
     @GetMapping("/supported")
-    public ResponseEntity<List<String>> getSupportedCurrencies() {
+    public ResponseEntity<byte[]> getSupportedCurrencies(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Getting supported currencies");
-        List<String> currencies = currencyService.getSupportedCurrencies();
-        return ResponseEntity.ok(currencies);
+        EncodedResponse response = currencyResponseCache.get("supported", currencyRatesVersion.current(),
+                WireFormat.negotiate(accept), currencyService::getSupportedCurrencies);
+        return response.toResponseEntity(acceptEncoding, ifNoneMatch);
+    }
+    
+    /**
+     * Versioned snapshot of all rates, for clients that convert locally
+     */
+    @GetMapping("/rates")
+    public ResponseEntity<byte[]> getRates(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Getting currency rate snapshot");
+        long version = currencyRatesVersion.current();
+        EncodedResponse response = currencyResponseCache.get("rates", version,
+                WireFormat.negotiate(accept), () -> currencyService.getRates(version));
+        return response.toResponseEntity(acceptEncoding, ifNoneMatch);
     }
     
     /**
@@ -0,0 +1,68 @@
+package com.onlineboutique.currency.grpc;
+
+import com.onlineboutique.common.grpc.GrpcResponses;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.ProtoMessageCache;
+import com.onlineboutique.common.grpc.v1.ConvertRequest;
+import com.onlineboutique.common.grpc.v1.CurrencyRates;
+import com.onlineboutique.common.grpc.v1.CurrencyServiceGrpc;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.Money;
+import com.onlineboutique.common.grpc.v1.SupportedCurrencies;
+import com.onlineboutique.currency.service.CurrencyRatesVersion;
+import com.onlineboutique.currency.service.CurrencyService;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Currency gRPC endpoint, the internal counterpart of CurrencyController.
+ * Migrated from: src/currencyservice/server.js gRPC endpoints
+ */
+@Component
+public class CurrencyGrpcService extends CurrencyServiceGrpc.CurrencyServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyGrpcService.class);
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private ProtoMessageCache currencyMessageCache;
+
+    @Autowired
+    private CurrencyRatesVersion currencyRatesVersion;
+
+    /**
+     * Migrated from: GetSupportedCurrencies gRPC method
+     */
+    @Override
+    public void getSupportedCurrencies(Empty request, StreamObserver<SupportedCurrencies> responseObserver) {
+        logger.info("Getting supported currencies over gRPC");
+        GrpcResponses.unary(responseObserver, () -> currencyMessageCache.get("supported", currencyRatesVersion.current(),
+                () -> SupportedCurrencies.newBuilder()
+                        .addAllCurrencyCodes(currencyService.getSupportedCurrencies())
+                        .build()));
+    }
+
+    @Override
+    public void getRates(Empty request, StreamObserver<CurrencyRates> responseObserver) {
+        logger.info("Getting currency rate snapshot over gRPC");
+        long version = currencyRatesVersion.current();
+        GrpcResponses.unary(responseObserver, () -> currencyMessageCache.get("rates", version,
+                () -> ProtoMapper.toProto(currencyService.getRates(version))));
+    }
+
+    /**
+     * Migrated from: Convert gRPC method
+     */
+    @Override
+    public void convert(ConvertRequest request, StreamObserver<Money> responseObserver) {
+        logger.info("Converting {} {} to {} over gRPC",
+                request.getFrom().getUnits(), request.getFrom().getCurrencyCode(), request.getToCode());
+        GrpcResponses.unary(responseObserver, () -> ProtoMapper.toProto(
+                currencyService.convert(ProtoMapper.fromProto(request.getFrom()), request.getToCode())));
+    }
+}
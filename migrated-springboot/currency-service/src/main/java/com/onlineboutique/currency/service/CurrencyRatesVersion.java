@@ -0,0 +1,34 @@
+package com.onlineboutique.currency.service;
+
+import com.onlineboutique.common.cache.VersionTracker;
+import com.onlineboutique.currency.repository.CurrencyRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Version of the currency rate table used to key response caches.
+ * The table is small, so its full contents serve as the polled fingerprint.
+ */
+@Component
+public class CurrencyRatesVersion extends VersionTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyRatesVersion.class);
+
+    @Autowired
+    private CurrencyRateRepository currencyRateRepository;
+
+    @Scheduled(fixedDelayString = "${currency.version.poll-interval-ms:5000}")
+    public void refresh() {
+        String fingerprint = currencyRateRepository.findAllByOrderByCurrencyCode().stream()
+                .map(rate -> rate.getCurrencyCode() + "=" + rate.getRateToEur().toPlainString())
+                .collect(Collectors.joining(","));
+        if (observe(fingerprint)) {
+            logger.debug("Currency rates version advanced to {}", current());
+        }
+    }
+}
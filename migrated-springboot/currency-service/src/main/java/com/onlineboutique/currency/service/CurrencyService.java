@@ -2,6 +2,7 @@ package com.onlineboutique.currency.service;
 
 import com.onlineboutique.currency.entity.CurrencyRateEntity;
 import com.onlineboutique.currency.repository.CurrencyRateRepository;
+import com.onlineboutique.common.model.CurrencyRates;
 import com.onlineboutique.common.model.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +12,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -63,11 +66,19 @@ public class CurrencyService {
         }
         
         // Convert: source -> EUR -> target
-        BigDecimal fromAmount = from.toBigDecimal();
-        BigDecimal eurAmount = fromAmount.divide(fromRate.get().getRateToEur(), 9, RoundingMode.HALF_UP);
-        BigDecimal targetAmount = eurAmount.multiply(toRate.get().getRateToEur());
-        
-        return Money.fromBigDecimal(targetAmount, toCurrencyCode);
+        return CurrencyRates.convert(from, fromRate.get().getRateToEur(), toRate.get().getRateToEur(), toCurrencyCode);
+    }
+    
+    /**
+     * Snapshot of the full rate table for clients that convert locally
+     */
+    public CurrencyRates getRates(long version) {
+        logger.debug("Getting currency rate snapshot");
+        Map<String, BigDecimal> ratesToEur = new LinkedHashMap<>();
+        for (CurrencyRateEntity rate : currencyRateRepository.findAllByOrderByCurrencyCode()) {
+            ratesToEur.put(rate.getCurrencyCode(), rate.getRateToEur());
+        }
+        return new CurrencyRates(version, ratesToEur);
     }
     
     /**
@@ -0,0 +1,138 @@
+package com.onlineboutique.currency.grpc;
+
+import com.onlineboutique.common.grpc.GrpcServer;
+import com.onlineboutique.common.grpc.ProtoMessageCache;
+import com.onlineboutique.common.grpc.v1.ConvertRequest;
+import com.onlineboutique.common.grpc.v1.CurrencyRates;
+import com.onlineboutique.common.grpc.v1.CurrencyServiceGrpc;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.Money;
+import com.onlineboutique.common.grpc.v1.SupportedCurrencies;
+import com.onlineboutique.currency.entity.CurrencyRateEntity;
+import com.onlineboutique.currency.repository.CurrencyRateRepository;
+import com.onlineboutique.currency.service.CurrencyRatesVersion;
+import com.onlineboutique.currency.service.CurrencyService;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Contract tests for the currency gRPC endpoint: messages and status codes on the wire,
+ * backed by the real CurrencyService over a mocked rate table.
+ */
+class CurrencyGrpcServiceContractTest {
+
+    private final CurrencyRateRepository currencyRateRepository = mock(CurrencyRateRepository.class);
+
+    private final CurrencyRatesVersion currencyRatesVersion = new CurrencyRatesVersion();
+
+    private GrpcServer grpcServer;
+
+    private ManagedChannel channel;
+
+    private CurrencyServiceGrpc.CurrencyServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() {
+        List<CurrencyRateEntity> rates = List.of(
+                new CurrencyRateEntity("EUR", new BigDecimal("1.0")),
+                new CurrencyRateEntity("JPY", new BigDecimal("126.40")),
+                new CurrencyRateEntity("USD", new BigDecimal("1.1305")));
+        lenient().when(currencyRateRepository.findAllByOrderByCurrencyCode()).thenReturn(rates);
+        for (CurrencyRateEntity rate : rates) {
+            lenient().when(currencyRateRepository.findById(rate.getCurrencyCode())).thenReturn(Optional.of(rate));
+        }
+
+        CurrencyService currencyService = new CurrencyService();
+        ReflectionTestUtils.setField(currencyService, "currencyRateRepository", currencyRateRepository);
+        CurrencyGrpcService service = new CurrencyGrpcService();
+        ReflectionTestUtils.setField(service, "currencyService", currencyService);
+        ReflectionTestUtils.setField(service, "currencyMessageCache",
+                new ProtoMessageCache("currency", 16, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "currencyRatesVersion", currencyRatesVersion);
+        grpcServer = new GrpcServer(0, DataSize.ofMegabytes(4), Duration.ofMinutes(1), Duration.ZERO,
+                List.of(service), new SimpleMeterRegistry());
+        grpcServer.start();
+
+        channel = Grpc.newChannelBuilder("localhost:" + grpcServer.getPort(), InsecureChannelCredentials.create()).build();
+        stub = CurrencyServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        grpcServer.stop();
+    }
+
+    @Test
+    void testGetSupportedCurrenciesContract() {
+        SupportedCurrencies currencies = stub.getSupportedCurrencies(Empty.getDefaultInstance());
+
+        assertEquals(List.of("EUR", "JPY", "USD"), currencies.getCurrencyCodesList());
+    }
+
+    @Test
+    void testGetRatesContract() {
+        CurrencyRates rates = stub.getRates(Empty.getDefaultInstance());
+
+        assertEquals(currencyRatesVersion.current(), rates.getVersion());
+        assertEquals(Map.of("EUR", "1.0", "JPY", "126.40", "USD", "1.1305"), rates.getRatesToEurMap());
+    }
+
+    @Test
+    void testRatesFollowTheRatesVersion() {
+        CurrencyRates before = stub.getRates(Empty.getDefaultInstance());
+
+        currencyRatesVersion.bump();
+        CurrencyRates after = stub.getRates(Empty.getDefaultInstance());
+
+        assertEquals(before.getVersion() + 1, after.getVersion());
+    }
+
+    @Test
+    void testConvertContract() {
+        Money converted = stub.convert(ConvertRequest.newBuilder()
+                .setFrom(Money.newBuilder().setCurrencyCode("USD").setUnits(11).setNanos(305000000))
+                .setToCode("EUR")
+                .build());
+
+        assertEquals("EUR", converted.getCurrencyCode());
+        assertEquals(10, converted.getUnits());
+        assertEquals(0, converted.getNanos());
+    }
+
+    @Test
+    void testConvertToSameCurrencyIsUnchanged() {
+        Money from = Money.newBuilder().setCurrencyCode("JPY").setUnits(1200).build();
+
+        assertEquals(from, stub.convert(ConvertRequest.newBuilder().setFrom(from).setToCode("JPY").build()));
+    }
+
+    @Test
+    void testUnsupportedCurrencyIsInvalidArgument() {
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () -> stub.convert(
+                ConvertRequest.newBuilder()
+                        .setFrom(Money.newBuilder().setCurrencyCode("USD").setUnits(10))
+                        .setToCode("XYZ")
+                        .build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+    }
+}
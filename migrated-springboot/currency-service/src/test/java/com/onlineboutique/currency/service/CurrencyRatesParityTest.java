@@ -0,0 +1,140 @@
+package com.onlineboutique.currency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.model.CurrencyRates;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.currency.entity.CurrencyRateEntity;
+import com.onlineboutique.currency.repository.CurrencyRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Parity between remote conversion in CurrencyService and local conversion against
+ * the rate snapshot the frontend downloads.
+ * The snapshot goes through a JSON round trip, as it does on the wire.
+ */
+@ExtendWith(MockitoExtension.class)
+class CurrencyRatesParityTest {
+
+    /**
+     * Rates seeded by migrations/V3__seed_currencies.sql
+     */
+    private static final String[][] SEEDED_RATES = {
+            {"EUR", "1.0"}, {"USD", "1.1305"}, {"JPY", "126.40"}, {"BGN", "1.9558"},
+            {"CZK", "25.592"}, {"DKK", "7.4609"}, {"GBP", "0.85970"}, {"HUF", "315.51"},
+            {"PLN", "4.2996"}, {"RON", "4.7463"}, {"SEK", "10.5375"}, {"CHF", "1.1360"},
+            {"ISK", "136.80"}, {"NOK", "9.8040"}, {"HRK", "7.4210"}, {"RUB", "74.4208"},
+            {"TRY", "6.1247"}, {"AUD", "1.6072"}, {"BRL", "4.2682"}, {"CAD", "1.5128"},
+            {"CNY", "7.5857"}, {"HKD", "8.8743"}, {"IDR", "15999.40"}, {"ILS", "4.0875"},
+            {"INR", "79.4320"}, {"KRW", "1275.05"}, {"MXN", "21.7999"}, {"MYR", "4.6289"},
+            {"NZD", "1.6679"}, {"PHP", "59.083"}, {"SGD", "1.5349"}, {"THB", "36.012"},
+            {"ZAR", "16.0583"}
+    };
+
+    @Mock
+    private CurrencyRateRepository currencyRateRepository;
+
+    @InjectMocks
+    private CurrencyService currencyService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<CurrencyRateEntity> rates;
+
+    @BeforeEach
+    void setUp() {
+        rates = new ArrayList<>();
+        for (String[] seeded : SEEDED_RATES) {
+            // Stored as DECIMAL(20,8), so rates come back from the database with scale 8
+            rates.add(new CurrencyRateEntity(seeded[0], new BigDecimal(seeded[1]).setScale(8)));
+        }
+        rates.sort((a, b) -> a.getCurrencyCode().compareTo(b.getCurrencyCode()));
+    }
+
+    @Test
+    void testSnapshotSurvivesWireRoundTrip() throws Exception {
+        // Given
+        when(currencyRateRepository.findAllByOrderByCurrencyCode()).thenReturn(rates);
+
+        // When
+        CurrencyRates snapshot = wireSnapshot(7L);
+
+        // Then
+        assertEquals(7L, snapshot.getVersion());
+        assertEquals(SEEDED_RATES.length, snapshot.getRatesToEur().size());
+        for (CurrencyRateEntity rate : rates) {
+            assertEquals(rate.getRateToEur(), snapshot.getRatesToEur().get(rate.getCurrencyCode()));
+        }
+    }
+
+    @Test
+    void testLocalConversionMatchesServiceForAllPairs() throws Exception {
+        // Given
+        when(currencyRateRepository.findAllByOrderByCurrencyCode()).thenReturn(rates);
+        Map<String, CurrencyRateEntity> byCode = rates.stream()
+                .collect(Collectors.toMap(CurrencyRateEntity::getCurrencyCode, Function.identity()));
+        when(currencyRateRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(byCode.get(invocation.<String>getArgument(0))));
+        CurrencyRates snapshot = wireSnapshot(1L);
+
+        List<Money> amounts = new ArrayList<>();
+        Random random = new Random(20251019L);
+        for (CurrencyRateEntity from : rates) {
+            String code = from.getCurrencyCode();
+            amounts.add(new Money(code, 0L, 0));
+            amounts.add(new Money(code, 0L, 1));
+            amounts.add(new Money(code, 0L, 500_000_000));
+            amounts.add(new Money(code, 19L, 990_000_000));
+            amounts.add(new Money(code, 999_999L, 999_999_999));
+            for (int i = 0; i < 20; i++) {
+                amounts.add(new Money(code, (long) random.nextInt(100_000), random.nextInt(1_000_000_000)));
+            }
+        }
+
+        // When & Then
+        int compared = 0;
+        for (Money amount : amounts) {
+            for (CurrencyRateEntity to : rates) {
+                Money remote = currencyService.convert(amount, to.getCurrencyCode());
+                Money local = snapshot.convert(amount, to.getCurrencyCode());
+                assertEquals(remote, local, () -> amount + " -> " + to.getCurrencyCode());
+                compared++;
+            }
+        }
+        assertEquals(amounts.size() * rates.size(), compared);
+    }
+
+    @Test
+    void testLocalConversionRejectsUnknownCurrencies() throws Exception {
+        // Given
+        when(currencyRateRepository.findAllByOrderByCurrencyCode()).thenReturn(rates);
+        CurrencyRates snapshot = wireSnapshot(1L);
+
+        // When & Then
+        assertFalse(snapshot.supports("XXX"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.convert(new Money("XXX", 1L, 0), "USD"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.convert(new Money("USD", 1L, 0), "XXX"));
+    }
+
+    private CurrencyRates wireSnapshot(long version) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(currencyService.getRates(version));
+        return objectMapper.readValue(json, CurrencyRates.class);
+    }
+}
@@ -0,0 +1,156 @@
+package com.onlineboutique.frontend.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time static asset pipeline for the frontend.
+ * Copies every file under the source directories to {@code <output>/static/} with a content
+ * hash in its name, writes gzip and brotli variants next to compressible files, and emits
+ * {@code <output>/asset-manifest.json} mapping each logical path to its fingerprinted path.
+ * <p>
+ * Usage: {@code AssetPipeline <output-dir> <source-dir>...}; later sources win on conflicts.
+ */
+public final class AssetPipeline {
+
+    static final String MANIFEST = "asset-manifest.json";
+
+    private static final int HASH_LENGTH = 10;
+
+    /**
+     * Extensions worth precompressing; images and fonts are already compressed
+     */
+    private static final Set<String> COMPRESSIBLE = Set.of(
+            "css", "js", "mjs", "json", "map", "svg", "ico", "txt", "html", "xml", "webmanifest");
+
+    /**
+     * A variant is kept only if it saves at least this fraction of the original size
+     */
+    private static final double MIN_SAVING = 0.10;
+
+    private AssetPipeline() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: AssetPipeline <output-dir> <source-dir>...");
+        }
+        Path output = Path.of(args[0]);
+        Brotli4jLoader.ensureAvailability();
+
+        Map<String, String> manifest = new TreeMap<>();
+        long[] totals = new long[3];
+        for (int i = 1; i < args.length; i++) {
+            Path source = Path.of(args[i]);
+            if (!Files.isDirectory(source)) {
+                throw new IllegalArgumentException("Asset source directory does not exist: " + source);
+            }
+            for (Path file : list(source)) {
+                String logical = source.relativize(file).toString().replace('\\', '/');
+                byte[] content = Files.readAllBytes(file);
+                String fingerprinted = fingerprint(logical, content);
+                Path target = output.resolve("static").resolve(fingerprinted);
+                Files.createDirectories(target.getParent());
+                Files.write(target, content);
+                manifest.put(logical, fingerprinted);
+                totals[0] += content.length;
+                if (COMPRESSIBLE.contains(extension(logical))) {
+                    totals[1] += writeVariant(target, ".gz", content, gzip(content));
+                    totals[2] += writeVariant(target, ".br", content, brotli(content));
+                }
+            }
+        }
+        Files.writeString(output.resolve(MANIFEST), toJson(manifest), StandardCharsets.UTF_8);
+        System.out.printf("Fingerprinted %d assets (%d bytes); gzip variants %d bytes, brotli variants %d bytes%n",
+                manifest.size(), totals[0], totals[1], totals[2]);
+    }
+
+    /**
+     * {@code styles/styles.css} becomes {@code styles/styles.<hash>.css}
+     */
+    static String fingerprint(String logical, byte[] content) {
+        String hash = sha256(content).substring(0, HASH_LENGTH);
+        int slash = logical.lastIndexOf('/');
+        int dot = logical.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            return logical + "." + hash;
+        }
+        return logical.substring(0, dot) + "." + hash + logical.substring(dot);
+    }
+
+    private static long writeVariant(Path target, String suffix, byte[] original, byte[] encoded) throws IOException {
+        if (encoded.length > original.length * (1 - MIN_SAVING)) {
+            return 0;
+        }
+        Files.write(target.resolveSibling(target.getFileName() + suffix), encoded);
+        return encoded.length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] content) throws IOException {
+        return Encoder.compress(content, new Encoder.Parameters().setQuality(11));
+    }
+
+    private static List<Path> list(Path source) throws IOException {
+        try (Stream<Path> files = Files.walk(source)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("."))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? "" : path.substring(dot + 1).toLowerCase();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toJson(Map<String, String> manifest) {
+        StringBuilder json = new StringBuilder("{\n");
+        manifest.forEach((logical, fingerprinted) -> json.append("  \"").append(escape(logical))
+                .append("\": \"").append(escape(fingerprinted)).append("\",\n"));
+        if (!manifest.isEmpty()) {
+            json.setLength(json.length() - 2);
+            json.append('\n');
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,76 @@
+package com.onlineboutique.frontend;
+
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.frontend.view.FragmentCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the product grid fragment alone, rendered by Thymeleaf on every call versus served
+ * from {@link FragmentCache}. This is the part of a page the cache can remove; the rest of a
+ * request (routing, session, header, backend calls) is measured by PageThroughputBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FragmentRenderBenchmark {
+
+    @Param({"9", "100"})
+    public int productCount;
+
+    private ConfigurableApplicationContext frontend;
+    private FragmentCache fragmentCache;
+    private Map<String, Object> variables;
+    private long version;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ProductSummary> products = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            products.add(new ProductSummary("P" + i, "Product " + i, "/static/img/products/" + i + ".jpg",
+                    new Money("EUR", 10L + i, 990000000), List.of("category")));
+        }
+        variables = Map.of("products", products);
+        // No backends: the fragment is rendered from the variables above
+        frontend = new SpringApplicationBuilder(FrontendApplication.class)
+                .run("--server.port=0",
+                        "--logging.level.com.onlineboutique.frontend=ERROR",
+                        "--logging.level.org.springframework.web=ERROR");
+        fragmentCache = frontend.getBean(FragmentCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frontend.close();
+    }
+
+    @Benchmark
+    public String rendered() {
+        // A new version every call is a miss every call
+        return fragmentCache.render("fragments/product-grid", "product-grid:EUR", Long.toString(version++),
+                () -> Mono.just(variables)).block();
+    }
+
+    @Benchmark
+    public String cached() {
+        return fragmentCache.render("fragments/product-grid", "product-grid:EUR", "cached",
+                () -> Mono.just(variables)).block();
+    }
+}
@@ -0,0 +1,147 @@
+package com.onlineboutique.frontend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.CurrencyRates;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.frontend.client.ServiceClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Home page latency against stubbed backends with randomized response times.
+ * {@code sequentialCalls} issues the three home page calls one after another, as the
+ * blocking controller did; {@code parallelCalls} composes them with {@code Mono.zip};
+ * {@code homePage} requests the rendered page from a running frontend, and
+ * {@code homePageConverted} the same page priced in EUR.
+ * Sample-time mode reports the p50 and p99 of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 5)
+@Measurement(time = 10)
+public class HomePageBenchmark {
+
+    // Backend latency: a fixed floor plus an exponential tail, in milliseconds
+    private static final Latency CATALOG = new Latency(20, 6);
+    private static final Latency CURRENCY = new Latency(8, 4);
+    private static final Latency CART = new Latency(12, 5);
+
+    private DisposableServer backends;
+    private ConfigurableApplicationContext frontend;
+    private ServiceClients serviceClients;
+    private WebClient browser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<ProductSummary> products = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            products.add(new ProductSummary("P" + i, "Product " + i, "/static/img/products/" + i + ".jpg",
+                    new Money("USD", 10L + i, 990000000), List.of("category")));
+        }
+        String productsJson = objectMapper.writeValueAsString(products);
+        String currenciesJson = objectMapper.writeValueAsString(List.of("EUR", "USD", "JPY", "GBP", "CAD"));
+        String ratesJson = objectMapper.writeValueAsString(new CurrencyRates(1L, Map.of(
+                "EUR", new BigDecimal("1.0"), "USD", new BigDecimal("1.1305"), "JPY", new BigDecimal("126.40"),
+                "GBP", new BigDecimal("0.85970"), "CAD", new BigDecimal("1.5128"))));
+        String cartJson = objectMapper.writeValueAsString(List.of(new CartItem("P1", 2)));
+
+        backends = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/v1/products/summaries", (request, response) -> json(response, CATALOG, productsJson))
+                        .get("/api/v1/currency/supported", (request, response) -> json(response, CURRENCY, currenciesJson))
+                        .get("/api/v1/currency/rates", (request, response) -> json(response, CURRENCY, ratesJson))
+                        .get("/api/v1/cart/{userId}", (request, response) -> json(response, CART, cartJson)))
+                .bindNow();
+        String backendUrl = "http://localhost:" + backends.port();
+
+        // Passed as arguments so they take precedence over application.yml
+        frontend = new SpringApplicationBuilder(FrontendApplication.class)
+                .run("--server.port=0",
+                        "--services.product-catalog.url=" + backendUrl,
+                        "--services.currency.url=" + backendUrl,
+                        "--services.cart.url=" + backendUrl,
+                        "--spring.thymeleaf.cache=true",
+                        "--logging.level.com.onlineboutique.frontend=WARN",
+                        "--logging.level.org.springframework.web=WARN");
+        serviceClients = frontend.getBean(ServiceClients.class);
+        browser = WebClient.create("http://localhost:" + frontend.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frontend.close();
+        backends.disposeNow();
+    }
+
+    @Benchmark
+    public Object sequentialCalls() {
+        List<ProductSummary> products = serviceClients.getProductSummaries().collectList().block();
+        List<String> currencies = serviceClients.getSupportedCurrencies().collectList().block();
+        List<CartItem> cart = serviceClients.getCart("benchmark-user").collectList().block();
+        return List.of(products, currencies, cart);
+    }
+
+    @Benchmark
+    public Object parallelCalls() {
+        return Mono.zip(
+                        serviceClients.getProductSummaries().collectList(),
+                        serviceClients.getSupportedCurrencies().collectList(),
+                        serviceClients.getCart("benchmark-user").collectList())
+                .block();
+    }
+
+    @Benchmark
+    public String homePage() {
+        return browser.get().uri("/").retrieve().bodyToMono(String.class).block();
+    }
+
+    /**
+     * Home page priced in another currency; prices are converted against the local rate snapshot
+     */
+    @Benchmark
+    public String homePageConverted() {
+        return browser.get().uri("/?currency=EUR").retrieve().bodyToMono(String.class).block();
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, Latency latency, String body) {
+        return Mono.delay(latency.next())
+                .then(response.header("Content-Type", "application/json").sendString(Mono.just(body)).then());
+    }
+
+    private record Latency(long floorMillis, double meanTailMillis) {
+
+        Duration next() {
+            double tail = -meanTailMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+            return Duration.ofMillis(floorMillis + (long) tail);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.onlineboutique.frontend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.model.Ad;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.CurrencyRates;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendered pages per second with and without the fragment cache.
+ * Backends answer immediately, so throughput is bounded by the CPU the frontend spends
+ * per page rather than by backend latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(time = 5)
+@Measurement(time = 10)
+public class PageThroughputBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fragmentCache;
+
+    @Param({"9", "100"})
+    public int productCount;
+
+    private DisposableServer backends;
+    private ConfigurableApplicationContext frontend;
+    private WebClient browser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<ProductSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            summaries.add(new ProductSummary("P" + i, "Product " + i, "/static/img/products/" + i + ".jpg",
+                    new Money("USD", 10L + i, 990000000), List.of("category")));
+        }
+        String summariesJson = objectMapper.writeValueAsString(summaries);
+        String productJson = objectMapper.writeValueAsString(new Product("P1", "Product 1",
+                "A product description long enough to look like one.", "/static/img/products/1.jpg",
+                new Money("USD", 11L, 990000000), new String[] {"category"}));
+        String currenciesJson = objectMapper.writeValueAsString(List.of("EUR", "USD", "JPY", "GBP", "CAD"));
+        String ratesJson = objectMapper.writeValueAsString(new CurrencyRates(1L, Map.of(
+                "EUR", new BigDecimal("1.0"), "USD", new BigDecimal("1.1305"), "JPY", new BigDecimal("126.40"),
+                "GBP", new BigDecimal("0.85970"), "CAD", new BigDecimal("1.5128"))));
+        String cartJson = objectMapper.writeValueAsString(List.of(new CartItem("P1", 2)));
+        String adsJson = objectMapper.writeValueAsString(List.of(new Ad("/product/P2", "Product 2 for sale. 20% off.")));
+        String recommendationsJson = objectMapper.writeValueAsString(List.of("P2", "P3", "P4", "P5"));
+
+        backends = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/v1/products/summaries", (request, response) -> json(response, summariesJson))
+                        .get("/api/v1/products/{id}", (request, response) -> json(response, productJson))
+                        .get("/api/v1/currency/supported", (request, response) -> json(response, currenciesJson))
+                        .get("/api/v1/currency/rates", (request, response) -> json(response, ratesJson))
+                        .get("/api/v1/cart/{userId}", (request, response) -> json(response, cartJson))
+                        .get("/api/v1/ads", (request, response) -> json(response, adsJson))
+                        .get("/api/v1/recommendations", (request, response) -> json(response, recommendationsJson)))
+                .bindNow();
+        String backendUrl = "http://localhost:" + backends.port();
+
+        // Passed as arguments so they take precedence over application.yml
+        frontend = new SpringApplicationBuilder(FrontendApplication.class)
+                .run("--server.port=0",
+                        "--services.product-catalog.url=" + backendUrl,
+                        "--services.currency.url=" + backendUrl,
+                        "--services.cart.url=" + backendUrl,
+                        "--services.ad.url=" + backendUrl,
+                        "--services.recommendation.url=" + backendUrl,
+                        "--frontend.fragment-cache.enabled=" + fragmentCache,
+                        "--logging.level.com.onlineboutique.frontend=WARN",
+                        "--logging.level.org.springframework.web=WARN");
+        browser = WebClient.create("http://localhost:" + frontend.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frontend.close();
+        backends.disposeNow();
+    }
+
+    @Benchmark
+    public String homePage() {
+        return browser.get().uri("/?currency=EUR").retrieve().bodyToMono(String.class).block();
+    }
+
+    @Benchmark
+    public String productPage() {
+        return browser.get().uri("/product/P1?currency=EUR").retrieve().bodyToMono(String.class).block();
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, String body) {
+        return response.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+    }
+}
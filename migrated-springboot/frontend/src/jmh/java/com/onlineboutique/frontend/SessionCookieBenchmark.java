@@ -0,0 +1,51 @@
+package com.onlineboutique.frontend;
+
+import com.onlineboutique.frontend.session.SessionCodec;
+import com.onlineboutique.frontend.session.ShopSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the signed session cookie, the only session work a page view does.
+ * {@code decode} verifies and parses the cookie of an incoming request; {@code encode}
+ * signs a new or changed session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 2)
+@Measurement(time = 5)
+public class SessionCookieBenchmark {
+
+    private SessionCodec codec;
+    private ShopSession session;
+    private String cookie;
+
+    @Setup
+    public void setUp() {
+        codec = new SessionCodec("benchmark-secret-benchmark-secret", "", true);
+        session = ShopSession.create(Instant.now()).withCurrency("EUR", Instant.now());
+        cookie = codec.encode(session);
+    }
+
+    @Benchmark
+    public Optional<ShopSession> decode() {
+        return codec.decode(cookie);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(session);
+    }
+}
@@ -2,12 +2,14 @@ package com.onlineboutique.frontend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Frontend Service Application.
  * Migrated from: src/frontend/main.go
  */
 @SpringBootApplication
+@EnableScheduling
 public class FrontendApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,90 @@
+package com.onlineboutique.frontend.client;
+
+import com.onlineboutique.common.cache.VersionTracker;
+import com.onlineboutique.common.model.CurrencyRates;
+import com.onlineboutique.common.model.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Pattern;
+
+/**
+ * Converts prices locally against a rate snapshot pulled from the currency service.
+ * The snapshot is refreshed periodically; until one is loaded, or for a currency it does
+ * not know, conversion falls back to a remote call.
+ */
+@Component
+public class CurrencyConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyConverter.class);
+
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+
+    @Autowired
+    private ServiceClients serviceClients;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Advances whenever the loaded rates differ from the previous snapshot
+     */
+    private final VersionTracker ratesVersion = new VersionTracker();
+
+    private volatile CurrencyRates rates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${frontend.currency-rates.refresh-interval-ms:10000}")
+    public void refresh() {
+        serviceClients.getCurrencyRates().subscribe(
+                loaded -> {
+                    if (ratesVersion.observe(loaded.getRatesToEur())) {
+                        logger.debug("Loaded currency rate snapshot {}, local version {}", loaded, ratesVersion.current());
+                    }
+                    rates = loaded;
+                },
+                error -> logger.warn("Could not refresh currency rates: {}", error.toString()));
+    }
+
+    /**
+     * Convert money, locally when the snapshot covers both currencies
+     */
+    public Mono<Money> convert(Money from, String toCurrencyCode) {
+        if (from.getCurrencyCode().equals(toCurrencyCode)) {
+            return Mono.just(from);
+        }
+        CurrencyRates snapshot = rates;
+        if (snapshot != null && snapshot.supports(from.getCurrencyCode()) && snapshot.supports(toCurrencyCode)) {
+            meterRegistry.counter("frontend.currency.conversions", "mode", "local").increment();
+            return Mono.just(snapshot.convert(from, toCurrencyCode));
+        }
+        meterRegistry.counter("frontend.currency.conversions", "mode", "remote").increment();
+        return serviceClients.convertCurrency(from, toCurrencyCode);
+    }
+
+    /**
+     * Whether prices can be shown in {@code currencyCode}: the rate snapshot has it, or, until
+     * a snapshot is loaded, it is shaped like a currency code
+     */
+    public boolean isSupported(String currencyCode) {
+        if (currencyCode == null) {
+            return false;
+        }
+        CurrencyRates snapshot = rates;
+        return snapshot != null ? snapshot.supports(currencyCode) : CURRENCY_CODE.matcher(currencyCode).matches();
+    }
+
+    /**
+     * Version of the rates in use; changes whenever converted prices may change
+     */
+    public long ratesVersion() {
+        return ratesVersion.current();
+    }
+}
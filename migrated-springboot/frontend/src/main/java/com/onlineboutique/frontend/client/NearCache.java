@@ -0,0 +1,212 @@
+package com.onlineboutique.frontend.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.onlineboutique.common.client.DownstreamException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache for backend data held in the frontend process.
+ * <p>
+ * Each entry ages from the moment it was loaded:
+ * <ul>
+ *   <li>younger than the soft TTL it is served as a hit;</li>
+ *   <li>between the soft TTL and the TTL it is served as stale while one background refresh runs;</li>
+ *   <li>past the TTL it is reloaded inline, falling back to the stale value if the backend is
+ *       unavailable, times out or answers 5xx and the entry is younger than the maximum
+ *       staleness. Other errors, such as a 404, are passed on.</li>
+ * </ul>
+ * {@link #refreshAhead()} reloads entries that are being read before they reach the soft TTL,
+ * so in steady state reads never wait on the backend. Entries expire at the maximum staleness,
+ * and beyond the maximum number of entries the least recently used ones are evicted.
+ */
+public class NearCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCache.class);
+
+    /**
+     * Entry lifetimes; each must be at least as long as the one before it
+     */
+    public record Settings(Duration refreshAhead, Duration softTtl, Duration ttl, Duration maxStale, int maxEntries) {
+        public Settings {
+            if (refreshAhead.compareTo(softTtl) > 0 || softTtl.compareTo(ttl) > 0 || ttl.compareTo(maxStale) > 0) {
+                throw new IllegalArgumentException("Expected refresh-ahead <= soft-ttl <= ttl <= max-stale");
+            }
+        }
+    }
+
+    private final String name;
+    private final long refreshAheadNanos;
+    private final long softTtlNanos;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final Cache<String, Entry> entries;
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+
+    public NearCache(String name, Settings settings, MeterRegistry meterRegistry) {
+        this(name, settings, meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker source of the nanosecond times entries are aged by, also used for expiry
+     */
+    public NearCache(String name, Settings settings, MeterRegistry meterRegistry, Ticker ticker) {
+        this.name = name;
+        this.refreshAheadNanos = settings.refreshAhead().toNanos();
+        this.softTtlNanos = settings.softTtl().toNanos();
+        this.ttlNanos = settings.ttl().toNanos();
+        this.maxStaleNanos = settings.maxStale().toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.maxEntries())
+                .expireAfterWrite(settings.maxStale())
+                .ticker(ticker)
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        Gauge.builder("frontend.nearcache.size", entries, Cache::estimatedSize)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serve the cached value for {@code key}, loading it with {@code loader} when absent or expired.
+     * Empty results and errors are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            long now = ticker.read();
+            Entry entry = entries.getIfPresent(key);
+            if (entry == null) {
+                count("miss");
+                return load(key, loader);
+            }
+            entry.lastReadNanos = now;
+            long age = now - entry.loadedNanos;
+            if (age < softTtlNanos) {
+                count("hit");
+                return Mono.just((T) entry.value);
+            }
+            if (age < ttlNanos) {
+                count("stale");
+                refresh(key, entry);
+                return Mono.just((T) entry.value);
+            }
+            count("miss");
+            return load(key, loader).onErrorResume(NearCache::isOutage, error -> {
+                if (ticker.read() - entry.loadedNanos >= maxStaleNanos) {
+                    return Mono.error(error);
+                }
+                logger.warn("Serving stale {} entry {} after load failure: {}", name, key, error.toString());
+                count("stale");
+                return Mono.just((T) entry.value);
+            });
+        });
+    }
+
+    /**
+     * Start background reloads for entries read since they were loaded and older than the
+     * refresh-ahead age
+     */
+    public void refreshAhead() {
+        long now = ticker.read();
+        entries.asMap().forEach((key, entry) -> {
+            if (now - entry.loadedNanos >= refreshAheadNanos && entry.lastReadNanos - entry.loadedNanos > 0) {
+                refresh(key, entry);
+            }
+        });
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * Number of entries held, after pending evictions
+     */
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private <T> Mono<T> load(String key, Supplier<Mono<T>> loader) {
+        return loader.get().doOnNext(value -> store(key, value, loader, ticker.read()));
+    }
+
+    private void store(String key, Object value, Supplier<? extends Mono<?>> loader, long lastReadNanos) {
+        entries.put(key, new Entry(value, loader, ticker.read(), lastReadNanos));
+    }
+
+    /**
+     * Whether {@code error} means the backend could not answer, rather than that it answered
+     * with an error; only then is a stale value better than the error
+     */
+    static boolean isOutage(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return true;
+        }
+        return error instanceof DownstreamException downstream && switch (downstream.getKind()) {
+            case TIMEOUT, UNAVAILABLE, SERVER_ERROR -> true;
+            case CLIENT_ERROR, ERROR -> false;
+        };
+    }
+
+    /**
+     * Reload one entry in the background; at most one refresh per entry runs at a time
+     */
+    private void refresh(String key, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        entry.loader.get()
+                .timeout(Duration.ofNanos(ttlNanos))
+                .subscribe(
+                        value -> {
+                            meterRegistry.counter("frontend.nearcache.refreshes", "cache", name, "result", "success").increment();
+                            store(key, value, entry.loader, entry.lastReadNanos);
+                        },
+                        error -> {
+                            meterRegistry.counter("frontend.nearcache.refreshes", "cache", name, "result", "failure").increment();
+                            logger.warn("Background refresh of {} entry {} failed: {}", name, key, error.toString());
+                            entry.refreshing.set(false);
+                        },
+                        () -> entry.refreshing.set(false));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("frontend.nearcache.requests", "cache", name, "result", result).increment();
+    }
+
+    private static final class Entry {
+        final Object value;
+        final Supplier<? extends Mono<?>> loader;
+        final long loadedNanos;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long lastReadNanos;
+
+        Entry(Object value, Supplier<? extends Mono<?>> loader, long loadedNanos, long lastReadNanos) {
+            this.value = value;
+            this.loader = loader;
+            this.loadedNanos = loadedNanos;
+            this.lastReadNanos = lastReadNanos;
+        }
+    }
+}
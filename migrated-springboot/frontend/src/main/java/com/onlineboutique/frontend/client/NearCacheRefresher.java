@@ -0,0 +1,22 @@
+package com.onlineboutique.frontend.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically refreshes hot near cache entries ahead of their soft TTL
+ */
+@Component
+public class NearCacheRefresher {
+
+    @Autowired
+    private List<NearCache> nearCaches;
+
+    @Scheduled(fixedDelayString = "${frontend.near-cache.refresh-interval-ms:1000}")
+    public void refreshAhead() {
+        nearCaches.forEach(NearCache::refreshAhead);
+    }
+}
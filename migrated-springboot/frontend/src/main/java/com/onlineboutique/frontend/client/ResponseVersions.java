@@ -0,0 +1,63 @@
+package com.onlineboutique.frontend.client;
+
+import com.google.protobuf.MessageLite;
+import com.onlineboutique.common.cache.VersionTracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version of a set of backend responses, derived from their ETags or, for gRPC responses,
+ * a digest of their serialized messages.
+ * The version advances whenever a response seen before comes back with different content,
+ * so anything rendered from the earlier responses can be keyed by it.
+ */
+public class ResponseVersions extends VersionTracker {
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Record a loaded response by its fingerprint. A response without one may have changed
+     * in any way, so it always advances the version.
+     */
+    public void record(String key, String fingerprint) {
+        if (fingerprint == null) {
+            fingerprints.remove(key);
+            bump();
+            return;
+        }
+        String previous = fingerprints.put(key, fingerprint);
+        if (previous != null && !previous.equals(fingerprint)) {
+            bump();
+        }
+    }
+
+    /**
+     * Digest of every field of the messages, in order. The catalog messages have no map
+     * fields, so equal content always serializes to equal bytes.
+     */
+    public static String fingerprint(Iterable<? extends MessageLite> messages) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (DigestOutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            for (MessageLite message : messages) {
+                // Length-prefixed, so message boundaries are part of the digest
+                message.writeDelimitedTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
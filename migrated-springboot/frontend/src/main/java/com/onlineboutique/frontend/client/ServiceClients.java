@@ -1,14 +1,35 @@
 package com.onlineboutique.frontend.client;
 
+import com.google.protobuf.MessageLite;
+import com.onlineboutique.common.client.DownstreamClient;
+import com.onlineboutique.common.client.DownstreamClients;
+import com.onlineboutique.common.grpc.GrpcCalls;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.v1.AddItemRequest;
+import com.onlineboutique.common.grpc.v1.CartServiceGrpc;
+import com.onlineboutique.common.grpc.v1.CurrencyServiceGrpc;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.EmptyCartRequest;
+import com.onlineboutique.common.grpc.v1.GetCartRequest;
+import com.onlineboutique.common.grpc.v1.GetProductRequest;
+import com.onlineboutique.common.grpc.v1.ProductCatalogServiceGrpc;
+import com.onlineboutique.common.grpc.v1.SearchProductsRequest;
+import com.onlineboutique.common.model.Ad;
 import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.CurrencyRates;
 import com.onlineboutique.common.model.Money;
 import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -16,6 +37,10 @@ import java.util.List;
 
 /**
  * HTTP clients for backend services.
+ * Calls go through the shared downstream clients, which add pooling, timeouts, retries of
+ * idempotent calls and latency metrics; failures surface as {@code DownstreamException}.
+ * Catalog, currency and cart calls use the internal gRPC API instead of REST when their
+ * client's transport is {@code grpc}.
  * Migrated from: src/frontend/rpc.go gRPC clients
  */
 @Component
@@ -23,72 +48,245 @@ public class ServiceClients {
     
     private static final Logger logger = LoggerFactory.getLogger(ServiceClients.class);
     
-    @Value("${services.product-catalog.url:http://localhost:3550}")
-    private String productCatalogUrl;
+    private static final ParameterizedTypeReference<List<String>> CURRENCY_LIST = new ParameterizedTypeReference<>() {};
     
-    @Value("${services.currency.url:http://localhost:3551}")
-    private String currencyUrl;
+    private static final ParameterizedTypeReference<List<String>> PRODUCT_ID_LIST = new ParameterizedTypeReference<>() {};
     
-    @Value("${services.cart.url:http://localhost:3552}")
-    private String cartUrl;
+    private static final Empty EMPTY = Empty.getDefaultInstance();
     
-    @Value("${services.checkout.url:http://localhost:3553}")
-    private String checkoutUrl;
+    @Autowired
+    private DownstreamClients downstreamClients;
+    
+    @Autowired
+    private SingleFlight singleFlight;
     
     @Autowired
-    private WebClient.Builder webClientBuilder;
+    @Qualifier("catalogNearCache")
+    private NearCache catalogCache;
+    
+    @Autowired
+    @Qualifier("currencyNearCache")
+    private NearCache currencyCache;
+    
+    private DownstreamClient catalog;
+    private DownstreamClient currency;
+    private DownstreamClient cart;
+    private DownstreamClient checkout;
+    private DownstreamClient recommendation;
+    private DownstreamClient ad;
+    
+    /**
+     * Advances when a catalog response the frontend has cached changes
+     */
+    private final ResponseVersions catalogVersions = new ResponseVersions();
+    
+    @PostConstruct
+    public void init() {
+        catalog = downstreamClients.get("product-catalog");
+        currency = downstreamClients.get("currency");
+        cart = downstreamClients.get("cart");
+        checkout = downstreamClients.get("checkout");
+        recommendation = downstreamClients.get("recommendation");
+        ad = downstreamClients.get("ad");
+    }
+    
+    /**
+     * Load the catalog and currency lists before the first page render needs them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmNearCaches() {
+        getProductSummaries().then().subscribe(null,
+                error -> logger.warn("Could not warm product summaries: {}", error.toString()));
+        getSupportedCurrencies().then().subscribe(null,
+                error -> logger.warn("Could not warm supported currencies: {}", error.toString()));
+    }
     
     /**
      * Product Catalog Service Client
      */
     public Flux<Product> getProducts() {
-        logger.debug("Fetching products from product catalog service");
-        return webClientBuilder.build()
-                .get()
-                .uri(productCatalogUrl + "/api/v1/products")
-                .retrieve()
-                .bodyToFlux(Product.class);
+        return catalogCache.get("products", () -> singleFlight.execute("products", "products", () -> {
+                    logger.debug("Fetching products from product catalog service");
+                    if (catalog.isGrpc()) {
+                        return catalog.executeGrpcMany("list-products", channel -> GrpcCalls.serverStreaming(
+                                        ProductCatalogServiceGrpc.newStub(channel)::listProducts, EMPTY))
+                                .collectList()
+                                .map(products -> observeCatalog("products", products).stream()
+                                        .map(ProtoMapper::fromProto)
+                                        .toList());
+                    }
+                    return catalog.execute("list-products", client -> client
+                            .get()
+                            .uri("/api/v1/products")
+                            .retrieve()
+                            .toEntityList(Product.class))
+                            .map(entity -> observeCatalog("products", entity));
+                }))
+                .flatMapIterable(products -> products);
+    }
+    
+    public Flux<ProductSummary> getProductSummaries() {
+        return catalogCache.get("product-summaries", () -> singleFlight.execute("product-summaries", "product-summaries", () -> {
+                    logger.debug("Fetching product summaries from product catalog service");
+                    if (catalog.isGrpc()) {
+                        return catalog.executeGrpcMany("list-product-summaries", channel -> GrpcCalls.serverStreaming(
+                                        ProductCatalogServiceGrpc.newStub(channel)::listProductSummaries, EMPTY))
+                                .collectList()
+                                .map(summaries -> observeCatalog("product-summaries", summaries).stream()
+                                        .map(ProtoMapper::fromProto)
+                                        .toList());
+                    }
+                    return catalog.execute("list-product-summaries", client -> client
+                            .get()
+                            .uri("/api/v1/products/summaries")
+                            .retrieve()
+                            .toEntityList(ProductSummary.class))
+                            .map(entity -> observeCatalog("product-summaries", entity));
+                }))
+                .flatMapIterable(summaries -> summaries);
     }
     
     public Mono<Product> getProduct(String productId) {
-        logger.debug("Fetching product {} from product catalog service", productId);
-        return webClientBuilder.build()
-                .get()
-                .uri(productCatalogUrl + "/api/v1/products/{id}", productId)
-                .retrieve()
-                .bodyToMono(Product.class);
+        String key = "product:" + productId;
+        return catalogCache.get(key, () -> singleFlight.execute("product", key, () -> {
+            logger.debug("Fetching product {} from product catalog service", productId);
+            if (catalog.isGrpc()) {
+                GetProductRequest request = GetProductRequest.newBuilder().setId(productId).build();
+                return catalog.executeGrpc("get-product", channel -> GrpcCalls.unary(
+                                ProductCatalogServiceGrpc.newStub(channel)::getProduct, request))
+                        .map(product -> {
+                            observeCatalog(key, List.of(product));
+                            return ProtoMapper.fromProto(product);
+                        });
+            }
+            return catalog.execute("get-product", client -> client
+                    .get()
+                    .uri("/api/v1/products/{id}", productId)
+                    .retrieve()
+                    .toEntity(Product.class))
+                    .mapNotNull(entity -> observeCatalog(key, entity));
+        }));
+    }
+    
+    /**
+     * Version of the catalog data served from the near cache
+     */
+    public long catalogVersion() {
+        return catalogVersions.current();
+    }
+    
+    private <T> T observeCatalog(String key, ResponseEntity<T> entity) {
+        catalogVersions.record(key, entity.getHeaders().getETag());
+        return entity.getBody();
+    }
+    
+    /**
+     * gRPC responses carry no ETag, so they are fingerprinted by their serialized messages
+     */
+    private <M extends MessageLite> List<M> observeCatalog(String key, List<M> messages) {
+        catalogVersions.record(key, ResponseVersions.fingerprint(messages));
+        return messages;
     }
     
     public Flux<Product> searchProducts(String query) {
         logger.debug("Searching products with query: {}", query);
-        return webClientBuilder.build()
+        if (catalog.isGrpc()) {
+            SearchProductsRequest request = SearchProductsRequest.newBuilder().setQuery(query).build();
+            return catalog.executeGrpcMany("search-products", channel -> GrpcCalls.serverStreaming(
+                            ProductCatalogServiceGrpc.newStub(channel)::searchProducts, request))
+                    .map(ProtoMapper::fromProto);
+        }
+        return catalog.executeMany("search-products", client -> client
                 .get()
-                .uri(productCatalogUrl + "/api/v1/products/search?query={query}", query)
+                .uri("/api/v1/products/search?query={query}", query)
                 .retrieve()
-                .bodyToFlux(Product.class);
+                .bodyToFlux(Product.class));
     }
     
     /**
      * Currency Service Client
      */
     public Flux<String> getSupportedCurrencies() {
-        logger.debug("Fetching supported currencies");
-        return webClientBuilder.build()
+        return currencyCache.get("currencies", () -> singleFlight.execute("currencies", "currencies", () -> {
+                    logger.debug("Fetching supported currencies");
+                    if (currency.isGrpc()) {
+                        return currency.executeGrpc("supported-currencies", channel -> GrpcCalls.unary(
+                                        CurrencyServiceGrpc.newStub(channel)::getSupportedCurrencies, EMPTY))
+                                .map(supported -> List.copyOf(supported.getCurrencyCodesList()));
+                    }
+                    return currency.execute("supported-currencies", client -> client
+                            .get()
+                            .uri("/api/v1/currency/supported")
+                            .retrieve()
+                            // Decode as a JSON array; a Flux<String> body would be split as plain text
+                            .bodyToMono(CURRENCY_LIST));
+                }))
+                .flatMapIterable(currencies -> currencies);
+    }
+    
+    public Mono<CurrencyRates> getCurrencyRates() {
+        logger.debug("Fetching currency rate snapshot");
+        if (currency.isGrpc()) {
+            return currency.executeGrpc("currency-rates", channel -> GrpcCalls.unary(
+                            CurrencyServiceGrpc.newStub(channel)::getRates, EMPTY))
+                    .map(ProtoMapper::fromProto);
+        }
+        return currency.execute("currency-rates", client -> client
                 .get()
-                .uri(currencyUrl + "/api/v1/currency/supported")
+                .uri("/api/v1/currency/rates")
                 .retrieve()
-                .bodyToFlux(String.class);
+                .bodyToMono(CurrencyRates.class));
     }
     
     public Mono<Money> convertCurrency(Money from, String toCurrency) {
         logger.debug("Converting {} to {}", from, toCurrency);
+        // Conversion is a pure function of its inputs, so identical requests can share a call
+        // and a failed one can be retried
+        String key = "convert:" + from.getCurrencyCode() + ":" + from.getUnits() + ":" + from.getNanos() + ":" + toCurrency;
+        if (currency.isGrpc()) {
+            com.onlineboutique.common.grpc.v1.ConvertRequest grpcRequest = com.onlineboutique.common.grpc.v1.ConvertRequest.newBuilder()
+                    .setFrom(ProtoMapper.toProto(from))
+                    .setToCode(toCurrency)
+                    .build();
+            return singleFlight.execute("convert", key, () -> currency.executeGrpc("convert", channel -> GrpcCalls.unary(
+                            CurrencyServiceGrpc.newStub(channel)::convert, grpcRequest))
+                    .map(ProtoMapper::fromProto));
+        }
         ConvertRequest request = new ConvertRequest(from, toCurrency);
-        return webClientBuilder.build()
+        return singleFlight.execute("convert", key, () -> currency.execute("convert", client -> client
                 .post()
-                .uri(currencyUrl + "/api/v1/currency/convert")
+                .uri("/api/v1/currency/convert")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(Money.class);
+                .bodyToMono(Money.class)));
+    }
+    
+    /**
+     * Recommendation Service Client: ids of products to suggest alongside {@code productIds}
+     * Migrated from: src/frontend/rpc.go getRecommendations
+     */
+    public Flux<String> getRecommendations(String userId, List<String> productIds) {
+        logger.debug("Fetching recommendations for user {} and products {}", userId, productIds);
+        return recommendation.execute("list-recommendations", client -> client
+                        .get()
+                        .uri("/api/v1/recommendations?user_id={userId}&product_ids={productIds}",
+                                userId, String.join(",", productIds))
+                        .retrieve()
+                        .bodyToMono(PRODUCT_ID_LIST))
+                .flatMapIterable(ids -> ids);
+    }
+    
+    /**
+     * Ad Service Client: ads matching any of the context keys, random ads when none match
+     * Migrated from: src/frontend/rpc.go getAd
+     */
+    public Flux<Ad> getAds(List<String> contextKeys) {
+        logger.debug("Fetching ads for context keys {}", contextKeys);
+        return ad.executeMany("get-ads", client -> client
+                .get()
+                .uri("/api/v1/ads?context_keys={contextKeys}", String.join(",", contextKeys))
+                .retrieve()
+                .bodyToFlux(Ad.class));
     }
     
     /**
@@ -96,30 +294,52 @@ public class ServiceClients {
      */
     public Flux<CartItem> getCart(String userId) {
         logger.debug("Fetching cart for user {}", userId);
-        return webClientBuilder.build()
+        if (cart.isGrpc()) {
+            GetCartRequest request = GetCartRequest.newBuilder().setUserId(userId).build();
+            return cart.executeGrpcMany("get-cart", channel -> GrpcCalls.serverStreaming(
+                            CartServiceGrpc.newStub(channel)::getCart, request))
+                    .map(ProtoMapper::fromProto);
+        }
+        return cart.executeMany("get-cart", client -> client
                 .get()
-                .uri(cartUrl + "/api/v1/cart/{userId}", userId)
+                .uri("/api/v1/cart/{userId}", userId)
                 .retrieve()
-                .bodyToFlux(CartItem.class);
+                .bodyToFlux(CartItem.class));
     }
     
     public Mono<Void> addToCart(String userId, CartItem item) {
         logger.debug("Adding item {} to cart for user {}", item.getProductId(), userId);
-        return webClientBuilder.build()
+        // Adding increments the quantity, so a retried request could add the item twice
+        if (cart.isGrpc()) {
+            AddItemRequest request = AddItemRequest.newBuilder()
+                    .setUserId(userId)
+                    .setItem(ProtoMapper.toProto(item))
+                    .build();
+            return cart.executeGrpcOnce("add-item", channel -> GrpcCalls.unary(
+                            CartServiceGrpc.newStub(channel)::addItem, request))
+                    .then();
+        }
+        return cart.executeOnce("add-item", client -> client
                 .post()
-                .uri(cartUrl + "/api/v1/cart/{userId}/items", userId)
+                .uri("/api/v1/cart/{userId}/items", userId)
                 .bodyValue(item)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class));
     }
     
     public Mono<Void> emptyCart(String userId) {
         logger.debug("Emptying cart for user {}", userId);
-        return webClientBuilder.build()
+        if (cart.isGrpc()) {
+            EmptyCartRequest request = EmptyCartRequest.newBuilder().setUserId(userId).build();
+            return cart.executeGrpc("empty-cart", channel -> GrpcCalls.unary(
+                            CartServiceGrpc.newStub(channel)::emptyCart, request))
+                    .then();
+        }
+        return cart.execute("empty-cart", client -> client
                 .delete()
-                .uri(cartUrl + "/api/v1/cart/{userId}", userId)
+                .uri("/api/v1/cart/{userId}", userId)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class));
     }
     
     /**
@@ -127,12 +347,12 @@ public class ServiceClients {
      */
     public Mono<OrderResult> placeOrder(PlaceOrderRequest request) {
         logger.debug("Placing order for user {}", request.getUserId());
-        return webClientBuilder.build()
+        return checkout.executeOnce("place-order", client -> client
                 .post()
-                .uri(checkoutUrl + "/api/v1/checkout/place-order")
+                .uri("/api/v1/checkout/place-order")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(OrderResult.class);
+                .bodyToMono(OrderResult.class));
     }
     
     /**
@@ -0,0 +1,66 @@
+package com.onlineboutique.frontend.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical in-flight backend calls.
+ * Concurrent callers asking for the same key subscribe to one shared call instead of
+ * each issuing their own. The shared call replays its result, so a caller that joins just
+ * as it completes still gets the value. It keeps running while any caller is still
+ * subscribed and is cancelled when the last one cancels; a caller joining after that
+ * starts it again. Its key is released as soon as it completes, fails or is cancelled, so
+ * results are never reused after the call finishes.
+ * <p>
+ * Metrics per resource: {@code frontend.singleflight.requests} counts callers and
+ * {@code frontend.singleflight.executions} counts backend calls; their ratio is the
+ * coalescing factor.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Share one execution of {@code call} among concurrent subscribers with the same key
+     *
+     * @param resource low-cardinality name used to tag metrics, e.g. {@code products}
+     * @param key identifies identical calls, e.g. {@code product:OLJCESPC7Z}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String resource, String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            meterRegistry.counter("frontend.singleflight.requests", "resource", resource).increment();
+            return (Mono<T>) inFlight.computeIfAbsent(key, k -> share(resource, k, call));
+        });
+    }
+
+    /**
+     * Number of calls currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> Mono<T> share(String resource, String key, Supplier<Mono<T>> call) {
+        AtomicReference<Mono<T>> shared = new AtomicReference<>();
+        Mono<T> execution = Mono.defer(call)
+                .doOnSubscribe(subscription ->
+                        meterRegistry.counter("frontend.singleflight.executions", "resource", resource).increment())
+                .doFinally(signal -> inFlight.remove(key, shared.get()));
+        // share() connects on the first subscriber, replays the result to later ones and
+        // cancels upstream when the last one leaves before the result arrives
+        shared.set(execution.share());
+        return shared.get();
+    }
+}
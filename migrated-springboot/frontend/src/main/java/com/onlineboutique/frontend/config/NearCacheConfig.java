@@ -0,0 +1,40 @@
+package com.onlineboutique.frontend.config;
+
+import com.onlineboutique.frontend.client.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Near caches for catalog and currency data read on every page render
+ */
+@Configuration
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache catalogNearCache(
+            @Value("${frontend.near-cache.catalog.refresh-ahead:20s}") Duration refreshAhead,
+            @Value("${frontend.near-cache.catalog.soft-ttl:30s}") Duration softTtl,
+            @Value("${frontend.near-cache.catalog.ttl:5m}") Duration ttl,
+            @Value("${frontend.near-cache.catalog.max-stale:1h}") Duration maxStale,
+            @Value("${frontend.near-cache.catalog.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        return new NearCache("catalog",
+                new NearCache.Settings(refreshAhead, softTtl, ttl, maxStale, maxEntries), meterRegistry);
+    }
+
+    @Bean
+    public NearCache currencyNearCache(
+            @Value("${frontend.near-cache.currency.refresh-ahead:20s}") Duration refreshAhead,
+            @Value("${frontend.near-cache.currency.soft-ttl:30s}") Duration softTtl,
+            @Value("${frontend.near-cache.currency.ttl:5m}") Duration ttl,
+            @Value("${frontend.near-cache.currency.max-stale:1h}") Duration maxStale,
+            @Value("${frontend.near-cache.currency.max-entries:100}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        return new NearCache("currency",
+                new NearCache.Settings(refreshAhead, softTtl, ttl, maxStale, maxEntries), meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.onlineboutique.frontend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.resource.EncodedResourceResolver;
+import org.springframework.web.reactive.resource.PathResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serves the fingerprinted assets produced by the build.
+ * Names change whenever content does, so responses are cacheable for a year and marked
+ * immutable; precompressed {@code .br} and {@code .gz} variants are served when the client
+ * accepts them.
+ * Migrated from: src/frontend/main.go static file handler
+ */
+@Configuration
+public class StaticAssetConfig implements WebFluxConfigurer {
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+}
@@ -1,19 +0,0 @@
-package com.onlineboutique.frontend.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
-
-/**
- * WebClient configuration for HTTP clients.
- * Migrated from: src/frontend/rpc.go gRPC client configuration
- */
-@Configuration
-public class WebClientConfig {
-    
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024));
-    }
-}
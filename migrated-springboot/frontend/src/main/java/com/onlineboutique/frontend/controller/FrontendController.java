@@ -1,9 +1,12 @@
 package com.onlineboutique.frontend.controller;
 
+import com.onlineboutique.frontend.client.CurrencyConverter;
 import com.onlineboutique.frontend.client.ServiceClients;
+import com.onlineboutique.frontend.page.PageComposer;
+import com.onlineboutique.frontend.session.ShopSession;
+import com.onlineboutique.frontend.view.FragmentCache;
 import com.onlineboutique.common.model.CartItem;
-import com.onlineboutique.common.model.Money;
-import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.client.DownstreamException;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,14 +14,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.Instant;
+import java.util.Map;
 
 /**
  * Frontend web controller.
+ * Handlers are non-blocking: page data is composed by {@link PageComposer}, which calls
+ * independent backends concurrently under per-dependency deadlines. Session state comes
+ * from the signed session cookie, so rendering a page performs no session store I/O.
  * Migrated from: src/frontend/handlers.go HTTP handlers
  */
 @Controller
@@ -27,38 +33,47 @@ public class FrontendController {
     
     private static final Logger logger = LoggerFactory.getLogger(FrontendController.class);
     
+    private static final String SESSION_ID = "session_id";
+    
     @Autowired
     private ServiceClients serviceClients;
     
+    @Autowired
+    private CurrencyConverter currencyConverter;
+    
+    @Autowired
+    private FragmentCache fragmentCache;
+    
+    @Autowired
+    private PageComposer pageComposer;
+    
     /**
      * Home page handler
      * Migrated from: homeHandler
      */
     @GetMapping("/")
-    public String home(@RequestParam(defaultValue = "USD") String currency, 
-                      @SessionAttribute(value = "session_id", required = false) String sessionId,
-                      Model model) {
+    public Mono<String> home(@RequestParam(name = "currency", required = false) String requestedCurrency,
+                             @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                             Model model) {
+        String currency = currency(session, requestedCurrency);
         logger.info("Rendering home page with currency: {}", currency);
+        String sessionId = sessionId(session, model);
         
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
-        
-        // Fetch products
-        List<Product> products = serviceClients.getProducts().collectList().block();
-        model.addAttribute("products", products);
-        
-        // Fetch supported currencies
-        List<String> currencies = serviceClients.getSupportedCurrencies().collectList().block();
-        model.addAttribute("currencies", currencies);
-        model.addAttribute("currentCurrency", currency);
-        
-        // Fetch cart
-        List<CartItem> cart = serviceClients.getCart(sessionId).collectList().block();
-        model.addAttribute("cart", cart);
+        // Captured before loading so a fragment is never keyed newer than its data
+        String version = dataVersion();
         
-        return "home";
+        // The grid is the same for everyone using this currency; only the header renders per user
+        return pageComposer.home(sessionId, currency)
+                .flatMap(page -> fragmentCache.render("fragments/product-grid", "product-grid:" + currency, version,
+                                () -> pageComposer.price(page.products(), currency)
+                                        .map(products -> Map.of("products", products)))
+                        .map(productGrid -> {
+                            model.addAttribute("currencies", page.currencies());
+                            model.addAttribute("currentCurrency", currency);
+                            model.addAttribute("cart", page.cart());
+                            model.addAttribute("productGrid", productGrid);
+                            return "home";
+                        }));
     }
     
     /**
@@ -66,31 +81,33 @@ public class FrontendController {
      * Migrated from: productHandler
      */
     @GetMapping("/product/{id}")
-    public String product(@PathVariable String id, 
-                         @RequestParam(defaultValue = "USD") String currency,
-                         @SessionAttribute(value = "session_id", required = false) String sessionId,
-                         Model model) {
+    public Mono<String> product(@PathVariable String id,
+                                @RequestParam(name = "currency", required = false) String requestedCurrency,
+                                @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                                Model model) {
+        String currency = currency(session, requestedCurrency);
         logger.info("Rendering product page for product: {} with currency: {}", id, currency);
+        String sessionId = sessionId(session, model);
         
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
-        
-        // Fetch product
-        Product product = serviceClients.getProduct(id).block();
-        if (product == null) {
-            return "error";
-        }
-        
-        // Convert price to requested currency
-        Money convertedPrice = serviceClients.convertCurrency(product.getPriceUsd(), currency).block();
-        product.setPriceUsd(convertedPrice);
-        
-        model.addAttribute("product", product);
-        model.addAttribute("currentCurrency", currency);
+        String version = dataVersion();
         
-        return "product";
+        return pageComposer.product(id, sessionId, currency)
+                .flatMap(page -> fragmentCache.render("fragments/product-detail",
+                                "product-detail:" + id + ":" + currency, version,
+                                () -> pageComposer.price(page.product(), currency)
+                                        .map(product -> Map.of("product", product)))
+                        .map(productDetail -> {
+                            model.addAttribute("productName", page.product().getName());
+                            model.addAttribute("productDetail", productDetail);
+                            model.addAttribute("currencies", page.currencies());
+                            model.addAttribute("currentCurrency", currency);
+                            model.addAttribute("cart", page.cart());
+                            model.addAttribute("ad", page.ad());
+                            model.addAttribute("recommendations", page.recommendations());
+                            return "product";
+                        }))
+                .onErrorResume(DownstreamException::isNotFound, e -> Mono.empty())
+                .defaultIfEmpty("error");
     }
     
     /**
@@ -98,22 +115,19 @@ public class FrontendController {
      * Migrated from: viewCartHandler
      */
     @GetMapping("/cart")
-    public String cart(@SessionAttribute(value = "session_id", required = false) String sessionId,
-                      @RequestParam(defaultValue = "USD") String currency,
-                      Model model) {
+    public Mono<String> cart(@RequestParam(name = "currency", required = false) String requestedCurrency,
+                             @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                             Model model) {
+        String sessionId = sessionId(session, model);
+        String currency = currency(session, requestedCurrency);
         logger.info("Rendering cart page for session: {} with currency: {}", sessionId, currency);
         
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
-        
-        // Fetch cart
-        List<CartItem> cart = serviceClients.getCart(sessionId).collectList().block();
-        model.addAttribute("cart", cart);
-        model.addAttribute("currentCurrency", currency);
-        
-        return "cart";
+        return serviceClients.getCart(sessionId).collectList()
+                .map(cart -> {
+                    model.addAttribute("cart", cart);
+                    model.addAttribute("currentCurrency", currency);
+                    return "cart";
+                });
     }
     
     /**
@@ -121,22 +135,15 @@ public class FrontendController {
      * Migrated from: addToCartHandler
      */
     @PostMapping("/cart")
-    public String addToCart(@RequestParam String productId,
-                           @RequestParam Integer quantity,
-                           @SessionAttribute(value = "session_id", required = false) String sessionId,
-                           Model model) {
-        logger.info("Adding product {} with quantity {} to cart for session: {}", 
-                   productId, quantity, sessionId);
-        
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
+    public Mono<String> addToCart(@ModelAttribute CartItem item,
+                                  @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                                  Model model) {
+        String sessionId = sessionId(session, model);
+        logger.info("Adding product {} with quantity {} to cart for session: {}",
+                   item.getProductId(), item.getQuantity(), sessionId);
         
-        CartItem item = new CartItem(productId, quantity);
-        serviceClients.addToCart(sessionId, item).block();
-        
-        return "redirect:/cart";
+        return serviceClients.addToCart(sessionId, item)
+                .thenReturn("redirect:/cart");
     }
     
     /**
@@ -144,38 +151,43 @@ public class FrontendController {
      * Migrated from: emptyCartHandler
      */
     @PostMapping("/cart/empty")
-    public String emptyCart(@SessionAttribute(value = "session_id", required = false) String sessionId,
-                           Model model) {
+    public Mono<String> emptyCart(@RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session, Model model) {
+        String sessionId = sessionId(session, model);
         logger.info("Emptying cart for session: {}", sessionId);
         
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
-        
-        serviceClients.emptyCart(sessionId).block();
-        
-        return "redirect:/cart";
+        return serviceClients.emptyCart(sessionId)
+                .thenReturn("redirect:/cart");
     }
     
     /**
-     * Set currency handler
+     * Set currency handler; the choice is stored in the session cookie
      * Migrated from: setCurrencyHandler
      */
     @PostMapping("/setCurrency")
-    public String setCurrency(@RequestParam String currency) {
-        logger.info("Setting currency to: {}", currency);
-        return "redirect:/?currency=" + currency;
+    public Mono<String> setCurrency(@RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                                    ServerWebExchange exchange) {
+        return exchange.getFormData()
+                .map(form -> {
+                    String currency = form.getFirst("currency");
+                    if (currencyConverter.isSupported(currency)) {
+                        logger.info("Setting currency to: {}", currency);
+                        ShopSession.update(exchange, session.withCurrency(currency, Instant.now()));
+                    } else {
+                        logger.warn("Ignoring invalid currency: {}", currency);
+                    }
+                    return "redirect:/";
+                });
     }
     
     /**
-     * Logout handler
+     * Logout handler; expires the session cookie, so the next page starts a new session
      * Migrated from: logoutHandler
      */
     @GetMapping("/logout")
-    public String logout() {
+    public Mono<String> logout(ServerWebExchange exchange) {
         logger.info("User logout");
-        return "redirect:/";
+        ShopSession.update(exchange, null);
+        return Mono.just("redirect:/");
     }
     
     /**
@@ -183,44 +195,22 @@ public class FrontendController {
      * Migrated from: placeOrderHandler
      */
     @PostMapping("/cart/checkout")
-    public String checkout(@RequestParam String email,
-                          @RequestParam String streetAddress,
-                          @RequestParam String city,
-                          @RequestParam String state,
-                          @RequestParam String country,
-                          @RequestParam Integer zipCode,
-                          @RequestParam String creditCardNumber,
-                          @RequestParam Integer creditCardCvv,
-                          @RequestParam Integer creditCardExpirationYear,
-                          @RequestParam Integer creditCardExpirationMonth,
-                          @RequestParam(defaultValue = "USD") String currency,
-                          @SessionAttribute(value = "session_id", required = false) String sessionId,
-                          Model model) {
+    public Mono<String> checkout(@ModelAttribute ServiceClients.PlaceOrderRequest request,
+                                 @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session,
+                                 Model model) {
+        String sessionId = sessionId(session, model);
         logger.info("Processing checkout for session: {}", sessionId);
         
-        if (sessionId == null) {
-            sessionId = UUID.randomUUID().toString();
-            model.addAttribute("session_id", sessionId);
-        }
-        
-        ServiceClients.PlaceOrderRequest request = new ServiceClients.PlaceOrderRequest();
         request.setUserId(sessionId);
-        request.setUserCurrency(currency);
-        request.setEmail(email);
-        request.setStreetAddress(streetAddress);
-        request.setCity(city);
-        request.setState(state);
-        request.setCountry(country);
-        request.setZipCode(zipCode);
-        request.setCreditCardNumber(creditCardNumber);
-        request.setCreditCardCvv(creditCardCvv);
-        request.setCreditCardExpirationYear(creditCardExpirationYear);
-        request.setCreditCardExpirationMonth(creditCardExpirationMonth);
-        
-        ServiceClients.OrderResult result = serviceClients.placeOrder(request).block();
-        model.addAttribute("orderResult", result);
+        if (request.getUserCurrency() == null) {
+            request.setUserCurrency(session.currencyOr(null));
+        }
         
-        return "checkout-success";
+        return serviceClients.placeOrder(request)
+                .map(result -> {
+                    model.addAttribute("orderResult", result);
+                    return "checkout-success";
+                });
     }
     
     /**
@@ -240,4 +230,28 @@ public class FrontendController {
     public String robots() {
         return "User-agent: *\nDisallow: /";
     }
+    
+    /**
+     * Version of everything shared fragments are rendered from: catalog data and currency rates
+     */
+    private String dataVersion() {
+        return serviceClients.catalogVersion() + ":" + currencyConverter.ratesVersion();
+    }
+    
+    /**
+     * Currency to show prices in: the requested one when it is supported, else the session's.
+     * Unsupported values are dropped here, before they reach fragment cache keys.
+     */
+    private String currency(ShopSession session, String requested) {
+        return session.currencyOr(currencyConverter.isSupported(requested) ? requested : null);
+    }
+    
+    /**
+     * Session id used as the cart user id
+     */
+    private static String sessionId(ShopSession session, Model model) {
+        String sessionId = session.sessionId().toString();
+        model.addAttribute(SESSION_ID, sessionId);
+        return sessionId;
+    }
 }
@@ -0,0 +1,46 @@
+package com.onlineboutique.frontend.controller;
+
+import com.onlineboutique.frontend.view.ImageVariants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Serves resized product image variants.
+ * Variant URLs embed the fingerprinted image path, so responses never change and are
+ * cached as immutable.
+ */
+@RestController
+public class ImageController {
+
+    @Autowired
+    private ImageVariants imageVariants;
+
+    /**
+     * Image variant, e.g. {@code /img/w320/img/products/mug.3f2a9c01be.jpg}
+     */
+    @GetMapping("/img/w{width}/**")
+    public Mono<ResponseEntity<Resource>> variant(@PathVariable int width, ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        // Elements alternate segment and separator: skip "/", "img", "/", "w<width>", "/"
+        String imagePath = path.subPath(Math.min(5, path.elements().size())).value();
+
+        return imageVariants.variant(imagePath, width)
+                .map(file -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                        .contentType(imagePath.toLowerCase().endsWith(".png") ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG)
+                        .<Resource>body(new FileSystemResource(file)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
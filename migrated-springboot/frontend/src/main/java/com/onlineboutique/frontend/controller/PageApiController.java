@@ -0,0 +1,74 @@
+package com.onlineboutique.frontend.controller;
+
+import com.onlineboutique.common.client.DownstreamException;
+import com.onlineboutique.frontend.client.CurrencyConverter;
+import com.onlineboutique.frontend.page.HomePage;
+import com.onlineboutique.frontend.page.PageComposer;
+import com.onlineboutique.frontend.page.ProductPage;
+import com.onlineboutique.frontend.session.ShopSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Page data as JSON for clients that render pages themselves.
+ * Each endpoint returns everything one page needs in a single response, composed by the
+ * same {@link PageComposer} as the HTML pages, with prices already converted.
+ */
+@RestController
+@RequestMapping("/api/page")
+public class PageApiController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageApiController.class);
+
+    @Autowired
+    private PageComposer pageComposer;
+
+    @Autowired
+    private CurrencyConverter currencyConverter;
+
+    @GetMapping("/home")
+    public Mono<ResponseEntity<HomePage>> home(@RequestParam(name = "currency", required = false) String requestedCurrency,
+                                               @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session) {
+        String currency = currency(session, requestedCurrency);
+        return pageComposer.pricedHome(session.sessionId().toString(), currency)
+                .map(ResponseEntity::ok)
+                .onErrorResume(error -> unavailable("home", error));
+    }
+
+    @GetMapping("/product/{id}")
+    public Mono<ResponseEntity<ProductPage>> product(@PathVariable String id,
+                                                     @RequestParam(name = "currency", required = false) String requestedCurrency,
+                                                     @RequestAttribute(ShopSession.ATTRIBUTE) ShopSession session) {
+        String currency = currency(session, requestedCurrency);
+        return pageComposer.pricedProduct(id, session.sessionId().toString(), currency)
+                .map(ResponseEntity::ok)
+                .onErrorResume(DownstreamException::isNotFound, e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(error -> unavailable("product", error))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Currency to price the page in: the requested one when it is supported, else the session's
+     */
+    private String currency(ShopSession session, String requested) {
+        return session.currencyOr(currencyConverter.isSupported(requested) ? requested : null);
+    }
+
+    /**
+     * A required dependency failed or missed its deadline
+     */
+    private static <T> Mono<ResponseEntity<T>> unavailable(String page, Throwable error) {
+        logger.error("Could not compose {} page: {}", page, error.toString());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
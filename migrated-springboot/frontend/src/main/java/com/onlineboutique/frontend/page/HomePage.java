@@ -0,0 +1,22 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.ProductSummary;
+
+import java.util.List;
+
+/**
+ * Data behind the home page
+ *
+ * @param currency currency prices are shown in
+ * @param products product summaries; priced in {@code currency} when composed by {@link PageComposer#pricedHome}
+ * @param currencies currencies the user can switch to
+ * @param cart the user's cart
+ * @param missing optional dependencies that missed their deadline or failed; their fields hold fallbacks
+ */
+public record HomePage(String currency,
+                       List<ProductSummary> products,
+                       List<String> currencies,
+                       List<CartItem> cart,
+                       List<String> missing) {
+}
@@ -0,0 +1,46 @@
+package com.onlineboutique.frontend.page;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Time a page may spend waiting on optional widgets, counted from when composition started.
+ * Widgets started later get correspondingly less, so together they never hold the page
+ * past its budget.
+ */
+public final class PageBudget {
+
+    private final LongSupplier nanoTime;
+    private final long deadlineNanos;
+
+    private PageBudget(LongSupplier nanoTime, long deadlineNanos) {
+        this.nanoTime = nanoTime;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static PageBudget start(Duration budget) {
+        return start(budget, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime source of the nanosecond times the budget is counted down by
+     */
+    public static PageBudget start(Duration budget, LongSupplier nanoTime) {
+        return new PageBudget(nanoTime, nanoTime.getAsLong() + budget.toNanos());
+    }
+
+    /**
+     * Time left before the page deadline, never negative
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - nanoTime.getAsLong()));
+    }
+
+    /**
+     * Budget for one widget: its own budget, capped by what is left of the page's
+     */
+    public Duration take(Duration widgetBudget) {
+        Duration remaining = remaining();
+        return widgetBudget.compareTo(remaining) < 0 ? widgetBudget : remaining;
+    }
+}
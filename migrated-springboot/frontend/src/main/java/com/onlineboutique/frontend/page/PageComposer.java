@@ -0,0 +1,240 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.client.DownstreamException;
+import com.onlineboutique.common.model.Ad;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.frontend.client.CurrencyConverter;
+import com.onlineboutique.frontend.client.ServiceClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Composes the backend data behind each page, shared by the HTML pages and the page API.
+ * Dependencies are called concurrently, each under its own deadline. A required dependency
+ * that fails or misses its deadline fails the page; an optional one is replaced by a
+ * fallback and listed in the page's {@code missing} field, so a slow cart or currency
+ * service degrades the page instead of delaying it.
+ * Ads and recommendations are {@link Widgets}: they share the page budget and are
+ * dropped or served from a fallback when they run out of it.
+ * <p>
+ * Metric: {@code frontend.page.dependency{dependency,result}}, including {@code pricing}
+ * for prices converted after the page data, with result {@code ok},
+ * {@code timeout} or {@code error}.
+ */
+@Component
+public class PageComposer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageComposer.class);
+
+    /**
+     * Recommendations shown on a product page, to fit the layout
+     */
+    private static final int MAX_RECOMMENDATIONS = 4;
+
+    @Autowired
+    private ServiceClients serviceClients;
+
+    @Autowired
+    private CurrencyConverter currencyConverter;
+
+    @Autowired
+    private Widgets widgets;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${frontend.page.deadlines.catalog:1s}")
+    private Duration catalogDeadline;
+
+    @Value("${frontend.page.deadlines.currencies:300ms}")
+    private Duration currenciesDeadline;
+
+    @Value("${frontend.page.deadlines.cart:300ms}")
+    private Duration cartDeadline;
+
+    @Value("${frontend.page.budget:250ms}")
+    private Duration pageBudget;
+
+    @Value("${frontend.widgets.ads.budget:100ms}")
+    private Duration adsBudget;
+
+    @Value("${frontend.widgets.recommendations.budget:200ms}")
+    private Duration recommendationsBudget;
+
+    @Value("${frontend.widgets.recommendations.enabled:true}")
+    private boolean recommendationsEnabled;
+
+    /**
+     * Home page data with unpriced product summaries
+     */
+    public Mono<HomePage> home(String sessionId, String currency) {
+        return home(sessionId, currency, Mono::just);
+    }
+
+    /**
+     * Home page data with the summaries priced in {@code currency}; pricing counts against
+     * the catalog deadline
+     */
+    public Mono<HomePage> pricedHome(String sessionId, String currency) {
+        return home(sessionId, currency, summaries -> convert(summaries, currency));
+    }
+
+    /**
+     * Product page data with the unpriced product; empty propagates as a not-found error
+     * from the catalog
+     */
+    public Mono<ProductPage> product(String productId, String sessionId, String currency) {
+        return product(productId, sessionId, currency, Mono::just);
+    }
+
+    /**
+     * Product page data with the product priced in {@code currency}; pricing counts against
+     * the catalog deadline
+     */
+    public Mono<ProductPage> pricedProduct(String productId, String sessionId, String currency) {
+        return product(productId, sessionId, currency, product -> convert(product, currency));
+    }
+
+    private Mono<HomePage> home(String sessionId, String currency,
+                                Function<List<ProductSummary>, Mono<List<ProductSummary>>> pricing) {
+        Set<String> missing = ConcurrentHashMap.newKeySet();
+        return Mono.zip(
+                        required("catalog", serviceClients.getProductSummaries().collectList().flatMap(pricing),
+                                catalogDeadline),
+                        optional("currencies", serviceClients.getSupportedCurrencies().collectList(), currenciesDeadline,
+                                List.of(currency), missing),
+                        optional("cart", serviceClients.getCart(sessionId).collectList(), cartDeadline, List.of(), missing))
+                .map(results -> new HomePage(currency, results.getT1(), results.getT2(), results.getT3(), List.copyOf(missing)));
+    }
+
+    private Mono<ProductPage> product(String productId, String sessionId, String currency,
+                                      Function<Product, Mono<Product>> pricing) {
+        Set<String> missing = ConcurrentHashMap.newKeySet();
+        PageBudget budget = PageBudget.start(pageBudget);
+        Mono<Product> unpriced = serviceClients.getProduct(productId).cache();
+        Mono<Product> product = required("product", unpriced.flatMap(pricing), catalogDeadline);
+
+        // Widgets start alongside the critical calls; ads need the product's categories first
+        Mono<Optional<Ad>> ad = unpriced.flatMap(found -> widgets.load("ads", String.join(",", found.getCategories()),
+                        adsBudget, budget, () -> serviceClients.getAds(List.of(found.getCategories())).collectList()
+                                .mapNotNull(PageComposer::chooseAd)))
+                .onErrorReturn(Optional.empty());
+        Mono<Optional<List<Product>>> recommendations = !recommendationsEnabled ? Mono.just(Optional.empty())
+                : widgets.load("recommendations", productId, recommendationsBudget, budget,
+                        () -> serviceClients.getRecommendations(sessionId, List.of(productId))
+                                .filter(id -> !id.equals(productId))
+                                .take(MAX_RECOMMENDATIONS)
+                                .flatMapSequential(serviceClients::getProduct)
+                                .collectList());
+
+        return Mono.zip(
+                        product,
+                        optional("currencies", serviceClients.getSupportedCurrencies().collectList(), currenciesDeadline,
+                                List.of(currency), missing),
+                        optional("cart", serviceClients.getCart(sessionId).collectList(), cartDeadline, List.of(), missing),
+                        ad,
+                        recommendations)
+                .map(results -> new ProductPage(currency, results.getT1(), results.getT2(), results.getT3(),
+                        results.getT4().orElse(null), results.getT5().orElse(List.of()), List.copyOf(missing)));
+    }
+
+    /**
+     * Copies of the summaries priced in {@code currency}, within the catalog deadline; cached
+     * summaries are shared and must not be modified
+     */
+    public Mono<List<ProductSummary>> price(List<ProductSummary> summaries, String currency) {
+        return required("pricing", convert(summaries, currency), catalogDeadline);
+    }
+
+    /**
+     * Copy of the product priced in {@code currency}, within the catalog deadline
+     */
+    public Mono<Product> price(Product product, String currency) {
+        return required("pricing", convert(product, currency), catalogDeadline);
+    }
+
+    /**
+     * Prices repeat across the catalog, so each distinct price is converted once; the
+     * conversions run concurrently, which matters when they fall back to remote calls.
+     * A price that cannot be converted fails the whole list rather than dropping products.
+     */
+    private Mono<List<ProductSummary>> convert(List<ProductSummary> summaries, String currency) {
+        return Flux.fromIterable(summaries)
+                .map(ProductSummary::getPriceUsd)
+                .distinct()
+                .flatMap(usd -> convert(usd, currency).map(price -> Map.entry(usd, price)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(prices -> summaries.stream()
+                        .map(summary -> new ProductSummary(summary.getId(), summary.getName(), summary.getPicture(),
+                                prices.get(summary.getPriceUsd()), summary.getCategories()))
+                        .toList());
+    }
+
+    private Mono<Product> convert(Product product, String currency) {
+        return convert(product.getPriceUsd(), currency)
+                .map(price -> new Product(product.getId(), product.getName(), product.getDescription(),
+                        product.getPicture(), price, product.getCategories()));
+    }
+
+    /**
+     * One price in {@code currency}; a conversion that completes empty is an error, so it is
+     * counted and handled like any other pricing failure
+     */
+    private Mono<Money> convert(Money price, String currency) {
+        return currencyConverter.convert(price, currency)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "No conversion of " + price.getCurrencyCode() + " to " + currency)));
+    }
+
+    /**
+     * One ad at random, as the original frontend showed
+     * Migrated from: src/frontend/handlers.go chooseAd
+     */
+    private static Ad chooseAd(List<Ad> ads) {
+        return ads.isEmpty() ? null : ads.get(ThreadLocalRandom.current().nextInt(ads.size()));
+    }
+
+    private <T> Mono<T> required(String dependency, Mono<T> call, Duration deadline) {
+        return call.timeout(deadline)
+                .doOnSuccess(value -> count(dependency, "ok"))
+                .doOnError(error -> count(dependency, result(error)));
+    }
+
+    private <T> Mono<T> optional(String dependency, Mono<T> call, Duration deadline, T fallback, Set<String> missing) {
+        return call.timeout(deadline)
+                .doOnSuccess(value -> count(dependency, "ok"))
+                .onErrorResume(error -> {
+                    count(dependency, result(error));
+                    logger.warn("Rendering without {}: {}", dependency,
+                            error instanceof TimeoutException ? "missed its " + deadline + " deadline" : error.toString());
+                    missing.add(dependency);
+                    return Mono.just(fallback);
+                });
+    }
+
+    private static String result(Throwable error) {
+        return error instanceof TimeoutException || DownstreamException.isTimeout(error) ? "timeout" : "error";
+    }
+
+    private void count(String dependency, String result) {
+        meterRegistry.counter("frontend.page.dependency", "dependency", dependency, "result", result).increment();
+    }
+}
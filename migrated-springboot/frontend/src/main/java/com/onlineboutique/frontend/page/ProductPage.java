@@ -0,0 +1,27 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.model.Ad;
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Product;
+
+import java.util.List;
+
+/**
+ * Data behind the product detail page
+ *
+ * @param currency currency prices are shown in
+ * @param product the product; priced in {@code currency} when composed by {@link PageComposer#pricedProduct}
+ * @param currencies currencies the user can switch to
+ * @param cart the user's cart
+ * @param ad ad for the product's categories, or {@code null} when the ads widget was dropped
+ * @param recommendations products suggested alongside this one; empty when the widget was dropped
+ * @param missing optional dependencies that missed their deadline or failed; their fields hold fallbacks
+ */
+public record ProductPage(String currency,
+                          Product product,
+                          List<String> currencies,
+                          List<CartItem> cart,
+                          Ad ad,
+                          List<Product> recommendations,
+                          List<String> missing) {
+}
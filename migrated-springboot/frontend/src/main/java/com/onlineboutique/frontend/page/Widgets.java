@@ -0,0 +1,91 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.client.DownstreamException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs optional page widgets, such as ads and recommendations, under a time budget.
+ * A widget that fails or misses its budget never fails the page: it is filled from the
+ * last result it produced for the same key, or dropped when there is none.
+ * <p>
+ * Metrics per widget: {@code frontend.widget.requests{widget,result}} with result
+ * {@code ok}, {@code timeout} or {@code error}, whose ratios give the timeout rate, and
+ * {@code frontend.widget.fallbacks{widget,result}} with result {@code cached} or
+ * {@code dropped}.
+ */
+@Component
+public class Widgets {
+
+    private static final Logger logger = LoggerFactory.getLogger(Widgets.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${frontend.widgets.fallback-max-entries:1000}")
+    private int fallbackMaxEntries;
+
+    /**
+     * Last good result per widget and key
+     */
+    private final Map<String, Object> fallbacks = new ConcurrentHashMap<>();
+
+    /**
+     * Load a widget within {@code budget}, capped by what is left of the page budget
+     *
+     * @param widget low-cardinality widget name used for metrics, e.g. {@code ads}
+     * @param key identifies equivalent results for the fallback cache, e.g. {@code ads:kitchen}
+     * @param load widget data; subscribed immediately, so it runs alongside the page's other calls
+     * @return the widget data, a cached fallback, or empty when the widget has nothing to show
+     *         or failed without a fallback; never an error
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Optional<T>> load(String widget, String key, Duration budget, PageBudget page,
+                                      Supplier<Mono<T>> load) {
+        return Mono.defer(() -> {
+            Duration timeout = page.take(budget);
+            String fallbackKey = widget + ":" + key;
+            return Mono.defer(load)
+                    .timeout(timeout)
+                    .map(value -> {
+                        count(widget, "ok");
+                        if (fallbacks.size() < fallbackMaxEntries || fallbacks.containsKey(fallbackKey)) {
+                            fallbacks.put(fallbackKey, value);
+                        }
+                        return Optional.of(value);
+                    })
+                    // Nothing to show, e.g. no ads for the categories, is a successful load
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        count(widget, "ok");
+                        fallbacks.remove(fallbackKey);
+                        return Optional.empty();
+                    }))
+                    .onErrorResume(error -> {
+                        boolean timedOut = error instanceof TimeoutException || DownstreamException.isTimeout(error);
+                        count(widget, timedOut ? "timeout" : "error");
+                        // Counted above; an unavailable widget service would otherwise log on every page
+                        logger.debug("Widget {} failed: {}", widget, error.toString());
+                        Optional<T> fallback = Optional.ofNullable((T) fallbacks.get(fallbackKey));
+                        meterRegistry.counter("frontend.widget.fallbacks", "widget", widget,
+                                "result", fallback.isPresent() ? "cached" : "dropped").increment();
+                        return Mono.just(fallback);
+                    });
+        });
+    }
+
+    private void count(String widget, String result) {
+        meterRegistry.counter("frontend.widget.requests", "widget", widget, "result", result).increment();
+    }
+}
@@ -0,0 +1,145 @@
+package com.onlineboutique.frontend.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Encodes sessions as compact HMAC-signed cookie values, so no server-side store is read
+ * or written per request.
+ * <p>
+ * Value layout, base64url without padding: version (1 byte), session id (16), issued-at
+ * epoch seconds (8), currency (ASCII, 0-3 bytes), followed by the first 16 bytes of the
+ * HMAC-SHA256 of everything before it. Sessions are verified against the current secret
+ * and then the previous one, so the secret can be rotated without logging everyone out.
+ * Outside development a secret is required: replicas signing with random keys would reject
+ * each other's cookies.
+ */
+@Component
+public class SessionCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCodec.class);
+
+    private static final byte VERSION = 1;
+
+    private static final int MAC_LENGTH = 16;
+
+    private static final int FIXED_LENGTH = 1 + 16 + 8;
+
+    private static final int MAX_CURRENCY_LENGTH = 3;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final List<SecretKeySpec> keys = new ArrayList<>();
+
+    private final ThreadLocal<List<Mac>> macs;
+
+    public SessionCodec(@Value("${frontend.session.secret:}") String secret,
+                        @Value("${frontend.session.previous-secret:}") String previousSecret,
+                        @Value("${frontend.session.require-secret:true}") boolean requireSecret) {
+        if (secret.isBlank() && requireSecret) {
+            throw new IllegalStateException("frontend.session.secret is not set; set FRONTEND_SESSION_SECRET, shared by every instance");
+        } else if (secret.isBlank()) {
+            // Cookies signed with a random key are only valid on this instance until it restarts
+            logger.warn("frontend.session.secret is not set; using a random key, sessions will not survive restarts or move between instances");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            keys.add(new SecretKeySpec(random, ALGORITHM));
+        } else {
+            keys.add(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        }
+        if (!previousSecret.isBlank()) {
+            keys.add(new SecretKeySpec(previousSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        }
+        // Mac instances are stateful and not thread-safe
+        macs = ThreadLocal.withInitial(() -> keys.stream().map(SessionCodec::mac).toList());
+    }
+
+    /**
+     * Cookie value for a session, signed with the current secret
+     */
+    public String encode(ShopSession session) {
+        byte[] currency = session.currency() == null ? new byte[0] : session.currency().getBytes(StandardCharsets.US_ASCII);
+        if (currency.length > MAX_CURRENCY_LENGTH) {
+            throw new IllegalArgumentException("Invalid currency code: " + session.currency());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_LENGTH + currency.length + MAC_LENGTH)
+                .put(VERSION)
+                .putLong(session.sessionId().getMostSignificantBits())
+                .putLong(session.sessionId().getLeastSignificantBits())
+                .putLong(session.issuedAt().getEpochSecond())
+                .put(currency);
+        Mac mac = macs.get().get(0);
+        mac.update(buffer.array(), 0, buffer.position());
+        buffer.put(mac.doFinal(), 0, MAC_LENGTH);
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * Session in a cookie value, or empty when it is malformed or its signature does not
+     * verify against any configured secret
+     */
+    public Optional<ShopSession> decode(String value) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        int payloadLength = bytes.length - MAC_LENGTH;
+        if (payloadLength < FIXED_LENGTH || payloadLength > FIXED_LENGTH + MAX_CURRENCY_LENGTH || bytes[0] != VERSION) {
+            return Optional.empty();
+        }
+        if (!verify(bytes, payloadLength)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, payloadLength - 1);
+        UUID sessionId = new UUID(buffer.getLong(), buffer.getLong());
+        Instant issuedAt = Instant.ofEpochSecond(buffer.getLong());
+        String currency = payloadLength == FIXED_LENGTH ? null
+                : new String(bytes, FIXED_LENGTH, payloadLength - FIXED_LENGTH, StandardCharsets.US_ASCII);
+        return Optional.of(new ShopSession(sessionId, currency, issuedAt));
+    }
+
+    private boolean verify(byte[] bytes, int payloadLength) {
+        byte[] expected = Arrays.copyOfRange(bytes, payloadLength, bytes.length);
+        for (Mac mac : macs.get()) {
+            mac.update(bytes, 0, payloadLength);
+            byte[] actual = mac.doFinal();
+            if (MessageDigest.isEqual(expected, Arrays.copyOf(actual, MAC_LENGTH))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mac mac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.onlineboutique.frontend.session;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Establishes the {@link ShopSession} of each page request from its signed cookie.
+ * A missing, tampered or expired cookie starts a new session. The cookie is re-signed
+ * before the response is committed when the session changed or is older than the refresh
+ * interval, which keeps active sessions alive without rewriting the cookie on every page.
+ * Migrated from: src/frontend/middleware.go ensureSessionID
+ */
+@Component
+public class SessionCookieFilter implements WebFilter {
+
+    public static final String COOKIE_NAME = "shop_session";
+
+    /**
+     * Paths that never use the session; their responses are publicly cacheable and must not set cookies
+     */
+    private static final List<String> SESSIONLESS_PATHS = List.of("/static/", "/img/", "/actuator", "/health", "/robots.txt");
+
+    @Autowired
+    private SessionCodec sessionCodec;
+
+    @Value("${frontend.session.max-age:48h}")
+    private Duration maxAge;
+
+    @Value("${frontend.session.refresh-after:1h}")
+    private Duration refreshAfter;
+
+    @Value("${frontend.session.secure-cookie:true}")
+    private boolean secureCookie;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (SESSIONLESS_PATHS.stream().anyMatch(path::startsWith)) {
+            return chain.filter(exchange);
+        }
+
+        Instant now = Instant.now();
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst(COOKIE_NAME);
+        ShopSession received = cookie == null ? null : sessionCodec.decode(cookie.getValue())
+                .filter(session -> session.issuedAt().plus(maxAge).isAfter(now))
+                .orElse(null);
+        ShopSession.update(exchange, received != null ? received : ShopSession.create(now));
+
+        exchange.getResponse().beforeCommit(() -> {
+            ShopSession current = exchange.getAttribute(ShopSession.ATTRIBUTE);
+            if (current == null) {
+                exchange.getResponse().addCookie(cookie("", Duration.ZERO));
+            } else if (current != received) {
+                exchange.getResponse().addCookie(cookie(sessionCodec.encode(current), maxAge));
+            } else if (current.issuedAt().plus(refreshAfter).isBefore(now)) {
+                ShopSession refreshed = new ShopSession(current.sessionId(), current.currency(), now);
+                exchange.getResponse().addCookie(cookie(sessionCodec.encode(refreshed), maxAge));
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .maxAge(maxAge)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.onlineboutique.frontend.session;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-user state carried in the signed session cookie.
+ * The session id doubles as the cart user id, so it stays stable across pods as long as
+ * they share the signing secret.
+ * Migrated from: src/frontend/middleware.go ensureSessionID and the shop_currency cookie
+ *
+ * @param sessionId random id created on first visit
+ * @param currency preferred currency, or {@code null} when the user never picked one
+ * @param issuedAt when the cookie was last signed
+ */
+public record ShopSession(UUID sessionId, String currency, Instant issuedAt) {
+
+    /**
+     * Exchange attribute holding the current request's session
+     */
+    public static final String ATTRIBUTE = "com.onlineboutique.frontend.session.ShopSession";
+
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    /**
+     * New session with a random id
+     */
+    public static ShopSession create(Instant now) {
+        return new ShopSession(UUID.randomUUID(), null, now);
+    }
+
+    /**
+     * Currency to show prices in: an explicit request parameter wins, then the stored preference
+     */
+    public String currencyOr(String requested) {
+        if (requested != null && !requested.isBlank()) {
+            return requested;
+        }
+        return currency != null ? currency : DEFAULT_CURRENCY;
+    }
+
+    public ShopSession withCurrency(String currency, Instant now) {
+        return new ShopSession(sessionId, currency, now);
+    }
+
+    /**
+     * Session of the current request, established by {@link SessionCookieFilter}
+     */
+    public static ShopSession of(ServerWebExchange exchange) {
+        return exchange.getRequiredAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Replace the current request's session; the filter re-signs the cookie before the
+     * response is committed. {@code null} ends the session and expires the cookie.
+     */
+    public static void update(ServerWebExchange exchange, ShopSession session) {
+        if (session == null) {
+            exchange.getAttributes().remove(ATTRIBUTE);
+        } else {
+            exchange.getAttributes().put(ATTRIBUTE, session);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.onlineboutique.frontend.view;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps logical static asset paths to the fingerprinted names produced at build time.
+ * Fingerprinted assets never change, so they are served with immutable cache headers and
+ * a new deployment changes the URL of every asset whose content changed.
+ */
+@Component
+public class AssetManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetManifest.class);
+
+    static final String STATIC_PREFIX = "/static/";
+
+    private static final String MANIFEST = "asset-manifest.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Map<String, String> assets = Map.of();
+
+    private volatile Set<String> fingerprintedPaths = Set.of();
+
+    @PostConstruct
+    public void load() throws IOException {
+        ClassPathResource manifest = new ClassPathResource(MANIFEST);
+        if (!manifest.exists()) {
+            logger.warn("No {} on the classpath; static asset URLs are not fingerprinted", MANIFEST);
+            return;
+        }
+        try (InputStream in = manifest.getInputStream()) {
+            assets = Map.copyOf(objectMapper.readValue(in, new TypeReference<Map<String, String>>() {}));
+        }
+        fingerprintedPaths = Set.copyOf(assets.values());
+        logger.info("Loaded {} fingerprinted static assets", assets.size());
+    }
+
+    /**
+     * URL of the fingerprinted asset for a logical path such as {@code /static/styles/frontend.css};
+     * paths outside the manifest are returned unchanged
+     */
+    public String url(String path) {
+        if (path == null || !path.startsWith(STATIC_PREFIX)) {
+            return path;
+        }
+        String fingerprinted = assets.get(path.substring(STATIC_PREFIX.length()));
+        return fingerprinted == null ? path : STATIC_PREFIX + fingerprinted;
+    }
+
+    /**
+     * Whether {@code path}, relative to {@code /static/}, names a fingerprinted asset
+     */
+    public boolean isFingerprinted(String path) {
+        return fingerprintedPaths.contains(path);
+    }
+
+    /**
+     * Every fingerprinted asset path, relative to {@code /static/}
+     */
+    public Set<String> getFingerprintedPaths() {
+        return fingerprintedPaths;
+    }
+}
@@ -0,0 +1,59 @@
+package com.onlineboutique.frontend.view;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.dialect.AbstractDialect;
+import org.thymeleaf.dialect.IExpressionObjectDialect;
+import org.thymeleaf.expression.IExpressionObjectFactory;
+
+import java.util.Set;
+
+/**
+ * Exposes the asset manifest to templates as {@code #assets}, e.g.
+ * {@code th:href="${#assets.url('/static/styles/frontend.css')}"}, and image variants as
+ * {@code #images}, e.g. {@code th:srcset="${#images.srcset(product.picture)}"}.
+ * Expression objects work in any template context, including fragments rendered by
+ * {@link FragmentCache}.
+ */
+@Component
+public class AssetsDialect extends AbstractDialect implements IExpressionObjectDialect {
+
+    private static final String ASSETS = "assets";
+
+    private static final String IMAGES = "images";
+
+    @Autowired
+    private AssetManifest assetManifest;
+
+    @Autowired
+    private ImageVariants imageVariants;
+
+    public AssetsDialect() {
+        super("Assets");
+    }
+
+    @Override
+    public IExpressionObjectFactory getExpressionObjectFactory() {
+        return new IExpressionObjectFactory() {
+            @Override
+            public Set<String> getAllExpressionObjectNames() {
+                return Set.of(ASSETS, IMAGES);
+            }
+
+            @Override
+            public Object buildObject(IExpressionContext context, String expressionObjectName) {
+                return switch (expressionObjectName) {
+                    case ASSETS -> assetManifest;
+                    case IMAGES -> imageVariants;
+                    default -> null;
+                };
+            }
+
+            @Override
+            public boolean isCacheable(String expressionObjectName) {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.onlineboutique.frontend.view;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of rendered HTML fragments that are identical for every user who sees them.
+ * Each slot (for example the product grid in one currency) holds the fragment rendered
+ * for one data version; a request with a newer version re-renders the slot and replaces it.
+ * Beyond the maximum number of slots the least used ones are evicted. Slot keys come from
+ * request parameters, so callers validate them first.
+ * Pages insert the cached markup unescaped and render only per-user parts live.
+ */
+@Component
+public class FragmentCache {
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${frontend.fragment-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${frontend.fragment-cache.max-entries:5000}")
+    private int maxEntries;
+
+    private Cache<String, Fragment> fragments;
+
+    @PostConstruct
+    public void init() {
+        fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Rendered markup of {@code template} for {@code slot} at {@code version}
+     *
+     * @param template fragment template name, e.g. {@code fragments/product-grid}
+     * @param slot identifies what the fragment shows, e.g. {@code product-grid:EUR}
+     * @param version data version the fragment depends on; a different value re-renders it
+     * @param variables template variables, only evaluated on a miss
+     */
+    public Mono<String> render(String template, String slot, String version,
+                               Supplier<Mono<Map<String, Object>>> variables) {
+        return Mono.defer(() -> {
+            Fragment cached = fragments.getIfPresent(slot);
+            if (enabled && cached != null && cached.version().equals(version)) {
+                count(template, "hit");
+                return Mono.just(cached.html());
+            }
+            count(template, "miss");
+            return variables.get().map(values -> {
+                String html = templateEngine.process(template, new Context(Locale.ROOT, values));
+                if (enabled) {
+                    fragments.put(slot, new Fragment(version, html));
+                }
+                return html;
+            });
+        });
+    }
+
+    /**
+     * Number of slots held, after pending evictions
+     */
+    public long size() {
+        fragments.cleanUp();
+        return fragments.estimatedSize();
+    }
+
+    private void count(String template, String result) {
+        meterRegistry.counter("frontend.fragment.cache.requests", "fragment", template, "result", result).increment();
+    }
+
+    private record Fragment(String version, String html) {}
+}
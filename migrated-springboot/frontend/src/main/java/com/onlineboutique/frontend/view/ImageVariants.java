@@ -0,0 +1,271 @@
+package com.onlineboutique.frontend.view;
+
+import com.onlineboutique.frontend.client.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resized, re-encoded variants of fingerprinted product images.
+ * Templates reference variants through {@code #images}; a variant is encoded on its first
+ * request, written to a disk cache and served from there afterwards. Concurrent first
+ * requests for the same variant share a single encode.
+ * <p>
+ * Only a fixed set of widths is produced, only below each image's own width, and only for
+ * images in the asset manifest, so the number of variants is bounded by what the build ships.
+ * Image widths are read once at startup and the disk cache is only touched on
+ * {@link Schedulers#boundedElastic()}, so rendering and serving never block an event loop.
+ */
+@Component
+public class ImageVariants {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariants.class);
+
+    static final String URL_PREFIX = "/img/w";
+
+    @Autowired
+    private AssetManifest assetManifest;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${frontend.images.widths:160,320,480,640,800}")
+    private List<Integer> widths;
+
+    @Value("${frontend.images.quality:0.8}")
+    private float quality;
+
+    @Value("${frontend.images.cache-dir:${java.io.tmpdir}/frontend-image-variants}")
+    private Path cacheDir;
+
+    private Set<Integer> allowedWidths;
+
+    /**
+     * Pixel width of each fingerprinted resizable image, read from its header at startup
+     */
+    private Map<String, Integer> sourceWidths = Map.of();
+
+    @PostConstruct
+    public void init() throws IOException {
+        allowedWidths = Set.copyOf(widths);
+        Files.createDirectories(cacheDir);
+        Map<String, Integer> read = new HashMap<>();
+        for (String path : assetManifest.getFingerprintedPaths()) {
+            if (isResizable(path)) {
+                read.put(path, readWidth(path));
+            }
+        }
+        sourceWidths = Map.copyOf(read);
+    }
+
+    /**
+     * URL of the {@code width} variant for a logical path such as
+     * {@code /static/img/products/mug.jpg}; falls back to the full-size asset URL when the
+     * image has no variants or is no wider than {@code width}
+     */
+    public String src(String path, int width) {
+        String variant = variantPath(path);
+        return variant == null || !allowedWidths.contains(width) || width >= sourceWidth(variant)
+                ? assetManifest.url(path) : URL_PREFIX + width + "/" + variant;
+    }
+
+    /**
+     * {@code srcset} attribute value listing the configured widths below the image's own and
+     * the full-size image at its width, or {@code null}, which drops the attribute, when the
+     * image has no variants
+     */
+    public String srcset(String path) {
+        String variant = variantPath(path);
+        int sourceWidth = variant == null ? 0 : sourceWidth(variant);
+        if (sourceWidth == 0) {
+            return null;
+        }
+        return Stream.concat(
+                        widths.stream()
+                                .filter(width -> width < sourceWidth)
+                                .map(width -> URL_PREFIX + width + "/" + variant + " " + width + "w"),
+                        Stream.of(assetManifest.url(path) + " " + sourceWidth + "w"))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * File holding the {@code width} variant of a fingerprinted image, encoding it first if
+     * needed; empty when the width or image is not one variants are produced for, including
+     * widths the image does not exceed
+     *
+     * @param path fingerprinted path relative to {@code /static/}
+     */
+    public Mono<Path> variant(String path, int width) {
+        if (!allowedWidths.contains(width) || !isResizable(path) || !assetManifest.isFingerprinted(path)
+                || width >= sourceWidth(path)) {
+            return Mono.empty();
+        }
+        Path file = cacheDir.resolve("w" + width).resolve(path);
+        return Mono.fromCallable(() -> Files.isRegularFile(file))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> {
+                    if (cached) {
+                        count("hit");
+                        return Mono.just(file);
+                    }
+                    // Encoding blocks and is CPU heavy; concurrent first requests share one encode
+                    return singleFlight.execute("image-variants", file.toString(), () -> Mono.fromCallable(() -> {
+                                if (!Files.isRegularFile(file)) {
+                                    encode(path, width, file);
+                                    count("encoded");
+                                }
+                                return file;
+                            })
+                            .subscribeOn(Schedulers.boundedElastic()));
+                });
+    }
+
+    private void encode(String path, int width, Path file) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage source;
+        try (InputStream in = new ClassPathResource("static/" + path).getInputStream()) {
+            source = ImageIO.read(in);
+        }
+        if (source == null) {
+            throw new IOException("Unreadable image: " + path);
+        }
+        BufferedImage resized = resize(source, width);
+
+        // Written to a temporary file and moved into place, so readers never see a partial variant
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            write(resized, format(path), tmp);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        logger.debug("Encoded {} at {}px: {} bytes in {} ms", path, resized.getWidth(), Files.size(file),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Scale down to {@code width}, halving repeatedly first so bilinear filtering stays sharp;
+     * images are never scaled up
+     */
+    private static BufferedImage resize(BufferedImage source, int width) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int targetWidth = Math.min(width, source.getWidth());
+        do {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(1, (int) Math.round((double) source.getHeight() * nextWidth / source.getWidth()));
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (current.getWidth() > targetWidth);
+        return current;
+    }
+
+    private void write(BufferedImage image, String format, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if ("jpeg".equals(format)) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        }
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Width of a fingerprinted image, or 0 when it cannot be read
+     */
+    private int sourceWidth(String path) {
+        return sourceWidths.getOrDefault(path, 0);
+    }
+
+    /**
+     * Width from the image header, without decoding the pixels
+     */
+    private static int readWidth(String path) {
+        try (InputStream in = new ClassPathResource("static/" + path).getInputStream();
+             ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                return 0;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read the size of {}: {}", path, e.toString());
+            return 0;
+        }
+    }
+
+    /**
+     * Fingerprinted path, relative to {@code /static/}, of a resizable image
+     */
+    private String variantPath(String path) {
+        String url = assetManifest.url(path);
+        if (url == null || url.equals(path) || !isResizable(url)) {
+            return null;
+        }
+        return url.substring(AssetManifest.STATIC_PREFIX.length());
+    }
+
+    private static boolean isResizable(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    static String format(String path) {
+        return path.toLowerCase().endsWith(".png") ? "png" : "jpeg";
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("frontend.image.variants", "result", result).increment();
+    }
+}
@@ -0,0 +1,131 @@
+package com.onlineboutique.frontend.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Output of the build-time asset pipeline
+ */
+class AssetPipelineTest {
+
+    private static final String CSS = "body { color: #333; }\n".repeat(200);
+
+    @TempDir
+    Path temp;
+
+    private Path write(Path dir, String path, byte[] content) throws IOException {
+        Path file = dir.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content);
+    }
+
+    private Map<String, String> run(Path... sources) throws IOException {
+        Path output = temp.resolve("out");
+        String[] args = new String[sources.length + 1];
+        args[0] = output.toString();
+        for (int i = 0; i < sources.length; i++) {
+            args[i + 1] = sources[i].toString();
+        }
+        AssetPipeline.main(args);
+        return new ObjectMapper().readValue(output.resolve(AssetPipeline.MANIFEST).toFile(),
+                new TypeReference<Map<String, String>>() {});
+    }
+
+    @Test
+    void testFingerprintKeepsDirectoryAndExtension() {
+        byte[] content = CSS.getBytes(StandardCharsets.UTF_8);
+
+        String fingerprinted = AssetPipeline.fingerprint("styles/styles.css", content);
+
+        assertTrue(fingerprinted.matches("styles/styles\\.[0-9a-f]{10}\\.css"), fingerprinted);
+        assertEquals(fingerprinted, AssetPipeline.fingerprint("styles/styles.css", content));
+        assertNotEquals(fingerprinted, AssetPipeline.fingerprint("styles/styles.css", "body {}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testFingerprintWithoutExtension() {
+        assertTrue(AssetPipeline.fingerprint("LICENSE", new byte[] {1}).matches("LICENSE\\.[0-9a-f]{10}"));
+        assertTrue(AssetPipeline.fingerprint("dir.d/.hidden", new byte[] {1}).matches("dir\\.d/\\.hidden\\.[0-9a-f]{10}"));
+    }
+
+    @Test
+    void testWritesFingerprintedFilesAndManifest() throws IOException {
+        // Given
+        Path source = temp.resolve("assets");
+        write(source, "styles/styles.css", CSS.getBytes(StandardCharsets.UTF_8));
+        write(source, "img/products/mug.jpg", new byte[] {(byte) 0xFF, (byte) 0xD8, 1, 2, 3});
+        write(source, ".DS_Store", new byte[] {0});
+
+        // When
+        Map<String, String> manifest = run(source);
+
+        // Then - every file is listed and copied unchanged under its fingerprinted name
+        assertEquals(2, manifest.size());
+        Path css = temp.resolve("out/static").resolve(manifest.get("styles/styles.css"));
+        Path jpg = temp.resolve("out/static").resolve(manifest.get("img/products/mug.jpg"));
+        assertEquals(CSS, Files.readString(css));
+        assertArrayEquals(new byte[] {(byte) 0xFF, (byte) 0xD8, 1, 2, 3}, Files.readAllBytes(jpg));
+    }
+
+    @Test
+    void testPrecompressesOnlyCompressibleFiles() throws IOException {
+        // Given
+        Path source = temp.resolve("assets");
+        write(source, "styles/styles.css", CSS.getBytes(StandardCharsets.UTF_8));
+        write(source, "styles/tiny.css", "a{}".getBytes(StandardCharsets.UTF_8));
+        write(source, "images/banner.png", CSS.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Map<String, String> manifest = run(source);
+
+        // Then
+        Path css = temp.resolve("out/static").resolve(manifest.get("styles/styles.css"));
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(Path.of(css + ".gz")))) {
+            assertEquals(CSS, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Brotli4jLoader.ensureAvailability();
+        assertEquals(CSS, new String(Decoder.decompress(Files.readAllBytes(Path.of(css + ".br"))).getDecompressedData(),
+                StandardCharsets.UTF_8));
+        // Too small to save anything, and an already compressed format
+        Path tiny = temp.resolve("out/static").resolve(manifest.get("styles/tiny.css"));
+        assertFalse(Files.exists(Path.of(tiny + ".gz")));
+        Path png = temp.resolve("out/static").resolve(manifest.get("images/banner.png"));
+        assertFalse(Files.exists(Path.of(png + ".gz")));
+        assertFalse(Files.exists(Path.of(png + ".br")));
+    }
+
+    @Test
+    void testLaterSourceWins() throws IOException {
+        // Given
+        Path original = temp.resolve("original");
+        Path overrides = temp.resolve("overrides");
+        write(original, "styles/styles.css", "a{}".getBytes(StandardCharsets.UTF_8));
+        write(overrides, "styles/styles.css", CSS.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Map<String, String> manifest = run(original, overrides);
+
+        // Then
+        assertEquals(AssetPipeline.fingerprint("styles/styles.css", CSS.getBytes(StandardCharsets.UTF_8)),
+                manifest.get("styles/styles.css"));
+    }
+
+    @Test
+    void testMissingSourceDirectoryFails() {
+        assertThrows(IllegalArgumentException.class, () -> run(temp.resolve("missing")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.onlineboutique.frontend.client;
+
+import com.onlineboutique.common.model.CurrencyRates;
+import com.onlineboutique.common.model.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CurrencyConverter
+ */
+@ExtendWith(MockitoExtension.class)
+class CurrencyConverterTest {
+
+    @Mock
+    private ServiceClients serviceClients;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CurrencyConverter currencyConverter;
+
+    private void loadRates() {
+        when(serviceClients.getCurrencyRates()).thenReturn(Mono.just(new CurrencyRates(1L, Map.of(
+                "EUR", BigDecimal.ONE, "USD", new BigDecimal("1.1305"), "JPY", new BigDecimal("126.40")))));
+        currencyConverter.refresh();
+    }
+
+    @Test
+    void testSupportsCurrencyCodesBeforeRatesAreLoaded() {
+        assertTrue(currencyConverter.isSupported("EUR"));
+        assertTrue(currencyConverter.isSupported("XYZ"));
+        assertFalse(currencyConverter.isSupported("eur"));
+        assertFalse(currencyConverter.isSupported("EURO"));
+        assertFalse(currencyConverter.isSupported("<b>"));
+        assertFalse(currencyConverter.isSupported(""));
+        assertFalse(currencyConverter.isSupported(null));
+    }
+
+    @Test
+    void testSupportsOnlySnapshotCurrenciesOnceLoaded() {
+        // Given
+        loadRates();
+
+        // Then
+        assertTrue(currencyConverter.isSupported("JPY"));
+        assertFalse(currencyConverter.isSupported("XYZ"));
+        assertFalse(currencyConverter.isSupported(null));
+    }
+
+    @Test
+    void testConvertsLocallyWithSnapshot() {
+        // Given
+        loadRates();
+
+        // When
+        Money converted = currencyConverter.convert(new Money("EUR", 10L, 0), "JPY").block();
+
+        // Then
+        assertEquals("JPY", converted.getCurrencyCode());
+        assertEquals(1264L, converted.getUnits());
+        verify(serviceClients, never()).convertCurrency(any(), any());
+    }
+
+    @Test
+    void testConvertsRemotelyWithoutSnapshot() {
+        // Given
+        Money remote = new Money("JPY", 1264L, 0);
+        when(serviceClients.convertCurrency(any(), eq("JPY"))).thenReturn(Mono.just(remote));
+
+        // When / Then
+        assertEquals(remote, currencyConverter.convert(new Money("EUR", 10L, 0), "JPY").block());
+    }
+}
@@ -0,0 +1,203 @@
+package com.onlineboutique.frontend.client;
+
+import com.onlineboutique.common.client.DownstreamException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NearCache, stepping entry ages with a manual ticker
+ */
+class NearCacheTest {
+
+    private static final NearCache.Settings SETTINGS = new NearCache.Settings(Duration.ofSeconds(20),
+            Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(10), 100);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final Ticker ticker = nanos::get;
+
+    private final NearCache cache = new NearCache("test", SETTINGS, new SimpleMeterRegistry(), ticker);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private Mono<String> load(String value) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    private Mono<String> fail(Throwable error) {
+        return Mono.defer(() -> {
+            loads.incrementAndGet();
+            return Mono.error(error);
+        });
+    }
+
+    private static DownstreamException downstream(DownstreamException.Kind kind, int statusCode) {
+        return new DownstreamException("product-catalog", "getProduct", kind, statusCode, null);
+    }
+
+    @Test
+    void testHitWithinSoftTtl() {
+        // When
+        String first = cache.get("k", () -> load("v1")).block();
+        String second = cache.get("k", () -> load("v2")).block();
+
+        // Then
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEmptyResultsAndErrorsAreNotCached() {
+        // When
+        assertNull(cache.get("empty", Mono::<String>empty).block());
+        assertThrows(DownstreamException.class,
+                () -> cache.get("error", () -> fail(downstream(DownstreamException.Kind.UNAVAILABLE, 0))).block());
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testStaleEntryIsServedWhileRefreshing() {
+        // Given
+        AtomicReference<String> backend = new AtomicReference<>("v1");
+        Supplier<Mono<String>> loader = () -> Mono.fromSupplier(backend::get);
+        cache.get("k", loader).block();
+        backend.set("v2");
+        advance(Duration.ofSeconds(45));
+
+        // When - between the soft TTL and the TTL
+        String stale = cache.get("k", loader).block();
+
+        // Then - the old value now, the refreshed one next
+        assertEquals("v1", stale);
+        assertEquals("v2", cache.get("k", loader).block());
+    }
+
+    @Test
+    void testEntryIsFreshUntilSoftTtl() {
+        // Given
+        cache.get("k", () -> load("v1")).block();
+        advance(SETTINGS.softTtl().minusNanos(1));
+
+        // When / Then
+        assertEquals("v1", cache.get("k", () -> load("v2")).block());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testExpiredEntryIsReloadedInline() {
+        // Given
+        cache.get("k", () -> load("v1")).block();
+        advance(SETTINGS.ttl());
+
+        // When
+        String reloaded = cache.get("k", () -> load("v2")).block();
+
+        // Then
+        assertEquals("v2", reloaded);
+    }
+
+    @Test
+    void testExpiredEntryIsServedWhenBackendIsUnavailable() {
+        // Given
+        cache.get("k", () -> load("v1")).block();
+        advance(SETTINGS.ttl());
+
+        // When / Then
+        assertEquals("v1", cache.get("k", () -> fail(downstream(DownstreamException.Kind.UNAVAILABLE, 0))).block());
+        assertEquals("v1", cache.get("k", () -> fail(downstream(DownstreamException.Kind.TIMEOUT, 0))).block());
+        assertEquals("v1", cache.get("k", () -> fail(downstream(DownstreamException.Kind.SERVER_ERROR, 503))).block());
+        assertEquals("v1", cache.get("k", () -> fail(new TimeoutException())).block());
+    }
+
+    @Test
+    void testExpiredEntryIsNotServedForOtherErrors() {
+        // Given
+        cache.get("k", () -> load("v1")).block();
+        advance(SETTINGS.ttl());
+
+        // When / Then - a product that is gone must not keep being served
+        DownstreamException notFound = assertThrows(DownstreamException.class,
+                () -> cache.get("k", () -> fail(downstream(DownstreamException.Kind.CLIENT_ERROR, 404))).block());
+        assertTrue(DownstreamException.isNotFound(notFound));
+        assertThrows(DownstreamException.class,
+                () -> cache.get("k", () -> fail(downstream(DownstreamException.Kind.ERROR, 0))).block());
+        assertThrows(IllegalStateException.class,
+                () -> cache.get("k", () -> fail(new IllegalStateException("bug"))).block());
+    }
+
+    @Test
+    void testEntryPastMaxStaleIsNotServed() {
+        // Given
+        cache.get("k", () -> load("v1")).block();
+        advance(SETTINGS.maxStale());
+
+        // When / Then
+        assertThrows(DownstreamException.class,
+                () -> cache.get("k", () -> fail(downstream(DownstreamException.Kind.UNAVAILABLE, 0))).block());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEvictsBeyondMaxEntries() {
+        // Given
+        NearCache small = new NearCache("small", new NearCache.Settings(Duration.ofSeconds(20),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofHours(1), 10), new SimpleMeterRegistry());
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            String value = "v" + i;
+            small.get("k" + i, () -> load(value)).block();
+        }
+
+        // Then - later keys are still admitted
+        assertEquals(10, small.size());
+        assertEquals("v99", small.get("k99", () -> load("reloaded")).block());
+    }
+
+    @Test
+    void testRefreshAheadReloadsEntriesThatAreRead() {
+        // Given
+        cache.get("read", () -> load("v1")).block();
+        cache.get("unread", () -> load("v1")).block();
+        advance(Duration.ofSeconds(10));
+        cache.get("read", () -> load("v1")).block();
+        advance(Duration.ofSeconds(10));
+
+        // When
+        cache.refreshAhead();
+
+        // Then - only the entry read since it was loaded is reloaded
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testClear() {
+        cache.get("k", () -> load("v1")).block();
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals("v2", cache.get("k", () -> load("v2")).block());
+    }
+}
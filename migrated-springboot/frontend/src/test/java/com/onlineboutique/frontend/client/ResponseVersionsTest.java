@@ -0,0 +1,127 @@
+package com.onlineboutique.frontend.client;
+
+import com.onlineboutique.common.grpc.v1.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseVersions
+ */
+class ResponseVersionsTest {
+
+    private final ResponseVersions versions = new ResponseVersions();
+
+    private static Product product(String id, String description) {
+        return Product.newBuilder()
+                .setId(id)
+                .setName("Sunglasses")
+                .setDescription(description)
+                .addCategories("accessories")
+                .build();
+    }
+
+    @Test
+    void testSameFingerprintKeepsVersion() {
+        // Given
+        versions.record("products", "\"v1\"");
+        long version = versions.current();
+
+        // When
+        versions.record("products", "\"v1\"");
+
+        // Then
+        assertEquals(version, versions.current());
+    }
+
+    @Test
+    void testChangedFingerprintAdvancesVersion() {
+        // Given
+        versions.record("products", "\"v1\"");
+        long version = versions.current();
+
+        // When
+        versions.record("products", "\"v2\"");
+
+        // Then
+        assertTrue(versions.current() > version);
+    }
+
+    @Test
+    void testFirstFingerprintKeepsVersion() {
+        // Given
+        long version = versions.current();
+
+        // When
+        versions.record("products", "\"v1\"");
+        versions.record("product:OLJCESPC7Z", "\"v1\"");
+
+        // Then
+        assertEquals(version, versions.current());
+    }
+
+    @Test
+    void testMissingFingerprintAlwaysAdvancesVersion() {
+        // Given
+        versions.record("products", "\"v1\"");
+        long version = versions.current();
+
+        // When
+        versions.record("products", null);
+        long afterMissing = versions.current();
+        versions.record("products", "\"v1\"");
+
+        // Then - and the next fingerprint is treated as new, not compared with the old one
+        assertTrue(afterMissing > version);
+        assertEquals(afterMissing, versions.current());
+    }
+
+    @Test
+    void testFingerprintOfEqualMessagesIsEqual() {
+        String first = ResponseVersions.fingerprint(List.of(product("OLJCESPC7Z", "Shades")));
+        String second = ResponseVersions.fingerprint(List.of(product("OLJCESPC7Z", "Shades")));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testFingerprintCoversFieldsOutsideToString() {
+        // Given - only the description differs, which the model's toString leaves out
+        String before = ResponseVersions.fingerprint(List.of(product("OLJCESPC7Z", "Shades")));
+
+        // When
+        String after = ResponseVersions.fingerprint(List.of(product("OLJCESPC7Z", "Add a modern touch to your outfits")));
+
+        // Then
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void testFingerprintCoversMessageOrder() {
+        Product sunglasses = product("OLJCESPC7Z", "Shades");
+        Product tankTop = product("66VCHSJNUP", "Tank top");
+
+        assertNotEquals(ResponseVersions.fingerprint(List.of(sunglasses, tankTop)),
+                ResponseVersions.fingerprint(List.of(tankTop, sunglasses)));
+    }
+
+    @Test
+    void testFingerprintCoversMessageBoundaries() {
+        // Given - one product, and the same fields split across two messages
+        Product whole = Product.newBuilder().setId("OLJCESPC7Z").setName("Sunglasses").build();
+        Product id = Product.newBuilder().setId("OLJCESPC7Z").build();
+        Product name = Product.newBuilder().setName("Sunglasses").build();
+
+        // When / Then
+        assertNotEquals(ResponseVersions.fingerprint(List.of(whole)), ResponseVersions.fingerprint(List.of(id, name)));
+    }
+
+    @Test
+    void testFingerprintOfEmptyResponse() {
+        assertEquals(ResponseVersions.fingerprint(List.of()), ResponseVersions.fingerprint(List.of()));
+        assertNotEquals(ResponseVersions.fingerprint(List.of()),
+                ResponseVersions.fingerprint(List.of(Product.getDefaultInstance())));
+    }
+}
@@ -0,0 +1,175 @@
+package com.onlineboutique.frontend.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight
+ */
+@ExtendWith(MockitoExtension.class)
+class SingleFlightTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private SingleFlight singleFlight;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private Mono<String> call(Sinks.One<String> sink) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return sink.asMono().doOnCancel(() -> cancelled.set(true));
+        });
+    }
+
+    @Test
+    void testConcurrentJoinersShareOneCall() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        List<String> results = new ArrayList<>();
+
+        // When
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(results::add);
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(results::add);
+        assertEquals(1, singleFlight.inFlightCount());
+        sink.tryEmitValue("product");
+
+        // Then
+        assertEquals(List.of("product", "product"), results);
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(2, meterRegistry.counter("frontend.singleflight.requests", "resource", "products").count());
+        assertEquals(1, meterRegistry.counter("frontend.singleflight.executions", "resource", "products").count());
+    }
+
+    @Test
+    void testDifferentKeysAreNotCoalesced() {
+        // When
+        singleFlight.execute("products", "product:1", () -> call(Sinks.one())).subscribe();
+        singleFlight.execute("products", "product:2", () -> call(Sinks.one())).subscribe();
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testLateJoinerGetsResult() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        List<String> late = new ArrayList<>();
+
+        // When - the second caller joins while the result is being delivered, before the key is released
+        singleFlight.execute("products", "product:1", () -> call(sink))
+                .subscribe(value -> singleFlight.execute("products", "product:1", () -> call(sink))
+                        .subscribe(late::add));
+        sink.tryEmitValue("product");
+
+        // Then
+        assertEquals(List.of("product"), late);
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testKeyIsReleasedAfterCompletion() {
+        // Given
+        Mono<String> first = singleFlight.execute("products", "product:1", () -> call(Sinks.one()));
+        first.subscribe().dispose();
+
+        // When
+        singleFlight.execute("products", "product:1", () -> Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.just("fresh");
+        })).block();
+
+        // Then - a finished call is never reused
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testErrorIsSharedAndReleasesKey() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        List<Throwable> errors = new ArrayList<>();
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(value -> {}, errors::add);
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(value -> {}, errors::add);
+
+        // When
+        sink.tryEmitError(new IllegalStateException("unavailable"));
+
+        // Then
+        assertEquals(2, errors.size());
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testCallKeepsRunningWhileAnyCallerIsSubscribed() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        List<String> results = new ArrayList<>();
+        Disposable first = singleFlight.execute("products", "product:1", () -> call(sink)).subscribe();
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(results::add);
+
+        // When
+        first.dispose();
+        sink.tryEmitValue("product");
+
+        // Then
+        assertFalse(cancelled.get());
+        assertEquals(List.of("product"), results);
+    }
+
+    @Test
+    void testCancellingLastCallerCancelsCall() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        Disposable first = singleFlight.execute("products", "product:1", () -> call(sink)).subscribe();
+        Disposable second = singleFlight.execute("products", "product:1", () -> call(sink)).subscribe();
+
+        // When
+        first.dispose();
+        second.dispose();
+
+        // Then
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testCallerAfterCancellationStartsNewCall() {
+        // Given
+        Sinks.One<String> sink = Sinks.one();
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe().dispose();
+
+        // When
+        List<String> results = new ArrayList<>();
+        singleFlight.execute("products", "product:1", () -> call(sink)).subscribe(results::add);
+        sink.tryEmitValue("product");
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(List.of("product"), results);
+    }
+}
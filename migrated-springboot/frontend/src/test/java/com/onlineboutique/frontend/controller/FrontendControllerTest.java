@@ -0,0 +1,200 @@
+package com.onlineboutique.frontend.controller;
+
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.frontend.client.CurrencyConverter;
+import com.onlineboutique.frontend.client.ServiceClients;
+import com.onlineboutique.frontend.page.HomePage;
+import com.onlineboutique.frontend.page.PageComposer;
+import com.onlineboutique.frontend.session.SessionCodec;
+import com.onlineboutique.frontend.session.SessionCookieFilter;
+import com.onlineboutique.frontend.session.ShopSession;
+import com.onlineboutique.frontend.view.AssetManifest;
+import com.onlineboutique.frontend.view.FragmentCache;
+import com.onlineboutique.frontend.view.ImageVariants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Request handling of the frontend pages, with the backends and page composition mocked
+ */
+@WebFluxTest(FrontendController.class)
+@Import({SessionCookieFilter.class, SessionCodec.class})
+@ActiveProfiles("test")
+class FrontendControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private SessionCodec sessionCodec;
+
+    @MockBean
+    private ServiceClients serviceClients;
+
+    @MockBean
+    private CurrencyConverter currencyConverter;
+
+    @MockBean
+    private FragmentCache fragmentCache;
+
+    @MockBean
+    private PageComposer pageComposer;
+
+    @MockBean
+    private AssetManifest assetManifest;
+
+    @MockBean
+    private ImageVariants imageVariants;
+
+    private void stubHomePage() {
+        ProductSummary summary = new ProductSummary("OLJCESPC7Z", "Sunglasses", "/static/img/products/sunglasses.jpg",
+                new Money("USD", 19L, 990000000), List.of("accessories"));
+        when(pageComposer.home(anyString(), anyString())).thenAnswer(invocation -> Mono.just(new HomePage(
+                invocation.getArgument(1), List.of(summary), List.of("USD", "EUR"), List.of(), List.of())));
+        when(fragmentCache.render(anyString(), anyString(), any(), any())).thenReturn(Mono.just("<div>grid</div>"));
+        stubSupportedCurrencies();
+    }
+
+    private void stubSupportedCurrencies() {
+        when(currencyConverter.isSupported(any())).thenAnswer(invocation -> Arrays.asList("USD", "EUR")
+                .contains(invocation.<String>getArgument(0)));
+    }
+
+    @Test
+    void testHomeRendersInRequestedCurrency() {
+        // Given
+        stubHomePage();
+
+        // When
+        webTestClient.get().uri("/?currency=EUR")
+                .exchange()
+                .expectStatus().isOk();
+
+        // Then
+        verify(pageComposer).home(anyString(), eq("EUR"));
+        verify(fragmentCache).render(eq("fragments/product-grid"), eq("product-grid:EUR"), any(), any());
+    }
+
+    @Test
+    void testHomeIgnoresUnsupportedCurrency() {
+        // Given
+        stubHomePage();
+
+        // When
+        webTestClient.get().uri("/?currency={currency}", "XX<script>")
+                .exchange()
+                .expectStatus().isOk();
+
+        // Then - the fragment slot is keyed by the default currency, not by the raw parameter
+        verify(pageComposer).home(anyString(), eq("USD"));
+        verify(fragmentCache).render(eq("fragments/product-grid"), eq("product-grid:USD"), any(), any());
+    }
+
+    @Test
+    void testSetCurrencyStoresCurrencyInSession() {
+        // Given
+        stubSupportedCurrencies();
+
+        // When
+        ResponseCookie cookie = webTestClient.post().uri("/setCurrency")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("currency", "EUR"))
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/")
+                .returnResult(Void.class)
+                .getResponseCookies()
+                .getFirst(SessionCookieFilter.COOKIE_NAME);
+
+        // Then
+        assertNotNull(cookie);
+        assertEquals("EUR", sessionCodec.decode(cookie.getValue()).map(ShopSession::currency).orElseThrow());
+    }
+
+    @Test
+    void testSetCurrencyWithoutCurrencyRedirectsHome() {
+        // Given
+        stubSupportedCurrencies();
+
+        // When
+        ResponseCookie cookie = webTestClient.post().uri("/setCurrency")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/")
+                .returnResult(Void.class)
+                .getResponseCookies()
+                .getFirst(SessionCookieFilter.COOKIE_NAME);
+
+        // Then - a new session, with no currency chosen
+        assertNotNull(cookie);
+        assertNull(sessionCodec.decode(cookie.getValue()).map(ShopSession::currency).orElse(null));
+    }
+
+    @Test
+    void testSetCurrencyIgnoresMalformedCurrency() {
+        // Given
+        stubSupportedCurrencies();
+
+        // When / Then
+        webTestClient.post().uri("/setCurrency")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("currency", "euro"))
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/");
+    }
+
+    @Test
+    void testSetCurrencyIgnoresUnsupportedCurrency() {
+        // Given
+        stubSupportedCurrencies();
+
+        // When - well-formed, but not a currency the rates cover
+        ResponseCookie cookie = webTestClient.post().uri("/setCurrency")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("currency", "XYZ"))
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .returnResult(Void.class)
+                .getResponseCookies()
+                .getFirst(SessionCookieFilter.COOKIE_NAME);
+
+        // Then
+        assertNotNull(cookie);
+        assertNull(sessionCodec.decode(cookie.getValue()).map(ShopSession::currency).orElse(null));
+    }
+
+    @Test
+    void testLogoutExpiresSessionCookie() {
+        ResponseCookie cookie = webTestClient.get().uri("/logout")
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .returnResult(Void.class)
+                .getResponseCookies()
+                .getFirst(SessionCookieFilter.COOKIE_NAME);
+
+        assertNotNull(cookie);
+        assertTrue(cookie.getMaxAge().isZero());
+    }
+}
@@ -0,0 +1,75 @@
+package com.onlineboutique.frontend.controller;
+
+import com.onlineboutique.frontend.view.AssetManifest;
+import com.onlineboutique.frontend.view.ImageVariants;
+import com.onlineboutique.frontend.session.SessionCodec;
+import com.onlineboutique.frontend.session.SessionCookieFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Serving of image variants, with the encoding mocked
+ */
+@WebFluxTest(ImageController.class)
+@Import({SessionCookieFilter.class, SessionCodec.class})
+@ActiveProfiles("test")
+class ImageControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ImageVariants imageVariants;
+
+    @MockBean
+    private AssetManifest assetManifest;
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void testServesVariantAsImmutable() throws IOException {
+        // Given
+        Path file = Files.write(temp.resolve("mug.jpg"), new byte[] {(byte) 0xFF, (byte) 0xD8});
+        when(imageVariants.variant("img/products/mug.3f2a9c01be.jpg", 320)).thenReturn(Mono.just(file));
+
+        // When / Then
+        webTestClient.get().uri("/img/w320/img/products/mug.3f2a9c01be.jpg")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.IMAGE_JPEG)
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365))
+                        .cachePublic().immutable())
+                .expectBody(byte[].class).isEqualTo(new byte[] {(byte) 0xFF, (byte) 0xD8});
+    }
+
+    @Test
+    void testMissingVariantIsNotFound() {
+        // Given
+        when(imageVariants.variant(anyString(), anyInt())).thenReturn(Mono.empty());
+
+        // When / Then
+        webTestClient.get().uri("/img/w800/img/products/mug.3f2a9c01be.jpg")
+                .exchange()
+                .expectStatus().isNotFound();
+        verify(imageVariants).variant("img/products/mug.3f2a9c01be.jpg", 800);
+    }
+}
@@ -0,0 +1,112 @@
+package com.onlineboutique.frontend.controller;
+
+import com.onlineboutique.common.client.DownstreamException;
+import com.onlineboutique.frontend.client.CurrencyConverter;
+import com.onlineboutique.frontend.page.HomePage;
+import com.onlineboutique.frontend.page.PageComposer;
+import com.onlineboutique.frontend.session.SessionCodec;
+import com.onlineboutique.frontend.session.SessionCookieFilter;
+import com.onlineboutique.frontend.view.AssetManifest;
+import com.onlineboutique.frontend.view.ImageVariants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Page API responses, with page composition mocked
+ */
+@WebFluxTest(PageApiController.class)
+@Import({SessionCookieFilter.class, SessionCodec.class})
+@ActiveProfiles("test")
+class PageApiControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private PageComposer pageComposer;
+
+    @MockBean
+    private CurrencyConverter currencyConverter;
+
+    @MockBean
+    private AssetManifest assetManifest;
+
+    @MockBean
+    private ImageVariants imageVariants;
+
+    @BeforeEach
+    void setUp() {
+        when(currencyConverter.isSupported(any())).thenAnswer(invocation -> Arrays.asList("USD", "EUR")
+                .contains(invocation.<String>getArgument(0)));
+    }
+
+    @Test
+    void testHomeIsPricedInRequestedCurrency() {
+        // Given
+        when(pageComposer.pricedHome(anyString(), eq("EUR"))).thenReturn(Mono.just(
+                new HomePage("EUR", List.of(), List.of("USD", "EUR"), List.of(), List.of("cart"))));
+
+        // When / Then
+        webTestClient.get().uri("/api/page/home?currency=EUR")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.currency").isEqualTo("EUR")
+                .jsonPath("$.missing[0]").isEqualTo("cart");
+    }
+
+    @Test
+    void testHomeIgnoresUnsupportedCurrency() {
+        // Given
+        when(pageComposer.pricedHome(anyString(), anyString())).thenAnswer(invocation -> Mono.just(
+                new HomePage(invocation.getArgument(1), List.of(), List.of("USD"), List.of(), List.of())));
+
+        // When
+        webTestClient.get().uri("/api/page/home?currency={currency}", "XYZ")
+                .exchange()
+                .expectStatus().isOk();
+
+        // Then
+        verify(pageComposer).pricedHome(anyString(), eq("USD"));
+    }
+
+    @Test
+    void testRequiredDependencyPastDeadlineIsUnavailable() {
+        // Given
+        when(pageComposer.pricedHome(anyString(), anyString())).thenReturn(Mono.error(new TimeoutException()));
+
+        // When / Then
+        webTestClient.get().uri("/api/page/home")
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void testUnknownProductIsNotFound() {
+        // Given
+        when(pageComposer.pricedProduct(eq("MISSING"), anyString(), anyString()))
+                .thenReturn(Mono.error(new DownstreamException("product-catalog", "getProduct",
+                        DownstreamException.Kind.CLIENT_ERROR, 404, null)));
+
+        // When / Then
+        webTestClient.get().uri("/api/page/product/MISSING")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,52 @@
+package com.onlineboutique.frontend.page;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageBudget
+ */
+class PageBudgetTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void testTakeIsCappedByWidgetBudget() {
+        // Given
+        PageBudget budget = PageBudget.start(Duration.ofSeconds(10), nanos::get);
+
+        // When / Then
+        assertEquals(Duration.ofMillis(100), budget.take(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void testTakeIsCappedByWhatIsLeftOfPage() {
+        // Given
+        PageBudget budget = PageBudget.start(Duration.ofMillis(250), nanos::get);
+        nanos.addAndGet(Duration.ofMillis(100).toNanos());
+
+        // When
+        Duration taken = budget.take(Duration.ofSeconds(10));
+
+        // Then
+        assertEquals(Duration.ofMillis(150), taken);
+    }
+
+    @Test
+    void testRemainingShrinksAndNeverGoesNegative() {
+        // Given
+        PageBudget budget = PageBudget.start(Duration.ofMillis(20), nanos::get);
+        assertEquals(Duration.ofMillis(20), budget.remaining());
+
+        // When
+        nanos.addAndGet(Duration.ofMillis(40).toNanos());
+
+        // Then
+        assertEquals(Duration.ZERO, budget.remaining());
+        assertEquals(Duration.ZERO, budget.take(Duration.ofMillis(100)));
+    }
+}
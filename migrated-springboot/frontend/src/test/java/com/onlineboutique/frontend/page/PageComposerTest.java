@@ -0,0 +1,315 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.model.CartItem;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import com.onlineboutique.frontend.client.CurrencyConverter;
+import com.onlineboutique.frontend.client.ServiceClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PageComposer, with deadlines set through its configuration properties and
+ * run on virtual time
+ */
+@SpringBootTest(classes = PageComposerTest.Config.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "frontend.page.deadlines.catalog=1s",
+                "frontend.page.deadlines.currencies=300ms",
+                "frontend.page.deadlines.cart=300ms",
+                "frontend.page.budget=250ms",
+                "frontend.widgets.ads.budget=100ms",
+                "frontend.widgets.recommendations.budget=200ms",
+                "frontend.widgets.recommendations.enabled=true"
+        })
+class PageComposerTest {
+
+    private static final Duration CATALOG_DEADLINE = Duration.ofSeconds(1);
+
+    private static final Duration CART_DEADLINE = Duration.ofMillis(300);
+
+    @Configuration
+    @Import(PageComposer.class)
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private ServiceClients serviceClients;
+
+    @MockBean
+    private CurrencyConverter currencyConverter;
+
+    @MockBean
+    private Widgets widgets;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PageComposer pageComposer;
+
+    private final ProductSummary summary = new ProductSummary("OLJCESPC7Z", "Sunglasses",
+            "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), List.of("accessories"));
+
+    @BeforeEach
+    void setUp() {
+        // The context, and so the registry, is shared between tests
+        meterRegistry.clear();
+    }
+
+    @Test
+    void testHomeCallsBackendsConcurrently() {
+        // Given - no backend answers until all of them have been called
+        Sinks.Many<ProductSummary> catalog = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<String> currencies = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<CartItem> cart = Sinks.many().unicast().onBackpressureBuffer();
+        when(serviceClients.getProductSummaries()).thenReturn(catalog.asFlux());
+        when(serviceClients.getSupportedCurrencies()).thenReturn(currencies.asFlux());
+        when(serviceClients.getCart("session-1")).thenReturn(cart.asFlux());
+
+        // When / Then
+        StepVerifier.create(pageComposer.home("session-1", "USD"))
+                .then(() -> {
+                    assertEquals(1, catalog.currentSubscriberCount());
+                    assertEquals(1, currencies.currentSubscriberCount());
+                    assertEquals(1, cart.currentSubscriberCount());
+                    catalog.tryEmitNext(summary);
+                    catalog.tryEmitComplete();
+                    currencies.tryEmitNext("USD");
+                    currencies.tryEmitNext("EUR");
+                    currencies.tryEmitComplete();
+                    cart.tryEmitNext(new CartItem("OLJCESPC7Z", 1));
+                    cart.tryEmitComplete();
+                })
+                .assertNext(page -> {
+                    assertEquals(List.of(summary), page.products());
+                    assertEquals(List.of("USD", "EUR"), page.currencies());
+                    assertEquals(1, page.cart().size());
+                    assertTrue(page.missing().isEmpty());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testPriceCopiesSummariesInOrder() {
+        // Given
+        ProductSummary second = new ProductSummary("66VCHSJNUP", "Tank Top", "/tank-top.jpg",
+                new Money("USD", 18L, 990000000), List.of("clothing"));
+        when(currencyConverter.convert(any(Money.class), eq("EUR")))
+                .thenAnswer(invocation -> Mono.just(
+                        new Money("EUR", invocation.<Money>getArgument(0).getUnits(), 0)));
+
+        // When
+        List<ProductSummary> priced = pageComposer.price(List.of(summary, second), "EUR").block();
+
+        // Then
+        assertEquals(List.of("OLJCESPC7Z", "66VCHSJNUP"), priced.stream().map(ProductSummary::getId).toList());
+        assertEquals("EUR", priced.get(0).getPriceUsd().getCurrencyCode());
+        assertEquals("USD", summary.getPriceUsd().getCurrencyCode());
+    }
+
+    @Test
+    void testRequiredDependencyPastDeadlineFailsPage() {
+        // Given
+        when(serviceClients.getProductSummaries()).thenReturn(Flux.never());
+        when(serviceClients.getSupportedCurrencies()).thenReturn(Flux.just("USD"));
+        when(serviceClients.getCart("session-1")).thenReturn(Flux.empty());
+
+        // When / Then
+        StepVerifier.withVirtualTime(() -> pageComposer.home("session-1", "USD"))
+                .expectSubscription()
+                .expectNoEvent(CATALOG_DEADLINE.minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectError(TimeoutException.class)
+                .verify();
+        assertEquals(1, meterRegistry.counter("frontend.page.dependency", "dependency", "catalog", "result", "timeout").count());
+    }
+
+    @Test
+    void testOptionalDependencyPastDeadlineIsReplacedByFallback() {
+        // Given
+        when(serviceClients.getProductSummaries()).thenReturn(Flux.just(summary));
+        when(serviceClients.getSupportedCurrencies()).thenReturn(Flux.error(new IllegalStateException("down")));
+        when(serviceClients.getCart("session-1")).thenReturn(Flux.never());
+
+        // When / Then - the page waits for the cart until its deadline, not for the catalog's
+        StepVerifier.withVirtualTime(() -> pageComposer.home("session-1", "EUR"))
+                .expectSubscription()
+                .expectNoEvent(CART_DEADLINE.minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(page -> {
+                    assertEquals(List.of(summary), page.products());
+                    assertEquals(List.of("EUR"), page.currencies());
+                    assertEquals(List.of(), page.cart());
+                    assertEquals(Set.of("currencies", "cart"), Set.copyOf(page.missing()));
+                })
+                .verifyComplete();
+        assertEquals(1, meterRegistry.counter("frontend.page.dependency", "dependency", "cart", "result", "timeout").count());
+        assertEquals(1, meterRegistry.counter("frontend.page.dependency", "dependency", "currencies", "result", "error").count());
+    }
+
+    @Test
+    void testPricedHomeCountsPricingAgainstCatalogDeadline() {
+        // Given - the catalog answers at once, but conversion never does
+        when(serviceClients.getProductSummaries()).thenReturn(Flux.just(summary));
+        when(serviceClients.getSupportedCurrencies()).thenReturn(Flux.just("USD"));
+        when(serviceClients.getCart("session-1")).thenReturn(Flux.empty());
+        when(currencyConverter.convert(any(Money.class), eq("EUR"))).thenReturn(Mono.never());
+
+        // When / Then
+        StepVerifier.withVirtualTime(() -> pageComposer.pricedHome("session-1", "EUR"))
+                .expectSubscription()
+                .expectNoEvent(CATALOG_DEADLINE.minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectError(TimeoutException.class)
+                .verify();
+    }
+
+    @Test
+    void testEmptyConversionFailsPricing() {
+        // Given - one of two prices cannot be converted
+        ProductSummary otherPrice = new ProductSummary("66VCHSJNUP", "Tank Top", "/tank-top.jpg",
+                new Money("USD", 18L, 990000000), List.of("clothing"));
+        when(currencyConverter.convert(summary.getPriceUsd(), "EUR")).thenReturn(Mono.just(new Money("EUR", 18L, 0)));
+        when(currencyConverter.convert(otherPrice.getPriceUsd(), "EUR")).thenReturn(Mono.empty());
+
+        // When / Then - the product is not dropped from the list
+        StepVerifier.create(pageComposer.price(List.of(summary, otherPrice), "EUR"))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, meterRegistry.counter("frontend.page.dependency", "dependency", "pricing", "result", "error").count());
+    }
+
+    @Test
+    void testEmptyConversionFailsPricedProduct() {
+        // Given
+        Product product = new Product("OLJCESPC7Z", "Sunglasses", "Add a modern touch to your outfits.",
+                "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), new String[] {"accessories"});
+        when(currencyConverter.convert(product.getPriceUsd(), "EUR")).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(pageComposer.price(product, "EUR"))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, meterRegistry.counter("frontend.page.dependency", "dependency", "pricing", "result", "error").count());
+    }
+
+    @Test
+    void testPricedHomeConvertsDistinctPricesConcurrently() {
+        // Given - three products sharing two prices; no conversion completes until both started
+        ProductSummary samePrice = new ProductSummary("2ZYFJ3GM2N", "Hairdryer", "/hairdryer.jpg",
+                new Money("USD", 19L, 990000000), List.of("hair"));
+        ProductSummary otherPrice = new ProductSummary("66VCHSJNUP", "Tank Top", "/tank-top.jpg",
+                new Money("USD", 18L, 990000000), List.of("clothing"));
+        when(serviceClients.getProductSummaries()).thenReturn(Flux.just(summary, samePrice, otherPrice));
+        when(serviceClients.getSupportedCurrencies()).thenReturn(Flux.just("USD", "EUR"));
+        when(serviceClients.getCart("session-1")).thenReturn(Flux.empty());
+        Sinks.One<Money> first = Sinks.one();
+        Sinks.One<Money> second = Sinks.one();
+        when(currencyConverter.convert(summary.getPriceUsd(), "EUR")).thenReturn(first.asMono());
+        when(currencyConverter.convert(otherPrice.getPriceUsd(), "EUR")).thenReturn(second.asMono());
+
+        // When / Then
+        StepVerifier.create(pageComposer.pricedHome("session-1", "EUR"))
+                .then(() -> {
+                    assertEquals(1, first.currentSubscriberCount());
+                    assertEquals(1, second.currentSubscriberCount());
+                    second.tryEmitValue(new Money("EUR", 17L, 0));
+                    first.tryEmitValue(new Money("EUR", 18L, 0));
+                })
+                .assertNext(page -> {
+                    assertEquals(List.of("OLJCESPC7Z", "2ZYFJ3GM2N", "66VCHSJNUP"),
+                            page.products().stream().map(ProductSummary::getId).toList());
+                    assertEquals(List.of(18L, 18L, 17L),
+                            page.products().stream().map(product -> product.getPriceUsd().getUnits()).toList());
+                    assertEquals("EUR", page.products().get(0).getPriceUsd().getCurrencyCode());
+                })
+                .verifyComplete();
+        verify(currencyConverter, times(2)).convert(any(Money.class), eq("EUR"));
+    }
+
+    @Test
+    void testPricedProduct() {
+        // Given
+        Product product = new Product("OLJCESPC7Z", "Sunglasses", "Add a modern touch to your outfits.",
+                "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), new String[] {"accessories"});
+        when(serviceClients.getProduct("OLJCESPC7Z")).thenReturn(Mono.just(product));
+        when(serviceClients.getSupportedCurrencies()).thenReturn(Flux.just("USD", "EUR"));
+        when(serviceClients.getCart("session-1")).thenReturn(Flux.empty());
+        when(widgets.load(anyString(), anyString(), any(), any(), any())).thenReturn(Mono.just(Optional.empty()));
+        when(currencyConverter.convert(product.getPriceUsd(), "EUR")).thenReturn(Mono.just(new Money("EUR", 17L, 0)));
+
+        // When
+        ProductPage page = pageComposer.pricedProduct("OLJCESPC7Z", "session-1", "EUR").block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals("EUR", page.product().getPriceUsd().getCurrencyCode());
+        assertEquals("USD", product.getPriceUsd().getCurrencyCode());
+        assertNull(page.ad());
+        assertEquals(List.of(), page.recommendations());
+        assertTrue(page.missing().isEmpty());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "frontend.widgets.recommendations.enabled=false")
+    class RecommendationsDisabled {
+
+        // This class has its own context; the enclosing instance's mocks belong to the outer one
+        @Autowired
+        private ServiceClients disabledServiceClients;
+
+        @Autowired
+        private Widgets disabledWidgets;
+
+        @Autowired
+        private PageComposer disabledComposer;
+
+        @Test
+        void testDisabledRecommendationsAreNotLoaded() {
+            // Given
+            Product product = new Product("OLJCESPC7Z", "Sunglasses", "Add a modern touch to your outfits.",
+                    "/static/img/products/sunglasses.jpg", new Money("USD", 19L, 990000000), new String[] {"accessories"});
+            when(disabledServiceClients.getProduct("OLJCESPC7Z")).thenReturn(Mono.just(product));
+            when(disabledServiceClients.getSupportedCurrencies()).thenReturn(Flux.just("USD"));
+            when(disabledServiceClients.getCart("session-1")).thenReturn(Flux.empty());
+            when(disabledWidgets.load(eq("ads"), anyString(), any(), any(), any())).thenReturn(Mono.just(Optional.empty()));
+
+            // When
+            ProductPage page = disabledComposer.product("OLJCESPC7Z", "session-1", "USD").block(Duration.ofSeconds(5));
+
+            // Then
+            assertEquals(List.of(), page.recommendations());
+            verify(disabledWidgets, never()).load(eq("recommendations"), anyString(), any(), any(), any());
+            verify(disabledServiceClients, never()).getRecommendations(anyString(), any());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.onlineboutique.frontend.page;
+
+import com.onlineboutique.common.client.DownstreamException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Widgets
+ */
+class WidgetsTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Widgets widgets = new Widgets();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(widgets, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(widgets, "fallbackMaxEntries", 2);
+    }
+
+    @Test
+    void testLoadedValueIsCountedOk() {
+        // When
+        Optional<String> ad = widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), () -> Mono.just("ad")).block();
+
+        // Then
+        assertEquals(Optional.of("ad"), ad);
+        assertEquals(1, requests("ads", "ok"));
+    }
+
+    @Test
+    void testEmptyResultIsCountedOk() {
+        // When - no ads for the categories
+        Optional<String> ad = widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), Mono::<String>empty).block();
+
+        // Then
+        assertEquals(Optional.empty(), ad);
+        assertEquals(1, requests("ads", "ok"));
+        assertEquals(0, meterRegistry.counter("frontend.widget.fallbacks", "widget", "ads", "result", "dropped").count());
+    }
+
+    @Test
+    void testFailureFallsBackToLastResultForKey() {
+        // Given
+        widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), () -> Mono.just("ad")).block();
+
+        // When
+        Optional<String> ad = widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET),
+                () -> Mono.<String>error(new IllegalStateException("down"))).block();
+        Optional<String> other = widgets.load("ads", "garden", BUDGET, PageBudget.start(BUDGET),
+                () -> Mono.<String>error(new IllegalStateException("down"))).block();
+
+        // Then
+        assertEquals(Optional.of("ad"), ad);
+        assertEquals(Optional.empty(), other);
+        assertEquals(2, requests("ads", "error"));
+        assertEquals(1, meterRegistry.counter("frontend.widget.fallbacks", "widget", "ads", "result", "cached").count());
+        assertEquals(1, meterRegistry.counter("frontend.widget.fallbacks", "widget", "ads", "result", "dropped").count());
+    }
+
+    @Test
+    void testEmptyResultClearsFallback() {
+        // Given
+        widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), () -> Mono.just("ad")).block();
+        widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), Mono::<String>empty).block();
+
+        // When
+        Optional<String> ad = widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET),
+                () -> Mono.<String>error(new IllegalStateException("down"))).block();
+
+        // Then - the ads were withdrawn, so they are not shown again from the fallback
+        assertEquals(Optional.empty(), ad);
+    }
+
+    @Test
+    void testWidgetPastBudgetIsCountedAsTimeout() {
+        // When
+        StepVerifier.withVirtualTime(() -> widgets.load("recommendations", "OLJCESPC7Z", Duration.ofMillis(50),
+                        PageBudget.start(BUDGET), Mono::<String>never))
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext(Optional.empty())
+                .verifyComplete();
+
+        // Then
+        assertEquals(1, requests("recommendations", "timeout"));
+        assertEquals(0, requests("recommendations", "error"));
+    }
+
+    @Test
+    void testDownstreamTimeoutIsCountedAsTimeout() {
+        // When
+        widgets.load("ads", "kitchen", BUDGET, PageBudget.start(BUDGET), () -> Mono.<String>error(
+                new DownstreamException("ad", "getAds", DownstreamException.Kind.TIMEOUT, 0, null))).block();
+
+        // Then
+        assertEquals(1, requests("ads", "timeout"));
+    }
+
+    @Test
+    void testWidgetGetsWhatIsLeftOfPageBudget() {
+        // Given - the page budget is already spent
+        PageBudget page = PageBudget.start(Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        Optional<String> ad = widgets.load("ads", "kitchen", BUDGET, page,
+                () -> Mono.<String>never().doOnSubscribe(subscription -> loads.incrementAndGet())).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(Optional.empty(), ad);
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("ads", "timeout"));
+    }
+
+    @Test
+    void testFallbacksAreBounded() {
+        // Given - room for two keys
+        for (String key : new String[] {"a", "b", "c"}) {
+            widgets.load("ads", key, BUDGET, PageBudget.start(BUDGET), () -> Mono.just("ad-" + key)).block();
+        }
+
+        // When
+        Optional<String> kept = widgets.load("ads", "b", BUDGET, PageBudget.start(BUDGET),
+                () -> Mono.<String>error(new IllegalStateException("down"))).block();
+        Optional<String> notKept = widgets.load("ads", "c", BUDGET, PageBudget.start(BUDGET),
+                () -> Mono.<String>error(new IllegalStateException("down"))).block();
+
+        // Then
+        assertEquals(Optional.of("ad-b"), kept);
+        assertEquals(Optional.empty(), notKept);
+    }
+
+    private double requests(String widget, String result) {
+        return meterRegistry.counter("frontend.widget.requests", "widget", widget, "result", result).count();
+    }
+}
@@ -0,0 +1,120 @@
+package com.onlineboutique.frontend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SessionCodec
+ */
+class SessionCodecTest {
+
+    private static final Instant ISSUED_AT = Instant.parse("2026-10-19T10:00:00Z");
+
+    private final SessionCodec codec = new SessionCodec("current-secret", "", true);
+
+    @Test
+    void testRoundTrip() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT);
+
+        // When
+        Optional<ShopSession> decoded = codec.decode(codec.encode(session));
+
+        // Then
+        assertEquals(Optional.of(session), decoded);
+    }
+
+    @Test
+    void testRoundTripWithoutCurrency() {
+        ShopSession session = new ShopSession(UUID.randomUUID(), null, ISSUED_AT);
+
+        assertEquals(Optional.of(session), codec.decode(codec.encode(session)));
+    }
+
+    @Test
+    void testTamperedPayloadIsRejected() {
+        // Given
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT)));
+
+        // When - switch the currency to one the signature was not made for
+        bytes[bytes.length - 16 - 1] = 'D';
+
+        // Then
+        assertTrue(codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)).isEmpty());
+    }
+
+    @Test
+    void testTamperedSignatureIsRejected() {
+        // Given
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT)));
+
+        // When
+        bytes[bytes.length - 1] ^= 1;
+
+        // Then
+        assertTrue(codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)).isEmpty());
+    }
+
+    @Test
+    void testMalformedValuesAreRejected() {
+        String valid = codec.encode(new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT));
+
+        assertTrue(codec.decode("").isEmpty());
+        assertTrue(codec.decode("not base64!").isEmpty());
+        assertTrue(codec.decode(valid.substring(0, valid.length() - 4)).isEmpty());
+        assertTrue(codec.decode(valid + "AAAA").isEmpty());
+    }
+
+    @Test
+    void testCookieFromAnotherSecretIsRejected() {
+        // Given
+        SessionCodec other = new SessionCodec("other-secret", "", true);
+
+        // When
+        String value = other.encode(new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT));
+
+        // Then
+        assertTrue(codec.decode(value).isEmpty());
+    }
+
+    @Test
+    void testPreviousSecretIsAcceptedAfterRotation() {
+        // Given
+        SessionCodec beforeRotation = new SessionCodec("previous-secret", "", true);
+        SessionCodec afterRotation = new SessionCodec("current-secret", "previous-secret", true);
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", ISSUED_AT);
+
+        // When
+        Optional<ShopSession> decoded = afterRotation.decode(beforeRotation.encode(session));
+
+        // Then - old cookies still verify, new ones are signed with the current secret only
+        assertEquals(Optional.of(session), decoded);
+        assertTrue(beforeRotation.decode(afterRotation.encode(session)).isEmpty());
+        assertEquals(Optional.of(session), codec.decode(afterRotation.encode(session)));
+    }
+
+    @Test
+    void testSecretIsRequiredUnlessDisabled() {
+        assertThrows(IllegalStateException.class, () -> new SessionCodec("", "", true));
+        assertThrows(IllegalStateException.class, () -> new SessionCodec(" ", "previous-secret", true));
+
+        // Without a secret, sessions are signed with a random key only this instance knows
+        SessionCodec random = new SessionCodec("", "", false);
+        String value = random.encode(new ShopSession(UUID.randomUUID(), null, ISSUED_AT));
+        assertTrue(random.decode(value).isPresent());
+        assertTrue(new SessionCodec("", "", false).decode(value).isEmpty());
+    }
+
+    @Test
+    void testCurrencyLongerThanCodeIsRejected() {
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EURO", ISSUED_AT);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(session));
+    }
+}
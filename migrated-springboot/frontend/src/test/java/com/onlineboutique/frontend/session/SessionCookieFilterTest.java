@@ -0,0 +1,183 @@
+package com.onlineboutique.frontend.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SessionCookieFilter
+ */
+class SessionCookieFilterTest {
+
+    private final SessionCodec sessionCodec = new SessionCodec("current-secret", "previous-secret", true);
+
+    private final SessionCookieFilter filter = new SessionCookieFilter();
+
+    private final AtomicReference<ShopSession> seen = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "sessionCodec", sessionCodec);
+        ReflectionTestUtils.setField(filter, "maxAge", Duration.ofHours(48));
+        ReflectionTestUtils.setField(filter, "refreshAfter", Duration.ofHours(1));
+        ReflectionTestUtils.setField(filter, "secureCookie", true);
+    }
+
+    @Test
+    void testNewSessionSetsSecureCookie() {
+        // When
+        MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/"), session -> {});
+
+        // Then
+        assertNotNull(seen.get());
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(cookie.isSecure());
+        assertTrue(cookie.isHttpOnly());
+        assertEquals("Lax", cookie.getSameSite());
+        assertEquals(seen.get().sessionId(), sessionCodec.decode(cookie.getValue()).orElseThrow().sessionId());
+    }
+
+    @Test
+    void testValidCookieKeepsSessionWithoutRewritingCookie() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", now().minusSeconds(60));
+
+        // When
+        MockServerWebExchange exchange = filter(withCookie(sessionCodec.encode(session)), s -> {});
+
+        // Then
+        assertEquals(session, seen.get());
+        assertNull(exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME));
+    }
+
+    @Test
+    void testTamperedCookieStartsNewSession() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", Instant.now());
+        String value = sessionCodec.encode(session);
+        String tampered = value.substring(0, value.length() - 1) + (value.endsWith("A") ? "B" : "A");
+
+        // When
+        MockServerWebExchange exchange = filter(withCookie(tampered), s -> {});
+
+        // Then
+        assertNotEquals(session.sessionId(), seen.get().sessionId());
+        assertNull(seen.get().currency());
+        assertNotNull(exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME));
+    }
+
+    @Test
+    void testExpiredCookieStartsNewSession() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", Instant.now().minus(Duration.ofHours(49)));
+
+        // When
+        filter(withCookie(sessionCodec.encode(session)), s -> {});
+
+        // Then
+        assertNotEquals(session.sessionId(), seen.get().sessionId());
+    }
+
+    @Test
+    void testCookieSignedWithPreviousSecretIsResignedWithCurrent() {
+        // Given - signed before the rotation, and due for a refresh
+        SessionCodec beforeRotation = new SessionCodec("previous-secret", "", true);
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", now().minus(Duration.ofHours(2)));
+
+        // When
+        MockServerWebExchange exchange = filter(withCookie(beforeRotation.encode(session)), s -> {});
+
+        // Then
+        assertEquals(session, seen.get());
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        ShopSession refreshed = new SessionCodec("current-secret", "", true).decode(cookie.getValue()).orElseThrow();
+        assertEquals(session.sessionId(), refreshed.sessionId());
+        assertEquals("EUR", refreshed.currency());
+        assertTrue(refreshed.issuedAt().isAfter(session.issuedAt()));
+    }
+
+    @Test
+    void testChangedSessionIsResigned() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", Instant.now());
+
+        // When
+        MockServerWebExchange exchange = filter(withCookie(sessionCodec.encode(session)), s -> ShopSession.update(
+                s, ShopSession.of(s).withCurrency("JPY", Instant.now())));
+
+        // Then
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals("JPY", sessionCodec.decode(cookie.getValue()).map(ShopSession::currency).orElseThrow());
+    }
+
+    @Test
+    void testEndedSessionExpiresCookie() {
+        // Given
+        ShopSession session = new ShopSession(UUID.randomUUID(), "EUR", Instant.now());
+
+        // When
+        MockServerWebExchange exchange = filter(withCookie(sessionCodec.encode(session)), s -> ShopSession.update(s, null));
+
+        // Then
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(SessionCookieFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(cookie.getMaxAge().isZero());
+    }
+
+    @Test
+    void testSessionlessPathsNeverSetCookies() {
+        // When
+        MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/static/styles/styles.css"), s -> {});
+
+        // Then
+        assertNull(seen.get());
+        assertTrue(exchange.getResponse().getCookies().isEmpty());
+    }
+
+    /**
+     * Cookies carry whole seconds
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> withCookie(String value) {
+        return MockServerHttpRequest.get("/").cookie(new HttpCookie(SessionCookieFilter.COOKIE_NAME, value));
+    }
+
+    /**
+     * Runs the filter with a handler that records the session and applies {@code handler},
+     * then commits the response
+     */
+    private MockServerWebExchange filter(MockServerHttpRequest.BaseBuilder<?> request,
+                                         Consumer<MockServerWebExchange> handler) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        WebFilterChain chain = ex -> {
+            seen.set(ex.getAttribute(ShopSession.ATTRIBUTE));
+            if (seen.get() != null) {
+                handler.accept(exchange);
+            }
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).then(exchange.getResponse().setComplete()).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,47 @@
+package com.onlineboutique.frontend.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AssetManifest against the manifest the build packages on the classpath
+ */
+class AssetManifestTest {
+
+    private final AssetManifest assetManifest = new AssetManifest();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(assetManifest, "objectMapper", new ObjectMapper());
+        assetManifest.load();
+    }
+
+    @Test
+    void testResolvesOriginalAndMigratedAssets() {
+        assertTrue(assetManifest.url("/static/styles/frontend.css").matches("/static/styles/frontend\\.[0-9a-f]{10}\\.css"));
+        assertTrue(assetManifest.url("/static/img/products/mug.jpg").matches("/static/img/products/mug\\.[0-9a-f]{10}\\.jpg"));
+        assertTrue(assetManifest.url("/static/favicon.ico").matches("/static/favicon\\.[0-9a-f]{10}\\.ico"));
+    }
+
+    @Test
+    void testFingerprintedPathsAreServable() {
+        String url = assetManifest.url("/static/styles/styles.css");
+
+        assertTrue(assetManifest.isFingerprinted(url.substring(AssetManifest.STATIC_PREFIX.length())));
+        assertNotNull(getClass().getResource(url));
+        assertFalse(assetManifest.isFingerprinted("styles/styles.css"));
+    }
+
+    @Test
+    void testUnknownAndNonStaticPathsAreUnchanged() {
+        assertEquals("/static/missing.css", assetManifest.url("/static/missing.css"));
+        assertEquals("/product/OLJCESPC7Z", assetManifest.url("/product/OLJCESPC7Z"));
+        assertNull(assetManifest.url(null));
+    }
+}
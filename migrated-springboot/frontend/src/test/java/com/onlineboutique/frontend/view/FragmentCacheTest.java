@@ -0,0 +1,136 @@
+package com.onlineboutique.frontend.view;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FragmentCache
+ */
+@ExtendWith(MockitoExtension.class)
+class FragmentCacheTest {
+
+    private static final String GRID = "fragments/product-grid";
+
+    @Mock
+    private ITemplateEngine templateEngine;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private FragmentCache fragmentCache;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fragmentCache, "enabled", true);
+        ReflectionTestUtils.setField(fragmentCache, "maxEntries", 10);
+        fragmentCache.init();
+        lenient().when(templateEngine.process(eq(GRID), any(IContext.class)))
+                .thenAnswer(invocation -> "<div>" + invocation.<IContext>getArgument(1).getVariable("currency")
+                        + " " + renders.incrementAndGet() + "</div>");
+    }
+
+    private static Supplier<Mono<Map<String, Object>>> variables(String currency) {
+        return () -> Mono.just(Map.of("currency", currency));
+    }
+
+    @Test
+    void testHitForSameSlotAndVersion() {
+        // When
+        String first = fragmentCache.render(GRID, "product-grid:EUR", "1:1", variables("EUR")).block();
+        String second = fragmentCache.render(GRID, "product-grid:EUR", "1:1", () -> {
+            throw new AssertionError("variables must not be evaluated on a hit");
+        }).block();
+
+        // Then
+        assertEquals("<div>EUR 1</div>", first);
+        assertEquals(first, second);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testSlotsAreSeparate() {
+        // When
+        String eur = fragmentCache.render(GRID, "product-grid:EUR", "1:1", variables("EUR")).block();
+        String usd = fragmentCache.render(GRID, "product-grid:USD", "1:1", variables("USD")).block();
+
+        // Then
+        assertEquals("<div>EUR 1</div>", eur);
+        assertEquals("<div>USD 2</div>", usd);
+        assertEquals(2, fragmentCache.size());
+    }
+
+    @Test
+    void testNewVersionReRendersSlot() {
+        // Given
+        fragmentCache.render(GRID, "product-grid:EUR", "1:1", variables("EUR")).block();
+
+        // When
+        String updated = fragmentCache.render(GRID, "product-grid:EUR", "2:1", variables("EUR")).block();
+
+        // Then
+        assertEquals("<div>EUR 2</div>", updated);
+        assertEquals(updated, fragmentCache.render(GRID, "product-grid:EUR", "2:1", variables("EUR")).block());
+        assertEquals(1, fragmentCache.size());
+    }
+
+    @Test
+    void testEvictsBeyondMaxEntries() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            fragmentCache.render(GRID, "product-detail:P" + i + ":EUR", "1:1", variables("EUR")).block();
+        }
+
+        // Then - new slots are still admitted
+        assertEquals(10, fragmentCache.size());
+        fragmentCache.render(GRID, "product-detail:P99:EUR", "1:1", variables("EUR")).block();
+        assertEquals(100, renders.get());
+    }
+
+    @Test
+    void testDisabledAlwaysRenders() {
+        // Given
+        ReflectionTestUtils.setField(fragmentCache, "enabled", false);
+
+        // When
+        fragmentCache.render(GRID, "product-grid:EUR", "1:1", variables("EUR")).block();
+        fragmentCache.render(GRID, "product-grid:EUR", "1:1", variables("EUR")).block();
+
+        // Then
+        assertEquals(2, renders.get());
+        assertEquals(0, fragmentCache.size());
+    }
+
+    @Test
+    void testFailedVariablesAreNotCached() {
+        // When
+        assertThrows(IllegalStateException.class, () -> fragmentCache.render(GRID, "product-grid:EUR", "1:1",
+                () -> Mono.error(new IllegalStateException("catalog unavailable"))).block());
+
+        // Then
+        assertEquals(0, fragmentCache.size());
+        verify(templateEngine, never()).process(eq(GRID), any(IContext.class));
+    }
+}
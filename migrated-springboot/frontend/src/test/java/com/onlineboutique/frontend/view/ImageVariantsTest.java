@@ -0,0 +1,123 @@
+package com.onlineboutique.frontend.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.frontend.client.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ImageVariants against the product images the build packages; they are 700 pixels wide
+ */
+class ImageVariantsTest {
+
+    private static final String MUG = "/static/img/products/mug.jpg";
+
+    @TempDir
+    Path cacheDir;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AssetManifest assetManifest = new AssetManifest();
+
+    private final ImageVariants imageVariants = new ImageVariants();
+
+    private String fingerprintedMug;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(assetManifest, "objectMapper", new ObjectMapper());
+        assetManifest.load();
+        SingleFlight singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(imageVariants, "assetManifest", assetManifest);
+        ReflectionTestUtils.setField(imageVariants, "singleFlight", singleFlight);
+        ReflectionTestUtils.setField(imageVariants, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(imageVariants, "widths", List.of(160, 320, 480, 640, 800));
+        ReflectionTestUtils.setField(imageVariants, "quality", 0.8f);
+        ReflectionTestUtils.setField(imageVariants, "cacheDir", cacheDir);
+        imageVariants.init();
+        fingerprintedMug = assetManifest.url(MUG).substring(AssetManifest.STATIC_PREFIX.length());
+    }
+
+    @Test
+    void testSrcsetStopsAtSourceWidth() {
+        // When
+        String srcset = imageVariants.srcset(MUG);
+
+        // Then - 800 would be an upscale; the full-size image covers the widest slot
+        assertEquals("/img/w160/" + fingerprintedMug + " 160w, "
+                + "/img/w320/" + fingerprintedMug + " 320w, "
+                + "/img/w480/" + fingerprintedMug + " 480w, "
+                + "/img/w640/" + fingerprintedMug + " 640w, "
+                + assetManifest.url(MUG) + " 700w", srcset);
+    }
+
+    @Test
+    void testSrcsetIsDroppedForImagesWithoutVariants() {
+        assertNull(imageVariants.srcset("/static/icons/Hipster_CartIcon.svg"));
+        assertNull(imageVariants.srcset("/static/img/products/missing.jpg"));
+        assertNull(imageVariants.srcset("https://example.com/mug.jpg"));
+    }
+
+    @Test
+    void testSrc() {
+        assertEquals("/img/w320/" + fingerprintedMug, imageVariants.src(MUG, 320));
+        // Not a configured width, and wider than the image
+        assertEquals(assetManifest.url(MUG), imageVariants.src(MUG, 300));
+        assertEquals(assetManifest.url(MUG), imageVariants.src(MUG, 800));
+    }
+
+    @Test
+    void testVariantIsEncodedOnceAtRequestedWidth() throws IOException {
+        // When
+        Path file = imageVariants.variant(fingerprintedMug, 320).block();
+        Path again = imageVariants.variant(fingerprintedMug, 320).block();
+
+        // Then
+        assertEquals(file, again);
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertEquals(320, image.getWidth());
+        assertEquals(320, image.getHeight());
+        assertEquals(1, meterRegistry.counter("frontend.image.variants", "result", "encoded").count());
+        assertEquals(1, meterRegistry.counter("frontend.image.variants", "result", "hit").count());
+    }
+
+    @Test
+    void testVariantTouchesDiskOffCallingThread() {
+        // Given
+        imageVariants.variant(fingerprintedMug, 160).block();
+
+        // When - a cache hit still checks the file
+        String thread = imageVariants.variant(fingerprintedMug, 160)
+                .map(file -> Thread.currentThread().getName())
+                .block();
+
+        // Then
+        assertTrue(thread.startsWith("boundedElastic"), thread);
+    }
+
+    @Test
+    void testNoVariantForWidthsNotBelowSourceWidth() {
+        assertNull(imageVariants.variant(fingerprintedMug, 800).block());
+    }
+
+    @Test
+    void testNoVariantForUnknownWidthOrPath() {
+        assertNull(imageVariants.variant(fingerprintedMug, 321).block());
+        // Only fingerprinted paths, so variants cannot be requested for arbitrary files
+        assertNull(imageVariants.variant("img/products/mug.jpg", 320).block());
+        assertNull(imageVariants.variant("../../etc/passwd.jpg", 320).block());
+    }
+}
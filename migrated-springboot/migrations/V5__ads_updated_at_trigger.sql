@@ -0,0 +1,17 @@
+-- V5__ads_updated_at_trigger.sql
+-- Keep ads.updated_at current on every update, so the ad service can poll for changed rows
+
+CREATE OR REPLACE FUNCTION set_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ads_updated_at
+    BEFORE UPDATE ON ads
+    FOR EACH ROW
+    EXECUTE FUNCTION set_updated_at();
+
+-- Index for the ad service's incremental refresh
+CREATE INDEX idx_ads_updated_at ON ads (updated_at);
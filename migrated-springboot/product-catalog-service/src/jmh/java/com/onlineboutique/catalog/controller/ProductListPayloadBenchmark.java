@@ -0,0 +1,70 @@
+package com.onlineboutique.catalog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.catalog.SyntheticProducts;
+import com.onlineboutique.catalog.entity.ProductEntity;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one list response built from full products vs from product summaries.
+ * {@code fullProducts} starts from the entities {@code findAll} loads and converts them
+ * as ProductService does; {@code summaries} starts from the column values the summary
+ * query's constructor expression receives. The gc profiler reports allocation per list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductListPayloadBenchmark {
+
+    @Param("10000")
+    public int products;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<ProductEntity> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = SyntheticProducts.entities("P", 0, products).toList();
+    }
+
+    @Benchmark
+    public byte[] fullProducts() throws Exception {
+        List<Product> list = new ArrayList<>(entities.size());
+        for (ProductEntity entity : entities) {
+            Product product = new Product();
+            product.setId(entity.getId());
+            product.setName(entity.getName());
+            product.setDescription(entity.getDescription());
+            product.setPicture(entity.getPicture());
+            product.setPriceUsd(entity.getPriceUsd());
+            product.setCategories(entity.getCategories().toArray(new String[0]));
+            list.add(product);
+        }
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        List<ProductSummary> list = new ArrayList<>(entities.size());
+        for (ProductEntity entity : entities) {
+            list.add(new ProductSummary(entity.getId(), entity.getName(), entity.getPicture(),
+                    entity.getPriceUsdUnits(), entity.getPriceUsdNanos(), entity.getCategories()));
+        }
+        return objectMapper.writeValueAsBytes(list);
+    }
+}
@@ -0,0 +1,154 @@
+package com.onlineboutique.catalog.index;
+
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet queries over a synthetic catalog of 1M products and 1k categories.
+ * Category popularity is skewed (a few large categories, a long tail of small ones),
+ * and each product has one to three categories. {@code linearScan} is the
+ * per-query cost without an index, for comparison.
+ */
+@State(Scope.Benchmark)
+public class CatalogIndexBenchmark {
+
+    private static final PriceBuckets PRICE_BUCKETS = new PriceBuckets(0, 10, 25, 50, 100, 250);
+
+    @Param("1000000")
+    public int products;
+
+    @Param("1000")
+    public int categories;
+
+    private List<ProductSummary> catalog;
+    private CatalogIndex index;
+    private List<String> headCategory;
+    private List<String> mixedCategories;
+    private List<String> tailCategories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = syntheticCatalog(products, categories, 42);
+        index = CatalogIndex.build(1, catalog, PRICE_BUCKETS);
+        headCategory = List.of(category(0));
+        mixedCategories = List.of(category(1), category(categories / 10), category(categories / 2));
+        tailCategories = new ArrayList<>();
+        for (int i = categories - 20; i < categories; i++) {
+            tailCategories.add(category(i));
+        }
+        System.out.printf("%nIndexed %d products, %d categories, %d bitmap bytes%n",
+                index.size(), index.categoryCount(), index.bitmapSizeInBytes());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacets unfilteredCounts() {
+        return index.query(List.of(), null, 0, 24);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacets headCategoryWithPriceBucket() {
+        return index.query(headCategory, "25-50", 0, 24);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacets threeCategoriesDeepPage() {
+        return index.query(mixedCategories, null, 10_000, 24);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacets twentyTailCategoriesWithPriceBucket() {
+        return index.query(tailCategories, "100-250", 0, 24);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void linearScan(Blackhole blackhole) {
+        // Same answer as headCategoryWithPriceBucket, computed by scanning every product
+        String selected = headCategory.get(0);
+        int bucket = PRICE_BUCKETS.indexOf("25-50");
+        int total = 0;
+        Map<String, Integer> categoryCounts = new HashMap<>();
+        int[] bucketCounts = new int[PRICE_BUCKETS.size()];
+        for (ProductSummary product : catalog) {
+            boolean inCategory = product.getCategories().contains(selected);
+            boolean inBucket = PRICE_BUCKETS.bucketOf(product.getPriceUsd().getUnits()) == bucket;
+            if (inBucket) {
+                for (String category : product.getCategories()) {
+                    categoryCounts.merge(category, 1, Integer::sum);
+                }
+            }
+            if (inCategory) {
+                bucketCounts[PRICE_BUCKETS.bucketOf(product.getPriceUsd().getUnits())]++;
+                if (inBucket) {
+                    total++;
+                }
+            }
+        }
+        blackhole.consume(total);
+        blackhole.consume(categoryCounts);
+        blackhole.consume(bucketCounts);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public CatalogIndex build() {
+        return CatalogIndex.build(2, catalog, PRICE_BUCKETS);
+    }
+
+    static List<ProductSummary> syntheticCatalog(int products, int categories, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ProductSummary> catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            int categoryCount = 1 + random.nextInt(3);
+            List<String> productCategories = new ArrayList<>(categoryCount);
+            for (int c = 0; c < categoryCount; c++) {
+                // Squaring a uniform draw skews popularity towards low category numbers
+                double draw = random.nextDouble();
+                String category = category((int) (draw * draw * categories));
+                if (!productCategories.contains(category)) {
+                    productCategories.add(category);
+                }
+            }
+            Money price = new Money("USD", (long) random.nextInt(500), 990000000);
+            catalog.add(new ProductSummary(String.format("P%07d", i), "Product " + i,
+                    "/static/img/products/" + i + ".jpg", price, productCategories));
+        }
+        return catalog;
+    }
+
+    private static String category(int i) {
+        return String.format("category-%04d", i);
+    }
+}
@@ -0,0 +1,91 @@
+package com.onlineboutique.catalog.index;
+
+import com.onlineboutique.common.model.ProductSummary;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained by the catalog index and by the product summaries it is built from, on the
+ * same synthetic 1M-product catalog as {@link CatalogIndexBenchmark}. Sizes come from walking
+ * the object graphs with JOL and are reported as secondary results in bytes; the primary
+ * result is only the time the walk took.
+ */
+@State(Scope.Benchmark)
+public class CatalogIndexFootprintBenchmark {
+
+    private static final PriceBuckets PRICE_BUCKETS = new PriceBuckets(0, 10, 25, 50, 100, 250);
+
+    @Param("1000000")
+    public int products;
+
+    @Param("1000")
+    public int categories;
+
+    private List<ProductSummary> catalog;
+    private Object[] productStrings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = CatalogIndexBenchmark.syntheticCatalog(products, categories, 42);
+        List<String> strings = new ArrayList<>(products * 3);
+        for (ProductSummary product : catalog) {
+            strings.add(product.getId());
+            strings.add(product.getName());
+            strings.add(product.getPicture());
+        }
+        productStrings = strings.toArray();
+    }
+
+    /**
+     * Retained bytes; ids, names and pictures are in both layouts, so the difference between
+     * the layouts is in {@code summaryBytes} and {@code indexBytes} beyond {@code stringBytes}
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long summaryBytes;
+        public long indexBytes;
+        public long stringBytes;
+        public long bitmapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            summaryBytes = 0;
+            indexBytes = 0;
+            stringBytes = 0;
+            bitmapBytes = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+    public CatalogIndex retainedHeap(Footprint footprint) {
+        CatalogIndex index = CatalogIndex.build(1, catalog, PRICE_BUCKETS);
+        footprint.summaryBytes = GraphStats.parseInstance(catalog).totalSize();
+        footprint.indexBytes = GraphStats.parseInstance(index).totalSize();
+        footprint.stringBytes = GraphStats.parseInstance(productStrings).totalSize();
+        footprint.bitmapBytes = index.bitmapSizeInBytes();
+        return index;
+    }
+}
@@ -0,0 +1,32 @@
+package com.onlineboutique.catalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.common.cache.EncodedResponseCache;
+import com.onlineboutique.common.grpc.ProtoMessageCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches of pre-serialized REST and converted gRPC catalog responses, invalidated by the catalog version
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Value("${catalog.response-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${catalog.response-cache.gzip:true}")
+    private boolean gzip;
+
+    @Bean
+    public EncodedResponseCache productResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new EncodedResponseCache("products", objectMapper, maxEntries, gzip, meterRegistry);
+    }
+
+    @Bean
+    public ProtoMessageCache productMessageCache(MeterRegistry meterRegistry) {
+        return new ProtoMessageCache("products-grpc", maxEntries, meterRegistry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.onlineboutique.catalog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.onlineboutique.catalog.importer.CatalogImportFormat;
+import com.onlineboutique.catalog.importer.CatalogImportService;
+import com.onlineboutique.catalog.importer.ImportReport;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Bulk catalog import endpoint.
+ * The request body is the feed itself (JSON, NDJSON or CSV) and is streamed
+ * straight into the import pipeline without being buffered.
+ */
+@RestController
+@RequestMapping("/api/v1/products/import")
+@Timed("product_catalog_service")
+public class CatalogImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportController.class);
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    /**
+     * Import a catalog feed, upserting products by id
+     */
+    @PostMapping
+    public ResponseEntity<ImportReport> importCatalog(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest request) throws IOException {
+        CatalogImportFormat format;
+        try {
+            format = CatalogImportFormat.fromContentType(contentType);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected catalog import: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        try {
+            ImportReport report = catalogImportService.importCatalog(request.getInputStream(), format);
+            return ResponseEntity.ok(report);
+        } catch (JsonProcessingException e) {
+            logger.warn("Malformed catalog feed: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
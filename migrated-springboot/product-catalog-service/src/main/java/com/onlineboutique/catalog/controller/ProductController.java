@@ -1,16 +1,30 @@
 package com.onlineboutique.catalog.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.onlineboutique.catalog.service.CatalogIndexService;
+import com.onlineboutique.catalog.service.CatalogVersion;
 import com.onlineboutique.catalog.service.ProductService;
+import com.onlineboutique.common.cache.EncodedResponse;
+import com.onlineboutique.common.cache.EncodedResponseCache;
+import com.onlineboutique.common.wire.WireFormat;
 import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductPage;
+import com.onlineboutique.common.model.ProductSummary;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Product catalog REST controller.
@@ -26,15 +40,69 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EncodedResponseCache productResponseCache;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+    
     /**
      * List all products
      * Migrated from: ListProducts gRPC method
      */
     @GetMapping
-    public ResponseEntity<List<Product>> listProducts() {
+    public ResponseEntity<byte[]> listProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Listing all products");
-        List<Product> products = productService.listProducts();
-        return ResponseEntity.ok(products);
+        EncodedResponse response = productResponseCache.get("products", catalogVersion.current(),
+                WireFormat.negotiate(accept), productService::listProducts);
+        return response.toResponseEntity(acceptEncoding, ifNoneMatch);
+    }
+    
+    /**
+     * List one keyset page of products ordered by id
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<ProductPage> listProductsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        logger.info("Listing products after '{}' with limit {}", after, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        ProductPage page = productService.listProducts(after, limit);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Stream all products as newline-delimited JSON, one product per line,
+     * writing each product as soon as it is read from the database
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        logger.info("Streaming all products");
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            long count = productService.streamProducts(product -> {
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+            });
+            generator.flush();
+            logger.debug("Streamed {} products", count);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     /**
@@ -42,11 +110,18 @@ public class ProductController {
      * Migrated from: GetProduct gRPC method
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable String id) {
+    public ResponseEntity<byte[]> getProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Getting product with ID: {}", id);
-        Optional<Product> product = productService.getProduct(id);
-        return product.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        EncodedResponse response = productResponseCache.get("product:" + id, catalogVersion.current(),
+                WireFormat.negotiate(accept), () -> productService.getProduct(id).orElse(null));
+        if (response == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return response.toResponseEntity(acceptEncoding, ifNoneMatch);
     }
     
     /**
@@ -60,6 +135,55 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
     
+    /**
+     * List summaries of all products (id, name, picture, price, categories)
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<byte[]> listProductSummaries(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Listing all product summaries");
+        EncodedResponse response = productResponseCache.get("summaries", catalogVersion.current(),
+                WireFormat.negotiate(accept), productService::listProductSummaries);
+        return response.toResponseEntity(acceptEncoding, ifNoneMatch);
+    }
+    
+    /**
+     * Search product summaries by query
+     */
+    @GetMapping("/summaries/search")
+    public ResponseEntity<List<ProductSummary>> searchProductSummaries(@RequestParam String query) {
+        logger.info("Searching product summaries with query: {}", query);
+        List<ProductSummary> summaries = productService.searchProductSummaries(query);
+        return ResponseEntity.ok(summaries);
+    }
+    
+    /**
+     * Faceted browse: products in any of the given categories and the given price bucket,
+     * with counts per category and per price bucket
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacets> getProductFacets(
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) String priceBucket,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "24") int limit) {
+        logger.info("Faceted query: categories={}, priceBucket={}, offset={}, limit={}",
+                categories, priceBucket, offset, limit);
+        if (offset < 0 || limit < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ProductFacets facets = catalogIndexService.facets(
+                    categories == null ? List.of() : categories, priceBucket, offset, limit);
+            return ResponseEntity.ok(facets);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid facet query: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Get products by category
      */
@@ -0,0 +1,28 @@
+package com.onlineboutique.catalog.entity;
+
+import com.onlineboutique.catalog.service.CatalogVersion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Advances the catalog version whenever a product is written through JPA
+ */
+@Component
+public class ProductChangeListener {
+
+    @Autowired
+    private ObjectProvider<CatalogVersion> catalogVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(ProductEntity product) {
+        if (catalogVersion != null) {
+            catalogVersion.ifAvailable(CatalogVersion::onProductChanged);
+        }
+    }
+}
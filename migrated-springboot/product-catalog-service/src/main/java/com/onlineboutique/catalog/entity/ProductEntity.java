@@ -14,6 +14,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "products")
+@EntityListeners(ProductChangeListener.class)
 public class ProductEntity {
     
     @Id
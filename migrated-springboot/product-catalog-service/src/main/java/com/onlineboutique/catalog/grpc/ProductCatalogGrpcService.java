@@ -0,0 +1,75 @@
+package com.onlineboutique.catalog.grpc;
+
+import com.onlineboutique.catalog.service.CatalogVersion;
+import com.onlineboutique.catalog.service.ProductService;
+import com.onlineboutique.common.grpc.GrpcResponses;
+import com.onlineboutique.common.grpc.ProtoMapper;
+import com.onlineboutique.common.grpc.ProtoMessageCache;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.GetProductRequest;
+import com.onlineboutique.common.grpc.v1.Product;
+import com.onlineboutique.common.grpc.v1.ProductCatalogServiceGrpc;
+import com.onlineboutique.common.grpc.v1.ProductSummary;
+import com.onlineboutique.common.grpc.v1.SearchProductsRequest;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Product catalog gRPC endpoint, the internal counterpart of ProductController.
+ * Cacheable responses are converted once per catalog version and shared by all calls.
+ * Migrated from: src/productcatalogservice/server.go gRPC endpoints
+ */
+@Component
+public class ProductCatalogGrpcService extends ProductCatalogServiceGrpc.ProductCatalogServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogGrpcService.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProtoMessageCache productMessageCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    /**
+     * Migrated from: ListProducts gRPC method
+     */
+    @Override
+    public void listProducts(Empty request, StreamObserver<Product> responseObserver) {
+        logger.info("Listing all products over gRPC");
+        GrpcResponses.stream(responseObserver, () -> productMessageCache.get("products", catalogVersion.current(),
+                () -> productService.listProducts().stream().map(ProtoMapper::toProto).toList()));
+    }
+
+    @Override
+    public void listProductSummaries(Empty request, StreamObserver<ProductSummary> responseObserver) {
+        logger.info("Listing all product summaries over gRPC");
+        GrpcResponses.stream(responseObserver, () -> productMessageCache.get("summaries", catalogVersion.current(),
+                () -> productService.listProductSummaries().stream().map(ProtoMapper::toProto).toList()));
+    }
+
+    /**
+     * Migrated from: GetProduct gRPC method
+     */
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<Product> responseObserver) {
+        logger.info("Getting product with ID over gRPC: {}", request.getId());
+        GrpcResponses.unary(responseObserver, () -> productMessageCache.get("product:" + request.getId(), catalogVersion.current(),
+                () -> productService.getProduct(request.getId()).map(ProtoMapper::toProto).orElse(null)));
+    }
+
+    /**
+     * Migrated from: SearchProducts gRPC method
+     */
+    @Override
+    public void searchProducts(SearchProductsRequest request, StreamObserver<Product> responseObserver) {
+        logger.info("Searching products over gRPC with query: {}", request.getQuery());
+        GrpcResponses.stream(responseObserver,
+                () -> productService.searchProducts(request.getQuery()).stream().map(ProtoMapper::toProto).toList());
+    }
+}
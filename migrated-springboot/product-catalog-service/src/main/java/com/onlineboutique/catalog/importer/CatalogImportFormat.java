@@ -0,0 +1,42 @@
+package com.onlineboutique.catalog.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Supported catalog feed formats
+ */
+public enum CatalogImportFormat {
+
+    /**
+     * JSON: the legacy {@code {"products": [...]}} document, a bare array of products,
+     * or newline-delimited product objects. Both the legacy camelCase price fields
+     * ({@code priceUsd.currencyCode}) and the API's snake_case fields are accepted.
+     */
+    JSON,
+
+    /**
+     * CSV with a header row: {@code id,name,description,picture,price_usd_units,price_usd_nanos,categories},
+     * where {@code categories} is pipe-separated. A decimal {@code price_usd} column may be used
+     * instead of units and nanos.
+     */
+    CSV;
+
+    /**
+     * Resolve the format from a request content type
+     *
+     * @throws IllegalArgumentException if the content type is not a supported feed format
+     */
+    public static CatalogImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+                    || MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+                return JSON;
+            }
+            if (new MediaType("text", "csv").isCompatibleWith(mediaType)) {
+                return CSV;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported catalog feed content type: " + contentType);
+    }
+}
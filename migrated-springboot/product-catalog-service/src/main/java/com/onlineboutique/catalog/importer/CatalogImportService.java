@@ -0,0 +1,208 @@
+package com.onlineboutique.catalog.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.catalog.service.CatalogVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk catalog import.
+ * The feed is parsed as a stream and copied into a temporary staging table with the
+ * PostgreSQL COPY protocol, then merged into {@code products} with a single
+ * INSERT ... ON CONFLICT statement. Memory use does not depend on feed size, and the
+ * whole import commits or rolls back as one transaction.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+
+    /**
+     * Rows between progress log lines and rate gauge updates
+     */
+    static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE catalog_import_staging (" +
+            "seq BIGINT NOT NULL, id TEXT NOT NULL, name TEXT NOT NULL, description TEXT, picture TEXT, " +
+            "price_usd_units BIGINT NOT NULL, price_usd_nanos INTEGER NOT NULL, categories JSONB" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY catalog_import_staging (seq, id, name, description, picture, " +
+            "price_usd_units, price_usd_nanos, categories) FROM STDIN WITH (FORMAT csv)";
+
+    // The last row for an id wins; rows identical to the stored product are left untouched
+    private static final String MERGE_SQL =
+            "WITH merged AS (" +
+            "INSERT INTO products (id, name, description, picture, price_usd_units, price_usd_nanos, " +
+            "categories, created_at, updated_at) " +
+            "SELECT DISTINCT ON (id) id, name, description, picture, price_usd_units, price_usd_nanos, " +
+            "categories, now(), now() " +
+            "FROM catalog_import_staging ORDER BY id, seq DESC " +
+            "ON CONFLICT (id) DO UPDATE SET " +
+            "name = EXCLUDED.name, description = EXCLUDED.description, picture = EXCLUDED.picture, " +
+            "price_usd_units = EXCLUDED.price_usd_units, price_usd_nanos = EXCLUDED.price_usd_nanos, " +
+            "categories = EXCLUDED.categories, updated_at = EXCLUDED.updated_at " +
+            "WHERE (products.name, products.description, products.picture, products.price_usd_units, " +
+            "products.price_usd_nanos, products.categories) IS DISTINCT FROM " +
+            "(EXCLUDED.name, EXCLUDED.description, EXCLUDED.picture, EXCLUDED.price_usd_units, " +
+            "EXCLUDED.price_usd_nanos, EXCLUDED.categories) " +
+            "RETURNING (xmax = 0) AS inserted) " +
+            "SELECT count(*) FILTER (WHERE inserted) AS inserted, " +
+            "count(*) FILTER (WHERE NOT inserted) AS updated, " +
+            "(SELECT count(DISTINCT id) FROM catalog_import_staging) AS distinct_ids " +
+            "FROM merged";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter stagedRows;
+    private Counter rejectedRows;
+    private final AtomicLong progressRows = new AtomicLong();
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        stagedRows = Counter.builder("catalog.import.rows").tag("result", "staged").register(meterRegistry);
+        rejectedRows = Counter.builder("catalog.import.rows").tag("result", "rejected").register(meterRegistry);
+        meterRegistry.gauge("catalog.import.progress.rows", progressRows);
+        meterRegistry.gauge("catalog.import.rows.per.second", rowsPerSecond);
+    }
+
+    /**
+     * Import a catalog feed, inserting new products and updating changed ones.
+     * Products missing from the feed are kept.
+     *
+     * @throws IOException if the feed cannot be read or parsed; nothing is imported
+     */
+    @Transactional
+    public ImportReport importCatalog(InputStream feed, CatalogImportFormat format) throws IOException {
+        logger.info("Starting {} catalog import", format);
+        long started = System.nanoTime();
+        progressRows.set(0);
+
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        ImportReport report = new ImportReport();
+        report.setFormat(format);
+        try (CatalogRecordReader reader = openReader(feed, format)) {
+            stage(reader, report, started);
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY into staging table failed", e);
+        }
+        long stagedMillis = elapsedMillis(started);
+
+        jdbcTemplate.execute("ANALYZE catalog_import_staging");
+        Map<String, Object> merged = jdbcTemplate.queryForMap(MERGE_SQL);
+        // Dropped now rather than at commit so a caller's transaction can run several imports
+        jdbcTemplate.execute("DROP TABLE catalog_import_staging");
+        long distinctIds = ((Number) merged.get("distinct_ids")).longValue();
+        report.setInserted(((Number) merged.get("inserted")).longValue());
+        report.setUpdated(((Number) merged.get("updated")).longValue());
+        report.setDuplicates(report.getStaged() - distinctIds);
+        report.setUnchanged(distinctIds - report.getInserted() - report.getUpdated());
+        if (report.getInserted() + report.getUpdated() > 0) {
+            catalogVersion.onProductChanged();
+        }
+
+        long elapsedMillis = elapsedMillis(started);
+        report.setElapsedMillis(elapsedMillis);
+        report.setRowsPerSecond(ratePerSecond(report.getStaged() + report.getRejected(), elapsedMillis));
+        rowsPerSecond.set(report.getRowsPerSecond());
+        Timer.builder("catalog.import.duration")
+                .tag("format", format.name())
+                .register(meterRegistry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+        logger.info("Catalog import finished in {} ms (staging {} ms, merge {} ms): {}",
+                elapsedMillis, stagedMillis, elapsedMillis - stagedMillis, report);
+        return report;
+    }
+
+    private void stage(CatalogRecordReader reader, ImportReport report, long started)
+            throws IOException, SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        StagingCopyWriter writer = new StagingCopyWriter(copyIn, objectMapper);
+        long seq = 0;
+        long staged = 0;
+        long rejected = 0;
+        try {
+            for (CatalogRecord record = reader.next(); record != null; record = reader.next()) {
+                seq++;
+                String rejectReason = record.rejectReason();
+                if (rejectReason != null) {
+                    rejected++;
+                    rejectedRows.increment();
+                    if (rejected <= 10) {
+                        logger.warn("Rejected catalog row {} (id '{}'): {}", seq, record.id, rejectReason);
+                    }
+                    continue;
+                }
+                writer.write(seq, record);
+                staged++;
+                stagedRows.increment();
+                if (seq % PROGRESS_INTERVAL == 0) {
+                    long rate = ratePerSecond(seq, elapsedMillis(started));
+                    progressRows.set(seq);
+                    rowsPerSecond.set(rate);
+                    logger.info("Catalog import progress: {} rows read, {} staged, {} rejected, {} rows/s",
+                            seq, staged, rejected, rate);
+                }
+            }
+            writer.finish();
+        } catch (IOException | SQLException | RuntimeException e) {
+            writer.cancel();
+            throw e;
+        }
+        progressRows.set(seq);
+        report.setStaged(staged);
+        report.setRejected(rejected);
+    }
+
+    private CatalogRecordReader openReader(InputStream feed, CatalogImportFormat format) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonCatalogRecordReader(objectMapper.getFactory(), feed);
+            case CSV -> new CsvCatalogRecordReader(feed);
+        };
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private static long ratePerSecond(long rows, long elapsedMillis) {
+        return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,53 @@
+package com.onlineboutique.catalog.importer;
+
+import java.util.List;
+
+/**
+ * One product read from a catalog feed, before validation
+ */
+final class CatalogRecord {
+
+    static final int MAX_ID_LENGTH = 50;
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_PICTURE_LENGTH = 500;
+
+    String id;
+    String name;
+    String description;
+    String picture;
+    String currencyCode;
+    Long priceUsdUnits;
+    Integer priceUsdNanos;
+    List<String> categories;
+
+    /**
+     * Reason this record cannot be imported, or {@code null} if it is valid
+     */
+    String rejectReason() {
+        if (id == null || id.isBlank()) {
+            return "missing id";
+        }
+        if (id.length() > MAX_ID_LENGTH) {
+            return "id longer than " + MAX_ID_LENGTH;
+        }
+        if (name == null || name.isBlank()) {
+            return "missing name";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "name longer than " + MAX_NAME_LENGTH;
+        }
+        if (picture != null && picture.length() > MAX_PICTURE_LENGTH) {
+            return "picture longer than " + MAX_PICTURE_LENGTH;
+        }
+        if (currencyCode != null && !"USD".equals(currencyCode)) {
+            return "price not in USD";
+        }
+        if (priceUsdUnits == null || priceUsdUnits < 0) {
+            return "missing or negative price";
+        }
+        if (priceUsdNanos == null) {
+            priceUsdNanos = 0;
+        }
+        return null;
+    }
+}
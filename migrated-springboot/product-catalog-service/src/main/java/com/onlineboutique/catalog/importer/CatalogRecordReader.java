@@ -0,0 +1,15 @@
+package com.onlineboutique.catalog.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader over a catalog feed; holds at most one record in memory
+ */
+interface CatalogRecordReader extends Closeable {
+
+    /**
+     * Next record, or {@code null} at the end of the feed
+     */
+    CatalogRecord next() throws IOException;
+}
@@ -0,0 +1,74 @@
+package com.onlineboutique.catalog.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.onlineboutique.common.model.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Streaming CSV feed reader; columns are matched by the header row
+ */
+final class CsvCatalogRecordReader implements CatalogRecordReader {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final MappingIterator<Map<String, String>> rows;
+
+    CsvCatalogRecordReader(InputStream input) throws IOException {
+        this.rows = CSV_MAPPER.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(input);
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        if (!rows.hasNextValue()) {
+            return null;
+        }
+        Map<String, String> row = rows.nextValue();
+        CatalogRecord record = new CatalogRecord();
+        record.id = emptyToNull(row.get("id"));
+        record.name = emptyToNull(row.get("name"));
+        record.description = emptyToNull(row.get("description"));
+        record.picture = emptyToNull(row.get("picture"));
+        try {
+            String decimalPrice = emptyToNull(row.get("price_usd"));
+            if (decimalPrice != null) {
+                Money price = Money.fromBigDecimal(new BigDecimal(decimalPrice), "USD");
+                record.priceUsdUnits = price.getUnits();
+                record.priceUsdNanos = price.getNanos();
+            } else {
+                String units = emptyToNull(row.get("price_usd_units"));
+                String nanos = emptyToNull(row.get("price_usd_nanos"));
+                record.priceUsdUnits = units == null ? null : Long.valueOf(units);
+                record.priceUsdNanos = nanos == null ? null : Integer.valueOf(nanos);
+            }
+        } catch (NumberFormatException e) {
+            // Leave the price unset; the record is rejected during validation
+            record.priceUsdUnits = null;
+        }
+        String categories = emptyToNull(row.get("categories"));
+        if (categories != null) {
+            record.categories = Arrays.stream(categories.split("\\|"))
+                    .map(String::trim)
+                    .filter(category -> !category.isEmpty())
+                    .toList();
+        }
+        return record;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+}
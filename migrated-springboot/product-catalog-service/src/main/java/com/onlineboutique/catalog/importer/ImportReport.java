@@ -0,0 +1,120 @@
+package com.onlineboutique.catalog.importer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Outcome of one catalog import
+ */
+public class ImportReport {
+
+    private CatalogImportFormat format;
+
+    /**
+     * Valid rows copied into the staging table
+     */
+    private long staged;
+
+    /**
+     * Rows skipped because they failed validation
+     */
+    private long rejected;
+
+    /**
+     * Staged rows superseded by a later row with the same id in the same feed
+     */
+    private long duplicates;
+
+    private long inserted;
+
+    private long updated;
+
+    /**
+     * Existing products whose feed row matched what is already stored
+     */
+    private long unchanged;
+
+    @JsonProperty("elapsed_millis")
+    private long elapsedMillis;
+
+    @JsonProperty("rows_per_second")
+    private long rowsPerSecond;
+
+    public CatalogImportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(CatalogImportFormat format) {
+        this.format = format;
+    }
+
+    public long getStaged() {
+        return staged;
+    }
+
+    public void setStaged(long staged) {
+        this.staged = staged;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportReport{format=%s, staged=%d, rejected=%d, duplicates=%d, inserted=%d, " +
+                        "updated=%d, unchanged=%d, elapsedMillis=%d, rowsPerSecond=%d}",
+                format, staged, rejected, duplicates, inserted, updated, unchanged, elapsedMillis, rowsPerSecond);
+    }
+}
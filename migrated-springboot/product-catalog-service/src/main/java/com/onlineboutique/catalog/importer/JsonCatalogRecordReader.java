@@ -0,0 +1,129 @@
+package com.onlineboutique.catalog.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming JSON feed reader built on the Jackson token parser, so a feed of any size
+ * is read one product at a time.
+ * Accepts {@code {"products": [...]}}, a top-level array, or a sequence of product objects.
+ */
+final class JsonCatalogRecordReader implements CatalogRecordReader {
+
+    private final JsonParser parser;
+    private boolean started;
+    private boolean inArray;
+    private boolean finished;
+
+    JsonCatalogRecordReader(JsonFactory jsonFactory, InputStream input) throws IOException {
+        this.parser = jsonFactory.createParser(input);
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            return first();
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+            finished = true;
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT);
+        return readProduct(parser.nextToken());
+    }
+
+    private CatalogRecord first() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            finished = true;
+            return null;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            inArray = true;
+            return next();
+        }
+        expect(token, JsonToken.START_OBJECT);
+        token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && "products".equals(parser.currentName())) {
+            expect(parser.nextToken(), JsonToken.START_ARRAY);
+            inArray = true;
+            return next();
+        }
+        // Newline-delimited products: the first object is already open
+        return readProduct(token);
+    }
+
+    /**
+     * Read the fields of a product object whose first token (a field name or the end of the object) is given
+     */
+    private CatalogRecord readProduct(JsonToken token) throws IOException {
+        CatalogRecord record = new CatalogRecord();
+        for (; token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+            expect(token, JsonToken.FIELD_NAME);
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> record.id = parser.getValueAsString();
+                case "name" -> record.name = parser.getValueAsString();
+                case "description" -> record.description = parser.getValueAsString();
+                case "picture" -> record.picture = parser.getValueAsString();
+                case "priceUsd", "price_usd" -> readPrice(value, record);
+                case "categories" -> record.categories = readCategories(value);
+                default -> parser.skipChildren();
+            }
+        }
+        return record;
+    }
+
+    private void readPrice(JsonToken token, CatalogRecord record) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expect(token, JsonToken.START_OBJECT);
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "currencyCode", "currency_code" -> record.currencyCode = parser.getValueAsString();
+                case "units" -> record.priceUsdUnits = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                case "nanos" -> record.priceUsdNanos = value == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private List<String> readCategories(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_ARRAY);
+        List<String> categories = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            categories.add(parser.getValueAsString());
+        }
+        return categories;
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
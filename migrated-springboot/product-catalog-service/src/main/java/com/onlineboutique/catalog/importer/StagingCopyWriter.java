@@ -0,0 +1,85 @@
+package com.onlineboutique.catalog.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Encodes catalog records as COPY CSV rows and sends them to the server in large chunks.
+ * An unquoted empty field is NULL in COPY CSV, so strings are always quoted.
+ */
+final class StagingCopyWriter {
+
+    private static final int FLUSH_THRESHOLD_CHARS = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD_CHARS + 4096);
+
+    StagingCopyWriter(CopyIn copyIn, ObjectMapper objectMapper) {
+        this.copyIn = copyIn;
+        this.objectMapper = objectMapper;
+    }
+
+    void write(long seq, CatalogRecord record) throws SQLException, JsonProcessingException {
+        buffer.append(seq).append(',');
+        quoted(record.id).append(',');
+        quoted(record.name).append(',');
+        quoted(record.description).append(',');
+        quoted(record.picture).append(',');
+        buffer.append(record.priceUsdUnits).append(',');
+        buffer.append(record.priceUsdNanos).append(',');
+        quoted(record.categories == null ? null : objectMapper.writeValueAsString(record.categories));
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_THRESHOLD_CHARS) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the remaining rows and finish the COPY
+     *
+     * @return rows copied, as reported by the server
+     */
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    void cancel() {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException ignored) {
+            // The surrounding transaction is rolled back anyway
+        }
+    }
+
+    private StringBuilder quoted(String value) {
+        if (value == null) {
+            return buffer;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        return buffer.append('"');
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
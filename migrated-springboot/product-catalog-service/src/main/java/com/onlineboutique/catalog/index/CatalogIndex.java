@@ -0,0 +1,279 @@
+package com.onlineboutique.catalog.index;
+
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductSummary;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable in-memory facet index over one version of the catalog.
+ * Products are numbered by position, and each category and price bucket keeps a
+ * compressed bitmap of the positions it contains. A facet query is answered with
+ * bitmap OR/AND and intersection cardinalities instead of one SQL query per facet value.
+ * <p>
+ * Products are held column by column rather than as {@link ProductSummary} objects, with
+ * categories as ids into a {@link CategoryDictionary}; a summary is rebuilt only for the
+ * products on the page being returned.
+ */
+public final class CatalogIndex {
+
+    private final long version;
+    private final CategoryDictionary categories;
+    private final String[] ids;
+    private final String[] names;
+    private final String[] pictures;
+    // Prices are USD; unpriced products have zeros here, are listed in unpriced and are in
+    // no price bucket
+    private final long[] priceUnits;
+    private final int[] priceNanos;
+    private final RoaringBitmap unpriced;
+    // Indexed by dictionary id; null for categories on none of these products
+    private final RoaringBitmap[] categoryBitmaps;
+    private final int categoryCount;
+    // Categories of each product in compressed-row form: product p has the category ids
+    // productCategories[categoryOffsets[p] .. categoryOffsets[p + 1])
+    private final int[] categoryOffsets;
+    private final int[] productCategories;
+    private final PriceBuckets priceBuckets;
+    private final RoaringBitmap[] buckets;
+    private final RoaringBitmap all;
+
+    private CatalogIndex(long version, CategoryDictionary categories, String[] ids, String[] names, String[] pictures,
+                         long[] priceUnits, int[] priceNanos, RoaringBitmap unpriced,
+                         RoaringBitmap[] categoryBitmaps, int[] categoryOffsets, int[] productCategories,
+                         PriceBuckets priceBuckets, RoaringBitmap[] buckets) {
+        this.version = version;
+        this.categories = categories;
+        this.ids = ids;
+        this.names = names;
+        this.pictures = pictures;
+        this.priceUnits = priceUnits;
+        this.priceNanos = priceNanos;
+        this.unpriced = unpriced;
+        this.categoryBitmaps = categoryBitmaps;
+        this.categoryCount = (int) Arrays.stream(categoryBitmaps).filter(bitmap -> bitmap != null).count();
+        this.categoryOffsets = categoryOffsets;
+        this.productCategories = productCategories;
+        this.priceBuckets = priceBuckets;
+        this.buckets = buckets;
+        this.all = new RoaringBitmap();
+        this.all.add(0L, ids.length);
+    }
+
+    /**
+     * Index the given products, which keep their list order in query results
+     */
+    public static CatalogIndex build(long version, List<ProductSummary> products, PriceBuckets priceBuckets) {
+        CategoryDictionary categories = new CategoryDictionary();
+        int size = products.size();
+        String[] ids = new String[size];
+        String[] names = new String[size];
+        String[] pictures = new String[size];
+        long[] priceUnits = new long[size];
+        int[] priceNanos = new int[size];
+        RoaringBitmap unpriced = new RoaringBitmap();
+        List<RoaringBitmap> categoryBitmaps = new ArrayList<>(Collections.nCopies(categories.size(), null));
+        int[] categoryOffsets = new int[size + 1];
+        int[] productCategories = new int[size * 2];
+        int entries = 0;
+        RoaringBitmap[] buckets = new RoaringBitmap[priceBuckets.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new RoaringBitmap();
+        }
+        int position = 0;
+        for (ProductSummary product : products) {
+            ids[position] = product.getId();
+            names[position] = product.getName();
+            pictures[position] = product.getPicture();
+            if (product.getCategories() != null) {
+                for (String category : product.getCategories()) {
+                    int id = categories.idOf(category);
+                    while (categoryBitmaps.size() <= id) {
+                        categoryBitmaps.add(null);
+                    }
+                    if (categoryBitmaps.get(id) == null) {
+                        categoryBitmaps.set(id, new RoaringBitmap());
+                    }
+                    categoryBitmaps.get(id).add(position);
+                    if (entries == productCategories.length) {
+                        productCategories = Arrays.copyOf(productCategories, Math.max(16, entries * 2));
+                    }
+                    productCategories[entries++] = id;
+                }
+            }
+            categoryOffsets[position + 1] = entries;
+            Money price = product.getPriceUsd();
+            if (price == null) {
+                unpriced.add(position);
+            } else {
+                priceUnits[position] = price.getUnits() == null ? 0 : price.getUnits();
+                priceNanos[position] = price.getNanos() == null ? 0 : price.getNanos();
+                buckets[priceBuckets.bucketOf(priceUnits[position])].add(position);
+            }
+            position++;
+        }
+        for (RoaringBitmap bitmap : categoryBitmaps) {
+            if (bitmap != null) {
+                bitmap.runOptimize();
+            }
+        }
+        for (RoaringBitmap bucket : buckets) {
+            bucket.runOptimize();
+        }
+        return new CatalogIndex(version, categories, ids, names, pictures, priceUnits, priceNanos, unpriced,
+                categoryBitmaps.toArray(new RoaringBitmap[0]), categoryOffsets,
+                Arrays.copyOf(productCategories, entries), priceBuckets, buckets);
+    }
+
+    /**
+     * Match products in any of {@code selectedCategories} (all products if empty) and in
+     * {@code priceBucket} (any price if null), returning the page at {@code offset}
+     *
+     * @throws IllegalArgumentException if the price bucket is unknown
+     */
+    public ProductFacets query(Collection<String> selectedCategories, String priceBucket, int offset, int limit) {
+        RoaringBitmap categoryMatch = categoryFilter(selectedCategories);
+        RoaringBitmap priceMatch = all;
+        if (priceBucket != null) {
+            int bucket = priceBuckets.indexOf(priceBucket);
+            if (bucket < 0) {
+                throw new IllegalArgumentException("Unknown price bucket: " + priceBucket);
+            }
+            priceMatch = buckets[bucket];
+        }
+        RoaringBitmap match = RoaringBitmap.and(categoryMatch, priceMatch);
+
+        int[] counts = priceMatch == all ? categoryCardinalities() : categoryCountsWithin(priceMatch);
+        Map<String, Integer> categoryCounts = new TreeMap<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                categoryCounts.put(categories.name(id), counts[id]);
+            }
+        }
+        Map<String, Integer> priceBucketCounts = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            int count = categoryMatch == all
+                    ? buckets[i].getCardinality()
+                    : RoaringBitmap.andCardinality(buckets[i], categoryMatch);
+            priceBucketCounts.put(priceBuckets.getLabels().get(i), count);
+        }
+
+        return new ProductFacets(page(match, offset, limit), match.getCardinality(),
+                categoryCounts, priceBucketCounts);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int categoryCount() {
+        return categoryCount;
+    }
+
+    /**
+     * Approximate heap held by the bitmaps, excluding the product array
+     */
+    public long bitmapSizeInBytes() {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : categoryBitmaps) {
+            if (bitmap != null) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+        }
+        for (RoaringBitmap bucket : buckets) {
+            bytes += bucket.getLongSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private RoaringBitmap categoryFilter(Collection<String> selectedCategories) {
+        if (selectedCategories == null || selectedCategories.isEmpty()) {
+            return all;
+        }
+        List<RoaringBitmap> selected = new ArrayList<>(selectedCategories.size());
+        for (String category : selectedCategories) {
+            int id = categories.find(category);
+            if (id >= 0 && id < categoryBitmaps.length && categoryBitmaps[id] != null) {
+                selected.add(categoryBitmaps[id]);
+            }
+        }
+        if (selected.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        return selected.size() == 1 ? selected.get(0) : FastAggregation.or(selected.iterator());
+    }
+
+    private int[] categoryCardinalities() {
+        int[] counts = new int[categoryBitmaps.length];
+        for (int id = 0; id < counts.length; id++) {
+            if (categoryBitmaps[id] != null) {
+                counts[id] = categoryBitmaps[id].getCardinality();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Count categories over the products in {@code filter}.
+     * A dense filter (more than 1 in 16 positions) is stored as bitmap containers, and
+     * intersecting it with each category bitmap is cheap. A sparse filter is stored as
+     * sorted arrays, where one merge per category costs far more than walking the
+     * filtered products once and counting their categories.
+     */
+    private int[] categoryCountsWithin(RoaringBitmap filter) {
+        int[] counts = new int[categoryBitmaps.length];
+        if (filter.getCardinality() > ids.length / 16) {
+            for (int id = 0; id < counts.length; id++) {
+                if (categoryBitmaps[id] != null) {
+                    counts[id] = RoaringBitmap.andCardinality(categoryBitmaps[id], filter);
+                }
+            }
+            return counts;
+        }
+        IntIterator positions = filter.getIntIterator();
+        while (positions.hasNext()) {
+            int position = positions.next();
+            for (int i = categoryOffsets[position]; i < categoryOffsets[position + 1]; i++) {
+                counts[productCategories[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    private List<ProductSummary> page(RoaringBitmap match, int offset, int limit) {
+        List<ProductSummary> page = new ArrayList<>(Math.min(limit, match.getCardinality()));
+        if (offset >= match.getCardinality()) {
+            return page;
+        }
+        PeekableIntIterator positions = match.getIntIterator();
+        positions.advanceIfNeeded(match.select(offset));
+        while (positions.hasNext() && page.size() < limit) {
+            page.add(summary(positions.next()));
+        }
+        return page;
+    }
+
+    private ProductSummary summary(int position) {
+        Money price = unpriced.contains(position)
+                ? null
+                : new Money("USD", priceUnits[position], priceNanos[position]);
+        return new ProductSummary(ids[position], names[position], pictures[position], price,
+                categories.decode(productCategories, categoryOffsets[position], categoryOffsets[position + 1]));
+    }
+}
@@ -0,0 +1,94 @@
+package com.onlineboutique.catalog.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Dictionary of category names, numbered by first appearance.
+ * The catalog has few distinct categories but each is repeated on many products, and every
+ * row read from the database carries its own copies of the strings. Structures that hold
+ * products store category ids instead, and the names are looked up here, one shared
+ * instance per category, only when a product is handed out.
+ * <p>
+ * Each {@link CatalogIndex} fills its own dictionary while it is built and only reads it
+ * afterwards, so a dictionary holds the categories of one catalog version and is dropped
+ * with its index. It is not safe for concurrent writes.
+ */
+public final class CategoryDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private int size;
+
+    /**
+     * Id of {@code category}, adding it if it is new
+     */
+    public int idOf(String category) {
+        Integer id = ids.get(category);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = category;
+        ids.put(category, size);
+        return size++;
+    }
+
+    /**
+     * Id of {@code category}, or -1 if it has never been added
+     */
+    public int find(String category) {
+        Integer id = ids.get(category);
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Read-only list of the names of {@code ids[from .. to)}; it shares the array instead of
+     * copying it, so the range must not be modified afterwards
+     */
+    public List<String> decode(int[] ids, int from, int to) {
+        return new Names(names, ids, from, to);
+    }
+
+    private static final class Names extends AbstractList<String> implements RandomAccess {
+
+        private final String[] names;
+        private final int[] ids;
+        private final int from;
+        private final int size;
+
+        Names(String[] names, int[] ids, int from, int to) {
+            this.names = names;
+            this.ids = ids;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return names[ids[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
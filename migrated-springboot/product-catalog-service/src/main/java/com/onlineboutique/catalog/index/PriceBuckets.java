@@ -0,0 +1,62 @@
+package com.onlineboutique.catalog.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Price ranges used as a facet, defined by ascending lower bounds in whole USD.
+ * Bucket {@code i} covers {@code [bounds[i], bounds[i + 1])} and the last bucket is open-ended,
+ * so bounds {@code 0, 10, 25} give the buckets {@code 0-10}, {@code 10-25} and {@code 25+}.
+ */
+public final class PriceBuckets {
+
+    private final long[] lowerBounds;
+    private final List<String> labels;
+
+    public PriceBuckets(long... lowerBounds) {
+        if (lowerBounds.length == 0 || lowerBounds[0] != 0) {
+            throw new IllegalArgumentException("Price buckets must start at 0: " + Arrays.toString(lowerBounds));
+        }
+        for (int i = 1; i < lowerBounds.length; i++) {
+            if (lowerBounds[i] <= lowerBounds[i - 1]) {
+                throw new IllegalArgumentException("Price buckets must be ascending: " + Arrays.toString(lowerBounds));
+            }
+        }
+        this.lowerBounds = lowerBounds.clone();
+        List<String> names = new ArrayList<>(lowerBounds.length);
+        for (int i = 0; i < lowerBounds.length; i++) {
+            names.add(i + 1 < lowerBounds.length
+                    ? lowerBounds[i] + "-" + lowerBounds[i + 1]
+                    : lowerBounds[i] + "+");
+        }
+        this.labels = Collections.unmodifiableList(names);
+    }
+
+    public int size() {
+        return lowerBounds.length;
+    }
+
+    /**
+     * Index of the bucket containing a price in whole USD
+     */
+    public int bucketOf(long units) {
+        int index = Arrays.binarySearch(lowerBounds, units);
+        if (index >= 0) {
+            return index;
+        }
+        return Math.max(-index - 2, 0);
+    }
+
+    /**
+     * Index of the bucket with the given label, or -1 if there is none
+     */
+    public int indexOf(String label) {
+        return labels.indexOf(label);
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+}
@@ -1,13 +1,22 @@
 package com.onlineboutique.catalog.repository;
 
 import com.onlineboutique.catalog.entity.ProductEntity;
+import com.onlineboutique.common.model.ProductSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
 
 /**
  * Product repository for database operations.
@@ -15,6 +24,12 @@ import java.util.Optional;
  */
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, String> {
+
+    /**
+     * JDBC fetch size used when streaming the catalog, so the driver pulls rows
+     * through a server-side cursor instead of buffering the whole result set
+     */
+    int STREAM_FETCH_SIZE = 500;
     
     /**
      * Find products by category
@@ -42,4 +57,45 @@ public interface ProductRepository extends JpaRepository<ProductEntity, String>
     @Query("SELECT p FROM ProductEntity p WHERE " +
            "(p.priceUsdUnits * 1000000000 + p.priceUsdNanos) BETWEEN :minPrice AND :maxPrice")
     List<ProductEntity> findByPriceRange(@Param("minPrice") Long minPrice, @Param("maxPrice") Long maxPrice);
+
+    /**
+     * Keyset pagination: next {@code limit} products ordered by id, strictly after the given id
+     */
+    List<ProductEntity> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    /**
+     * Stream all products ordered by id. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM ProductEntity p ORDER BY p.id")
+    Stream<ProductEntity> streamAllOrderedById();
+
+    /**
+     * List product summaries ordered by id. Only the columns a product card needs are read,
+     * so the TEXT description and timestamps are never decoded.
+     */
+    @Query("SELECT new com.onlineboutique.common.model.ProductSummary(" +
+           "p.id, p.name, p.picture, p.priceUsdUnits, p.priceUsdNanos, p.categories) " +
+           "FROM ProductEntity p ORDER BY p.id")
+    List<ProductSummary> findAllSummaries();
+
+    /**
+     * Search product summaries by name or description
+     */
+    @Query("SELECT new com.onlineboutique.common.model.ProductSummary(" +
+           "p.id, p.name, p.picture, p.priceUsdUnits, p.priceUsdNanos, p.categories) " +
+           "FROM ProductEntity p WHERE " +
+           "LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "ORDER BY p.id")
+    List<ProductSummary> searchSummaries(@Param("query") String query);
+
+    /**
+     * Latest product update time, part of the fingerprint used to detect catalog changes
+     */
+    @Query("SELECT MAX(p.updatedAt) FROM ProductEntity p")
+    Optional<LocalDateTime> findLatestUpdate();
 }
@@ -0,0 +1,138 @@
+package com.onlineboutique.catalog.service;
+
+import com.onlineboutique.catalog.index.CatalogIndex;
+import com.onlineboutique.catalog.index.PriceBuckets;
+import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Faceted browse over an in-memory bitmap index of the catalog.
+ * When the catalog version advances, the index is rebuilt from product summaries on a
+ * background thread while queries keep using the previous index; the new one replaces it
+ * once it is complete. Only the very first query waits for a build.
+ */
+@Service
+public class CatalogIndexService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexService.class);
+
+    /**
+     * Upper bound for a single facet page
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${catalog.facets.price-buckets:0,10,25,50,100,250}")
+    private long[] priceBucketBounds;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Rebuild queued but not yet started; at most one, so versions that advance while it
+     * waits are covered by a single build
+     */
+    private final AtomicReference<CompletableFuture<CatalogIndex>> queuedRebuild = new AtomicReference<>();
+
+    private volatile CatalogIndex index;
+
+    /**
+     * Query products matching any of the categories and the optional price bucket,
+     * together with per-category and per-bucket counts
+     */
+    public ProductFacets facets(Collection<String> categories, String priceBucket, int offset, int limit) {
+        int pageSize = Math.min(Math.max(limit, 0), MAX_PAGE_SIZE);
+        logger.debug("Facet query categories={} priceBucket={} offset={} limit={}",
+                categories, priceBucket, offset, pageSize);
+        return currentIndex().query(categories, priceBucket, Math.max(offset, 0), pageSize);
+    }
+
+    /**
+     * Index for the current catalog version or, while that is being built, the previous one
+     */
+    public CatalogIndex currentIndex() {
+        CatalogIndex current = index;
+        if (current != null && current.getVersion() == catalogVersion.current()) {
+            return current;
+        }
+        CompletableFuture<CatalogIndex> rebuild = rebuild();
+        if (current != null) {
+            return current;
+        }
+        try {
+            return rebuild.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Queue a rebuild for the catalog version current when it starts, unless one is already
+     * queued. The result is at least as new as the catalog version at the time of the call.
+     */
+    public CompletableFuture<CatalogIndex> rebuild() {
+        while (true) {
+            CompletableFuture<CatalogIndex> queued = queuedRebuild.get();
+            if (queued != null) {
+                return queued;
+            }
+            CompletableFuture<CatalogIndex> rebuild = new CompletableFuture<>();
+            if (queuedRebuild.compareAndSet(null, rebuild)) {
+                rebuilder.execute(() -> {
+                    // Versions that advance from here on need another build
+                    queuedRebuild.set(null);
+                    try {
+                        rebuild.complete(build(catalogVersion.current()));
+                    } catch (RuntimeException e) {
+                        logger.warn("Could not rebuild the catalog index: {}", e.toString());
+                        rebuild.completeExceptionally(e);
+                    }
+                });
+                return rebuild;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    private CatalogIndex build(long version) {
+        CatalogIndex current = index;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        long started = System.nanoTime();
+        List<ProductSummary> products = productRepository.findAllSummaries();
+        CatalogIndex built = CatalogIndex.build(version, products, new PriceBuckets(priceBucketBounds));
+        index = built;
+        logger.info("Built catalog index v{}: {} products, {} categories, {} bitmap bytes in {} ms",
+                version, built.size(), built.categoryCount(), built.bitmapSizeInBytes(),
+                (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+}
@@ -0,0 +1,56 @@
+package com.onlineboutique.catalog.service;
+
+import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.common.cache.VersionTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the product catalog used to key response caches.
+ * Advances on product writes made through this pod and, for writes made elsewhere,
+ * when the polled catalog fingerprint (row count and latest update time) changes.
+ */
+@Component
+public class CatalogVersion extends VersionTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * Poll the catalog fingerprint to pick up changes made by other pods or imports
+     */
+    @Scheduled(fixedDelayString = "${catalog.version.poll-interval-ms:5000}")
+    public void refresh() {
+        String fingerprint = productRepository.count() + ":" + productRepository.findLatestUpdate().orElse(null);
+        if (observe(fingerprint)) {
+            logger.debug("Catalog version advanced to {} (fingerprint {})", current(), fingerprint);
+        }
+    }
+
+    /**
+     * Record a local product write. The version advances immediately and again when
+     * the surrounding transaction completes, so nothing cached from uncommitted or
+     * rolled-back state outlives the transaction.
+     */
+    public void onProductChanged() {
+        bump();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersion.this);
+                    bump();
+                }
+            });
+        }
+    }
+}
@@ -3,15 +3,23 @@ package com.onlineboutique.catalog.service;
 import com.onlineboutique.catalog.entity.ProductEntity;
 import com.onlineboutique.catalog.repository.ProductRepository;
 import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductPage;
+import com.onlineboutique.common.model.ProductSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Product service for business logic.
@@ -23,9 +31,17 @@ public class ProductService {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
     
+    /**
+     * Upper bound for a single keyset page
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     /**
      * List all products
      * Migrated from: ListProducts gRPC method
@@ -38,6 +54,49 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * List one keyset page of products ordered by id, starting strictly after {@code after}
+     */
+    @Transactional(readOnly = true)
+    public ProductPage listProducts(String after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        logger.debug("Listing products after '{}' with limit {}", after, pageSize);
+        
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<ProductEntity> entities = productRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? "" : after, Limit.of(pageSize + 1));
+        boolean hasMore = entities.size() > pageSize;
+        List<Product> products = entities.stream()
+                .limit(pageSize)
+                .map(this::convertToProduct)
+                .collect(Collectors.toList());
+        String nextAfter = hasMore ? products.get(products.size() - 1).getId() : null;
+        return new ProductPage(products, nextAfter);
+    }
+    
+    /**
+     * Stream every product ordered by id to the given sink, one row at a time.
+     * Rows are read through a JDBC cursor and detached once written, so heap use
+     * does not grow with catalog size.
+     *
+     * @return number of products written
+     */
+    @Transactional(readOnly = true)
+    public long streamProducts(ProductSink sink) throws IOException {
+        logger.debug("Streaming all products");
+        long count = 0;
+        try (Stream<ProductEntity> entities = productRepository.streamAllOrderedById()) {
+            Iterator<ProductEntity> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                ProductEntity entity = iterator.next();
+                sink.accept(convertToProduct(entity));
+                entityManager.detach(entity);
+                count++;
+            }
+        }
+        return count;
+    }
+    
     /**
      * Get product by ID
      * Migrated from: GetProduct gRPC method
@@ -60,6 +119,24 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * List summaries of all products, for grid and list views
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> listProductSummaries() {
+        logger.debug("Listing all product summaries");
+        return productRepository.findAllSummaries();
+    }
+    
+    /**
+     * Search product summaries by query, for grid and list views
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProductSummaries(String query) {
+        logger.debug("Searching product summaries with query: {}", query);
+        return productRepository.searchSummaries(query);
+    }
+    
     /**
      * Get products by category
      */
@@ -120,4 +197,12 @@ public class ProductService {
         entity.setCategories(List.of(product.getCategories()));
         return entity;
     }
+    
+    /**
+     * Receives products as they are read from the database
+     */
+    @FunctionalInterface
+    public interface ProductSink {
+        void accept(Product product) throws IOException;
+    }
 }
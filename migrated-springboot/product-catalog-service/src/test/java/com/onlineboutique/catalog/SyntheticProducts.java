@@ -0,0 +1,67 @@
+package com.onlineboutique.catalog;
+
+import com.onlineboutique.catalog.entity.ProductEntity;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic catalog rows shared by tests and benchmarks. Product {@code i} has the id
+ * {@code idPrefix} followed by {@code i} in seven digits, a description as long as the seeded
+ * catalog's, one of 500 prices and the categories {@code synthetic} and {@code bucket-(i % 20)}.
+ */
+public final class SyntheticProducts {
+
+    private SyntheticProducts() {
+    }
+
+    public static ProductEntity entity(String idPrefix, int i) {
+        return new ProductEntity(id(idPrefix, i), name(i),
+                "This lightweight synthetic product number " + i
+                        + " has 3 heat and speed settings. It's perfect for travel.",
+                picture(i), (long) (i % 500), 990000000, categories(i));
+    }
+
+    public static Stream<ProductEntity> entities(String idPrefix, int fromInclusive, int toExclusive) {
+        return IntStream.range(fromInclusive, toExclusive).mapToObj(i -> entity(idPrefix, i));
+    }
+
+    public static ProductSummary summary(String idPrefix, int i) {
+        return new ProductSummary(id(idPrefix, i), name(i), picture(i),
+                new Money("USD", (long) (i % 500), 990000000), categories(i));
+    }
+
+    public static List<ProductSummary> summaries(String idPrefix, int size) {
+        List<ProductSummary> summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            summaries.add(summary(idPrefix, i));
+        }
+        return summaries;
+    }
+
+    private static String id(String idPrefix, int i) {
+        return idPrefix + String.format("%07d", i);
+    }
+
+    private static String name(int i) {
+        return "Synthetic Product " + i;
+    }
+
+    private static String picture(int i) {
+        return "/static/img/products/synthetic-" + i + ".jpg";
+    }
+
+    /**
+     * New string instances for every row, as rows deserialized from jsonb have
+     */
+    private static List<String> categories(int i) {
+        List<String> categories = new ArrayList<>(2);
+        categories.add(new String("synthetic"));
+        categories.add(new String("bucket-" + (i % 20)));
+        return categories;
+    }
+}
@@ -0,0 +1,78 @@
+package com.onlineboutique.catalog.controller;
+
+import com.onlineboutique.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Contract tests for the catalog import endpoint
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class CatalogImportControllerContractTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void testImportCsvContract() throws Exception {
+        String feed = "id,name,description,picture,price_usd_units,price_usd_nanos,categories\n" +
+                "IMPAPI1,Api Product,Imported over HTTP,/api.jpg,7,250000000,api|import\n" +
+                "IMPAPI2,,Missing name,,1,0,\n";
+
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andExpect(jsonPath("$.staged").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.elapsed_millis").exists())
+                .andExpect(jsonPath("$.rows_per_second").exists());
+
+        assertEquals("Api Product", productRepository.findById("IMPAPI1").orElseThrow().getName());
+    }
+
+    @Test
+    void testImportMalformedJsonContract() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\": \"IMPAPI3\", "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testImportUnsupportedContentTypeContract() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<products/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -1,23 +1,39 @@
 package com.onlineboutique.catalog.controller;
 
+import com.onlineboutique.catalog.SyntheticProducts;
 import com.onlineboutique.catalog.entity.ProductEntity;
 import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.catalog.service.CatalogIndexService;
 import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.wire.WireFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,6 +56,9 @@ class ProductControllerContractTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -147,6 +166,200 @@ class ProductControllerContractTest {
                 .andExpect(jsonPath("$[0].id").value("CONTRACT123"));
     }
 
+    @Test
+    void testListProductSummariesContract() throws Exception {
+        mockMvc.perform(get("/api/v1/products/summaries")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].name").exists())
+                .andExpect(jsonPath("$[0].picture").exists())
+                .andExpect(jsonPath("$[0].price_usd.units").exists())
+                .andExpect(jsonPath("$[0].categories").isArray())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void testSearchProductSummariesContract() throws Exception {
+        mockMvc.perform(get("/api/v1/products/summaries/search")
+                .param("query", "contract")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("CONTRACT123"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void testListProductsPageContract() throws Exception {
+        saveSyntheticProducts(1_000);
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("limit", "100")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.products").isArray())
+                .andExpect(jsonPath("$.products.length()").value(100))
+                .andExpect(jsonPath("$.products[0].id").exists())
+                .andExpect(jsonPath("$.next_after").exists());
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("after", "ZZZZZZZZZZ")
+                .param("limit", "100")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products").isEmpty())
+                .andExpect(jsonPath("$.next_after").doesNotExist());
+    }
+
+    @Test
+    void testListProductsPageRejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                .param("limit", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testStreamProductsContract() throws Exception {
+        // The body is written on an async thread in its own transaction, so test data must be committed
+        List<String> ids = saveSyntheticProducts(1_000);
+        try {
+            long total = productRepository.count();
+
+            MvcResult result = mockMvc.perform(get("/api/v1/products/stream")
+                    .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\\n");
+            assertEquals(total, lines.length);
+            for (String line : lines) {
+                assertTrue(objectMapper.readTree(line).has("id"));
+            }
+        } finally {
+            productRepository.deleteAllById(ids);
+            productRepository.deleteById("CONTRACT123");
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testProductFacetsContract() throws Exception {
+        // The index is rebuilt on a background thread in its own transaction, so test data must be committed
+        try {
+            catalogIndexService.rebuild().join();
+
+            mockMvc.perform(get("/api/v1/products/facets")
+                    .param("categories", "contract", "nonexistent")
+                    .param("priceBucket", "25-50")
+                    .param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.total").value(1))
+                    .andExpect(jsonPath("$.products[0].id").value("CONTRACT123"))
+                    .andExpect(jsonPath("$.products[0].price_usd.units").value(29))
+                    .andExpect(jsonPath("$.category_counts.contract").value(1))
+                    .andExpect(jsonPath("$.price_bucket_counts['25-50']").value(1))
+                    .andExpect(jsonPath("$.price_bucket_counts['0-10']").value(0));
+        } finally {
+            productRepository.deleteById("CONTRACT123");
+        }
+    }
+
+    @Test
+    void testProductFacetsRejectsUnknownPriceBucket() throws Exception {
+        mockMvc.perform(get("/api/v1/products/facets")
+                .param("priceBucket", "1-2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListProductsServesPreEncodedGzipWithEtag() throws Exception {
+        // Given a catalog large enough to get a gzip variant
+        MvcResult identity = mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        String etag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When the client accepts gzip
+        MvcResult gzipped = mockMvc.perform(get("/api/v1/products")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+
+        // Then the gzip body decodes to the same JSON, and a revalidation is answered with 304
+        byte[] decoded;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            decoded = in.readAllBytes();
+        }
+        assertArrayEquals(identity.getResponse().getContentAsByteArray(), decoded);
+
+        mockMvc.perform(get("/api/v1/products")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testGetProductReflectsCatalogChange() throws Exception {
+        // Given a cached product response
+        MvcResult before = mockMvc.perform(get("/api/v1/products/CONTRACT123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Contract Test Product"))
+                .andReturn();
+
+        // When the product is renamed
+        ProductEntity product = productRepository.findById("CONTRACT123").orElseThrow();
+        product.setName("Renamed Contract Product");
+        productRepository.saveAndFlush(product);
+
+        // Then the next response is re-encoded with a new ETag
+        mockMvc.perform(get("/api/v1/products/CONTRACT123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Contract Product"))
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        not(before.getResponse().getHeader(HttpHeaders.ETAG))));
+    }
+
+    @Test
+    void testGetProductServesSmileWhenPreferred() throws Exception {
+        // Given the JSON form of a product
+        MvcResult json = mockMvc.perform(get("/api/v1/products/CONTRACT123")
+                .header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // When an internal caller prefers Smile
+        MvcResult smile = mockMvc.perform(get("/api/v1/products/CONTRACT123")
+                .header(HttpHeaders.ACCEPT, WireFormat.SMILE_PREFERRED))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormat.SMILE.getMediaType()))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        // Then it gets a smaller body with the same content and its own ETag
+        byte[] smileBody = smile.getResponse().getContentAsByteArray();
+        byte[] jsonBody = json.getResponse().getContentAsByteArray();
+        assertTrue(smileBody.length < jsonBody.length);
+        assertEquals(objectMapper.readTree(jsonBody), WireFormat.SMILE.mapper(objectMapper).readTree(smileBody));
+        assertNotEquals(json.getResponse().getHeader(HttpHeaders.ETAG), smile.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
     @Test
     void testHealthCheckContract() throws Exception {
         mockMvc.perform(get("/api/v1/products/health")
@@ -154,4 +367,10 @@ class ProductControllerContractTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Product Catalog Service is healthy"));
     }
+
+    private List<String> saveSyntheticProducts(int count) {
+        return productRepository.saveAllAndFlush(SyntheticProducts.entities("SYN", 0, count).toList()).stream()
+                .map(ProductEntity::getId)
+                .toList();
+    }
 }
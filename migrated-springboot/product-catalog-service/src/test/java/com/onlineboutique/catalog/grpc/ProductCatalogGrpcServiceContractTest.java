@@ -0,0 +1,123 @@
+package com.onlineboutique.catalog.grpc;
+
+import com.onlineboutique.catalog.entity.ProductEntity;
+import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.common.grpc.GrpcServer;
+import com.onlineboutique.common.grpc.v1.Empty;
+import com.onlineboutique.common.grpc.v1.GetProductRequest;
+import com.onlineboutique.common.grpc.v1.Product;
+import com.onlineboutique.common.grpc.v1.ProductCatalogServiceGrpc;
+import com.onlineboutique.common.grpc.v1.ProductSummary;
+import com.onlineboutique.common.grpc.v1.SearchProductsRequest;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contract tests for the product catalog gRPC endpoint.
+ * Calls run on gRPC threads outside any test transaction, so test data is committed and
+ * removed after each test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCatalogGrpcServiceContractTest {
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ManagedChannel channel;
+
+    private ProductCatalogServiceGrpc.ProductCatalogServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() {
+        ProductEntity product = new ProductEntity();
+        product.setId("GRPC123");
+        product.setName("gRPC Contract Product");
+        product.setDescription("A product for gRPC contract testing");
+        product.setPicture("/grpc-contract.jpg");
+        product.setPriceUsdUnits(29L);
+        product.setPriceUsdNanos(990000000);
+        product.setCategories(Arrays.asList("grpccontract", "test"));
+        productRepository.save(product);
+
+        channel = Grpc.newChannelBuilder("localhost:" + grpcServer.getPort(), InsecureChannelCredentials.create()).build();
+        stub = ProductCatalogServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        productRepository.deleteById("GRPC123");
+    }
+
+    @Test
+    void testGetProductContract() {
+        Product product = stub.getProduct(GetProductRequest.newBuilder().setId("GRPC123").build());
+
+        assertEquals("GRPC123", product.getId());
+        assertEquals("gRPC Contract Product", product.getName());
+        assertEquals("A product for gRPC contract testing", product.getDescription());
+        assertEquals("/grpc-contract.jpg", product.getPicture());
+        assertEquals("USD", product.getPriceUsd().getCurrencyCode());
+        assertEquals(29, product.getPriceUsd().getUnits());
+        assertEquals(990000000, product.getPriceUsd().getNanos());
+        assertEquals(List.of("grpccontract", "test"), product.getCategoriesList());
+    }
+
+    @Test
+    void testGetProductNotFoundContract() {
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> stub.getProduct(GetProductRequest.newBuilder().setId("NOTFOUND").build()));
+
+        assertEquals(Status.Code.NOT_FOUND, error.getStatus().getCode());
+    }
+
+    @Test
+    void testListProductsStreamsEveryProduct() {
+        List<String> ids = new ArrayList<>();
+        stub.listProducts(Empty.getDefaultInstance()).forEachRemaining(product -> ids.add(product.getId()));
+
+        assertEquals(productRepository.count(), ids.size());
+        assertTrue(ids.contains("GRPC123"));
+    }
+
+    @Test
+    void testListProductSummariesContract() {
+        List<ProductSummary> summaries = new ArrayList<>();
+        stub.listProductSummaries(Empty.getDefaultInstance()).forEachRemaining(summaries::add);
+
+        ProductSummary summary = summaries.stream()
+                .filter(candidate -> candidate.getId().equals("GRPC123"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("gRPC Contract Product", summary.getName());
+        assertEquals(29, summary.getPriceUsd().getUnits());
+    }
+
+    @Test
+    void testSearchProductsContract() {
+        List<String> ids = new ArrayList<>();
+        stub.searchProducts(SearchProductsRequest.newBuilder().setQuery("gRPC Contract").build())
+                .forEachRemaining(product -> ids.add(product.getId()));
+
+        assertEquals(List.of("GRPC123"), ids);
+    }
+}
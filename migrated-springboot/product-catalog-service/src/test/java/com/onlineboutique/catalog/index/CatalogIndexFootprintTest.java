@@ -0,0 +1,102 @@
+package com.onlineboutique.catalog.index;
+
+import com.onlineboutique.catalog.SyntheticProducts;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductSummary;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap retained by the catalog index compared with the product summaries it is built from,
+ * measured by walking the object graphs with JOL rather than by sampling the heap.
+ * Each synthetic row gets its own copies of its category strings, as rows read from the
+ * database do. CatalogIndexFootprintBenchmark measures the same on 1M products.
+ */
+class CatalogIndexFootprintTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexFootprintTest.class);
+
+    private static final int CATALOG_SIZE = 50_000;
+
+    private static final PriceBuckets PRICE_BUCKETS = new PriceBuckets(0, 10, 25, 50, 100, 250);
+
+    @Test
+    void testIndexRetainsLessThanSummaries() {
+        // Given
+        List<ProductSummary> catalog = SyntheticProducts.summaries("P", CATALOG_SIZE);
+
+        // When
+        CatalogIndex index = CatalogIndex.build(1, catalog, PRICE_BUCKETS);
+
+        // Then - ids, names and pictures are kept either way; the rest is what each layout adds
+        long summariesBytes = GraphLayout.parseInstance(catalog).totalSize();
+        long indexBytes = GraphLayout.parseInstance(index).totalSize();
+        long stringsBytes = GraphLayout.parseInstance(productStrings(catalog)).totalSize();
+        logger.info("Retained for {} products: summaries={} bytes, index={} bytes, of which id/name/picture strings={} bytes",
+                CATALOG_SIZE, summariesBytes, indexBytes, stringsBytes);
+        assertTrue(indexBytes - stringsBytes < (summariesBytes - stringsBytes) / 3,
+                "index should need less than a third of the per-product overhead of summaries");
+    }
+
+    @Test
+    void testIndexSharesProductStrings() {
+        // Given
+        List<ProductSummary> catalog = SyntheticProducts.summaries("P", CATALOG_SIZE);
+        CatalogIndex index = CatalogIndex.build(1, catalog, PRICE_BUCKETS);
+
+        Object[] strings = productStrings(catalog);
+
+        // When - everything the index and the rows' strings hold, counted once
+        long together = GraphLayout.parseInstance(index, strings).totalSize();
+
+        // Then - nothing beyond the array listing the strings, so no id, name or picture was copied
+        assertEquals(GraphLayout.parseInstance(index).totalSize() + VM.current().sizeOf(strings), together);
+    }
+
+    @Test
+    void testBitmapsStayCompact() {
+        // When
+        CatalogIndex index = CatalogIndex.build(1, SyntheticProducts.summaries("P", CATALOG_SIZE), PRICE_BUCKETS);
+
+        // Then - three memberships per product (two categories, one price bucket), at most
+        // a two-byte array entry each, plus fixed per-bitmap overhead
+        assertEquals(21, index.categoryCount());
+        assertTrue(index.bitmapSizeInBytes() < 8L * CATALOG_SIZE,
+                "bitmaps should take under 8 bytes per product, took " + index.bitmapSizeInBytes());
+    }
+
+    @Test
+    void testPagesShareCategoryStrings() {
+        CatalogIndex index = CatalogIndex.build(1, SyntheticProducts.summaries("P", 1000), PRICE_BUCKETS);
+
+        ProductFacets facets = index.query(List.of("bucket-3"), null, 0, 10);
+
+        assertEquals(10, facets.getProducts().size());
+        for (ProductSummary product : facets.getProducts()) {
+            assertEquals(List.of("synthetic", "bucket-3"), product.getCategories());
+            assertSame(facets.getProducts().get(0).getCategories().get(0), product.getCategories().get(0));
+            assertSame(facets.getProducts().get(0).getCategories().get(1), product.getCategories().get(1));
+        }
+    }
+
+    /**
+     * The id, name and picture strings of the rows
+     */
+    private static Object[] productStrings(List<ProductSummary> catalog) {
+        List<String> strings = new ArrayList<>(catalog.size() * 3);
+        for (ProductSummary product : catalog) {
+            strings.add(product.getId());
+            strings.add(product.getName());
+            strings.add(product.getPicture());
+        }
+        return strings.toArray();
+    }
+}
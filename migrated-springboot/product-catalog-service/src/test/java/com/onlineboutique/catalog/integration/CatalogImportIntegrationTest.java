@@ -0,0 +1,223 @@
+package com.onlineboutique.catalog.integration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.onlineboutique.catalog.entity.ProductEntity;
+import com.onlineboutique.catalog.importer.CatalogImportFormat;
+import com.onlineboutique.catalog.importer.CatalogImportService;
+import com.onlineboutique.catalog.importer.ImportReport;
+import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.catalog.service.CatalogVersion;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the COPY-based catalog import against PostgreSQL
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CatalogImportIntegrationTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testImportLegacyProductsJson() throws Exception {
+        // Given a feed in the products.json format of the original catalog service
+        String feed = """
+                {
+                    "products": [
+                        {
+                            "id": "IMPLEGACY1",
+                            "name": "Sunglasses",
+                            "description": "Add a modern touch to your outfits.",
+                            "picture": "/static/img/products/sunglasses.jpg",
+                            "priceUsd": {"currencyCode": "USD", "units": 19, "nanos": 990000000},
+                            "categories": ["accessories"]
+                        },
+                        {
+                            "id": "IMPLEGACY2",
+                            "name": "Tank Top",
+                            "description": "Perfectly cropped cotton tank.",
+                            "picture": "/static/img/products/tank-top.jpg",
+                            "priceUsd": {"currencyCode": "USD", "units": 18, "nanos": 990000000},
+                            "categories": ["clothing", "tops"]
+                        }
+                    ]
+                }
+                """;
+        long versionBefore = catalogVersion.current();
+
+        // When
+        ImportReport report = catalogImportService.importCatalog(stream(feed), CatalogImportFormat.JSON);
+
+        // Then
+        assertEquals(2, report.getStaged());
+        assertEquals(2, report.getInserted());
+        assertEquals(0, report.getRejected());
+        assertTrue(catalogVersion.current() > versionBefore);
+        ProductEntity tankTop = productRepository.findById("IMPLEGACY2").orElseThrow();
+        assertEquals("Tank Top", tankTop.getName());
+        assertEquals(18L, tankTop.getPriceUsdUnits());
+        assertEquals(990000000, tankTop.getPriceUsdNanos());
+        assertEquals(List.of("clothing", "tops"), tankTop.getCategories());
+    }
+
+    @Test
+    void testImportNdjsonLastDuplicateWins() throws Exception {
+        // Given newline-delimited products in the API's wire format, with a repeated id
+        String feed = """
+                {"id":"IMPND1","name":"First","price_usd":{"currency_code":"USD","units":1,"nanos":0},"categories":["a"]}
+                {"id":"IMPND2","name":"Second","price_usd":{"currency_code":"USD","units":2,"nanos":0}}
+                {"id":"IMPND1","name":"First (revised)","price_usd":{"currency_code":"USD","units":3,"nanos":500000000},"categories":["b"]}
+                """;
+
+        // When
+        ImportReport report = catalogImportService.importCatalog(stream(feed), CatalogImportFormat.JSON);
+
+        // Then
+        assertEquals(3, report.getStaged());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(2, report.getInserted());
+        ProductEntity revised = productRepository.findById("IMPND1").orElseThrow();
+        assertEquals("First (revised)", revised.getName());
+        assertEquals(3L, revised.getPriceUsdUnits());
+        assertEquals(List.of("b"), revised.getCategories());
+        assertNull(productRepository.findById("IMPND2").orElseThrow().getCategories());
+    }
+
+    @Test
+    void testImportCsvWithQuotingAndRejectedRows() throws Exception {
+        // Given
+        String feed = """
+                id,name,description,picture,price_usd,categories
+                IMPCSV1,"Mug, large","The ""best"" mug
+                for coffee",/mug.jpg,12.50,kitchen|drinkware
+                IMPCSV2,Bowl,,,3,kitchen
+                ,Missing id,,,1,
+                IMPCSV3,No price,,,,
+                IMPCSV4,Euro only,,,abc,
+                """;
+
+        // When
+        ImportReport report = catalogImportService.importCatalog(stream(feed), CatalogImportFormat.CSV);
+
+        // Then
+        assertEquals(2, report.getStaged());
+        assertEquals(3, report.getRejected());
+        ProductEntity mug = productRepository.findById("IMPCSV1").orElseThrow();
+        assertEquals("Mug, large", mug.getName());
+        assertEquals("The \"best\" mug\nfor coffee", mug.getDescription());
+        assertEquals(12L, mug.getPriceUsdUnits());
+        assertEquals(500000000, mug.getPriceUsdNanos());
+        assertEquals(List.of("kitchen", "drinkware"), mug.getCategories());
+        ProductEntity bowl = productRepository.findById("IMPCSV2").orElseThrow();
+        assertNull(bowl.getDescription());
+        assertNull(bowl.getPicture());
+    }
+
+    @Test
+    void testReimportOnlyUpdatesChangedProducts() throws Exception {
+        // Given
+        String header = "id,name,description,picture,price_usd_units,price_usd_nanos,categories\n";
+        catalogImportService.importCatalog(stream(header +
+                "IMPRE1,One,,/1.jpg,1,0,a\n" +
+                "IMPRE2,Two,,/2.jpg,2,0,a|b\n"), CatalogImportFormat.CSV);
+
+        // When the same feed arrives with one product repriced and one new product
+        ImportReport report = catalogImportService.importCatalog(stream(header +
+                "IMPRE1,One,,/1.jpg,1,0,a\n" +
+                "IMPRE2,Two,,/2.jpg,5,0,a|b\n" +
+                "IMPRE3,Three,,/3.jpg,3,0,\n"), CatalogImportFormat.CSV);
+
+        // Then
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getUnchanged());
+        entityManager.clear();
+        assertEquals(5L, productRepository.findById("IMPRE2").orElseThrow().getPriceUsdUnits());
+    }
+
+    @Test
+    void testImportRejectsMalformedJson() {
+        String feed = "{\"products\": [{\"id\": \"IMPBAD\", \"name\": ";
+
+        assertThrows(JsonProcessingException.class,
+                () -> catalogImportService.importCatalog(stream(feed), CatalogImportFormat.JSON));
+    }
+
+    @Test
+    void testImportLargeCsvFeedIsStreamed() throws Exception {
+        // Given a 200k-row feed generated on the fly, never held in memory as a whole
+        int rows = 200_000;
+        long countBefore = productRepository.count();
+
+        // When
+        ImportReport report = catalogImportService.importCatalog(syntheticCsvFeed(rows), CatalogImportFormat.CSV);
+
+        // Then
+        assertEquals(rows, report.getStaged());
+        assertEquals(rows, report.getInserted());
+        assertEquals(countBefore + rows, productRepository.count());
+        assertTrue(report.getRowsPerSecond() > 0);
+        System.out.printf("Imported %d rows in %d ms (%d rows/s)%n",
+                rows, report.getElapsedMillis(), report.getRowsPerSecond());
+    }
+
+    private static InputStream stream(String feed) {
+        return new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream syntheticCsvFeed(int rows) {
+        int chunkSize = 1000;
+        Enumeration<InputStream> chunks = new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                StringBuilder chunk = new StringBuilder();
+                if (next < 0) {
+                    chunk.append("id,name,description,picture,price_usd_units,price_usd_nanos,categories\n");
+                    next = 0;
+                }
+                for (int end = Math.min(next + chunkSize, rows); next < end; next++) {
+                    chunk.append(String.format("IMPSYN%07d,Synthetic %d,Synthetic product %d,/syn/%d.jpg,%d,990000000,synthetic|bucket-%d%n",
+                            next, next, next, next, next % 500, next % 20));
+                }
+                return stream(chunk.toString());
+            }
+        };
+        return new SequenceInputStream(chunks);
+    }
+}
@@ -1,18 +1,24 @@
 package com.onlineboutique.catalog.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineboutique.catalog.SyntheticProducts;
 import com.onlineboutique.catalog.entity.ProductEntity;
 import com.onlineboutique.catalog.repository.ProductRepository;
 import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -190,4 +196,129 @@ class ProductRepositoryIntegrationTest {
         assertEquals(19L, price.getUnits());
         assertEquals(990000000, price.getNanos());
     }
+
+    @Test
+    void testFindAllSummaries() {
+        // Given
+        entityManager.persistAndFlush(testProduct);
+        entityManager.clear();
+
+        // When
+        List<ProductSummary> summaries = productRepository.findAllSummaries();
+
+        // Then
+        ProductSummary summary = summaries.stream()
+                .filter(s -> "TEST123".equals(s.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Test Product", summary.getName());
+        assertEquals("/test.jpg", summary.getPicture());
+        assertEquals(new Money("USD", 19L, 990000000), summary.getPriceUsd());
+        assertEquals(Arrays.asList("test", "category", "integration"), summary.getCategories());
+    }
+
+    @Test
+    void testSearchSummariesByDescription() {
+        // Given
+        entityManager.persistAndFlush(testProduct);
+
+        // When
+        List<ProductSummary> summaries = productRepository.searchSummaries("integration");
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertEquals("TEST123", summaries.get(0).getId());
+    }
+
+    @Test
+    void testSummaryQueryPayloadIsSmallerThanFullProducts() throws Exception {
+        // Given - descriptions as long as the seeded catalog's
+        for (int i = 0; i < 1_000; i++) {
+            entityManager.persist(SyntheticProducts.entity("PAY", i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // When - the same catalog through the entity query and through the summary projection
+        List<Product> products = productRepository.findAll().stream()
+                .map(ProductRepositoryIntegrationTest::toProduct)
+                .toList();
+        List<ProductSummary> summaries = productRepository.findAllSummaries();
+        byte[] full = objectMapper.writeValueAsBytes(products);
+        byte[] summary = objectMapper.writeValueAsBytes(summaries);
+
+        // Then
+        assertEquals(products.size(), summaries.size());
+        assertTrue(summary.length < full.length * 0.75,
+                "summary payload should be at least 25% smaller than the full payload");
+    }
+
+    @Test
+    void testKeysetPaginationOverLargeSyntheticCatalog() {
+        // Given
+        long catalogSize = productRepository.count() + persistSyntheticCatalog(2_500);
+
+        // When - walk the whole catalog one keyset page at a time
+        String after = "";
+        String previousId = "";
+        int seen = 0;
+        List<ProductEntity> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(200));
+            for (ProductEntity product : page) {
+                assertTrue(product.getId().compareTo(previousId) > 0);
+                previousId = product.getId();
+                seen++;
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 200);
+
+        // Then
+        assertEquals(catalogSize, seen);
+    }
+
+    @Test
+    void testStreamAllOrderedByIdOverLargeSyntheticCatalog() {
+        // Given
+        long catalogSize = productRepository.count() + persistSyntheticCatalog(2_500);
+
+        // When
+        long count;
+        try (Stream<ProductEntity> products = productRepository.streamAllOrderedById()) {
+            count = products.peek(entityManager::detach).count();
+        }
+
+        // Then
+        assertEquals(catalogSize, count);
+    }
+
+    /**
+     * Same fields as ProductService.convertToProduct
+     */
+    private static Product toProduct(ProductEntity entity) {
+        Product product = new Product();
+        product.setId(entity.getId());
+        product.setName(entity.getName());
+        product.setDescription(entity.getDescription());
+        product.setPicture(entity.getPicture());
+        product.setPriceUsd(entity.getPriceUsd());
+        product.setCategories(entity.getCategories().toArray(new String[0]));
+        return product;
+    }
+
+    private int persistSyntheticCatalog(int size) {
+        for (int i = 0; i < size; i++) {
+            entityManager.persist(SyntheticProducts.entity("SYN", i));
+            if (i % 500 == 499) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return size;
+    }
 }
@@ -0,0 +1,238 @@
+package com.onlineboutique.catalog.service;
+
+import com.onlineboutique.catalog.index.CatalogIndex;
+import com.onlineboutique.catalog.repository.ProductRepository;
+import com.onlineboutique.common.model.Money;
+import com.onlineboutique.common.model.ProductFacets;
+import com.onlineboutique.common.model.ProductSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CatalogIndexService and the bitmap facet index
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogIndexServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private CatalogIndexService catalogIndexService;
+
+    @AfterEach
+    void tearDown() {
+        catalogIndexService.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogIndexService, "priceBucketBounds", new long[]{0, 10, 25, 50});
+        lenient().when(catalogVersion.current()).thenReturn(1L);
+        lenient().when(productRepository.findAllSummaries()).thenReturn(List.of(
+                summary("A", 5, "kitchen", "decor"),
+                summary("B", 12, "kitchen"),
+                summary("C", 30, "decor", "garden"),
+                summary("D", 60, "garden"),
+                summary("E", 8, "clothing"),
+                summary("F", 20, "kitchen", "garden")));
+    }
+
+    @Test
+    void testFacetsWithoutFilters() {
+        // When
+        ProductFacets facets = catalogIndexService.facets(List.of(), null, 0, 10);
+
+        // Then
+        assertEquals(6, facets.getTotal());
+        assertEquals(List.of("A", "B", "C", "D", "E", "F"), ids(facets));
+        assertEquals(Map.of("kitchen", 3, "decor", 2, "garden", 3, "clothing", 1), facets.getCategoryCounts());
+        assertEquals(List.of("0-10", "10-25", "25-50", "50+"), new ArrayList<>(facets.getPriceBucketCounts().keySet()));
+        assertEquals(List.of(2, 2, 1, 1), new ArrayList<>(facets.getPriceBucketCounts().values()));
+    }
+
+    @Test
+    void testFacetsMatchAnyCategoryWithinPriceBucket() {
+        // When
+        ProductFacets facets = catalogIndexService.facets(List.of("kitchen", "garden"), "10-25", 0, 10);
+
+        // Then products must be in kitchen OR garden, AND priced 10-25
+        assertEquals(2, facets.getTotal());
+        assertEquals(List.of("B", "F"), ids(facets));
+        // Category counts ignore the category selection but respect the price filter
+        assertEquals(Map.of("kitchen", 2, "garden", 1), facets.getCategoryCounts());
+        // Bucket counts ignore the bucket selection but respect the category filter
+        assertEquals(List.of(1, 2, 1, 1), new ArrayList<>(facets.getPriceBucketCounts().values()));
+    }
+
+    @Test
+    void testFacetsPaging() {
+        // When
+        ProductFacets facets = catalogIndexService.facets(List.of("kitchen", "garden"), null, 2, 2);
+
+        // Then
+        assertEquals(5, facets.getTotal());
+        assertEquals(List.of("C", "D"), ids(facets));
+        assertTrue(catalogIndexService.facets(List.of("kitchen"), null, 10, 2).getProducts().isEmpty());
+    }
+
+    @Test
+    void testCategoryCountsWithSparsePriceFilter() {
+        // Given a price bucket holding fewer than 1 in 16 products
+        List<ProductSummary> products = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            products.add(i % 40 == 0
+                    ? summary(String.format("S%02d", i), 30, "bulk", "rare")
+                    : summary(String.format("S%02d", i), 5, "bulk"));
+        }
+        when(productRepository.findAllSummaries()).thenReturn(products);
+
+        // When
+        ProductFacets facets = catalogIndexService.facets(List.of(), "25-50", 0, 10);
+
+        // Then
+        assertEquals(2, facets.getTotal());
+        assertEquals(Map.of("bulk", 2, "rare", 2), facets.getCategoryCounts());
+        assertEquals(List.of(62, 0, 2, 0), new ArrayList<>(facets.getPriceBucketCounts().values()));
+    }
+
+    @Test
+    void testFacetsUnknownCategoryMatchesNothing() {
+        // When
+        ProductFacets facets = catalogIndexService.facets(List.of("nonexistent"), null, 0, 10);
+
+        // Then
+        assertEquals(0, facets.getTotal());
+        assertTrue(facets.getProducts().isEmpty());
+        assertEquals(List.of(0, 0, 0, 0), new ArrayList<>(facets.getPriceBucketCounts().values()));
+    }
+
+    @Test
+    void testUnpricedProductMatchesNoPriceBucket() {
+        // Given
+        when(productRepository.findAllSummaries()).thenReturn(List.of(
+                summary("A", 5, "kitchen"),
+                new ProductSummary("U", "Product U", "/U.jpg", null, List.of("kitchen"))));
+
+        // When
+        ProductFacets cheap = catalogIndexService.facets(List.of("kitchen"), "0-10", 0, 10);
+        ProductFacets all = catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+
+        // Then - listed without a price filter, but neither matched nor counted by one
+        assertEquals(List.of("A"), ids(cheap));
+        assertEquals(List.of(1, 0, 0, 0), new ArrayList<>(cheap.getPriceBucketCounts().values()));
+        assertEquals(List.of("A", "U"), ids(all));
+        assertNull(all.getProducts().get(1).getPriceUsd());
+    }
+
+    @Test
+    void testFacetsUnknownPriceBucketRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> catalogIndexService.facets(List.of(), "5-7", 0, 10));
+    }
+
+    @Test
+    void testIndexRebuiltOnlyWhenCatalogVersionChanges() {
+        // Given
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+        verify(productRepository, times(1)).findAllSummaries();
+
+        // When the catalog changes and the rebuild it triggers completes
+        when(catalogVersion.current()).thenReturn(2L);
+        when(productRepository.findAllSummaries()).thenReturn(List.of(summary("G", 1, "kitchen")));
+        catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+        catalogIndexService.rebuild().join();
+        ProductFacets facets = catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+
+        // Then
+        verify(productRepository, times(2)).findAllSummaries();
+        assertEquals(List.of("G"), ids(facets));
+    }
+
+    @Test
+    void testQueriesUsePreviousIndexWhileRebuilding() throws Exception {
+        // Given a rebuild that is stuck loading the catalog
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogVersion.current()).thenReturn(2L);
+        when(productRepository.findAllSummaries()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(summary("G", 1, "kitchen"));
+        });
+
+        // When
+        ProductFacets during = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> catalogIndexService.facets(List.of("kitchen"), null, 0, 10));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        ProductFacets stillDuring = catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+        release.countDown();
+        catalogIndexService.rebuild().get(5, TimeUnit.SECONDS);
+        ProductFacets after = catalogIndexService.facets(List.of("kitchen"), null, 0, 10);
+
+        // Then
+        assertEquals(List.of("A", "B", "F"), ids(during));
+        assertEquals(List.of("A", "B", "F"), ids(stillDuring));
+        assertEquals(List.of("G"), ids(after));
+    }
+
+    @Test
+    void testVersionsThatAdvanceDuringRebuildShareOneRebuild() throws Exception {
+        // Given a rebuild for version 2 that is stuck loading the catalog
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogVersion.current()).thenReturn(2L);
+        when(productRepository.findAllSummaries()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(summary("G", 1, "kitchen"));
+        });
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When the version advances twice more, as one product write does, with queries in between
+        when(catalogVersion.current()).thenReturn(3L);
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        when(catalogVersion.current()).thenReturn(4L);
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        catalogIndexService.facets(List.of(), null, 0, 10);
+        release.countDown();
+        CatalogIndex rebuilt = catalogIndexService.rebuild().get(5, TimeUnit.SECONDS);
+
+        // Then - the initial build, the one for version 2, and a single one for version 4
+        verify(productRepository, times(3)).findAllSummaries();
+        assertEquals(4L, rebuilt.getVersion());
+        assertSame(rebuilt, catalogIndexService.currentIndex());
+    }
+
+    private static ProductSummary summary(String id, long priceUnits, String... categories) {
+        return new ProductSummary(id, "Product " + id, "/" + id + ".jpg",
+                new Money("USD", priceUnits, 0), List.of(categories));
+    }
+
+    private static List<String> ids(ProductFacets facets) {
+        return facets.getProducts().stream().map(ProductSummary::getId).toList();
+    }
+}
@@ -1,19 +1,29 @@
 package com.onlineboutique.catalog.service;
 
+import com.onlineboutique.catalog.SyntheticProducts;
 import com.onlineboutique.catalog.entity.ProductEntity;
 import com.onlineboutique.catalog.repository.ProductRepository;
 import com.onlineboutique.common.model.Money;
 import com.onlineboutique.common.model.Product;
+import com.onlineboutique.common.model.ProductPage;
+import com.onlineboutique.common.model.ProductSummary;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +39,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ProductService productService;
 
@@ -166,4 +179,113 @@ class ProductServiceTest {
         assertEquals("TEST123", products.get(0).getId());
         verify(productRepository).findByPriceRange(minPrice, maxPrice);
     }
+
+    @Test
+    void testListProductSummaries() {
+        // Given
+        ProductSummary summary = new ProductSummary("TEST123", "Test Product", "/test.jpg",
+                19L, 990000000, List.of("test", "category"));
+        when(productRepository.findAllSummaries()).thenReturn(List.of(summary));
+
+        // When
+        List<ProductSummary> summaries = productService.listProductSummaries();
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertEquals("TEST123", summaries.get(0).getId());
+        assertEquals(new Money("USD", 19L, 990000000), summaries.get(0).getPriceUsd());
+        verify(productRepository).findAllSummaries();
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void testSearchProductSummaries() {
+        // Given
+        ProductSummary summary = new ProductSummary("TEST123", "Test Product", "/test.jpg",
+                19L, 990000000, List.of("test", "category"));
+        when(productRepository.searchSummaries("test")).thenReturn(List.of(summary));
+
+        // When
+        List<ProductSummary> summaries = productService.searchProductSummaries("test");
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertEquals("TEST123", summaries.get(0).getId());
+        verify(productRepository).searchSummaries("test");
+    }
+
+    @Test
+    void testListProductsPageHasNext() {
+        // Given - repository returns limit + 1 rows, so another page exists
+        List<ProductEntity> entities = SyntheticProducts.entities("P", 0, 4).collect(Collectors.toList());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(4))).thenReturn(entities);
+
+        // When
+        ProductPage page = productService.listProducts(null, 3);
+
+        // Then
+        assertEquals(3, page.getProducts().size());
+        assertEquals("P0000002", page.getNextAfter());
+    }
+
+    @Test
+    void testListProductsPageLastPage() {
+        // Given
+        List<ProductEntity> entities = SyntheticProducts.entities("P", 10, 12).collect(Collectors.toList());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc("P0000009", Limit.of(6))).thenReturn(entities);
+
+        // When
+        ProductPage page = productService.listProducts("P0000009", 5);
+
+        // Then
+        assertEquals(2, page.getProducts().size());
+        assertNull(page.getNextAfter());
+    }
+
+    @Test
+    void testListProductsPageClampsLimit() {
+        // Given
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+
+        // When
+        productService.listProducts(null, 1_000_000);
+
+        // Then
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc("", Limit.of(ProductService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testStreamProductsLargeSyntheticCatalog() throws Exception {
+        // Given - a lazily generated catalog that is never materialized as a list
+        int catalogSize = 50_000;
+        when(productRepository.streamAllOrderedById()).thenReturn(SyntheticProducts.entities("P", 0, catalogSize));
+        AtomicLong received = new AtomicLong();
+        AtomicReference<String> lastId = new AtomicReference<>("");
+
+        // When
+        long count = productService.streamProducts(product -> {
+            assertTrue(product.getId().compareTo(lastId.get()) > 0);
+            lastId.set(product.getId());
+            received.incrementAndGet();
+        });
+
+        // Then - every row was written once and detached from the persistence context
+        assertEquals(catalogSize, count);
+        assertEquals(catalogSize, received.get());
+        verify(entityManager, times(catalogSize)).detach(any(ProductEntity.class));
+    }
+
+    @Test
+    void testStreamProductsClosesStreamOnSinkFailure() {
+        // Given
+        List<ProductEntity> closed = new ArrayList<>();
+        Stream<ProductEntity> entities = SyntheticProducts.entities("P", 0, 10).onClose(() -> closed.add(testProductEntity));
+        when(productRepository.streamAllOrderedById()).thenReturn(entities);
+
+        // When / Then
+        assertThrows(java.io.IOException.class, () -> productService.streamProducts(product -> {
+            throw new java.io.IOException("client went away");
+        }));
+        assertEquals(1, closed.size());
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Iterables;
+import hipstershop.Demo.Ad;
+import hipstershop.Demo.AdResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of answering a getAds request, from context keys to a built {@code AdResponse}, with
+ * the {@link AdIndex} and with the previous multimap lookup ({@code legacy*}), which walked all
+ * ads for every random pick and shared one {@code Random}. {@code ads=7} is the built-in ad set;
+ * the larger set has 100 categories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdIndexBenchmark {
+
+  private static final int MAX_ADS_TO_SERVE = 2;
+
+  @Param({"7", "10000"})
+  public int ads;
+
+  private AdIndex index;
+  private ImmutableListMultimap<String, Ad> adsMap;
+  private final Random random = new Random();
+  private List<String> oneCategory;
+  private List<String> twoCategories;
+  private List<String> unknownCategory;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (ads == 7) {
+      index = AdService.createAdIndex();
+      oneCategory = List.of("kitchen");
+      twoCategories = List.of("clothing", "footwear");
+    } else {
+      AdIndex.Builder indexBuilder = AdIndex.builder();
+      for (int i = 0; i < ads; i++) {
+        Ad ad =
+            Ad.newBuilder()
+                .setRedirectUrl(String.format("/product/P%09d", i))
+                .setText("Product " + i + " for sale. 10% off.")
+                .build();
+        indexBuilder.add("category-" + (i % 100), ad);
+      }
+      index = indexBuilder.build();
+      oneCategory = List.of("category-1");
+      twoCategories = List.of("category-1", "category-2");
+    }
+    adsMap = legacyMap();
+    unknownCategory = List.of("camera");
+  }
+
+  @Benchmark
+  public AdResponse oneCategory() {
+    return respond(index.getAds(oneCategory, MAX_ADS_TO_SERVE));
+  }
+
+  @Benchmark
+  public AdResponse twoCategories() {
+    return respond(index.getAds(twoCategories, MAX_ADS_TO_SERVE));
+  }
+
+  @Benchmark
+  public AdResponse randomAds() {
+    return respond(index.getAds(unknownCategory, MAX_ADS_TO_SERVE));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public AdResponse randomAdsConcurrent() {
+    return respond(index.getAds(unknownCategory, MAX_ADS_TO_SERVE));
+  }
+
+  @Benchmark
+  public AdResponse legacyOneCategory() {
+    return respond(legacyGetAds(oneCategory));
+  }
+
+  @Benchmark
+  public AdResponse legacyRandomAds() {
+    return respond(legacyGetAds(unknownCategory));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public AdResponse legacyRandomAdsConcurrent() {
+    return respond(legacyGetAds(unknownCategory));
+  }
+
+  private static AdResponse respond(List<Ad> ads) {
+    return AdResponse.newBuilder().addAllAds(ads).build();
+  }
+
+  /** The request path before the index: copy each category's ads, else pick random ones. */
+  private List<Ad> legacyGetAds(List<String> contextKeys) {
+    List<Ad> allAds = new ArrayList<>();
+    for (String key : contextKeys) {
+      allAds.addAll(adsMap.get(key));
+    }
+    if (allAds.isEmpty()) {
+      allAds = new ArrayList<>(MAX_ADS_TO_SERVE);
+      Collection<Ad> values = adsMap.values();
+      for (int i = 0; i < MAX_ADS_TO_SERVE; i++) {
+        allAds.add(Iterables.get(values, random.nextInt(values.size())));
+      }
+    }
+    return allAds;
+  }
+
+  /** The same ads as {@link #index}, as the multimap the service used to keep. */
+  private ImmutableListMultimap<String, Ad> legacyMap() {
+    List<String> categories = new ArrayList<>();
+    if (ads == 7) {
+      categories.addAll(List.of("clothing", "accessories", "footwear", "hair", "decor", "kitchen"));
+    } else {
+      for (int i = 0; i < 100; i++) {
+        categories.add("category-" + i);
+      }
+    }
+    ImmutableListMultimap.Builder<String, Ad> builder = ImmutableListMultimap.builder();
+    for (String category : categories) {
+      builder.putAll(category, index.getAdsByCategory(category));
+    }
+    return builder.build();
+  }
+}
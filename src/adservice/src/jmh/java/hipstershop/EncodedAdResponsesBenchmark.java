@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import hipstershop.Demo.AdResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of producing the response bytes of a getAds request with {@link EncodedAdResponses}, and
+ * by building and serializing an {@code AdResponse} per request ({@code build*}), which is what
+ * the generated service stub did. Uses the built-in ad set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncodedAdResponsesBenchmark {
+
+  private static final int MAX_ADS_TO_SERVE = 2;
+
+  private AdIndex index;
+  private EncodedAdResponses responses;
+  private final List<String> oneCategory = List.of("kitchen");
+  private final List<String> twoCategories = List.of("footwear", "clothing");
+  private final List<String> unknownCategory = List.of("camera");
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    index = AdService.createAdIndex();
+    responses = new EncodedAdResponses(index);
+  }
+
+  @Benchmark
+  public byte[] oneCategory() {
+    return responses.getAds(oneCategory, MAX_ADS_TO_SERVE);
+  }
+
+  @Benchmark
+  public byte[] twoCategories() {
+    return responses.getAds(twoCategories, MAX_ADS_TO_SERVE);
+  }
+
+  @Benchmark
+  public byte[] randomAds() {
+    return responses.getAds(unknownCategory, MAX_ADS_TO_SERVE);
+  }
+
+  @Benchmark
+  public byte[] buildOneCategory() {
+    return build(oneCategory);
+  }
+
+  @Benchmark
+  public byte[] buildTwoCategories() {
+    return build(twoCategories);
+  }
+
+  @Benchmark
+  public byte[] buildRandomAds() {
+    return build(unknownCategory);
+  }
+
+  private byte[] build(List<String> contextKeys) {
+    return AdResponse.newBuilder()
+        .addAllAds(index.getAds(contextKeys, MAX_ADS_TO_SERVE))
+        .build()
+        .toByteArray();
+  }
+}
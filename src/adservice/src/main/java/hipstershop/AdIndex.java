@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import hipstershop.Demo.Ad;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable index of the ads to serve: one list per category, and one flat list of all ads with
+ * an alias table over their weights for random ads. Lookups take no locks, and a request whose
+ * context matches a single category allocates nothing here.
+ */
+final class AdIndex {
+
+  /** Collisions in a row after which a random draw falls back to scanning the remaining ads. */
+  private static final int MAX_REDRAWS = 16;
+
+  private final ImmutableMap<String, ImmutableList<Ad>> byCategory;
+  // Ads that can be random ads, i.e. with a positive weight, and their weights
+  private final ImmutableList<Ad> drawableAds;
+  private final double[] weights;
+  private final AliasTable aliasTable;
+
+  private AdIndex(Map<String, List<Ad>> categories, Map<Ad, Double> weights) {
+    ImmutableMap.Builder<String, ImmutableList<Ad>> byCategory = ImmutableMap.builder();
+    categories.forEach((category, ads) -> byCategory.put(category, ImmutableList.copyOf(ads)));
+    this.byCategory = byCategory.build();
+    ImmutableList.Builder<Ad> drawableAds = ImmutableList.builder();
+    weights.forEach(
+        (ad, weight) -> {
+          if (weight > 0) {
+            drawableAds.add(ad);
+          }
+        });
+    this.drawableAds = drawableAds.build();
+    this.weights = this.drawableAds.stream().mapToDouble(weights::get).toArray();
+    this.aliasTable = this.drawableAds.isEmpty() ? null : new AliasTable(this.weights);
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Ads for the request's context keys, or {@code randomCount} random ads if no key matches a
+   * category.
+   */
+  List<Ad> getAds(List<String> contextKeys, int randomCount) {
+    if (contextKeys.size() == 1) {
+      ImmutableList<Ad> matched = byCategory.get(contextKeys.get(0));
+      if (matched != null && !matched.isEmpty()) {
+        return matched;
+      }
+    } else if (contextKeys.size() > 1) {
+      int total = 0;
+      for (String key : contextKeys) {
+        ImmutableList<Ad> matched = byCategory.get(key);
+        total += matched == null ? 0 : matched.size();
+      }
+      if (total > 0) {
+        List<Ad> all = new ArrayList<>(total);
+        for (String key : contextKeys) {
+          ImmutableList<Ad> matched = byCategory.get(key);
+          if (matched != null) {
+            all.addAll(matched);
+          }
+        }
+        return all;
+      }
+    }
+    return getRandomAds(randomCount);
+  }
+
+  /** Categories that have ads. */
+  ImmutableSet<String> categories() {
+    return byCategory.keySet();
+  }
+
+  /** Ads of one category, empty if there are none. */
+  List<Ad> getAdsByCategory(String category) {
+    return byCategory.getOrDefault(category, ImmutableList.of());
+  }
+
+  /**
+   * Up to {@code count} distinct ads, drawn in proportion to their weights without replacement.
+   */
+  List<Ad> getRandomAds(int count) {
+    return getRandomAds(count, ThreadLocalRandom.current());
+  }
+
+  /** {@link #getRandomAds(int)} with the given source of randomness, for seeded draws. */
+  List<Ad> getRandomAds(int count, RandomGenerator random) {
+    int n = Math.min(count, drawableAds.size());
+    if (n <= 0) {
+      return ImmutableList.of();
+    }
+    if (n == drawableAds.size()) {
+      return shuffled(random);
+    }
+    int[] chosen = new int[n];
+    Ad[] picked = new Ad[n];
+    for (int i = 0; i < n; i++) {
+      int index = aliasTable.next(random);
+      int redraws = 0;
+      while (contains(chosen, i, index)) {
+        index = ++redraws < MAX_REDRAWS ? aliasTable.next(random) : drawExcluding(random, chosen, i);
+      }
+      chosen[i] = index;
+      picked[i] = drawableAds.get(index);
+    }
+    return Arrays.asList(picked);
+  }
+
+  /** Number of ads that can be random ads. */
+  int drawableCount() {
+    return drawableAds.size();
+  }
+
+  /** Ads that can be random ads, in the order they were added. */
+  ImmutableList<Ad> drawableAds() {
+    return drawableAds;
+  }
+
+  /** All drawable ads in a uniformly random order, as a draw of every ad would give. */
+  private List<Ad> shuffled(RandomGenerator random) {
+    Ad[] ads = drawableAds.toArray(new Ad[0]);
+    for (int i = ads.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Ad swapped = ads[i];
+      ads[i] = ads[j];
+      ads[j] = swapped;
+    }
+    return Arrays.asList(ads);
+  }
+
+  /**
+   * Weighted draw among the ads not in {@code chosen[0..count)}, for when heavy ads keep being
+   * drawn again.
+   */
+  private int drawExcluding(RandomGenerator random, int[] chosen, int count) {
+    double remaining = 0;
+    for (int i = 0; i < weights.length; i++) {
+      if (!contains(chosen, count, i)) {
+        remaining += weights[i];
+      }
+    }
+    double target = random.nextDouble() * remaining;
+    int last = -1;
+    for (int i = 0; i < weights.length; i++) {
+      if (!contains(chosen, count, i)) {
+        last = i;
+        target -= weights[i];
+        if (target < 0) {
+          return i;
+        }
+      }
+    }
+    return last;
+  }
+
+  private static boolean contains(int[] values, int count, int value) {
+    for (int i = 0; i < count; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Collects ads by category; an ad may be in several categories. */
+  static final class Builder {
+
+    private final Map<String, List<Ad>> categories = new LinkedHashMap<>();
+    private final Map<Ad, Double> weights = new LinkedHashMap<>();
+
+    private Builder() {}
+
+    Builder add(String category, Ad... ads) {
+      for (Ad ad : ads) {
+        add(category, ad, 1);
+      }
+      return this;
+    }
+
+    /**
+     * Adds {@code ad} to {@code category}; {@code weight} is its relative chance of being a random
+     * ad, and 0 excludes it from random ads. An ad added more than once keeps its last weight.
+     */
+    Builder add(String category, Ad ad, double weight) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException(
+            "Invalid weight " + weight + " for ad " + ad.getRedirectUrl());
+      }
+      categories.computeIfAbsent(category, key -> new ArrayList<>()).add(ad);
+      weights.put(ad, weight);
+      return this;
+    }
+
+    AdIndex build() {
+      return new AdIndex(categories, weights);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import hipstershop.Demo.AdRequest;
+import hipstershop.Demo.AdResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Load driver for the Ad Service: sends getAds calls on async stubs with at most {@code
+ * concurrency} in flight, at {@code rps} requests per second or as fast as responses come back if
+ * {@code rps} is 0. Calls sent during the warm-up are not counted. Latencies go to an HdrHistogram;
+ * with a target rate they are measured from when each call was due rather than when it was sent,
+ * so a server that stalls the schedule is charged for the calls it delayed.
+ */
+final class AdLoadDriver {
+
+  private static final Logger logger = LogManager.getLogger(AdLoadDriver.class);
+
+  /** Options of one run, parsed from {@code --name=value} arguments. */
+  record Options(
+      int concurrency,
+      int rps,
+      int channels,
+      Duration warmup,
+      Duration duration,
+      Duration deadline) {
+
+    static Options parse(List<String> flags) {
+      int concurrency = 16;
+      int rps = 0;
+      int channels = 1;
+      Duration warmup = Duration.ofSeconds(10);
+      Duration duration = Duration.ofSeconds(30);
+      Duration deadline = Duration.ofSeconds(1);
+      for (String flag : flags) {
+        int eq = flag.indexOf('=');
+        String name = eq < 0 ? flag : flag.substring(0, eq);
+        String value = eq < 0 ? "" : flag.substring(eq + 1);
+        switch (name) {
+          case "--load" -> {}
+          case "--concurrency" -> concurrency = Integer.parseInt(value);
+          case "--rps" -> rps = Integer.parseInt(value);
+          case "--channels" -> channels = Integer.parseInt(value);
+          case "--warmup" -> warmup = parseDuration(value);
+          case "--duration" -> duration = parseDuration(value);
+          case "--deadline" -> deadline = parseDuration(value);
+          default -> throw new IllegalArgumentException("Unknown option " + flag);
+        }
+      }
+      if (concurrency < 1 || rps < 0 || channels < 1) {
+        throw new IllegalArgumentException(
+            "--concurrency and --channels must be positive and --rps not negative");
+      }
+      return new Options(concurrency, rps, channels, warmup, duration, deadline);
+    }
+
+    /** {@code 500ms}, {@code 30s} or {@code 2m}; a bare number is seconds. */
+    static Duration parseDuration(String value) {
+      if (value.endsWith("ms")) {
+        return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+      } else if (value.endsWith("s")) {
+        return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+      } else if (value.endsWith("m")) {
+        return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+      }
+      return Duration.ofSeconds(Long.parseLong(value));
+    }
+  }
+
+  private final Options options;
+  private final AdRequest request;
+  private final List<ManagedChannel> channels = new ArrayList<>();
+  private final List<AdServiceGrpc.AdServiceStub> stubs = new ArrayList<>();
+  private final Semaphore inFlight;
+  private final Recorder latencies = new Recorder(3);
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  AdLoadDriver(String host, int port, List<String> contextKeys, Options options) {
+    this.options = options;
+    this.request = AdRequest.newBuilder().addAllContextKeys(contextKeys).build();
+    this.inFlight = new Semaphore(options.concurrency());
+    for (int i = 0; i < options.channels(); i++) {
+      ManagedChannel channel =
+          ManagedChannelBuilder.forAddress(host, port)
+              .usePlaintext()
+              // Callbacks only record a latency, so run them on the transport threads
+              .directExecutor()
+              .build();
+      channels.add(channel);
+      stubs.add(AdServiceGrpc.newStub(channel));
+    }
+  }
+
+  /** Runs the warm-up and then the measured phase, and logs the results. */
+  void run() throws InterruptedException {
+    logger.info(
+        String.format(
+            "Load test: %s, concurrency=%d, rps=%s, channels=%d, warm-up %ds, measuring %ds",
+            request.getContextKeysList(),
+            options.concurrency(),
+            options.rps() == 0 ? "unlimited" : options.rps(),
+            options.channels(),
+            options.warmup().toSeconds(),
+            options.duration().toSeconds()));
+    long intervalNanos = options.rps() == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / options.rps();
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+    long due = start;
+    long sent = 0;
+    boolean measuring = false;
+    for (long now = start; now < end; now = System.nanoTime()) {
+      if (!measuring && now >= measureFrom) {
+        measuring = true;
+        // Calls the warm-up fell behind on are not sent, so its backlog does not skew the results
+        due = Math.max(due, measureFrom);
+      }
+      if (intervalNanos > 0 && due > now) {
+        LockSupport.parkNanos(due - now);
+        continue;
+      }
+      inFlight.acquire();
+      long sendTime = intervalNanos > 0 ? due : System.nanoTime();
+      send(stubs.get((int) (sent++ % stubs.size())), sendTime, sendTime >= measureFrom);
+      due += intervalNanos;
+    }
+    long elapsed = System.nanoTime() - measureFrom;
+    // Wait for the calls still in flight
+    if (!inFlight.tryAcquire(
+        options.concurrency(), options.deadline().toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+      logger.warn("Some calls were still in flight at the end of the run");
+    }
+    report(latencies.getIntervalHistogram(), elapsed);
+  }
+
+  private void send(AdServiceGrpc.AdServiceStub stub, long sendTime, boolean measured) {
+    stub.withDeadlineAfter(options.deadline().toNanos(), TimeUnit.NANOSECONDS)
+        .getAds(
+            request,
+            new StreamObserver<AdResponse>() {
+              @Override
+              public void onNext(AdResponse response) {}
+
+              @Override
+              public void onError(Throwable t) {
+                if (measured) {
+                  failed.incrementAndGet();
+                }
+                inFlight.release();
+              }
+
+              @Override
+              public void onCompleted() {
+                if (measured) {
+                  latencies.recordValue(System.nanoTime() - sendTime);
+                  completed.incrementAndGet();
+                }
+                inFlight.release();
+              }
+            });
+  }
+
+  private void report(Histogram histogram, long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    logger.info(
+        String.format(
+            "Completed %d calls, %d failed, in %.1fs: %.0f calls/s",
+            completed.get(), failed.get(), seconds, completed.get() / seconds));
+    logger.info(
+        String.format(
+            "Latency (us): p50=%.0f p90=%.0f p99=%.0f p999=%.0f max=%.0f mean=%.0f",
+            histogram.getValueAtPercentile(50) / 1e3,
+            histogram.getValueAtPercentile(90) / 1e3,
+            histogram.getValueAtPercentile(99) / 1e3,
+            histogram.getValueAtPercentile(99.9) / 1e3,
+            histogram.getMaxValue() / 1e3,
+            histogram.getMean() / 1e3));
+    if (options.rps() > 0 && completed.get() + failed.get() < 0.95 * options.rps() * seconds) {
+      logger.warn("Fell short of the target rate; raise --concurrency or --channels");
+    }
+  }
+
+  void shutdown() throws InterruptedException {
+    for (ManagedChannel channel : channels) {
+      channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+    }
+  }
+}
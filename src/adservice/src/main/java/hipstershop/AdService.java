@@ -16,23 +16,18 @@
 
 package hipstershop;
 
-import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Iterables;
 import hipstershop.Demo.Ad;
 import hipstershop.Demo.AdRequest;
-import hipstershop.Demo.AdResponse;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.ServerServiceDefinition;
 import io.grpc.StatusRuntimeException;
 import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.netty.NettyServerBuilder;
 import io.grpc.services.*;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -47,16 +42,19 @@ public final class AdService {
 
   private Server server;
   private HealthStatusManager healthMgr;
+  private ServerExecution execution;
 
   private static final AdService service = new AdService();
 
   private void start() throws IOException {
     int port = Integer.parseInt(System.getenv().getOrDefault("PORT", "9555"));
     healthMgr = new HealthStatusManager();
+    execution = ServerExecution.fromEnv();
 
     server =
-        ServerBuilder.forPort(port)
-            .addService(new AdServiceImpl())
+        execution
+            .configure(NettyServerBuilder.forPort(port))
+            .addService(new AdServiceImpl().bindService())
             .addService(healthMgr.getHealthService())
             .build()
             .start();
@@ -78,38 +76,47 @@ public final class AdService {
     if (server != null) {
       healthMgr.clearStatus("");
       server.shutdown();
+      try {
+        server.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      execution.shutdown();
     }
   }
 
-  private static class AdServiceImpl extends hipstershop.AdServiceGrpc.AdServiceImplBase {
+  /**
+   * GetAds bound with a response marshaller that writes encoded bytes, so the cached responses in
+   * {@link EncodedAdResponses} go to the transport as they are. Clients see the usual {@code
+   * AdResponse}.
+   */
+  private static class AdServiceImpl implements ServerCalls.UnaryMethod<AdRequest, byte[]> {
+
+    static final MethodDescriptor<AdRequest, byte[]> GET_ADS_METHOD =
+        AdServiceGrpc.getGetAdsMethod().toBuilder(
+                AdServiceGrpc.getGetAdsMethod().getRequestMarshaller(),
+                EncodedAdResponses.Marshaller.INSTANCE)
+            .build();
+
+    ServerServiceDefinition bindService() {
+      return ServerServiceDefinition.builder(AdServiceGrpc.SERVICE_NAME)
+          .addMethod(GET_ADS_METHOD, ServerCalls.asyncUnaryCall(this))
+          .build();
+    }
 
     /**
      * Retrieves ads based on context provided in the request {@code AdRequest}.
      *
      * @param req the request containing context.
-     * @param responseObserver the stream observer which gets notified with the value of {@code
+     * @param responseObserver the stream observer which gets notified with the encoded {@code
      *     AdResponse}
      */
     @Override
-    public void getAds(AdRequest req, StreamObserver<AdResponse> responseObserver) {
-      AdService service = AdService.getInstance();
+    public void invoke(AdRequest req, StreamObserver<byte[]> responseObserver) {
       try {
-        List<Ad> allAds = new ArrayList<>();
         logger.info("received ad request (context_words=" + req.getContextKeysList() + ")");
-        if (req.getContextKeysCount() > 0) {
-          for (int i = 0; i < req.getContextKeysCount(); i++) {
-            Collection<Ad> ads = service.getAdsByCategory(req.getContextKeys(i));
-            allAds.addAll(ads);
-          }
-        } else {
-          allAds = service.getRandomAds();
-        }
-        if (allAds.isEmpty()) {
-          // Serve random ads.
-          allAds = service.getRandomAds();
-        }
-        AdResponse reply = AdResponse.newBuilder().addAllAds(allAds).build();
-        responseObserver.onNext(reply);
+        // Ads of the context's categories, or random ads if none match
+        responseObserver.onNext(adResponses.getAds(req.getContextKeysList(), MAX_ADS_TO_SERVE));
         responseObserver.onCompleted();
       } catch (StatusRuntimeException e) {
         logger.log(Level.WARN, "GetAds Failed with status {}", e.getStatus());
@@ -118,22 +125,8 @@ public final class AdService {
     }
   }
 
-  private static final ImmutableListMultimap<String, Ad> adsMap = createAdsMap();
-
-  private Collection<Ad> getAdsByCategory(String category) {
-    return adsMap.get(category);
-  }
-
-  private static final Random random = new Random();
-
-  private List<Ad> getRandomAds() {
-    List<Ad> ads = new ArrayList<>(MAX_ADS_TO_SERVE);
-    Collection<Ad> allAds = adsMap.values();
-    for (int i = 0; i < MAX_ADS_TO_SERVE; i++) {
-      ads.add(Iterables.get(allAds, random.nextInt(allAds.size())));
-    }
-    return ads;
-  }
+  private static final EncodedAdResponses adResponses =
+      new EncodedAdResponses(createAdIndex());
 
   private static AdService getInstance() {
     return service;
@@ -146,7 +139,7 @@ public final class AdService {
     }
   }
 
-  private static ImmutableListMultimap<String, Ad> createAdsMap() {
+  static AdIndex createAdIndex() {
     Ad hairdryer =
         Ad.newBuilder()
             .setRedirectUrl("/product/2ZYFJ3GM2N")
@@ -182,13 +175,13 @@ public final class AdService {
             .setRedirectUrl("/product/L9ECAV7KIM")
             .setText("Loafers for sale. Buy one, get second one for free")
             .build();
-    return ImmutableListMultimap.<String, Ad>builder()
-        .putAll("clothing", tankTop)
-        .putAll("accessories", watch)
-        .putAll("footwear", loafers)
-        .putAll("hair", hairdryer)
-        .putAll("decor", candleHolder)
-        .putAll("kitchen", bambooGlassJar, mug)
+    return AdIndex.builder()
+        .add("clothing", tankTop)
+        .add("accessories", watch)
+        .add("footwear", loafers)
+        .add("hair", hairdryer)
+        .add("decor", candleHolder)
+        .add("kitchen", bambooGlassJar, mug)
         .build();
   }
 
@@ -22,6 +22,8 @@ import hipstershop.Demo.AdResponse;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.apache.logging.log4j.Level;
@@ -96,14 +98,37 @@ public class AdServiceClient {
 
   /**
    * Ads Service Client main. If provided, the first element of {@code args} is the context key to
-   * get the ads from the Ads Service
+   * get the ads from the Ads Service, the second the host and the third the port.
+   *
+   * <p>With {@code --load}, it runs a load test instead of a single call, and the context key may
+   * be a comma-separated list. Options: {@code --concurrency=16} calls in flight, {@code --rps=0}
+   * target calls per second (0 for as fast as possible), {@code --channels=1}, {@code
+   * --warmup=10s}, {@code --duration=30s} and {@code --deadline=1s} per call.
    */
   public static void main(String[] args) throws InterruptedException {
+    List<String> flags = new ArrayList<>();
+    List<String> positional = new ArrayList<>();
+    for (String arg : args) {
+      (arg.startsWith("--") ? flags : positional).add(arg);
+    }
+    args = positional.toArray(new String[0]);
     // Add final keyword to pass checkStyle.
     final String contextKeys = getStringOrDefaultFromArgs(args, 0, "camera");
     final String host = getStringOrDefaultFromArgs(args, 1, "localhost");
     final int serverPort = getPortOrDefaultFromArgs(args);
 
+    if (!flags.isEmpty()) {
+      AdLoadDriver driver =
+          new AdLoadDriver(
+              host, serverPort, List.of(contextKeys.split(",")), AdLoadDriver.Options.parse(flags));
+      try {
+        driver.run();
+      } finally {
+        driver.shutdown();
+      }
+      return;
+    }
+
     AdServiceClient client = new AdServiceClient(host, serverPort);
     try {
       client.getAds(contextKeys);
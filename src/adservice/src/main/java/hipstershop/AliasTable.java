@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker's alias table (Vose's construction) for drawing indexes {@code 0..n-1} in proportion to
+ * their weights in O(1) per draw: pick a column uniformly, then either keep it or take its alias.
+ */
+final class AliasTable {
+
+  private final double[] probability;
+  private final int[] alias;
+
+  /** @param weights non-negative weights, at least one of them positive */
+  AliasTable(double[] weights) {
+    int n = weights.length;
+    double total = 0;
+    for (double weight : weights) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Weights must be finite and non-negative");
+      }
+      total += weight;
+    }
+    if (n == 0 || total <= 0) {
+      throw new IllegalArgumentException("At least one weight must be positive");
+    }
+    probability = new double[n];
+    alias = new int[n];
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n / total;
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      probability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // Whatever is left is 1 up to rounding error
+    while (largeCount > 0) {
+      probability[large[--largeCount]] = 1;
+    }
+    while (smallCount > 0) {
+      probability[small[--smallCount]] = 1;
+    }
+  }
+
+  int size() {
+    return probability.length;
+  }
+
+  /** Draws one index. */
+  int next(RandomGenerator random) {
+    int column = random.nextInt(probability.length);
+    return random.nextDouble() < probability[column] ? column : alias[column];
+  }
+}
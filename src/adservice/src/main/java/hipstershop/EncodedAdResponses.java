@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import com.google.common.collect.ImmutableMap;
+import hipstershop.Demo.Ad;
+import hipstershop.Demo.AdResponse;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized {@code AdResponse}s of one {@link AdIndex}, byte for byte what {@link
+ * AdIndex#getAds} would build. A request's context keys are reduced to the keys that are
+ * categories, in request order, and the response for each such key list is encoded once: single
+ * categories when this is built, combinations on first use. Random ads
+ * cannot be cached, so each ad is encoded once and a random response concatenates them, which is
+ * valid protobuf for a repeated field.
+ *
+ * <p>Instances belong to one index, so replacing the index with a new snapshot also drops every
+ * response encoded from the old one.
+ */
+final class EncodedAdResponses {
+
+  /** Multi-category key lists kept at most, so arbitrary context keys cannot grow the cache. */
+  private static final int MAX_CACHED_KEY_SETS = 1024;
+
+  private final AdIndex index;
+  private final ImmutableMap<String, byte[]> byCategory;
+  private final ImmutableMap<Ad, byte[]> byAd;
+  private final Map<List<String>, byte[]> byKeySet = new ConcurrentHashMap<>();
+
+  EncodedAdResponses(AdIndex index) {
+    this.index = index;
+    ImmutableMap.Builder<String, byte[]> byCategory = ImmutableMap.builder();
+    for (String category : index.categories()) {
+      byCategory.put(category, encode(index.getAdsByCategory(category)));
+    }
+    this.byCategory = byCategory.build();
+    ImmutableMap.Builder<Ad, byte[]> byAd = ImmutableMap.builder();
+    for (Ad ad : index.drawableAds()) {
+      byAd.put(ad, encode(List.of(ad)));
+    }
+    this.byAd = byAd.build();
+  }
+
+  /** The index these responses were encoded from. */
+  AdIndex index() {
+    return index;
+  }
+
+  /**
+   * Encoded response for the request's context keys: the ads of the matching categories in
+   * request order, or {@code randomCount} random ads if none match.
+   */
+  byte[] getAds(List<String> contextKeys, int randomCount) {
+    if (contextKeys.size() == 1) {
+      byte[] encoded = byCategory.get(contextKeys.get(0));
+      if (encoded != null) {
+        return encoded;
+      }
+    } else if (contextKeys.size() > 1) {
+      List<String> keySet = categoriesOf(contextKeys);
+      if (keySet.size() == 1) {
+        return byCategory.get(keySet.get(0));
+      }
+      if (!keySet.isEmpty()) {
+        byte[] encoded = byKeySet.get(keySet);
+        if (encoded == null) {
+          encoded = encodeCategories(keySet);
+          if (byKeySet.size() < MAX_CACHED_KEY_SETS) {
+            byKeySet.putIfAbsent(keySet, encoded);
+          }
+        }
+        return encoded;
+      }
+    }
+    return encodeRandom(randomCount);
+  }
+
+  /**
+   * Context keys that are categories, in order; a repeated key repeats its ads, as it does in
+   * {@link AdIndex#getAds}.
+   */
+  private List<String> categoriesOf(List<String> contextKeys) {
+    List<String> keySet = new ArrayList<>(contextKeys.size());
+    for (String key : contextKeys) {
+      if (byCategory.containsKey(key)) {
+        keySet.add(key);
+      }
+    }
+    return keySet;
+  }
+
+  private byte[] encodeCategories(List<String> keySet) {
+    List<Ad> ads = new ArrayList<>();
+    for (String category : keySet) {
+      ads.addAll(index.getAdsByCategory(category));
+    }
+    return encode(ads);
+  }
+
+  private byte[] encodeRandom(int count) {
+    List<Ad> ads = index.getRandomAds(count);
+    if (ads.size() == 1) {
+      return byAd.get(ads.get(0));
+    }
+    int length = 0;
+    for (Ad ad : ads) {
+      length += byAd.get(ad).length;
+    }
+    byte[] encoded = new byte[length];
+    int offset = 0;
+    for (Ad ad : ads) {
+      byte[] field = byAd.get(ad);
+      System.arraycopy(field, 0, encoded, offset, field.length);
+      offset += field.length;
+    }
+    return encoded;
+  }
+
+  private static byte[] encode(List<Ad> ads) {
+    return AdResponse.newBuilder().addAllAds(ads).build().toByteArray();
+  }
+
+  /**
+   * Response marshaller for already encoded {@code AdResponse}s, so a pre-marshalled method can
+   * write cached bytes without parsing or re-serializing them.
+   */
+  static final class Marshaller implements MethodDescriptor.Marshaller<byte[]> {
+
+    static final Marshaller INSTANCE = new Marshaller();
+
+    private Marshaller() {}
+
+    @Override
+    public InputStream stream(byte[] value) {
+      return new EncodedStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+      try {
+        return stream.readAllBytes();
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Failed to read AdResponse", e);
+      }
+    }
+  }
+
+  /** Lets the transport size the frame up front and copy the bytes in one write. */
+  private static final class EncodedStream extends ByteArrayInputStream
+      implements KnownLength, Drainable {
+
+    EncodedStream(byte[] encoded) {
+      super(encoded);
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      int length = count - pos;
+      target.write(buf, pos, length);
+      pos = count;
+      return length;
+    }
+  }
+}
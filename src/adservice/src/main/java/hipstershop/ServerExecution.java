@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * How the gRPC server runs calls and talks to the network, from environment variables. Unset
+ * variables keep the gRPC defaults.
+ *
+ * <ul>
+ *   <li>{@code GRPC_EXECUTOR}: {@code default} (gRPC's cached thread pool), {@code direct}
+ *       (handlers run on the Netty event loop; GetAds and health checks make no network or disk
+ *       calls, but GetAds writes its request log line synchronously, so a slow log sink stalls
+ *       the event loop), {@code fixed} ({@code GRPC_EXECUTOR_THREADS} threads, default the
+ *       number of CPUs) or {@code virtual} (a virtual thread per call, Java 21 and later).
+ *   <li>{@code GRPC_TRANSPORT}: {@code nio}, {@code epoll} (fails at startup if the native
+ *       library does not load, as on musl-based images) or {@code auto} (epoll where it loads,
+ *       else NIO).
+ *   <li>{@code GRPC_FLOW_CONTROL_WINDOW}: fixed HTTP/2 window in bytes per stream and connection,
+ *       instead of the window tuned from the measured bandwidth-delay product.
+ *   <li>{@code GRPC_MAX_CONCURRENT_CALLS_PER_CONNECTION}: streams a client may have open at once on
+ *       one connection.
+ *   <li>{@code GRPC_KEEPALIVE_TIME_SECONDS} and {@code GRPC_KEEPALIVE_TIMEOUT_SECONDS}: pings the
+ *       server sends on idle connections. {@code GRPC_PERMIT_KEEPALIVE_TIME_SECONDS} and {@code
+ *       GRPC_PERMIT_KEEPALIVE_WITHOUT_CALLS}: how often clients may ping before being disconnected.
+ * </ul>
+ */
+final class ServerExecution {
+
+  private static final Logger logger = LogManager.getLogger(ServerExecution.class);
+
+  enum ExecutorMode {
+    DEFAULT,
+    DIRECT,
+    FIXED,
+    VIRTUAL
+  }
+
+  enum Transport {
+    AUTO,
+    EPOLL,
+    NIO
+  }
+
+  private final Map<String, String> env;
+  private final ExecutorMode executorMode;
+  private final Transport transport;
+  private ExecutorService executor;
+  private EventLoopGroup bossGroup;
+  private EventLoopGroup workerGroup;
+
+  ServerExecution(Map<String, String> env) {
+    this.env = env;
+    this.executorMode = parseEnum(ExecutorMode.class, "GRPC_EXECUTOR", ExecutorMode.DEFAULT);
+    this.transport = parseEnum(Transport.class, "GRPC_TRANSPORT", Transport.NIO);
+  }
+
+  static ServerExecution fromEnv() {
+    return new ServerExecution(System.getenv());
+  }
+
+  /** Applies the settings to {@code builder}; call {@link #shutdown} after the server stops. */
+  NettyServerBuilder configure(NettyServerBuilder builder) {
+    switch (executorMode) {
+      case DIRECT -> builder.directExecutor();
+      case FIXED -> {
+        executor = Executors.newFixedThreadPool(executorThreads());
+        builder.executor(executor);
+      }
+      case VIRTUAL -> {
+        executor = newVirtualThreadPerTaskExecutor();
+        builder.executor(executor);
+      }
+      case DEFAULT -> {}
+    }
+
+    boolean epoll = useEpoll(Epoll.isAvailable());
+    if (epoll) {
+      bossGroup = new EpollEventLoopGroup(1);
+      workerGroup = new EpollEventLoopGroup();
+      builder
+          .channelType(EpollServerSocketChannel.class)
+          .bossEventLoopGroup(bossGroup)
+          .workerEventLoopGroup(workerGroup);
+    }
+
+    Integer window = intOrNull("GRPC_FLOW_CONTROL_WINDOW");
+    if (window != null) {
+      builder.flowControlWindow(window);
+    }
+    Integer maxCalls = intOrNull("GRPC_MAX_CONCURRENT_CALLS_PER_CONNECTION");
+    if (maxCalls != null) {
+      builder.maxConcurrentCallsPerConnection(maxCalls);
+    }
+    Integer keepAliveTime = intOrNull("GRPC_KEEPALIVE_TIME_SECONDS");
+    if (keepAliveTime != null) {
+      builder.keepAliveTime(keepAliveTime, TimeUnit.SECONDS);
+    }
+    Integer keepAliveTimeout = intOrNull("GRPC_KEEPALIVE_TIMEOUT_SECONDS");
+    if (keepAliveTimeout != null) {
+      builder.keepAliveTimeout(keepAliveTimeout, TimeUnit.SECONDS);
+    }
+    Integer permitKeepAliveTime = intOrNull("GRPC_PERMIT_KEEPALIVE_TIME_SECONDS");
+    if (permitKeepAliveTime != null) {
+      builder.permitKeepAliveTime(permitKeepAliveTime, TimeUnit.SECONDS);
+    }
+    Boolean permitWithoutCalls = booleanOrNull("GRPC_PERMIT_KEEPALIVE_WITHOUT_CALLS");
+    if (permitWithoutCalls != null) {
+      builder.permitKeepAliveWithoutCalls(permitWithoutCalls);
+    }
+
+    logger.info(
+        "gRPC server execution: executor="
+            + executorMode.name().toLowerCase(Locale.ROOT)
+            + ", transport="
+            + (epoll ? "epoll" : "nio")
+            + (window != null ? ", flowControlWindow=" + window : "")
+            + (maxCalls != null ? ", maxConcurrentCallsPerConnection=" + maxCalls : ""));
+    return builder;
+  }
+
+  ExecutorMode executorMode() {
+    return executorMode;
+  }
+
+  Transport transport() {
+    return transport;
+  }
+
+  /** Threads of the {@code fixed} executor. */
+  int executorThreads() {
+    return intOrDefault("GRPC_EXECUTOR_THREADS", Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Whether the server uses the epoll transport, given whether the native library loaded.
+   *
+   * @throws IllegalStateException if epoll is required but unavailable
+   */
+  boolean useEpoll(boolean epollAvailable) {
+    if (transport == Transport.EPOLL && !epollAvailable) {
+      throw new IllegalStateException(
+          "GRPC_TRANSPORT=epoll but epoll is unavailable", Epoll.unavailabilityCause());
+    }
+    return transport == Transport.EPOLL || (transport == Transport.AUTO && epollAvailable);
+  }
+
+  /** Releases the executor and event loops created for the server. */
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+    if (workerGroup != null) {
+      workerGroup.shutdownGracefully();
+    }
+    if (bossGroup != null) {
+      bossGroup.shutdownGracefully();
+    }
+  }
+
+  /**
+   * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up at run time because the build
+   * targets Java 19, where virtual threads are a preview feature.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("GRPC_EXECUTOR=virtual needs Java 21 or later", e);
+    }
+  }
+
+  private <E extends Enum<E>> E parseEnum(Class<E> type, String name, E defaultValue) {
+    String value = env.get(name);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+    }
+  }
+
+  private Integer intOrNull(String name) {
+    String value = env.get(name);
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+    }
+  }
+
+  private Boolean booleanOrNull(String name) {
+    String value = env.get(name);
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    if (value.equalsIgnoreCase("true")) {
+      return true;
+    } else if (value.equalsIgnoreCase("false")) {
+      return false;
+    }
+    throw new IllegalArgumentException("Invalid " + name + ": " + value);
+  }
+
+  private int intOrDefault(String name, int defaultValue) {
+    Integer value = intOrNull(name);
+    return value == null ? defaultValue : value;
+  }
+}
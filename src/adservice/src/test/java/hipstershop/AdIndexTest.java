@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hipstershop.Demo.Ad;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AdIndexTest {
+
+  private static final Ad CAMERA = ad("/product/2ZYFJ3GM2N", "Film camera for sale. 50% off.");
+  private static final Ad LENS =
+      ad("/product/9SIQT8TOJO", "Vintage camera lens for sale. 20% off.");
+  private static final Ad MUG =
+      ad("/product/6E92ZMYYFZ", "Mug for sale. Buy two, get the third one for free");
+  private static final Ad TANK_TOP = ad("/product/66VCHSJNUP", "Tank top for sale. 20% off.");
+  private static final Ad WATCH = ad("/product/1YMWWN1N4O", "This watch is on sale. 30% off.");
+
+  // Chi-square critical value for 2 degrees of freedom at p = 0.001
+  private static final double CHI_SQUARE_2_DF = 13.82;
+
+  private static Ad ad(String redirectUrl, String text) {
+    return Ad.newBuilder().setRedirectUrl(redirectUrl).setText(text).build();
+  }
+
+  /** Camera, lens and mug are drawable with weights 1, 2 and 3; tank top and watch are not. */
+  private static AdIndex weightedIndex() {
+    return AdIndex.builder()
+        .add("photography", CAMERA, 1)
+        .add("photography", LENS, 2)
+        .add("kitchen", MUG, 3)
+        .add("clothing", TANK_TOP, 0)
+        .add("accessories", WATCH, 0)
+        .build();
+  }
+
+  @Test
+  void singleContextKeyReturnsItsCategory() {
+    AdIndex index = weightedIndex();
+
+    assertEquals(List.of(CAMERA, LENS), index.getAds(List.of("photography"), 2));
+  }
+
+  @Test
+  void severalContextKeysReturnEveryMatchingCategory() {
+    AdIndex index = weightedIndex();
+
+    assertEquals(
+        List.of(MUG, CAMERA, LENS), index.getAds(List.of("kitchen", "unknown", "photography"), 2));
+  }
+
+  @Test
+  void unmatchedContextKeysReturnRandomAds() {
+    AdIndex index = weightedIndex();
+
+    List<Ad> ads = index.getAds(List.of("unknown"), 2);
+
+    assertEquals(2, ads.size());
+    assertTrue(List.of(CAMERA, LENS, MUG).containsAll(ads));
+  }
+
+  @Test
+  void zeroWeightAdsAreNeverRandomAds() {
+    AdIndex index = weightedIndex();
+    SplittableRandom random = new SplittableRandom(42);
+
+    for (int i = 0; i < 10_000; i++) {
+      List<Ad> ads = index.getRandomAds(2, random);
+      assertFalse(ads.contains(TANK_TOP), "drew a zero-weight ad");
+      assertFalse(ads.contains(WATCH), "drew a zero-weight ad");
+    }
+    assertEquals(3, index.drawableCount());
+  }
+
+  @Test
+  void randomAdsHaveNoDuplicates() {
+    // One ad far heavier than the rest, so redraws fall back to scanning the remaining ads
+    AdIndex.Builder builder = AdIndex.builder().add("featured", CAMERA, 10_000);
+    for (int i = 0; i < 9; i++) {
+      builder.add("catalog", ad("/product/P" + i, "Ad " + i), 1);
+    }
+    AdIndex index = builder.build();
+    SplittableRandom random = new SplittableRandom(42);
+
+    for (int i = 0; i < 10_000; i++) {
+      List<Ad> ads = index.getRandomAds(5, random);
+      Set<Ad> distinct = new HashSet<>(ads);
+      assertEquals(5, ads.size());
+      assertEquals(5, distinct.size(), "duplicate in " + ads);
+      assertTrue(ads.contains(CAMERA));
+    }
+  }
+
+  @Test
+  void countOfAtLeastTheDrawableAdsReturnsThemAll() {
+    AdIndex index = weightedIndex();
+    Set<Ad> drawable = Set.of(CAMERA, LENS, MUG);
+
+    assertEquals(3, index.getRandomAds(3, new SplittableRandom(1)).size());
+    assertEquals(drawable, new HashSet<>(index.getRandomAds(3, new SplittableRandom(1))));
+    assertEquals(3, index.getRandomAds(10, new SplittableRandom(1)).size());
+    assertEquals(drawable, new HashSet<>(index.getRandomAds(10, new SplittableRandom(1))));
+  }
+
+  @Test
+  void allDrawableAdsComeInRandomOrder() {
+    AdIndex index = weightedIndex();
+    SplittableRandom random = new SplittableRandom(42);
+    Set<List<Ad>> orders = new HashSet<>();
+
+    for (int i = 0; i < 1_000; i++) {
+      orders.add(index.getRandomAds(3, random));
+    }
+
+    // Every permutation of the three ads shows up, not just the order they were added in
+    assertEquals(6, orders.size());
+    assertEquals(List.of(CAMERA, LENS, MUG), index.drawableAds());
+  }
+
+  @Test
+  void nonPositiveCountReturnsNoAds() {
+    AdIndex index = weightedIndex();
+
+    assertTrue(index.getRandomAds(0).isEmpty());
+    assertTrue(index.getRandomAds(-1).isEmpty());
+  }
+
+  @Test
+  void indexWithoutDrawableAdsReturnsNoRandomAds() {
+    AdIndex index = AdIndex.builder().add("clothing", TANK_TOP, 0).build();
+
+    assertTrue(index.getAds(List.of("unknown"), 2).isEmpty());
+  }
+
+  @Test
+  void singleRandomAdFollowsWeights() {
+    AdIndex index = weightedIndex();
+    SplittableRandom random = new SplittableRandom(42);
+    List<Ad> drawable = List.of(CAMERA, LENS, MUG);
+    int[] counts = new int[drawable.size()];
+
+    for (int i = 0; i < 60_000; i++) {
+      counts[drawable.indexOf(index.getRandomAds(1, random).get(0))]++;
+    }
+
+    double chiSquare = AliasTableTest.chiSquare(counts, new double[] {1, 2, 3});
+    assertTrue(chiSquare < CHI_SQUARE_2_DF, "chi-square " + chiSquare);
+  }
+
+  @Test
+  void rejectsInvalidWeights() {
+    assertThrows(IllegalArgumentException.class, () -> AdIndex.builder().add("kitchen", MUG, -1));
+    assertThrows(
+        IllegalArgumentException.class, () -> AdIndex.builder().add("kitchen", MUG, Double.NaN));
+  }
+}
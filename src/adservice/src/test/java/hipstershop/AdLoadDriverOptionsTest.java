@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import hipstershop.AdLoadDriver.Options;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AdLoadDriverOptionsTest {
+
+  @Test
+  void defaults() {
+    Options options = Options.parse(List.of("--load"));
+
+    assertEquals(
+        new Options(
+            16, 0, 1, Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(1)),
+        options);
+  }
+
+  @Test
+  void parsesEveryOption() {
+    Options options =
+        Options.parse(
+            List.of(
+                "--load",
+                "--concurrency=64",
+                "--rps=5000",
+                "--channels=4",
+                "--warmup=5s",
+                "--duration=2m",
+                "--deadline=250ms"));
+
+    assertEquals(
+        new Options(
+            64, 5000, 4, Duration.ofSeconds(5), Duration.ofMinutes(2), Duration.ofMillis(250)),
+        options);
+  }
+
+  @Test
+  void rejectsUnknownOptions() {
+    IllegalArgumentException error =
+        assertThrows(
+            IllegalArgumentException.class, () -> Options.parse(List.of("--load", "--threads=4")));
+
+    assertEquals("Unknown option --threads=4", error.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("load")));
+  }
+
+  @Test
+  void rejectsOutOfRangeCounts() {
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--concurrency=0")));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--channels=0")));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--rps=-1")));
+  }
+
+  @Test
+  void rejectsMalformedNumbers() {
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--rps=fast")));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--concurrency")));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse(List.of("--warmup=")));
+  }
+
+  @Test
+  void parsesDurationUnits() {
+    assertEquals(Duration.ofMillis(500), Options.parseDuration("500ms"));
+    assertEquals(Duration.ofSeconds(30), Options.parseDuration("30s"));
+    assertEquals(Duration.ofMinutes(2), Options.parseDuration("2m"));
+    assertEquals(Duration.ZERO, Options.parseDuration("0s"));
+  }
+
+  @Test
+  void bareNumberIsSeconds() {
+    assertEquals(Duration.ofSeconds(45), Options.parseDuration("45"));
+  }
+
+  @Test
+  void rejectsMalformedDurations() {
+    assertThrows(IllegalArgumentException.class, () -> Options.parseDuration("1h"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parseDuration("ms"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parseDuration("1.5s"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parseDuration(""));
+  }
+}
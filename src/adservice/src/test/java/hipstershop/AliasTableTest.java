@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AliasTableTest {
+
+  private static final int DRAWS = 100_000;
+
+  // Chi-square critical value for 3 degrees of freedom at p = 0.001
+  private static final double CHI_SQUARE_3_DF = 16.27;
+
+  @Test
+  void drawsFollowWeights() {
+    double[] weights = {1, 2, 3, 4};
+    int[] counts = draw(new AliasTable(weights), new SplittableRandom(42));
+
+    double chiSquare = chiSquare(counts, weights);
+    assertTrue(chiSquare < CHI_SQUARE_3_DF, "chi-square " + chiSquare);
+  }
+
+  @Test
+  void zeroWeightsAreNeverDrawn() {
+    int[] counts = draw(new AliasTable(new double[] {0, 1, 0, 3, 0}), new SplittableRandom(7));
+
+    assertEquals(0, counts[0]);
+    assertEquals(0, counts[2]);
+    assertEquals(0, counts[4]);
+    assertEquals(DRAWS, counts[1] + counts[3]);
+  }
+
+  @Test
+  void singlePositiveWeightIsAlwaysDrawn() {
+    int[] counts = draw(new AliasTable(new double[] {0, 0, 5}), new SplittableRandom(1));
+
+    assertEquals(DRAWS, counts[2]);
+  }
+
+  @Test
+  void rejectsInvalidWeights() {
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+  /** Pearson's statistic of {@code counts} against the distribution {@code weights} gives. */
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AliasTable(new double[] {1, Double.POSITIVE_INFINITY}));
+  }
+
+  private static int[] draw(AliasTable table, SplittableRandom random) {
+    int[] counts = new int[table.size()];
+    for (int i = 0; i < DRAWS; i++) {
+      counts[table.next(random)]++;
+    }
+    return counts;
+  }
+
+  /** Pearson's statistic of {@code counts} against the distribution given by {@code weights}. */
+  static double chiSquare(int[] counts, double[] weights) {
+    double total = 0;
+    long draws = 0;
+    for (int i = 0; i < weights.length; i++) {
+      total += weights[i];
+      draws += counts[i];
+    }
+    double chiSquare = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double expected = draws * weights[i] / total;
+      chiSquare += (counts[i] - expected) * (counts[i] - expected) / expected;
+    }
+    return chiSquare;
+  }
+}
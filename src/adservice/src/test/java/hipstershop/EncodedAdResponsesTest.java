@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import hipstershop.Demo.Ad;
+import hipstershop.Demo.AdResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EncodedAdResponsesTest {
+
+  private static final int MAX_ADS = 2;
+
+  private static Ad ad(String category, int i) {
+    return Ad.newBuilder()
+        .setRedirectUrl("/product/" + category + "-" + i)
+        .setText(category + " ad " + i)
+        .build();
+  }
+
+  /** {@code categories} categories of two ads each, and one ad that is in every category. */
+  private static AdIndex index(int categories) {
+    Ad shared = ad("shared", 0);
+    AdIndex.Builder builder = AdIndex.builder();
+    for (int c = 0; c < categories; c++) {
+      String category = "category-" + c;
+      builder.add(category, ad(category, 0), 1).add(category, ad(category, 1), 2);
+      builder.add(category, shared, 3);
+    }
+    return builder.build();
+  }
+
+  /** The response the generated stub would send for the same request. */
+  private static AdResponse expected(AdIndex index, List<String> contextKeys) {
+    return AdResponse.newBuilder().addAllAds(index.getAds(contextKeys, MAX_ADS)).build();
+  }
+
+  private static void assertParity(AdIndex index, EncodedAdResponses responses, List<String> keys)
+      throws InvalidProtocolBufferException {
+    byte[] encoded = responses.getAds(keys, MAX_ADS);
+    AdResponse expected = expected(index, keys);
+    assertEquals(expected, AdResponse.parseFrom(encoded), "context keys " + keys);
+    assertArrayEquals(expected.toByteArray(), encoded, "context keys " + keys);
+  }
+
+  @Test
+  void singleCategoryMatchesStub() throws InvalidProtocolBufferException {
+    AdIndex index = index(3);
+    EncodedAdResponses responses = new EncodedAdResponses(index);
+
+    for (String category : index.categories()) {
+      assertParity(index, responses, List.of(category));
+    }
+  }
+
+  @Test
+  void severalContextKeysMatchStub() throws InvalidProtocolBufferException {
+    AdIndex index = index(3);
+    EncodedAdResponses responses = new EncodedAdResponses(index);
+
+    assertParity(index, responses, List.of("category-0", "category-2"));
+    // Request order, not category order
+    assertParity(index, responses, List.of("category-2", "category-0"));
+    // Repeated keys repeat their ads
+    assertParity(index, responses, List.of("category-1", "category-1"));
+    // Keys that are not categories are skipped
+    assertParity(index, responses, List.of("unknown", "category-1"));
+    assertParity(index, responses, List.of("category-1", "unknown", "category-0"));
+  }
+
+  @Test
+  void cachedKeyListsMatchStub() throws InvalidProtocolBufferException {
+    // 40 categories make 1560 ordered pairs, more than the cache keeps
+    AdIndex index = index(40);
+    EncodedAdResponses responses = new EncodedAdResponses(index);
+    List<List<String>> keyLists = new ArrayList<>();
+    for (String first : index.categories()) {
+      for (String second : index.categories()) {
+        if (!first.equals(second)) {
+          keyLists.add(List.of(first, second));
+        }
+      }
+    }
+
+    // First use encodes and caches, the second is served from the cache or, past its bound,
+    // encoded again
+    for (int round = 0; round < 2; round++) {
+      for (List<String> keys : keyLists) {
+        assertParity(index, responses, keys);
+      }
+    }
+  }
+
+  @Test
+  void randomAdsAreValidResponses() throws InvalidProtocolBufferException {
+    AdIndex index = index(3);
+    EncodedAdResponses responses = new EncodedAdResponses(index);
+
+    for (List<String> keys : List.of(List.<String>of(), List.of("unknown"), List.of("a", "b"))) {
+      for (int i = 0; i < 1_000; i++) {
+        byte[] encoded = responses.getAds(keys, MAX_ADS);
+        AdResponse response = AdResponse.parseFrom(encoded);
+        // Concatenated ads are exactly what the builder would serialize for the same ads
+        assertArrayEquals(
+            AdResponse.newBuilder().addAllAds(response.getAdsList()).build().toByteArray(),
+            encoded);
+        assertEquals(MAX_ADS, response.getAdsCount());
+        assertEquals(MAX_ADS, new HashSet<>(response.getAdsList()).size());
+        assertTrue(index.drawableAds().containsAll(response.getAdsList()));
+      }
+    }
+  }
+
+  @Test
+  void marshallerStreamsEncodedBytes() throws IOException {
+    AdIndex index = index(1);
+    byte[] encoded = new EncodedAdResponses(index).getAds(List.of("category-0"), MAX_ADS);
+
+    try (InputStream stream = EncodedAdResponses.Marshaller.INSTANCE.stream(encoded)) {
+      assertEquals(expected(index, List.of("category-0")), AdResponse.parseFrom(stream));
+    }
+  }
+}
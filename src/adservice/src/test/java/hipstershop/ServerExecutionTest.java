@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018, Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package hipstershop;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hipstershop.ServerExecution.ExecutorMode;
+import hipstershop.ServerExecution.Transport;
+import io.grpc.netty.NettyServerBuilder;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ServerExecutionTest {
+
+  @Test
+  void unsetVariablesKeepGrpcDefaults() {
+    ServerExecution execution = new ServerExecution(Map.of());
+
+    assertEquals(ExecutorMode.DEFAULT, execution.executorMode());
+    assertEquals(Transport.NIO, execution.transport());
+  }
+
+  @Test
+  void emptyVariablesKeepGrpcDefaults() {
+    ServerExecution execution =
+        new ServerExecution(Map.of("GRPC_EXECUTOR", "", "GRPC_TRANSPORT", ""));
+
+    assertEquals(ExecutorMode.DEFAULT, execution.executorMode());
+    assertEquals(Transport.NIO, execution.transport());
+  }
+
+  @Test
+  void parsesModesIgnoringCase() {
+    assertEquals(
+        ExecutorMode.DIRECT,
+        new ServerExecution(Map.of("GRPC_EXECUTOR", "direct")).executorMode());
+    assertEquals(
+        ExecutorMode.FIXED, new ServerExecution(Map.of("GRPC_EXECUTOR", "Fixed")).executorMode());
+    assertEquals(
+        ExecutorMode.VIRTUAL,
+        new ServerExecution(Map.of("GRPC_EXECUTOR", "VIRTUAL")).executorMode());
+    assertEquals(
+        Transport.EPOLL, new ServerExecution(Map.of("GRPC_TRANSPORT", "epoll")).transport());
+    assertEquals(Transport.AUTO, new ServerExecution(Map.of("GRPC_TRANSPORT", "Auto")).transport());
+  }
+
+  @Test
+  void rejectsInvalidModes() {
+    IllegalArgumentException error =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ServerExecution(Map.of("GRPC_EXECUTOR", "pooled")));
+
+    assertEquals("Invalid GRPC_EXECUTOR: pooled", error.getMessage());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ServerExecution(Map.of("GRPC_TRANSPORT", "io_uring")));
+  }
+
+  @Test
+  void fixedExecutorDefaultsToOneThreadPerCpu() {
+    ServerExecution execution = new ServerExecution(Map.of("GRPC_EXECUTOR", "fixed"));
+
+    assertEquals(Runtime.getRuntime().availableProcessors(), execution.executorThreads());
+  }
+
+  @Test
+  void fixedExecutorThreadsCanBeSet() {
+    ServerExecution execution =
+        new ServerExecution(Map.of("GRPC_EXECUTOR", "fixed", "GRPC_EXECUTOR_THREADS", "3"));
+
+    assertEquals(3, execution.executorThreads());
+  }
+
+  @Test
+  void autoTransportFallsBackToNio() {
+    ServerExecution execution = new ServerExecution(Map.of("GRPC_TRANSPORT", "auto"));
+
+    assertFalse(execution.useEpoll(false));
+    assertTrue(execution.useEpoll(true));
+  }
+
+  @Test
+  void nioTransportNeverUsesEpoll() {
+    ServerExecution execution = new ServerExecution(Map.of("GRPC_TRANSPORT", "nio"));
+
+    assertFalse(execution.useEpoll(true));
+  }
+
+  @Test
+  void epollTransportFailsWithoutEpoll() {
+    ServerExecution execution = new ServerExecution(Map.of("GRPC_TRANSPORT", "epoll"));
+
+    assertTrue(execution.useEpoll(true));
+    assertThrows(IllegalStateException.class, () -> execution.useEpoll(false));
+  }
+
+  @Test
+  void configuresValidSettings() {
+    ServerExecution execution =
+        new ServerExecution(
+            Map.of(
+                "GRPC_EXECUTOR", "fixed",
+                "GRPC_EXECUTOR_THREADS", "2",
+                "GRPC_PERMIT_KEEPALIVE_TIME_SECONDS", "30",
+                "GRPC_PERMIT_KEEPALIVE_WITHOUT_CALLS", "TRUE"));
+
+    try {
+      assertDoesNotThrow(() -> execution.configure(NettyServerBuilder.forPort(0)));
+    } finally {
+      execution.shutdown();
+    }
+  }
+
+  @Test
+  void rejectsInvalidKeepAliveWithoutCalls() {
+    ServerExecution execution =
+        new ServerExecution(Map.of("GRPC_PERMIT_KEEPALIVE_WITHOUT_CALLS", "yes"));
+
+    IllegalArgumentException error =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> execution.configure(NettyServerBuilder.forPort(0)));
+    assertEquals("Invalid GRPC_PERMIT_KEEPALIVE_WITHOUT_CALLS: yes", error.getMessage());
+  }
+
+  @Test
+  void rejectsInvalidNumbers() {
+    ServerExecution execution = new ServerExecution(Map.of("GRPC_FLOW_CONTROL_WINDOW", "1MB"));
+
+    IllegalArgumentException error =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> execution.configure(NettyServerBuilder.forPort(0)));
+    assertEquals("Invalid GRPC_FLOW_CONTROL_WINDOW: 1MB", error.getMessage());
+  }
+}